@@ -0,0 +1,40 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+/**
+ * 컨트롤러 공통 예외 매핑.
+ *
+ * - 서비스 계층은 잘못된 입력(간격 문자열, 구간, 파라미터 조합 등)을 IllegalArgumentException으로 알린다 → 400
+ *   (매핑이 없으면 500으로 떨어짐)
+ * - sendError로 넘겨 ResponseStatusException과 같은 기본 오류 본문(/error)으로 응답
+ * - 직렬화 도중 던진 ResponseStatusException(예: 힙 밖 결과가 방금 해제됨 → 410)은 Jackson이 감싸 500이 되므로 꺼내서 그 상태로
+ * - 스트리밍 응답처럼 이미 커밋된 뒤라면 상태를 바꿀 수 없으므로 그대로 다시 던진다
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public void badRequest(IllegalArgumentException ex, HttpServletResponse response) throws IOException {
+        if (response.isCommitted()) throw ex;
+        response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+    }
+
+    @ExceptionHandler(HttpMessageNotWritableException.class)
+    public void notWritable(HttpMessageNotWritableException ex, HttpServletResponse response) throws IOException {
+        for (Throwable t = ex.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof ResponseStatusException rse && !response.isCommitted()) {
+                response.sendError(rse.getStatusCode().value(), rse.getReason());
+                return;
+            }
+        }
+        throw ex; // 그 외 직렬화 실패는 기본 처리(500)
+    }
+}
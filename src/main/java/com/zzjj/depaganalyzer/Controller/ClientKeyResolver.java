@@ -0,0 +1,91 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 쿼터/속도 제한 공용 클라이언트 키.
+ *
+ * - 기본은 직접 연결한 상대의 원격 주소 (클라이언트가 마음대로 바꿀 수 없음)
+ * - X-Client-Id 헤더는 stabilisim.clients.trustedProxies(IP 또는 CIDR, 쉼표 구분)에서 온 요청일 때만 믿는다
+ *   → 인증 프록시/게이트웨이가 인증된 주체로 헤더를 덮어쓰는 배치에서만 켤 것.
+ *     아무나 헤더를 바꿔 가며 새 버킷/새 쿼터를 받는 우회를 막는다
+ * - 길이는 64자로 자른다 (집계 맵 키)
+ */
+@Component
+public class ClientKeyResolver {
+
+    static final String CLIENT_HEADER = "X-Client-Id";
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    // 주소 범위 하나 (prefix 비트까지 같으면 일치)
+    private record Cidr(byte[] network, int prefix) {
+        boolean contains(byte[] addr) {
+            if (addr.length != network.length) return false;
+            int full = prefix / 8, rest = prefix % 8;
+            for (int i = 0; i < full; i++) if (addr[i] != network[i]) return false;
+            if (rest == 0) return true;
+            int mask = 0xFF << (8 - rest) & 0xFF;
+            return (addr[full] & mask) == (network[full] & mask);
+        }
+    }
+
+    private final List<Cidr> trusted;
+
+    public ClientKeyResolver(@Value("${stabilisim.clients.trustedProxies:}") List<String> trustedProxies) {
+        List<Cidr> list = new ArrayList<>();
+        for (String entry : trustedProxies) {
+            if (entry != null && !entry.isBlank()) list.add(parse(entry.strip()));
+        }
+        this.trusted = List.copyOf(list);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        String header = request.getHeader(CLIENT_HEADER);
+        String id = header != null && !header.isBlank() && isTrusted(remote) ? header.strip() : remote;
+        return id.length() > MAX_CLIENT_ID_LENGTH ? id.substring(0, MAX_CLIENT_ID_LENGTH) : id;
+    }
+
+    private boolean isTrusted(String remote) {
+        if (trusted.isEmpty() || remote == null) return false;
+        byte[] addr = literal(remote);
+        if (addr == null) return false;
+        for (Cidr c : trusted) if (c.contains(addr)) return true;
+        return false;
+    }
+
+    private static Cidr parse(String entry) {
+        int slash = entry.indexOf('/');
+        String host = slash < 0 ? entry : entry.substring(0, slash);
+        byte[] network = literal(host);
+        if (network == null) throw new IllegalArgumentException("trusted proxy must be an IP address or CIDR: " + entry);
+        int prefix = network.length * 8;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(entry.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid CIDR prefix: " + entry, e);
+            }
+            if (prefix < 0 || prefix > network.length * 8) throw new IllegalArgumentException("invalid CIDR prefix: " + entry);
+        }
+        return new Cidr(network, prefix);
+    }
+
+    // IP 리터럴만 해석 (호스트 이름은 DNS 조회가 일어나므로 받지 않음)
+    private static byte[] literal(String s) {
+        if (s.indexOf('.') < 0 && s.indexOf(':') < 0) return null;
+        if (!s.chars().allMatch(c -> Character.digit(c, 16) >= 0 || c == '.' || c == ':')) return null;
+        try {
+            return InetAddress.getByName(s).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.zzjj.depaganalyzer.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
+import com.zzjj.depaganalyzer.dto.metrics.OhlcResponse;
 import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.ResamplingService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 
@@ -11,19 +19,88 @@ import java.time.Instant;
 @RequestMapping("/api/assets")
 public class MetricsController {
 
+    // NDJSON 스트리밍 시 몇 줄마다 소켓으로 밀어낼지
+    private static final int FLUSH_EVERY = 1024;
+
     private final MetricsService metricsService;
+    private final ResamplingService resamplingService;
+    private final ObjectMapper objectMapper;
 
-    public MetricsController(MetricsService metricsService) {
+    public MetricsController(MetricsService metricsService, ResamplingService resamplingService,
+                             ObjectMapper objectMapper) {
         this.metricsService = metricsService;
+        this.resamplingService = resamplingService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{symbol}/metrics")
     public AssetMetricsResponse metrics(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1h") String interval,
+            @RequestParam(required = false) String window,
+            @RequestParam(required = false) String step
+    ) {
+        return metricsService.getMetrics(symbol, from, to, interval, window, step);
+    }
+
+    /**
+     * 임의 간격 OHLC 리샘플링 (예: interval=15s | 4h | 1w | PT15M, gaps=skip | flag | fill).
+     * - 원본 틱을 버킷으로 모아 OHLC/TWAP + 시간가중 지표 반환
+     */
+    @GetMapping("/{symbol}/ohlc")
+    public OhlcResponse ohlc(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1h") String interval,
+            @RequestParam(defaultValue = "flag") String gaps
+    ) {
+        return resamplingService.resample(symbol, from, to, interval, gaps);
+    }
+
+    /**
+     * 스트리밍 버전 (Accept: application/x-ndjson).
+     * - 한 줄에 샘플 하나: {"t":"...","price":...}  (데이터 소스에서 읽는 즉시 소켓으로 기록, 보관 안 함)
+     * - 마지막 줄(trailer): {"symbol":...,"interval":...,"count":N,"metrics":{...}}
+     * - 요청당 메모리는 구간 길이와 무관하게 일정
+     * - interval은 본문을 쓰기 전에 검증 (스트리밍이 시작되면 200이 이미 나가 400으로 바꿀 수 없음)
+     */
+    @GetMapping(value = "/{symbol}/metrics", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> metricsStream(
             @PathVariable String symbol,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @RequestParam(defaultValue = "1h") String interval
     ) {
-        return metricsService.getMetrics(symbol, from, to, interval);
+        metricsService.checkInterval(interval);
+        StreamingResponseBody body = out -> {
+            JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+            gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            gen.setRootValueSeparator(new SerializedString("\n"));
+
+            long[] count = {0};
+            var metrics = metricsService.scanMetrics(symbol, from, to, interval, (t, price) -> {
+                gen.writeStartObject();
+                gen.writeStringField("t", Instant.ofEpochSecond(t).toString());
+                gen.writeNumberField("price", price);
+                gen.writeEndObject();
+                if (++count[0] % FLUSH_EVERY == 0) gen.flush();
+            });
+
+            // trailer: 요약 지표
+            gen.writeStartObject();
+            gen.writeStringField("symbol", symbol);
+            gen.writeStringField("interval", interval);
+            gen.writeNumberField("count", count[0]);
+            gen.writeObjectField("metrics", metrics);
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+            gen.close(); // 버퍼 비우기 (AUTO_CLOSE_TARGET=false라 out은 닫지 않음)
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
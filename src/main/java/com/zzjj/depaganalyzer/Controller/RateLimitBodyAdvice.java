@@ -0,0 +1,76 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.service.quota.QuotaExceededException;
+import com.zzjj.depaganalyzer.service.ratelimit.GcraRateLimiter;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * 시뮬 요청 본문의 steps로 속도 제한 비용 가중.
+ *
+ * - 규칙에 stepsPerToken이 있으면 ceil(steps / stepsPerToken) 토큰을 인터셉터가 잡아 둔 같은 버킷에서 더 차감
+ *   (요청당 1토큰은 이미 인터셉터가 차감). 합이 burst를 넘지 않게 burst - 1로 잘라, 큰 잡도 버킷이 다 차면 들어갈 수 있게
+ * - 추가 차감이 거절되면 인터셉터의 1토큰도 돌려준다 → 429로 끝난 요청은 버킷에서 아무것도 쓰지 않음
+ *   (요청 하나의 비용 1 + steps 비용이 통째로 통과하거나 통째로 거절되는 것과 같다)
+ * - steps: 단일 시뮬은 steps, 배치는 base.steps × members, 민감도/앙상블은 base.steps (경로 수는 실행 중에 정해짐)
+ * - @Valid 검증보다 먼저 불리므로 비어 있는 필드는 비용 0으로 본다 (잘못된 요청은 검증이 400으로 처리)
+ */
+@ControllerAdvice
+public class RateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final GcraRateLimiter limiter;
+
+    public RateLimitBodyAdvice(GcraRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter parameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == SimulationRequest.class || targetType == BatchRequest.class
+                || targetType == SensitivityRequest.class || targetType == EnsembleRequest.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) return body;
+        var request = attrs.getRequest();
+        if (!(request.getAttribute(RateLimitInterceptor.LIMIT_ATTR) instanceof GcraRateLimiter.Limit limit)) return body;
+        long perToken = limit.rule().stepsPerToken();
+        long steps = steps(body);
+        if (perToken <= 0 || steps <= 0) return body;
+
+        long cost = Math.min(limit.rule().burst() - 1, (steps + perToken - 1) / perToken);
+        if (cost <= 0) return body;
+        String client = (String) request.getAttribute(RateLimitInterceptor.CLIENT_ATTR);
+        try {
+            RateLimitInterceptor.charge(limiter, limit, client, cost);
+        } catch (QuotaExceededException e) {
+            limiter.refund(limit, client, 1);
+            throw e;
+        }
+        return body;
+    }
+
+    static long steps(Object body) {
+        return switch (body) {
+            case SimulationRequest r -> r.steps();
+            case BatchRequest r when r.base() != null && r.members() != null -> (long) r.base().steps() * r.members();
+            case SensitivityRequest r when r.base() != null -> r.base().steps();
+            case EnsembleRequest r when r.base() != null -> r.base().steps();
+            case null, default -> 0;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import com.zzjj.depaganalyzer.service.quota.QuotaExceededException;
+import com.zzjj.depaganalyzer.service.ratelimit.GcraRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컨트롤러 앞단 속도 제한 (/api/**).
+ *
+ * - 요청마다 (처음 맞는 규칙, 클라이언트) 버킷에서 1토큰 차감. 부족하면 429 + Retry-After (컨트롤러까지 가지 않음)
+ * - 규칙은 핸들러 매핑과 같은 조회 경로(컨텍스트 경로 제외, 디코딩, ;경로 파라미터 무시)로 고른다
+ *   → 인코딩/경로 파라미터로 URI 문자열만 바꿔 규칙을 비껴가는 요청도 같은 규칙에 걸림
+ * - 클라이언트 키는 쿼터와 같다 (ClientKeyResolver: 원격 주소, 신뢰 프록시에서 온 요청만 X-Client-Id)
+ * - 본문의 steps에 따른 추가 비용은 본문을 읽은 뒤 RateLimitBodyAdvice가 같은 버킷에서 차감 (거절되면 이 1토큰도 환불)
+ *   (그래서 적용한 규칙/클라이언트를 요청 속성에 남겨 둔다)
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String LIMIT_ATTR = RateLimitInterceptor.class.getName() + ".limit";
+    static final String CLIENT_ATTR = RateLimitInterceptor.class.getName() + ".client";
+
+    private final GcraRateLimiter limiter;
+    private final ClientKeyResolver clients;
+
+    public RateLimitInterceptor(GcraRateLimiter limiter, ClientKeyResolver clients) {
+        this.limiter = limiter;
+        this.clients = clients;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!limiter.enabled()) return true;
+        var path = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : RequestPath.parse(request.getRequestURI(), request.getContextPath()); // 핸들러 매핑이 캐시해 두지 않은 경우
+        var limit = limiter.match(request.getMethod(), path.pathWithinApplication());
+        if (limit == null) return true;
+
+        String client = clients.resolve(request);
+        charge(limiter, limit, client, 1);
+        request.setAttribute(LIMIT_ATTR, limit);
+        request.setAttribute(CLIENT_ATTR, client);
+        return true;
+    }
+
+    /** cost 토큰 차감, 부족하면 429 (기다려도 안 되는 크기면 Retry-After 없음) */
+    static void charge(GcraRateLimiter limiter, GcraRateLimiter.Limit limit, String client, long cost) {
+        long wait = limiter.acquire(limit, client, cost);
+        if (wait == 0) return;
+        var rule = limit.rule();
+        if (wait == GcraRateLimiter.NEVER) {
+            throw new QuotaExceededException("request cost " + cost + " exceeds the burst of rate limit '"
+                    + rule.name() + "' (" + rule.burst() + ")", 0);
+        }
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        throw new QuotaExceededException("rate limit '" + rule.name() + "' exceeded for client '" + client
+                + "' (" + rule.perSecond() + "/s, burst " + rule.burst() + ")", seconds);
+    }
+}
@@ -0,0 +1,21 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// /api/** 앞에 속도 제한 인터셉터 등록 (actuator/정적 리소스는 제외)
+@Configuration
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimit;
+
+    public RateLimitWebConfig(RateLimitInterceptor rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimit).addPathPatterns("/api/**");
+    }
+}
@@ -4,24 +4,62 @@ import com.zzjj.depaganalyzer.dto.report.ReportRequest;
 import com.zzjj.depaganalyzer.dto.report.ReportResponse;
 import com.zzjj.depaganalyzer.service.ReportsService;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Files;
 
 @RestController
 @RequestMapping("/api/reports")
 public class ReportsController {
     private final ReportsService reportsService;
 
-    public ReportsController(ReportsService reportsService) {
+    // @Lazy: faststart 프로파일은 리포트 빈 초기화를 준비 이후로 미루므로 (DeferredBeanInitializer) 프록시로 주입
+    public ReportsController(@Lazy ReportsService reportsService) {
         this.reportsService = reportsService;
     }
 
+    // 캐시된 아티팩트가 있으면 201(READY), 렌더링 대기/진행 중이면 202
     @PostMapping
     public ResponseEntity<ReportResponse> create(@Valid @RequestBody ReportRequest req) {
         var res = reportsService.createReport(req);
-        return ResponseEntity.status(201).body(res);
+        int status = res.status() == ReportResponse.Status.READY ? 201 : 202;
+        return ResponseEntity.status(status).body(res);
+    }
+
+    @GetMapping("/{id}")
+    public ReportResponse get(@PathVariable String id) {
+        return reportsService.getReport(id);
+    }
+
+    /**
+     * 아티팩트 다운로드.
+     * - READY: 파일을 그대로 스트리밍 (Range 요청도 스프링이 처리)
+     * - QUEUED/RUNNING: 202 + 상태 본문 (클라이언트는 Retry-After 후 재시도)
+     * - FAILED: 500 + 상태 본문, 없음/만료: 404
+     */
+    @GetMapping("/{id}/artifact")
+    public ResponseEntity<?> artifact(@PathVariable String id) {
+        var a = reportsService.getArtifact(id);
+        return switch (a.report().status()) {
+            case QUEUED, RUNNING -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(a.report());
+            case FAILED -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(a.report());
+            case READY -> {
+                if (!Files.exists(a.path())) yield ResponseEntity.notFound().build(); // 디스크에서 먼저 지워진 경우
+                Resource file = new FileSystemResource(a.path());
+                yield ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(a.contentType()))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + a.fileName() + "\"")
+                        .body(file);
+            }
+        };
     }
 }
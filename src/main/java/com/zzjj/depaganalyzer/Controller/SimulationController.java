@@ -1,8 +1,14 @@
 package com.zzjj.depaganalyzer.Controller;
 
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.CompareRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityRequest;
 import com.zzjj.depaganalyzer.dto.sim.SimulationCreateResponse;
+import com.zzjj.depaganalyzer.dto.sim.SimulationComparison;
 import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
 import com.zzjj.depaganalyzer.service.SimulationsService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,19 +17,60 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/simulations")
 public class SimulationController {
     private final SimulationsService simulationsService;
+    private final ClientKeyResolver clients; // 쿼터/사용량 집계 키 (속도 제한과 같은 키)
 
-    public SimulationController(SimulationsService simulationsService) {
+    public SimulationController(SimulationsService simulationsService, ClientKeyResolver clients) {
         this.simulationsService = simulationsService;
+        this.clients = clients;
     }
 
+    // 클라이언트 쿼터 초과 시 429 (+ Retry-After)
     @PostMapping
-    public ResponseEntity<SimulationCreateResponse> create(@Valid @RequestBody SimulationRequest req) {
-        var created = simulationsService.createSimulation(req);
+    public ResponseEntity<SimulationCreateResponse> create(@Valid @RequestBody SimulationRequest req,
+                                                           HttpServletRequest http) {
+        var created = simulationsService.createSimulation(req, clients.resolve(http));
         return ResponseEntity.accepted().body(created);
     }
 
+    // 파라미터 민감도 분석 (결과는 GET /{id}로 조회)
+    @PostMapping("/sensitivity")
+    public ResponseEntity<SimulationCreateResponse> sensitivity(@Valid @RequestBody SensitivityRequest req,
+                                                                HttpServletRequest http) {
+        var created = simulationsService.createSensitivity(req, clients.resolve(http));
+        return ResponseEntity.accepted().body(created);
+    }
+
+    // 적응형 앙상블 (목표 신뢰구간 반폭 도달 시 조기 종료, 결과는 GET /{id})
+    @PostMapping("/ensemble")
+    public ResponseEntity<SimulationCreateResponse> ensemble(@Valid @RequestBody EnsembleRequest req,
+                                                             HttpServletRequest http) {
+        var created = simulationsService.createEnsemble(req, clients.resolve(http));
+        return ResponseEntity.accepted().body(created);
+    }
+
+    // 분산 배치 (같은 설정 × members 시드를 샤드로 나눠 워커들이 실행, 결과는 GET /{id})
+    @PostMapping("/batch")
+    public ResponseEntity<SimulationCreateResponse> batch(@Valid @RequestBody BatchRequest req,
+                                                          HttpServletRequest http) {
+        var created = simulationsService.createBatch(req, clients.resolve(http));
+        return ResponseEntity.accepted().body(created);
+    }
+
+    // 완료된 시뮬 2~50개 비교 (스텝 정렬 엔벨로프 + 기준 대비 발산/지표 차이, 전체 시계열 대신 요약만 반환)
+    @PostMapping("/compare")
+    public SimulationComparison compare(@Valid @RequestBody CompareRequest req) {
+        return simulationsService.compareSimulations(req);
+    }
+
     @GetMapping("/{id}")
     public Object get(@PathVariable String id) {
         return simulationsService.getSimulation(id);
     }
+
+    // 완료된 결과 삭제 (저장 바이트 쿼터 반환, 실행 중이면 409)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        simulationsService.deleteSimulation(id);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -11,6 +11,7 @@ import java.util.List;
  * 	•	어떤 간격(interval, 예: 1m, 5m, 1h) 으로 데이터를 모아서
  * 	•	계산된 지표(metrics) 와
  * 	•	시계열 데이터(samples) 를 같이 담아주는 응답 객체.
+ * 	•	window 파라미터를 준 경우 롤링 지표 시계열(rolling)도 함께 담는다 (없으면 null).
  * */
 public record AssetMetricsResponse(
         String symbol,
@@ -18,7 +19,8 @@ public record AssetMetricsResponse(
         Instant to,
         String interval,
         Metrics metrics,
-        List<Sample> samples
+        List<Sample> samples,
+        List<RollingSample> rolling
 ) {
     public record Metrics(
             Double avgDeviation,
@@ -30,4 +32,7 @@ public record AssetMetricsResponse(
     public record PriceSummary(Double open, Double high, Double low, Double close) {}
 
     public record Sample(Instant t, Double price) {}
+
+    // 윈도우 끝 시각 t 기준, 직전 window 구간의 롤링 지표
+    public record RollingSample(Instant t, Double avgDeviation, Double volatility, Double pegUptime) {}
 }
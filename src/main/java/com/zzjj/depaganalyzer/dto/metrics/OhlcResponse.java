@@ -0,0 +1,51 @@
+package com.zzjj.depaganalyzer.dto.metrics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 리샘플링 결과: 원본 틱을 interval 버킷(에포크 정렬)으로 모은 OHLC 시계열 + 시간가중 지표.
+ * 	•	gaps: 빈 버킷 처리 방식 (SKIP | FLAG | FILL)
+ * 	•	buckets: 버킷 시작 시각 오름차순
+ * 	•	metrics: 구간 전체의 시간가중 지표 (버킷 단위 변동성은 interval 한 칸 기준으로 정규화)
+ * 	•	coverage: 데이터가 있는 버킷 수 / 전체 버킷 수
+ */
+public record OhlcResponse(
+        String symbol,
+        Instant from,
+        Instant to,
+        String interval,
+        long intervalSeconds,
+        GapPolicy gaps,
+        List<Bucket> buckets,
+        Metrics metrics,
+        Coverage coverage
+) {
+    public enum GapPolicy {
+        SKIP,   // 빈 버킷은 응답에서 생략
+        FLAG,   // 빈 버킷도 내보내되 OHLC를 비우고 kind=GAP
+        FILL    // 직전 종가로 채우고 kind=FILLED (시간가중 지표에도 그 가격으로 반영)
+    }
+
+    public enum Kind { DATA, GAP, FILLED }
+
+    /**
+     * 버킷 하나.
+     * - twap: 버킷 안에서 가격이 유지된 시간으로 가중한 평균 (직전 버킷 종가가 첫 틱 전까지 이어진다고 봄)
+     * - vwap: 거래량이 있는 소스에서만 채움 (현재 소스는 가격만 제공 → 생략)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Bucket(Instant t, Kind kind, Double open, Double high, Double low, Double close,
+                         Double twap, Double vwap, int ticks) {}
+
+    /**
+     * - avgDeviation / pegUptime: 가격 유지 시간 가중 (틱이 몰린 구간이 과대 반영되지 않음)
+     * - volatility: 실제 데이터 버킷 종가 간 로그수익률을 √(건너뛴 버킷 수)로 나눠 interval 한 칸 기준으로 맞춘 모표준편차
+     * - coveredSeconds: 가격이 정의된(관측/채움) 시간 합
+     */
+    public record Metrics(Double twap, Double avgDeviation, Double volatility, Double pegUptime, long coveredSeconds) {}
+
+    public record Coverage(int buckets, int dataBuckets, int gapBuckets, long ticks, int partitions) {}
+}
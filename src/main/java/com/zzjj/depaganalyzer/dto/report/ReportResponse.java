@@ -2,9 +2,18 @@ package com.zzjj.depaganalyzer.dto.report;
 
 import java.time.Instant;
 
+/**
+ * 	•	리포트 생성은 비동기: POST 직후엔 QUEUED/RUNNING, 렌더링이 끝나면 READY.
+ * 	•	url: 아티팩트 다운로드 경로 (READY 전에 호출하면 202)
+ * 	•	expiresAt: 이 시각 이후 아티팩트는 삭제되고 같은 요청은 다시 렌더링된다.
+ * 	•	error: FAILED일 때만 원인 메시지
+ * */
 public record ReportResponse (
         String reportId,
+        Status status,
         String url,
-        Instant expiresAt
+        Instant expiresAt,
+        String error
 ) {
+    public enum Status { QUEUED, RUNNING, READY, FAILED }
 }
@@ -0,0 +1,22 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * •	분산 배치 시뮬 요청: 같은 설정을 members개 시드로 돌려 지표 분포를 요약 (여러 워커 JVM에 샤드로 분산).
+ * 	•	base(필수): 기준 시뮬 설정 (replay 미지원, seed는 멤버 시드 스트림의 시작점)
+ * 	•	members(필수): 실행할 시드 수
+ * 	•	shardSize(기본 stabilisim.cluster.shardSize): 샤드 하나에 담는 멤버 수 (샤드 수가 너무 많으면 자동으로 키움)
+ * 	•	confidence(기본 0.95): 평균 신뢰구간 수준
+ * */
+public record BatchRequest(
+        @NotNull @Valid SimulationRequest base,
+        @NotNull @Min(1) @Max(100_000_000) Integer members,
+        @Min(1) @Max(1_000_000) Integer shardSize,
+        @DecimalMin("0.5") @DecimalMax("0.999") Double confidence
+) {}
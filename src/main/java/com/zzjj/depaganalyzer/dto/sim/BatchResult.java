@@ -0,0 +1,33 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * •	분산 배치 시뮬 상태/결과 (GET /api/simulations/{id}, 어느 API 노드에서 조회해도 같음).
+ * 	•	진행 중에도 지금까지 끝난 샤드로 집계한 중간 지표를 보여준다
+ * 	•	metrics: 지표별 평균 신뢰구간 + 최소/최대 (샤드 요약을 병렬 결합식으로 합친 값)
+ * 	•	workers: 결과를 낸 워커 식별자 목록
+ * 	•	샤드가 하나라도 실패하면 FAILED (나머지 샤드로 집계한 지표는 그대로 제공)
+ * */
+public record BatchResult(
+        String id,
+        Status status,
+        int steps,
+        int members,
+        int shards,
+        int shardsDone,
+        int shardsFailed,
+        long membersDone,
+        double progress,
+        Map<SensitivityResult.Metric, MetricSummary> metrics,
+        List<String> workers,
+        Instant createdAt,
+        Instant finishedAt,
+        String error
+) {
+    public enum Status { QUEUED, RUNNING, FINISHED, FAILED }
+
+    public record MetricSummary(SensitivityResult.Estimate mean, Double min, Double max) {}
+}
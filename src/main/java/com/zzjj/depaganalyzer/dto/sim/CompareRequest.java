@@ -0,0 +1,23 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * •	완료된 시뮬 여러 개 비교 요청.
+ * 	•	ids(필수, 2~50개): 비교할 시뮬 ID. 모두 FINISHED인 단일 시뮬 결과여야 한다.
+ * 	•	reference(선택): 차이/발산 기준이 되는 시뮬 ID (기본 ids의 첫 번째)
+ * 	•	points(선택, 기본 500): 엔벨로프 밴드 개수 (스텝 구간을 이 개수로 나눠 요약)
+ * 	•	divergenceThreshold(선택, 기본 0.01): |가격 - 기준 가격|이 이 값을 처음 넘는 스텝을 발산 지점으로 본다
+ * */
+public record CompareRequest(
+        @NotNull @Size(min = 2, max = 50) List<String> ids,
+        String reference,
+        @Min(2) @Max(10000) Integer points,
+        @DecimalMin(value = "0", inclusive = false) Double divergenceThreshold
+) {}
@@ -0,0 +1,40 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+/**
+ * •	적응형 몬테카를로 앙상블 요청: 목표 정밀도에 도달할 때까지만 경로(시드)를 늘려 간다.
+ * 	•	base(필수): 기준 시뮬 설정 (replay 미지원, seed는 앙상블 시드 스트림의 시작점)
+ * 	•	target(필수): 수렴 조건. 예) maxDrawdown p95의 신뢰구간 반폭 < 1e-4
+ * 	•	waveSize(기본 64): 한 번에 배치하는 경로 수 (웨이브 단위로 수렴 판정)
+ * 	•	minPaths(기본 128) / maxPaths(기본 100000): 판정 시작 최소 경로 수 / 상한
+ * 	•	quantiles(기본 [0.05, 0.5, 0.95]): 결과에 보고할 분위수 (지표마다)
+ * 	•	confidence(기본 0.95): 신뢰구간 수준
+ * */
+public record EnsembleRequest (
+        @NotNull @Valid SimulationRequest base,
+        @NotNull @Valid Target target,
+        @Min(1) @Max(10_000) Integer waveSize,
+        @Min(2) Integer minPaths,
+        @Min(2) @Max(10_000_000) Integer maxPaths,
+        List<Double> quantiles,
+        @DecimalMin("0.5") @DecimalMax("0.999") Double confidence
+) {
+    /**
+     * @param quantile  null이면 평균의 신뢰구간, 값이 있으면 해당 분위수의 신뢰구간(순서통계량 기반)
+     * @param halfWidth 신뢰구간 반폭이 이 값 미만이면 수렴으로 보고 중단
+     */
+    public record Target(
+            @NotNull SensitivityResult.Metric metric,
+            @DecimalMin(value = "0", inclusive = false) @DecimalMax(value = "1", inclusive = false) Double quantile,
+            @NotNull @Positive Double halfWidth
+    ) {}
+}
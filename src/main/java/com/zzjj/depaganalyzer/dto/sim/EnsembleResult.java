@@ -0,0 +1,35 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * •	적응형 앙상블 결과 (GET /api/simulations/{id}로 조회, 진행 중엔 SimulationStatus).
+ * 	•	pathsUsed: 집계에 실제로 들어간 경로 수 (웨이브 경계에서 끊기므로 waveSize의 배수)
+ * 	•	pathsCancelled: 수렴 후 취소된(배치됐지만 끝나기 전이던) 경로 수
+ * 	•	pathsDiscarded: 수렴 판정 전에 이미 끝났지만 집계하지 않은 경로 수
+ * 	•	converged: 목표 정밀도 도달 여부 (false면 maxPaths에서 멈춤)
+ * 	•	targetHalfWidth: 마지막 판정 시점의 목표 지표 신뢰구간 반폭
+ * 	•	metrics: 지표별 평균(신뢰구간) + 분위수(순서통계량 신뢰구간), t-digest 기반
+ * */
+public record EnsembleResult (
+        String id,
+        SimulationResult.Status status,
+        int steps,
+        EnsembleRequest.Target target,
+        boolean converged,
+        Double targetHalfWidth,
+        int pathsUsed,
+        int pathsCancelled,
+        int pathsDiscarded,
+        int waves,
+        Map<SensitivityResult.Metric, MetricSummary> metrics,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+    public record MetricSummary(SensitivityResult.Estimate mean, List<QuantileEstimate> quantiles) {}
+
+    public record QuantileEstimate(double q, Double value, Double ciLow, Double ciHigh) {}
+}
@@ -0,0 +1,15 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+/**
+ * •	잡 하나가 쓴 자원 (SimulationResult.usage, 실행 중이면 SimulationStatus.usage에 중간값).
+ * 	•	clientId: 잡을 제출한 클라이언트 (원격 주소, 신뢰 프록시에서 온 요청은 X-Client-Id 헤더) — 쿼터 집계 키
+ * 	•	cpuTimeMs: 잡 스레드의 CPU 시간 (큐 대기/데모 sleep은 포함 안 됨, JVM이 지원하지 않으면 null)
+ * 	•	allocatedBytes: 잡 스레드가 힙에 할당한 바이트 누계 (GC로 회수된 것 포함, 미지원이면 null)
+ * 	•	resultBytes: 저장소에 남은 결과의 추정 크기 (객체 헤더/필드 기준 근사, 실행 중이면 null)
+ * */
+public record ResourceUsage (
+        String clientId,
+        Double cpuTimeMs,
+        Long allocatedBytes,
+        Long resultBytes
+) { }
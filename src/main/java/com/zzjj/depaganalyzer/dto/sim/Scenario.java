@@ -1,16 +1,30 @@
 package com.zzjj.depaganalyzer.dto.sim;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 /**
  * 	•	시뮬 중간에 발생시키는 이벤트:
  * 	•	t(시점 step), type(REDEEM_SHOCK, COLLATERAL_DROP, ORACLE_LAG, FEE_CHANGE), value(강도/값).
  * 	•	예) t=500에 REDEEM_SHOCK로 0.25(25% 환매).
+ * 	•	선택 필드:
+ * 	    - duration: 지속 스텝 수. REDEEM_SHOCK/COLLATERAL_DROP은 같은 총량을 duration 스텝에 나눠 적용(램프),
+ * 	      FEE_CHANGE는 현재 수수료에서 value까지 선형 이동, ORACLE_LAG는 duration 동안만 지연 후 원래 값 복귀
+ * 	    - repeatEvery / repeatCount: repeatEvery 스텝마다 반복 (repeatCount 없으면 시뮬 끝까지)
+ * 	•	같은 t에 여러 시나리오가 있으면 요청 순서대로 모두 적용.
  * */
 public record Scenario (
         @NotNull Integer t,
         @NotNull ScenarioType type,
-        @NotNull Double value
+        @NotNull Double value,
+        @Min(1) Integer duration,
+        @Min(1) Integer repeatEvery,
+        @Min(1) Integer repeatCount
 ) {
     public enum ScenarioType { REDEEM_SHOCK, COLLATERAL_DROP, ORACLE_LAG, FEE_CHANGE }
+
+    /** 단발성 시나리오 (기존 3필드 형태) */
+    public Scenario(Integer t, ScenarioType type, Double value) {
+        this(t, type, value, null, null, null);
+    }
 }
@@ -0,0 +1,28 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * •	민감도 분석 요청: base 시뮬 설정에서 SimParams 필드별로 ±섭동한 쌍 시뮬을 돌려 유한차분 민감도를 추정.
+ * 	•	base(필수): 기준 시뮬 설정 (replay는 지원하지 않음)
+ * 	•	params(선택): 분석할 파라미터 목록 (비우면 전체)
+ * 	•	relStep(선택, 기본 0.05): 섭동 크기 = relStep × max(|값|, 파라미터별 최소 스케일)
+ * 	•	ensemble(선택, 기본 32): 시드 개수. 같은 시드로 기준/섭동 런을 돌려(공통 난수) 차분의 분산을 줄인다.
+ * 	•	confidence(선택, 기본 0.95): 신뢰구간 수준
+ * */
+public record SensitivityRequest (
+        @NotNull @Valid SimulationRequest base,
+        List<Param> params,
+        @DecimalMin(value = "0", inclusive = false) @DecimalMax("0.5") Double relStep,
+        @Min(2) @Max(4096) Integer ensemble,
+        @DecimalMin("0.5") @DecimalMax("0.999") Double confidence
+) {
+    public enum Param { LTV, REDEEM_FEE, ORACLE_LAG_SEC, INIT_SUPPLY, INIT_RESERVE_CASH, INIT_RESERVE_COLLATERAL }
+}
@@ -0,0 +1,42 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * •	민감도 분석 결과 (GET /api/simulations/{id}로 조회, 진행 중엔 SimulationStatus).
+ * 	•	baseline: 섭동 없는 기준 런의 지표 (앙상블 평균 + 신뢰구간)
+ * 	•	sensitivities: 파라미터별 d(지표)/d(파라미터) — 단위 변화당 지표 변화량
+ * 	•	scheme: 경계(ltv ∈ [0,1] 등)에 걸리면 중앙차분 대신 전진/후진 차분(기준 런 재사용)
+ * 	•	runs: 실제로 돌린 시뮬 횟수 = ensemble × (1 + 파라미터별 섭동 수)
+ * */
+public record SensitivityResult (
+        String id,
+        SimulationResult.Status status,
+        int steps,
+        int ensemble,
+        double relStep,
+        double confidence,
+        Map<Metric, Estimate> baseline,
+        List<ParamSensitivity> sensitivities,
+        long runs,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+    public enum Metric { AVG_DEVIATION, VOLATILITY, PEG_UPTIME, RECOVERY_TIME, MAX_DRAWDOWN }
+
+    public enum Scheme { CENTRAL, FORWARD, BACKWARD }
+
+    // n: 지표가 정의된(null이 아닌) 앙상블 멤버 수
+    public record Estimate(Double mean, Double stdErr, Double ciLow, Double ciHigh, int n) {}
+
+    public record ParamSensitivity(
+            SensitivityRequest.Param param,
+            double value,
+            double step,
+            Scheme scheme,
+            Map<Metric, Estimate> derivatives
+    ) {}
+}
@@ -1,8 +1,11 @@
 package com.zzjj.depaganalyzer.dto.sim;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * •	결과의 시계열 샘플 포인트: t, price, supply, reserveCash, reserveCollateral, pegDeviation.
  * 	•	긴 시계열은 나중에 페이징/다운샘플 고려.
+ * 	•	actualPrice: 리플레이 모드일 때 같은 스텝의 실제 가격 (그 외엔 null → 응답에서 생략)
  * */
 public record SeriesPoint (
         int t,
@@ -10,6 +13,7 @@ public record SeriesPoint (
         double supply,
         double reserveCash,
         double reserveCollateral,
-        double pegDeviation
+        double pegDeviation,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double actualPrice
 ) {
 }
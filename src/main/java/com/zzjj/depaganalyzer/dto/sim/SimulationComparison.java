@@ -0,0 +1,49 @@
+package com.zzjj.depaganalyzer.dto.sim;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+
+import java.util.List;
+
+/**
+ * •	시뮬 비교 결과: 전체 시계열 N개 대신 스텝 정렬된 가격 엔벨로프 요약 + 런별 발산/지표 차이.
+ * 	•	steps: 정렬된 스텝 구간 길이 (0 ~ 가장 긴 런의 마지막 t)
+ * 	•	bands: 스텝 구간을 points개로 나눈 밴드 (런이 하나도 없는 구간은 생략)
+ * 	•	firstSpreadBreachT: 런 간 가격 폭(max - min)이 divergenceThreshold를 처음 넘은 스텝 (없으면 null)
+ * 	•	runs: 요청 순서대로, 기준 런 대비 발산 지점/최대 차이/지표 차이
+ * 	•	시계열이 성기게 보관된 런(DOWNSAMPLED)은 점 사이를 직전 값으로 이어 정렬 (EVENTS_ONLY/METRICS_ONLY는 지표만 비교)
+ * */
+public record SimulationComparison(
+        String reference,
+        int steps,
+        double divergenceThreshold,
+        List<Band> bands,
+        Integer firstSpreadBreachT,
+        List<Run> runs
+) {
+    /**
+     * 스텝 [t, tEnd]의 요약.
+     * - min/max: 구간 안 모든 스텝·런 중 최저/최고 가격 (디페그 급락이 평균에 묻히지 않게)
+     * - median: 스텝별 런 간 중앙값의 구간 평균
+     * - spread: 구간 안 스텝별 (max - min)의 최댓값
+     */
+    public record Band(int t, int tEnd, double min, double median, double max, double spread, int runs) {}
+
+    /**
+     * - firstDivergenceT: 기준 런과의 가격 차가 임계값을 처음 넘은 스텝 (기준 런 자신/발산 없음이면 null)
+     * - maxAbsGap / maxAbsGapT: 두 런이 모두 있는 스텝 중 최대 |가격 차|와 그 스텝
+     * - delta: metrics - 기준 런 metrics (어느 쪽이든 null인 지표는 null)
+     */
+    public record Run(
+            String id,
+            SimParams params,
+            int points,
+            RiskMetrics metrics,
+            Integer firstDivergenceT,
+            Double maxAbsGap,
+            Integer maxAbsGapT,
+            MetricDelta delta
+    ) {}
+
+    public record MetricDelta(Double avgDeviation, Double volatility, Double pegUptime,
+                              Integer recoveryTime, Double maxDrawdown) {}
+}
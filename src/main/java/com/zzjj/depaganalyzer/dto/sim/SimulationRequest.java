@@ -1,9 +1,11 @@
 package com.zzjj.depaganalyzer.dto.sim;
 
 import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -15,6 +17,9 @@ import java.util.List;
  * 	•	seed(선택): 난수 재현용
  * 	•	params(필수): 모델 파라미터 묶음 (아래 SimParams)
  * 	•	scenarios(선택): 충격/정책 변경 이벤트 목록 (아래 Scenario)
+ * 	•	rolling(선택): 롤링 지표 출력 설정 (window 스텝 크기, step 출력 간격)
+ * 	•	replay(선택): 실제 시세 구간을 외생 가격/담보 드라이버로 흘려보내는 리플레이 모드
+ * 	•	retention(선택): 결과에 무엇을 남길지 (기본 FULL, 지표만 필요하면 METRICS_ONLY로 메모리 O(1))
  * 	•	@NotNull/@Min으로 입력 검증(잘못된 값 방지).
  * */
 public record SimulationRequest (
@@ -23,5 +28,40 @@ public record SimulationRequest (
         double dt,
         Integer seed,
         @NotNull SimParams params,
-        List<Scenario> scenarios
-) { }
+        List<@Valid Scenario> scenarios,
+        @Valid Rolling rolling,
+        @Valid Replay replay,
+        @Valid Retention retention
+) {
+    // window: 롤링 윈도우 크기(스텝 수), step: 몇 스텝마다 한 점씩 출력할지 (null이면 1)
+    public record Rolling(@Min(2) int window, @Min(1) Integer step) {}
+
+    /**
+     * 리플레이 설정: MarketDataSource의 symbol/[from, to]/interval 시계열을 스텝마다 하나씩 소비.
+     * - driver=PRICE      : 가우시안 소음 대신 실제 가격 변화분을 외생 충격으로 사용 (시작가 = 실제 첫 가격)
+     * - driver=COLLATERAL : 담보 가치를 실제 가격 경로에 연동 (하락분은 담보 하락 충격으로 작용)
+     * - 시계열이 steps보다 짧으면 시계열이 끝나는 시점에서 시뮬도 종료.
+     * - 리플레이 중에는 시뮬 가격의 0.95~1.05 데모 클램프를 적용하지 않는다 (실제 디페그 폭 재현).
+     */
+    public record Replay(
+            @NotNull String symbol,
+            @NotNull Instant from,
+            @NotNull Instant to,
+            String interval,
+            Driver driver
+    ) {
+        public enum Driver { PRICE, COLLATERAL }
+    }
+
+    /**
+     * 결과 보관 방식 (null이면 FULL). 지표(metrics)는 모든 모드에서 온라인으로 같은 값이 계산된다.
+     * - FULL         : 스텝마다 SeriesPoint + 이벤트 전부 (메모리 O(steps))
+     * - DOWNSAMPLED  : 스텝 구간 버킷별 가격 최소/최대 점만 약 points개 + 이벤트 (메모리 O(points), 디페그 극값 보존)
+     * - EVENTS_ONLY  : 시계열 없이 이벤트만
+     * - METRICS_ONLY : 시계열/이벤트 없이 지표만 (메모리 O(1))
+     * rolling/replay 요약은 요청했다면 모드와 무관하게 채워진다.
+     */
+    public record Retention(@NotNull Mode mode, @Min(2) Integer points) {
+        public enum Mode { FULL, DOWNSAMPLED, EVENTS_ONLY, METRICS_ONLY }
+    }
+}
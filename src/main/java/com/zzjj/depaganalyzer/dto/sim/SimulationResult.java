@@ -11,6 +11,10 @@ import java.util.List;
  * •	완료/실패 결과:
  * 	•	status=FINISHED/FAILED, modelType, params, scenarios, metrics(RiskMetrics), series(SeriesPoint[]), events, startedAt/finishedAt.
  * 	•	events: 시나리오/정책 발동 기록(로그 용도).
+ * 	•	rolling: 요청에 rolling 설정이 있을 때만 채워지는 롤링 지표 시계열.
+ * 	•	replay: 리플레이 모드일 때 실제 vs 시뮬 비교 요약 (metrics와 actualMetrics를 나란히 비교).
+ * 	•	retention: 적용된 결과 보관 방식 (series/events가 비었거나 성긴 이유를 클라이언트가 알 수 있게).
+ * 	•	usage: 잡이 쓴 CPU 시간/할당 바이트/저장 결과 크기 (어떤 잡이 비쌌는지, 쿼터 정산 근거).
  * */
 public record SimulationResult (
         String id,
@@ -21,9 +25,38 @@ public record SimulationResult (
         RiskMetrics metrics,
         List<SeriesPoint> series,
         List<SimEvent> events,
+        List<RollingPoint> rolling,
+        ReplayReport replay,
+        SimulationRequest.Retention retention,
         Instant startedAt,
-        Instant finishedAt
+        Instant finishedAt,
+        ResourceUsage usage
 ) {
     public enum Status { FINISHED, FAILED }
+
+    /** 자원 사용량만 채운 사본 (결과 크기는 결과를 다 만든 뒤에야 잴 수 있으므로) */
+    public SimulationResult withUsage(ResourceUsage usage) {
+        return new SimulationResult(id, status, modelType, params, scenarios, metrics, series, events, rolling,
+                replay, retention, startedAt, finishedAt, usage);
+    }
     public record SimEvent(int t, String kind, Object data) {}
+    public record RollingPoint(int t, Double avgDeviation, Double volatility, Double pegUptime) {}
+
+    /**
+     * 리플레이 비교 요약.
+     * - actualMetrics: 소비한 실제 가격 구간의 RiskMetrics (시뮬 metrics와 같은 정의)
+     * - *PriceGap: 스텝별 |시뮬 가격 - 실제 가격|의 평균/최대/RMSE
+     */
+    public record ReplayReport(
+            String symbol,
+            Instant from,
+            Instant to,
+            String interval,
+            SimulationRequest.Replay.Driver driver,
+            long pointsReplayed,
+            RiskMetrics actualMetrics,
+            Double meanAbsPriceGap,
+            Double maxAbsPriceGap,
+            Double rmsePriceGap
+    ) {}
 }
@@ -8,12 +8,14 @@ import java.time.Instant;
 /**
  * 	•	진행 중 조회용: status=QUEUED/RUNNING, progress(0~1), startedAt.
  * 	•	아직 완료 안 된 잡을 표현.
+ * 	•	usage: 실행 중인 단일 시뮬의 지금까지 CPU 시간/할당 바이트 (대기 중이거나 측정하지 않는 잡 종류면 null).
  * */
 public record SimulationStatus (
         String id,
         Status status,
         Double progress,
-        Instant startedAt
+        Instant startedAt,
+        ResourceUsage usage
 ) {
     public enum Status { QUEUED, RUNNING }
 }
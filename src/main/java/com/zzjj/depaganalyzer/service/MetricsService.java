@@ -1,9 +1,41 @@
 package com.zzjj.depaganalyzer.service;
 
 import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
+import com.zzjj.depaganalyzer.service.datasource.Intervals;
 
+import java.io.IOException;
 import java.time.Instant;
 
 public interface MetricsService {
-    AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval);
+    default AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval) {
+        return getMetrics(symbol, from, to, interval, null, null);
+    }
+
+    // window/step: 롤링 지표용 컴팩트 간격 문자열(예: "24h", "1h"). window가 null이면 롤링 계산 생략
+    AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval, String window, String step);
+
+    /**
+     * 스트리밍용: 샘플을 보관하지 않고 하나씩 sink로 흘려보낸 뒤, 마지막에 요약 지표만 반환.
+     * - 메모리 사용량이 구간 길이와 무관하게 일정 (NDJSON 응답, 벤치마크 요약 계산에 사용)
+     * - from/to/interval 기본값 규칙은 getMetrics와 동일
+     */
+    AssetMetricsResponse.Metrics scanMetrics(String symbol, Instant from, Instant to, String interval, SampleSink sink)
+            throws IOException;
+
+    /**
+     * interval을 조회 전에 검증 (잘못되면 IllegalArgumentException → 400).
+     * - 스트리밍 응답은 본문을 쓰기 시작한 뒤엔 상태를 바꿀 수 없으므로 응답을 만들기 전에 부른다
+     * - 기본 구현은 공통 간격 형식만 받는다 (데이터 소스별 형식이 있으면 구현체가 소스에 위임)
+     */
+    default void checkInterval(String interval) {
+        if (interval != null && !interval.isBlank()) Intervals.toSeconds(interval);
+    }
+
+    // 샘플 한 점 수신 (원시 타입으로 받아 박싱/DTO 생성 없이 바로 기록)
+    @FunctionalInterface
+    interface SampleSink {
+        SampleSink NONE = (t, price) -> {};
+
+        void accept(long epochSecond, double price) throws IOException;
+    }
 }
@@ -3,6 +3,16 @@ package com.zzjj.depaganalyzer.service;
 import com.zzjj.depaganalyzer.dto.report.ReportRequest;
 import com.zzjj.depaganalyzer.dto.report.ReportResponse;
 
+import java.nio.file.Path;
+
 public interface ReportsService {
+    // 렌더링 작업을 큐에 넣고 바로 반환 (같은 요청이 캐시/진행 중이면 그 리포트를 재사용)
     ReportResponse createReport(ReportRequest request);
+
+    ReportResponse getReport(String reportId);
+
+    // READY일 때만 path가 채워짐 (그 외엔 report.status로 분기)
+    Artifact getArtifact(String reportId);
+
+    record Artifact(ReportResponse report, Path path, String contentType, String fileName) {}
 }
@@ -0,0 +1,16 @@
+package com.zzjj.depaganalyzer.service;
+
+import com.zzjj.depaganalyzer.dto.metrics.OhlcResponse;
+
+import java.time.Instant;
+
+public interface ResamplingService {
+
+    /**
+     * 원본 틱(MarketDataSource.raw)을 임의 간격 버킷으로 리샘플링.
+     * - interval: 컴팩트("15s", "4h", "1w") 또는 ISO-8601("PT15S", "P1D") 표기. 해석할 수 없으면 400
+     * - gaps: "skip" | "flag"(기본) | "fill" (대소문자 무관)
+     * - from/to 기본값 규칙은 MetricsService.getMetrics와 동일 (to=now, from=to-7d)
+     */
+    OhlcResponse resample(String symbol, Instant from, Instant to, String interval, String gaps);
+}
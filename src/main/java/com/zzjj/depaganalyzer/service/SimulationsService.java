@@ -1,10 +1,42 @@
 package com.zzjj.depaganalyzer.service;
 
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.CompareRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityRequest;
 import com.zzjj.depaganalyzer.dto.sim.SimulationCreateResponse;
+import com.zzjj.depaganalyzer.dto.sim.SimulationComparison;
 import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
 
 public interface SimulationsService {
-    SimulationCreateResponse createSimulation(SimulationRequest request);
+    // 내부 호출(클라이언트 ID 없음)의 사용량/쿼터 집계 키
+    String LOCAL_CLIENT = "local";
+
+    // 클라이언트별 쿼터(동시 잡/분당 steps/저장 바이트) 검사 후 생성, 초과 시 429
+    SimulationCreateResponse createSimulation(SimulationRequest request, String clientId);
+    // 내부 호출용
+    default SimulationCreateResponse createSimulation(SimulationRequest request) {
+        return createSimulation(request, LOCAL_CLIENT);
+    }
+    // 민감도 분석도 같은 잡 저장소를 사용 (조회는 getSimulation, 완료 시 SensitivityResult). 쿼터는 단일 시뮬과 공유
+    SimulationCreateResponse createSensitivity(SensitivityRequest request, String clientId);
+    default SimulationCreateResponse createSensitivity(SensitivityRequest request) {
+        return createSensitivity(request, LOCAL_CLIENT);
+    }
+    // 적응형 앙상블 (목표 정밀도 도달 시 조기 종료, 완료 시 EnsembleResult)
+    SimulationCreateResponse createEnsemble(EnsembleRequest request, String clientId);
+    default SimulationCreateResponse createEnsemble(EnsembleRequest request) {
+        return createEnsemble(request, LOCAL_CLIENT);
+    }
+    // 분산 배치 (샤드를 작업 큐로 워커들에 분배, 조회 시 BatchResult — 어느 API 노드에서든 조회 가능)
+    SimulationCreateResponse createBatch(BatchRequest request, String clientId);
+    default SimulationCreateResponse createBatch(BatchRequest request) {
+        return createBatch(request, LOCAL_CLIENT);
+    }
     // 진행 중일 수도, 완료/실패일 수도 있으므로 Object 대신 공용 supertype을 쓰거나 분기
     Object getSimulation(String id);
+    // 완료된 결과 삭제 (저장 바이트 쿼터 반환). 실행 중이면 409, 없으면 404
+    void deleteSimulation(String id);
+    // 완료된 시뮬 여러 개를 스텝 정렬해 엔벨로프/발산/지표 차이로 비교. 없으면 404, 실행 중이면 409, 시뮬 결과가 아니거나 실패면 400
+    SimulationComparison compareSimulations(CompareRequest request);
 }
@@ -0,0 +1,9 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+/**
+ * 경보 전달 채널 (웹훅, Slack 등).
+ * - notify()는 호출 스레드(시세 적재 스레드)를 막지 않도록 비동기로 동작해야 한다.
+ */
+public interface AlertNotifier {
+    void notify(DepegAlert alert);
+}
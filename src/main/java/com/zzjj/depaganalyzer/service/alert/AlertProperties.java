@@ -0,0 +1,45 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 실시간 경보 설정 (application.yml의 stabilisim.alert.*).
+ *
+ * @param enabled            경보 엔진 사용 여부
+ * @param breachSamples      페그 밴드 연속 이탈 N회 이상이면 경보
+ * @param volWindow          롤링 변동성 윈도우 크기(샘플 수)
+ * @param volThreshold       롤링 변동성 임계치 (로그수익률 표준편차)
+ * @param drawdownThreshold  고점 대비 낙폭 임계치 (예: 0.01 = 1%)
+ * @param webhooks           경보를 POST할 웹훅 URL 목록
+ * @param cooldown           같은 심볼/규칙 경보의 재전송 최소 간격 (dedup)
+ * @param maxRetries         웹훅 실패 시 최대 재시도 횟수
+ * @param initialBackoff     첫 재시도 지연 (이후 2배씩 증가)
+ */
+@ConfigurationProperties(prefix = "stabilisim.alert")
+public record AlertProperties(
+        Boolean enabled,
+        Integer breachSamples,
+        Integer volWindow,
+        Double volThreshold,
+        Double drawdownThreshold,
+        List<String> webhooks,
+        Duration cooldown,
+        Integer maxRetries,
+        Duration initialBackoff
+) {
+    // 설정이 비어 있으면 기본값으로 채움
+    public AlertProperties {
+        if (enabled == null) enabled = true;
+        if (breachSamples == null) breachSamples = 3;
+        if (volWindow == null) volWindow = 60;
+        if (volThreshold == null) volThreshold = 0.002;
+        if (drawdownThreshold == null) drawdownThreshold = 0.01;
+        if (webhooks == null) webhooks = List.of();
+        if (cooldown == null) cooldown = Duration.ofMinutes(10);
+        if (maxRetries == null) maxRetries = 5;
+        if (initialBackoff == null) initialBackoff = Duration.ofSeconds(1);
+    }
+}
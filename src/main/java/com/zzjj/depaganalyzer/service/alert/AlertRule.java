@@ -0,0 +1,11 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+/**
+ * 디페그 경보 규칙 종류.
+ * - PEG_BAND_BREACH : 가격이 페그 밴드(0.995~1.005)를 N회 연속 이탈
+ * - VOLATILITY      : 롤링 로그수익률 변동성이 임계치 초과
+ * - DRAWDOWN        : 관측 고점 대비 하락폭이 임계치 초과
+ */
+public enum AlertRule {
+    PEG_BAND_BREACH, VOLATILITY, DRAWDOWN
+}
@@ -0,0 +1,22 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+import java.time.Instant;
+
+/**
+ * 발동된 경보 한 건 (웹훅 페이로드로 그대로 직렬화됨).
+ * - value: 규칙이 측정한 값 (연속 이탈 횟수 / 변동성 / 낙폭)
+ * - threshold: 해당 규칙의 임계치
+ */
+public record DepegAlert(
+        String symbol,
+        AlertRule rule,
+        Instant t,
+        double price,
+        double value,
+        double threshold
+) {
+    // 중복 제거(dedup) 키: 같은 심볼/규칙은 쿨다운 동안 한 번만 전송
+    public String dedupKey() {
+        return symbol + ":" + rule;
+    }
+}
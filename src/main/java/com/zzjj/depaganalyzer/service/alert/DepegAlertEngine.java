@@ -0,0 +1,111 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+import com.zzjj.depaganalyzer.service.impl.RiskMetricsCalc;
+import com.zzjj.depaganalyzer.service.impl.RollingRiskWindow;
+import com.zzjj.depaganalyzer.service.ingest.MarketDataListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 실시간 디페그 감지 엔진 (스트리밍 규칙 평가).
+ *
+ * ─ 동작 ─
+ * - MarketDataIngestor가 새 포인트를 넣을 때마다 심볼별 상태를 증분 갱신하고 규칙을 평가한다.
+ * - 규칙: 페그 밴드 N회 연속 이탈 / 롤링 변동성 임계 초과 / 고점 대비 낙폭 임계 초과
+ * - 각 규칙은 "비활성 → 활성" 전환 시점에만 경보를 낸다. 조건이 풀리면 다시 무장(re-arm).
+ *   (같은 사건이 매 틱마다 중복 경보를 내지 않도록 1차 dedup)
+ *
+ * ─ 성능 ─
+ * - 심볼 상태는 처음 볼 때 한 번만 생성. 이후 틱 처리는 원시 필드/링버퍼만 갱신 → 틱당 할당 없음.
+ *   (경보가 실제로 발동할 때만 DepegAlert 객체를 만든다)
+ * - 수백 개 심볼도 ConcurrentHashMap 조회 + O(1) 갱신으로 처리.
+ */
+@Service
+public class DepegAlertEngine implements MarketDataListener {
+
+    private final AlertProperties props;
+    private final List<AlertNotifier> notifiers;
+    private final ConcurrentMap<String, SymbolState> states = new ConcurrentHashMap<>();
+
+    public DepegAlertEngine(AlertProperties props, List<AlertNotifier> notifiers) {
+        this.props = props;
+        this.notifiers = notifiers;
+    }
+
+    @Override
+    public void onPoint(String symbol, long epochSecond, double price) {
+        if (!props.enabled()) return;
+
+        SymbolState st = states.get(symbol);
+        if (st == null) st = states.computeIfAbsent(symbol, k -> new SymbolState(props.volWindow()));
+
+        // 같은 심볼에 대한 동시 갱신 방지 (적재기는 보통 단일 스레드라 경합 없음)
+        synchronized (st) {
+            evaluate(symbol, st, epochSecond, price);
+        }
+    }
+
+    private void evaluate(String symbol, SymbolState st, long ts, double price) {
+        // 1) 페그 밴드 연속 이탈
+        boolean outOfBand = price < RiskMetricsCalc.PEG_LOWER || price > RiskMetricsCalc.PEG_UPPER;
+        if (outOfBand) {
+            st.breachRun++;
+            if (st.breachRun >= props.breachSamples() && !st.breachActive) {
+                st.breachActive = true;
+                fire(symbol, AlertRule.PEG_BAND_BREACH, ts, price, st.breachRun, props.breachSamples());
+            }
+        } else {
+            st.breachRun = 0;
+            st.breachActive = false;
+        }
+
+        // 2) 롤링 변동성 (윈도우가 찬 이후부터 평가)
+        st.vol.push(price);
+        if (st.vol.isFull()) {
+            double v = st.vol.volatility();
+            if (v > props.volThreshold()) {
+                if (!st.volActive) {
+                    st.volActive = true;
+                    fire(symbol, AlertRule.VOLATILITY, ts, price, v, props.volThreshold());
+                }
+            } else {
+                st.volActive = false;
+            }
+        }
+
+        // 3) 고점 대비 낙폭
+        if (price > st.peak) st.peak = price;
+        double dd = st.peak > 0 ? (st.peak - price) / st.peak : 0.0;
+        if (dd > props.drawdownThreshold()) {
+            if (!st.ddActive) {
+                st.ddActive = true;
+                fire(symbol, AlertRule.DRAWDOWN, ts, price, dd, props.drawdownThreshold());
+            }
+        } else {
+            st.ddActive = false;
+        }
+    }
+
+    private void fire(String symbol, AlertRule rule, long ts, double price, double value, double threshold) {
+        var alert = new DepegAlert(symbol, rule, Instant.ofEpochSecond(ts), price, value, threshold);
+        for (var n : notifiers) n.notify(alert);
+    }
+
+    // 심볼별 증분 상태 (원시 필드만 사용)
+    private static final class SymbolState {
+        int breachRun;
+        boolean breachActive;
+        final RollingRiskWindow vol;
+        boolean volActive;
+        double peak = Double.NEGATIVE_INFINITY;
+        boolean ddActive;
+
+        SymbolState(int volWindow) {
+            this.vol = new RollingRiskWindow(Math.max(2, volWindow));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 웹훅 경보 전송기.
+ *
+ * - notify()는 즉시 반환하고, 실제 HTTP POST는 HttpClient 비동기 호출로 처리 (적재 스레드 비차단)
+ * - dedup: 같은 (심볼, 규칙) 경보는 cooldown 동안 한 번만 전송
+ * - 재시도: 2xx가 아니거나 네트워크 오류면 initialBackoff부터 2배씩 늘려가며 maxRetries까지 재시도
+ * - 페이로드: DepegAlert를 JSON으로 직렬화한 본문
+ */
+@Component
+public class WebhookAlertNotifier implements AlertNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookAlertNotifier.class);
+
+    private final AlertProperties props;
+    private final ObjectMapper objectMapper;
+    private final HttpClient http;
+
+    // 재시도 예약용 단일 스레드 (HTTP 자체는 HttpClient의 비동기 실행기에서 수행)
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "alert-webhook-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // dedupKey -> 마지막 전송 시각(ms)
+    private final ConcurrentMap<String, Long> lastSent = new ConcurrentHashMap<>();
+
+    public WebhookAlertNotifier(AlertProperties props, ObjectMapper objectMapper) {
+        this.props = props;
+        this.objectMapper = objectMapper;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public void notify(DepegAlert alert) {
+        if (props.webhooks().isEmpty()) return;
+        if (!admit(alert)) return;
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(alert);
+        } catch (JsonProcessingException e) {
+            log.warn("alert serialization failed: {}", alert, e);
+            return;
+        }
+        for (String url : props.webhooks()) {
+            send(URI.create(url), body, 0);
+        }
+    }
+
+    /**
+     * 쿨다운 기반 중복 제거. 쿨다운이 지났을 때만 true (원자적으로 전송 시각 갱신).
+     */
+    private boolean admit(DepegAlert alert) {
+        long now = System.currentTimeMillis();
+        long cooldownMs = props.cooldown().toMillis();
+        boolean[] admitted = {false};
+        lastSent.compute(alert.dedupKey(), (k, prev) -> {
+            if (prev == null || now - prev >= cooldownMs) {
+                admitted[0] = true;
+                return now;
+            }
+            return prev;
+        });
+        return admitted[0];
+    }
+
+    private void send(URI uri, byte[] body, int attempt) {
+        var req = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        http.sendAsync(req, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((res, err) -> {
+                    boolean ok = err == null && res.statusCode() / 100 == 2;
+                    if (ok) return;
+                    if (attempt >= props.maxRetries()) {
+                        log.warn("webhook delivery gave up: url={}, attempts={}, status={}",
+                                uri, attempt + 1, res != null ? res.statusCode() : null, err);
+                        return;
+                    }
+                    // 지수 백오프: initialBackoff * 2^attempt
+                    long delayMs = props.initialBackoff().toMillis() << Math.min(attempt, 20);
+                    retryScheduler.schedule(() -> send(uri, body, attempt + 1), delayMs, TimeUnit.MILLISECONDS);
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryScheduler.shutdownNow();
+    }
+}
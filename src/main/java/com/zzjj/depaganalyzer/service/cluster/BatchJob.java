@@ -0,0 +1,16 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+
+import java.time.Instant;
+
+/**
+ * 배치 잡 메타데이터 (조회하는 API 노드가 결과를 집계할 때 필요한 정보만).
+ */
+public record BatchJob(
+        String id,
+        BatchRequest request,
+        int shardSize,
+        int shards,
+        Instant createdAt
+) {}
@@ -0,0 +1,46 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 분산 배치 시뮬레이션 설정 (application.yml의 stabilisim.cluster.*).
+ *
+ * @param queue          작업 큐/상태 저장소 구현: memory(단일 노드, 기본) | redis(Redis Streams, 다중 노드)
+ * @param worker         이 JVM에서 샤드 워커를 돌릴지 여부 (API 전용 노드는 false)
+ * @param workerThreads  워커 스레드 수 (0 = CPU 코어 수의 절반)
+ * @param leaseTtl       샤드 임대 시간. 이 시간 동안 하트비트가 없으면 다른 워커가 회수해 재배달
+ * @param maxDeliveries  같은 샤드의 최대 배달 횟수 (초과 시 실패 처리 → 독성 샤드가 무한 재시도되지 않게)
+ * @param shardSize      샤드 하나에 담는 기본 멤버(시드) 수
+ * @param maxTotalSteps  steps × members 상한 (초과 시 400)
+ * @param keyPrefix      Redis 키 접두사 (스트림/잡 해시)
+ * @param resultTtl      잡 상태/결과 보관 기간
+ */
+@ConfigurationProperties(prefix = "stabilisim.cluster")
+public record ClusterProperties(
+        String queue,
+        Boolean worker,
+        Integer workerThreads,
+        Duration leaseTtl,
+        Integer maxDeliveries,
+        Integer shardSize,
+        Long maxTotalSteps,
+        String keyPrefix,
+        Duration resultTtl
+) {
+    // 설정이 비어 있으면 기본값으로 채움
+    public ClusterProperties {
+        if (queue == null) queue = "memory";
+        if (worker == null) worker = true;
+        if (workerThreads == null || workerThreads <= 0) {
+            workerThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        if (leaseTtl == null) leaseTtl = Duration.ofSeconds(30);
+        if (maxDeliveries == null) maxDeliveries = 5;
+        if (shardSize == null) shardSize = 64;
+        if (maxTotalSteps == null) maxTotalSteps = 20_000_000_000L;
+        if (keyPrefix == null) keyPrefix = "stabilisim";
+        if (resultTtl == null) resultTtl = Duration.ofHours(24);
+    }
+}
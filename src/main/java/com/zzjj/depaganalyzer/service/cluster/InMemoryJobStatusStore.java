@@ -0,0 +1,60 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 단일 노드용 잡 상태 저장소 (stabilisim.cluster.queue=memory).
+ * - 샤드 결과는 샤드 번호 → 결과 맵에 putIfAbsent (멱등)
+ * - resultTtl이 지난 잡은 주기적으로 제거
+ */
+@Component
+@ConditionalOnProperty(prefix = "stabilisim.cluster", name = "queue", havingValue = "memory", matchIfMissing = true)
+public class InMemoryJobStatusStore implements JobStatusStore {
+
+    private record Job(BatchJob meta, ConcurrentMap<Integer, ShardResult> results) {}
+
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Duration ttl;
+
+    public InMemoryJobStatusStore(ClusterProperties props) {
+        this.ttl = props.resultTtl();
+    }
+
+    @Override
+    public void create(BatchJob job) {
+        jobs.put(job.id(), new Job(job, new ConcurrentHashMap<>()));
+    }
+
+    @Override
+    public BatchJob job(String jobId) {
+        Job j = jobs.get(jobId);
+        return j != null ? j.meta() : null;
+    }
+
+    @Override
+    public boolean record(ShardResult result) {
+        Job j = jobs.get(result.jobId());
+        return j != null && j.results().putIfAbsent(result.index(), result) == null;
+    }
+
+    @Override
+    public Collection<ShardResult> results(String jobId) {
+        Job j = jobs.get(jobId);
+        return j != null ? List.copyOf(j.results().values()) : List.of();
+    }
+
+    @Scheduled(fixedDelayString = "${stabilisim.cluster.purgeMs:600000}")
+    void purgeExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        jobs.values().removeIf(j -> j.meta().createdAt().isBefore(cutoff));
+    }
+}
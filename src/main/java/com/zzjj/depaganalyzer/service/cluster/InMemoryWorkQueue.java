@@ -0,0 +1,131 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 노드용 작업 큐 (stabilisim.cluster.queue=memory, 기본값).
+ *
+ * - Redis 구현과 같은 임대/재배달 의미를 프로세스 안에서 흉내 낸다 → 테스트/로컬 실행용 대역
+ * - 락 하나로 대기열(ready)과 임대 목록(leased)을 함께 보호. poll 시 만료된 임대를 대기열 앞쪽으로 되돌린다
+ */
+@Component
+@ConditionalOnProperty(prefix = "stabilisim.cluster", name = "queue", havingValue = "memory", matchIfMissing = true)
+public class InMemoryWorkQueue implements WorkQueue {
+
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long leaseNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<Entry> ready = new ArrayDeque<>();
+    private final Map<String, Entry> leased = new HashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+
+    private static final class Entry {
+        final String id;
+        final Shard shard;
+        long deliveries = 0;
+        String owner;
+        long deadline;
+
+        Entry(String id, Shard shard) {
+            this.id = id;
+            this.shard = shard;
+        }
+    }
+
+    public InMemoryWorkQueue(ClusterProperties props) {
+        this.leaseNanos = props.leaseTtl().toNanos();
+    }
+
+    @Override
+    public void enqueue(Shard shard) {
+        lock.lock();
+        try {
+            ready.addLast(new Entry(Long.toString(seq.incrementAndGet()), shard));
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Lease poll(String consumer, Duration wait) throws InterruptedException {
+        long remaining = wait.toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                reclaimExpired(now);
+                Entry e = ready.pollFirst();
+                if (e != null) {
+                    e.deliveries++;
+                    e.owner = consumer;
+                    e.deadline = now + leaseNanos;
+                    leased.put(e.id, e);
+                    return new Lease(e.id, consumer, e.shard, e.deliveries);
+                }
+                if (remaining <= 0) return null;
+                // 새 샤드가 들어오거나 가장 이른 임대가 만료될 때까지 대기
+                long slice = Math.min(remaining, Math.max(MIN_WAIT_NANOS, nanosUntilExpiry(now)));
+                remaining -= slice - available.awaitNanos(slice);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void ack(Lease lease) {
+        lock.lock();
+        try {
+            leased.remove(lease.receipt());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean renew(Lease lease) {
+        lock.lock();
+        try {
+            Entry e = leased.get(lease.receipt());
+            if (e == null || !e.owner.equals(lease.consumer())) return false;
+            e.deadline = System.nanoTime() + leaseNanos;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 만료된 임대를 대기열 앞으로 (먼저 들어온 작업이 먼저 끝나도록)
+    private void reclaimExpired(long now) {
+        for (Iterator<Entry> it = leased.values().iterator(); it.hasNext(); ) {
+            Entry e = it.next();
+            if (now - e.deadline >= 0) {
+                it.remove();
+                e.owner = null;
+                ready.addFirst(e);
+            }
+        }
+    }
+
+    // 가장 이른 임대 만료까지 남은 시간 (임대가 없으면 무한대)
+    private long nanosUntilExpiry(long now) {
+        long min = Long.MAX_VALUE;
+        for (Entry e : leased.values()) min = Math.min(min, Math.max(0, e.deadline - now));
+        return min;
+    }
+}
@@ -0,0 +1,23 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import java.util.Collection;
+
+/**
+ * 배치 잡 상태 저장소 (어느 API 노드에서 조회해도 같은 상태를 보도록 큐와 같은 백엔드에 둔다).
+ */
+public interface JobStatusStore {
+
+    void create(BatchJob job);
+
+    /** 잡 메타 (없거나 만료되면 null) */
+    BatchJob job(String jobId);
+
+    /**
+     * 샤드 결과 기록 (멱등: 같은 샤드는 먼저 기록된 결과만 남음 → 재배달로 중복 실행돼도 집계가 틀어지지 않음).
+     * @return 새로 기록했으면 true
+     */
+    boolean record(ShardResult result);
+
+    /** 지금까지 기록된 샤드 결과 (순서 무관) */
+    Collection<ShardResult> results(String jobId);
+}
@@ -0,0 +1,92 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis 해시 기반 잡 상태 저장소 (stabilisim.cluster.queue=redis).
+ *
+ * - 키 {prefix}:job:{id}, 필드 meta(잡 메타 JSON) + shard:{i}(샤드 결과 JSON)
+ * - 샤드 결과는 HSETNX → 재배달로 두 번 실행돼도 처음 기록만 남음
+ * - 키 전체에 resultTtl 만료를 걸어 오래된 잡은 Redis가 정리
+ */
+@Component
+@ConditionalOnProperty(prefix = "stabilisim.cluster", name = "queue", havingValue = "redis")
+public class RedisJobStatusStore implements JobStatusStore {
+
+    private static final String META = "meta";
+    private static final String SHARD = "shard:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper json;
+    private final String prefix;
+    private final Duration ttl;
+
+    public RedisJobStatusStore(StringRedisTemplate redis, ObjectMapper json, ClusterProperties props) {
+        this.redis = redis;
+        this.json = json;
+        this.prefix = props.keyPrefix() + ":job:";
+        this.ttl = props.resultTtl();
+    }
+
+    @Override
+    public void create(BatchJob job) {
+        String key = prefix + job.id();
+        hash().put(key, META, write(job));
+        redis.expire(key, ttl);
+    }
+
+    @Override
+    public BatchJob job(String jobId) {
+        String v = hash().get(prefix + jobId, META);
+        return v != null ? read(v, BatchJob.class) : null;
+    }
+
+    @Override
+    public boolean record(ShardResult result) {
+        String key = prefix + result.jobId();
+        // 만료/삭제된 잡에 결과만 덩그러니 남지 않도록 메타가 있을 때만 기록
+        if (hash().get(key, META) == null) return false;
+        return Boolean.TRUE.equals(hash().putIfAbsent(key, SHARD + result.index(), write(result)));
+    }
+
+    @Override
+    public Collection<ShardResult> results(String jobId) {
+        Map<String, String> all = hash().entries(prefix + jobId);
+        List<ShardResult> out = new ArrayList<>(all.size());
+        for (var e : all.entrySet()) {
+            if (e.getKey().startsWith(SHARD)) out.add(read(e.getValue(), ShardResult.class));
+        }
+        return out;
+    }
+
+    private HashOperations<String, String, String> hash() {
+        return redis.opsForHash();
+    }
+
+    private String write(Object v) {
+        try {
+            return json.writeValueAsString(v);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("failed to serialize " + v.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T read(String v, Class<T> type) {
+        try {
+            return json.readValue(v, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("corrupt " + type.getSimpleName() + " in redis", e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis Streams 기반 작업 큐 (stabilisim.cluster.queue=redis, docker-compose의 redis 사용).
+ *
+ * - 스트림 {prefix}:shards 에 샤드 JSON을 XADD, 워커들은 컨슈머 그룹 {prefix}:workers 로 XREADGROUP
+ * - 임대 = 그룹의 PEL(pending entries list). ack는 XACK + XDEL
+ * - 재배달: XPENDING으로 유휴 시간이 leaseTtl을 넘은 항목을 찾아 XCLAIM(min-idle-time = leaseTtl)
+ *   → XCLAIM이 유휴 시간을 원자적으로 다시 확인하므로 두 워커가 같은 항목을 동시에 회수하지 않는다
+ * - 하트비트(renew)는 소유자 확인 + XCLAIM(min-idle 0, JUSTID)을 Lua 스크립트 하나로 실행
+ *   → 확인과 갱신 사이에 다른 워커가 회수한 임대를 되빼앗지 않는다 (JUSTID라 배달 횟수도 늘지 않음)
+ */
+@Component
+@ConditionalOnProperty(prefix = "stabilisim.cluster", name = "queue", havingValue = "redis")
+public class RedisWorkQueue implements WorkQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisWorkQueue.class);
+    private static final String FIELD = "shard";
+    private static final int RECLAIM_SCAN = 128; // 한 번에 살펴보는 PEL 항목 수 (오래된 순)
+
+    // KEYS[1]=스트림, ARGV=[그룹, 항목 id, 컨슈머] → 아직 그 컨슈머의 임대면 유휴 시간 초기화 후 1, 아니면 0
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            local p = redis.call('XPENDING', KEYS[1], ARGV[1], ARGV[2], ARGV[2], 1)
+            if #p == 0 or p[1][2] ~= ARGV[3] then return 0 end
+            redis.call('XCLAIM', KEYS[1], ARGV[1], ARGV[3], 0, ARGV[2], 'JUSTID')
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper json;
+    private final String stream;
+    private final String group;
+    private final Duration leaseTtl;
+    private final AtomicLong nextReclaimScan = new AtomicLong();
+    private volatile boolean groupReady = false;
+
+    public RedisWorkQueue(StringRedisTemplate redis, ObjectMapper json, ClusterProperties props) {
+        this.redis = redis;
+        this.json = json;
+        this.stream = props.keyPrefix() + ":shards";
+        this.group = props.keyPrefix() + ":workers";
+        this.leaseTtl = props.leaseTtl();
+    }
+
+    @Override
+    public void enqueue(Shard shard) {
+        ensureGroup();
+        try {
+            ops().add(stream, Map.of(FIELD, json.writeValueAsString(shard)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("failed to serialize shard " + shard.jobId() + "#" + shard.index(), e);
+        }
+    }
+
+    @Override
+    public Lease poll(String consumer, Duration wait) {
+        ensureGroup();
+        // 1) 만료된 임대 회수 (leaseTtl/2마다 한 번만 PEL을 훑는다)
+        Lease reclaimed = reclaim(consumer, false);
+        if (reclaimed != null) return reclaimed;
+
+        // 2) 새 샤드 (최대 wait 동안 블로킹)
+        List<MapRecord<String, String, String>> records = readNew(consumer, wait);
+        if (records != null && !records.isEmpty()) {
+            Lease l = toLease(records.get(0), consumer, 1);
+            if (l != null) return l;
+        }
+
+        // 3) 할 일이 없으면 주기와 무관하게 한 번 더 회수 시도 (죽은 워커의 샤드를 빨리 넘겨받기 위함)
+        return reclaim(consumer, true);
+    }
+
+    @Override
+    public void ack(Lease lease) {
+        ops().acknowledge(stream, group, lease.receipt());
+        ops().delete(stream, lease.receipt());
+    }
+
+    @Override
+    public boolean renew(Lease lease) {
+        // 0 = 이미 ack됐거나 다른 워커가 회수
+        Long renewed = redis.execute(RENEW, List.of(stream), group, lease.receipt(), lease.consumer());
+        return renewed != null && renewed == 1L;
+    }
+
+    // XREADGROUP 한 건. read(...)가 StreamOffset<K>... 가변 인자뿐이라 제네릭 배열 생성 경고를 여기서만 끈다
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, String, String>> readNew(String consumer, Duration wait) {
+        return ops().read(
+                Consumer.from(group, consumer),
+                StreamReadOptions.empty().count(1).block(wait),
+                StreamOffset.create(stream, ReadOffset.lastConsumed()));
+    }
+
+    private Lease reclaim(String consumer, boolean force) {
+        long now = System.nanoTime();
+        long due = nextReclaimScan.get();
+        if (!force && now - due < 0) return null;
+        nextReclaimScan.set(now + leaseTtl.toNanos() / 2);
+
+        PendingMessages pending = ops().pending(stream, group, Range.unbounded(), RECLAIM_SCAN);
+        for (PendingMessage m : pending) {
+            if (m.getElapsedTimeSinceLastDelivery().compareTo(leaseTtl) < 0) continue;
+            List<MapRecord<String, String, String>> claimed = ops().claim(stream, group, consumer, leaseTtl, m.getId());
+            if (claimed.isEmpty()) continue; // 다른 워커가 먼저 회수
+            log.info("reclaimed shard {} from {} (idle {}, deliveries {})",
+                    m.getIdAsString(), m.getConsumerName(), m.getElapsedTimeSinceLastDelivery(), m.getTotalDeliveryCount());
+            Lease l = toLease(claimed.get(0), consumer, m.getTotalDeliveryCount() + 1);
+            if (l != null) return l;
+        }
+        return null;
+    }
+
+    // 역직렬화가 안 되는 항목은 다시 배달해도 소용없으므로 로그만 남기고 버린다
+    private Lease toLease(MapRecord<String, String, String> record, String consumer, long deliveries) {
+        String id = record.getId().getValue();
+        try {
+            Shard shard = json.readValue(record.getValue().get(FIELD), Shard.class);
+            return new Lease(id, consumer, shard, deliveries);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("dropping malformed shard record {}: {}", id, e.getMessage());
+            ops().acknowledge(stream, group, id);
+            ops().delete(stream, id);
+            return null;
+        }
+    }
+
+    // 컨슈머 그룹 생성 (MKSTREAM). 이미 있으면 BUSYGROUP → 무시
+    private void ensureGroup() {
+        if (groupReady) return;
+        try {
+            ops().createGroup(stream, ReadOffset.from("0"), group);
+        } catch (RuntimeException e) {
+            if (!isBusyGroup(e)) throw e;
+        }
+        groupReady = true;
+    }
+
+    private static boolean isBusyGroup(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("BUSYGROUP")) return true;
+        }
+        return false;
+    }
+
+    private StreamOperations<String, String, String> ops() {
+        return redis.opsForStream();
+    }
+}
@@ -0,0 +1,18 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+
+/**
+ * 큐로 오가는 작업 단위: 배치 잡의 멤버(시드) 구간 [memberFrom, memberTo).
+ * - 워커는 base 요청만으로 실행할 수 있어야 하므로 요청 전체를 직렬화해 싣는다 (워커는 무상태)
+ * - 멤버 i의 시드는 EnsembleStats.memberSeed(base.seed, i) → 어느 워커가 돌려도 같은 결과
+ */
+public record Shard(
+        String jobId,
+        int index,
+        SimulationRequest base,
+        int memberFrom,
+        int memberTo
+) {
+    public int members() { return memberTo - memberFrom; }
+}
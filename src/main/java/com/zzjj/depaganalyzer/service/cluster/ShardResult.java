@@ -0,0 +1,54 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 워커가 돌려주는 샤드 결과 (시계열 없이 지표별 요약 통계만 → 샤드당 수백 바이트).
+ *
+ * @param metrics 지표별 누적 모멘트 (값이 하나도 없던 지표는 빠짐)
+ * @param error   실패 시 사유 (null이면 성공)
+ */
+public record ShardResult(
+        String jobId,
+        int index,
+        String workerId,
+        int members,
+        Map<SensitivityResult.Metric, Moments> metrics,
+        long elapsedMs,
+        Instant finishedAt,
+        String error
+) {
+    /**
+     * Welford 누적값 (n, 평균, 편차제곱합) + 최소/최대.
+     * 샤드끼리는 Chan의 병렬 결합식으로 합쳐 전체 평균/분산을 정확히 복원한다.
+     */
+    public record Moments(long n, double mean, double m2, double min, double max) {
+
+        public static final Moments EMPTY = new Moments(0, 0.0, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        public Moments add(double x) {
+            long n1 = n + 1;
+            double d = x - mean;
+            double mean1 = mean + d / n1;
+            return new Moments(n1, mean1, m2 + d * (x - mean1), Math.min(min, x), Math.max(max, x));
+        }
+
+        public Moments merge(Moments o) {
+            if (o.n == 0) return this;
+            if (n == 0) return o;
+            long total = n + o.n;
+            double d = o.mean - mean;
+            return new Moments(total,
+                    mean + d * o.n / total,
+                    m2 + o.m2 + d * d * ((double) n * o.n / total),
+                    Math.min(min, o.min), Math.max(max, o.max));
+        }
+    }
+
+    public static ShardResult failed(Shard shard, String workerId, String error) {
+        return new ShardResult(shard.jobId(), shard.index(), workerId, shard.members(), Map.of(), 0, Instant.now(), error);
+    }
+}
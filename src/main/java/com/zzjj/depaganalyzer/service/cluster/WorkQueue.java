@@ -0,0 +1,38 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import java.time.Duration;
+
+/**
+ * 샤드 작업 큐 (at-least-once 배달 + 임대).
+ *
+ * - poll로 받은 샤드는 leaseTtl 동안 해당 워커에 임대된다. 그 안에 ack하지 않고 renew도 없으면
+ *   (워커가 죽었거나 멈춤) 다음 poll에서 다른 워커에게 재배달된다.
+ * - 같은 샤드가 두 번 실행될 수 있으므로 결과 기록(JobStatusStore.record)은 멱등이어야 한다.
+ */
+public interface WorkQueue {
+
+    void enqueue(Shard shard);
+
+    /**
+     * 샤드 하나 임대. 만료된 임대가 있으면 새 샤드보다 먼저 회수해 돌려준다.
+     * @param consumer 워커 식별자
+     * @param wait     샤드가 없을 때 최대 대기 시간
+     * @return 임대 (없으면 null)
+     */
+    Lease poll(String consumer, Duration wait) throws InterruptedException;
+
+    /** 처리 완료 (큐에서 제거) */
+    void ack(Lease lease);
+
+    /**
+     * 임대 연장 (하트비트).
+     * @return 아직 이 워커의 임대면 true, 이미 다른 워커가 회수했으면 false
+     */
+    boolean renew(Lease lease);
+
+    /**
+     * @param receipt    ack/renew에 쓰는 배달 식별자 (Redis면 스트림 레코드 ID)
+     * @param deliveries 이번을 포함한 배달 횟수 (1 = 첫 배달)
+     */
+    record Lease(String receipt, String consumer, Shard shard, long deliveries) {}
+}
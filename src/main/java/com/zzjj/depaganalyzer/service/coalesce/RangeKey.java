@@ -0,0 +1,28 @@
+package com.zzjj.depaganalyzer.service.coalesce;
+
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+
+import java.time.Instant;
+
+/**
+ * 요청 합치기 키: (심볼, 정렬된 구간, 인터벌).
+ *
+ * from/to를 데이터 소스의 정렬 단위(MarketDataSource.alignmentSeconds)로 올림/내림한 슬롯 번호로 바꾼다
+ * → to 기본값(now)이 밀리초 단위로 달라도 같은 점 집합을 돌려주는 요청끼리는 같은 키.
+ * 인터벌은 구현체마다 해석이 달라("1h"와 "PT1H"를 같게 볼지는 소스가 정함) 문자열 그대로 비교한다.
+ */
+public record RangeKey(String symbol, long fromSlot, long toSlot, long alignSeconds, String interval) {
+
+    public static RangeKey of(MarketDataSource source, String symbol, Instant from, Instant to, String interval) {
+        long a = Math.max(1, source.alignmentSeconds(interval));
+        return new RangeKey(symbol,
+                Math.floorDiv(from.getEpochSecond() + a - 1, a),
+                Math.floorDiv(to.getEpochSecond(), a),
+                a, interval);
+    }
+
+    /** 같은 구간/인터벌의 다른 심볼 키 */
+    public RangeKey withSymbol(String other) {
+        return new RangeKey(other, fromSlot, toSlot, alignSeconds, interval);
+    }
+}
@@ -0,0 +1,79 @@
+package com.zzjj.depaganalyzer.service.coalesce;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 진행 중 요청 합치기 (single-flight).
+ *
+ * - 같은 키로 동시에 들어온 호출 중 첫 호출(leader)만 계산하고, 나머지(follower)는 그 future를 기다려 같은 값을 받는다
+ * - 계산은 leader의 호출 스레드에서 그대로 돈다 (별도 풀 없음). 끝나면 키를 지우므로 결과를 캐시하지 않음
+ *   → 끝난 뒤 들어온 같은 요청은 새로 계산 (데이터 신선도는 기존과 같음)
+ * - 예외도 공유: follower는 leader와 같은 예외를 받는다 (IllegalArgumentException → 400 등 매핑 유지)
+ * - 사용량: depag.coalesce.calls{flight, role=leader|follower|shared} 카운터 + depag.coalesce.inflight 게이지
+ *   (합치기 비율 = follower / 전체. shared는 다른 flight의 진행 중 계산을 빌려 쓴 호출)
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter shared;
+
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.leaders = registry.counter("depag.coalesce.calls", "flight", name, "role", "leader");
+        this.followers = registry.counter("depag.coalesce.calls", "flight", name, "role", "follower");
+        this.shared = registry.counter("depag.coalesce.calls", "flight", name, "role", "shared");
+        registry.gauge("depag.coalesce.inflight", Tags.of("flight", name), inFlight, ConcurrentMap::size);
+    }
+
+    /** key로 진행 중인 계산이 있으면 그 결과를, 없으면 fn을 직접 실행한 결과를 반환 */
+    public V execute(K key, Supplier<V> fn) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            followers.increment();
+            return await(running);
+        }
+        leaders.increment();
+        try {
+            V v = fn.get();
+            mine.complete(v);
+            return v;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 진행 중인 계산이 있으면 기다려 그 값을, 없으면 null (새로 계산하지 않음).
+     * 다른 flight가 이 flight의 계산을 빌려 쓸 때 사용하며, 빌려 간 호출은 shared로 센다.
+     */
+    public V joinIfRunning(K key) {
+        CompletableFuture<V> running = inFlight.get(key);
+        if (running == null) return null;
+        shared.increment();
+        return await(running);
+    }
+
+    private static <V> V await(CompletableFuture<V> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            // leader가 던진 예외를 그대로 (CompletionException으로 감싸지 않고)
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
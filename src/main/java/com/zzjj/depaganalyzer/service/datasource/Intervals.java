@@ -0,0 +1,66 @@
+package com.zzjj.depaganalyzer.service.datasource;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 간격 문자열 유틸.
+ *
+ * - "30s", "1m", "5m", "1h", "24h", "1d", "1w" 같은 컴팩트 표기를 초 단위로 변환
+ * - ISO-8601 기간 표기도 허용: "PT15S", "PT4H", "P1D", "P1W", "P1DT12H"
+ *   (월/년은 길이가 일정하지 않아 버킷 간격으로 쓸 수 없으므로 거절)
+ * - 롤링 윈도우(window) / 롤링 스텝(step) / 리샘플 인터벌 파라미터 파싱에 사용
+ */
+public final class Intervals {
+    private Intervals() {} //유틸 클래스이므로 인스턴스 방지
+
+    /**
+     * 컴팩트 간격 문자열을 초 단위로 변환한다.
+     *
+     * @param text 예: "15s", "1m", "4h", "1d", "1w", "PT15S", "P1W"
+     * @return 초 단위 길이 (항상 양수)
+     * @throws IllegalArgumentException 형식이 잘못되었거나 0 이하일 때
+     */
+    public static long toSeconds(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("interval must not be empty");
+        }
+        String s = text.trim().toLowerCase();
+        if (s.startsWith("p")) return isoSeconds(text.trim());
+        char unit = s.charAt(s.length() - 1);
+        long mul = switch (unit) {
+            case 's' -> 1;
+            case 'm' -> 60;
+            case 'h' -> 3600;
+            case 'd' -> 86400;
+            case 'w' -> 7 * 86400;
+            default -> throw new IllegalArgumentException("unknown interval unit: " + text);
+        };
+        long n;
+        try {
+            n = Long.parseLong(s.substring(0, s.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid interval: " + text);
+        }
+        if (n <= 0) throw new IllegalArgumentException("interval must be positive: " + text);
+        return Math.multiplyExact(n, mul);
+    }
+
+    // ISO-8601 기간 (Duration.parse는 주 단위를 모르므로 "PnW"만 따로 처리)
+    private static long isoSeconds(String text) {
+        String u = text.toUpperCase();
+        Duration d;
+        try {
+            if (u.endsWith("W") && u.indexOf('T') < 0) {
+                d = Duration.ofDays(Math.multiplyExact(Long.parseLong(u.substring(1, u.length() - 1)), 7));
+            } else {
+                d = Duration.parse(u);
+            }
+        } catch (DateTimeParseException | NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("invalid ISO-8601 interval (months/years are not supported): " + text);
+        }
+        if (d.isNegative() || d.isZero()) throw new IllegalArgumentException("interval must be positive: " + text);
+        if (d.getNano() != 0) throw new IllegalArgumentException("interval must be whole seconds: " + text);
+        return d.getSeconds();
+    }
+}
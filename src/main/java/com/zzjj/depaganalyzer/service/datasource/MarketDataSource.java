@@ -2,7 +2,13 @@ package com.zzjj.depaganalyzer.service.datasource;
 
 import java.awt.*;
 import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * MarketDataSource
@@ -19,7 +25,7 @@ import java.util.List;
  *
  * 관례:
  *  - price는 "USD 1.0 근처"를 가정(스테이블코인 페그)
- *  - interval: "1m", "5m", "1h"(기본), "1d" 중 하나
+ *  - interval: "1m", "5m", "1h"(기본), "1d" 등 Intervals가 해석하는 간격 ("15s", "4h", "PT15M" ...)
  */
 public interface MarketDataSource {
 
@@ -29,11 +35,98 @@ public interface MarketDataSource {
      * @param symbol   예: "USDT", "USDC", "DAI"
      * @param from     시작 시각(UTC, 포함)
      * @param to       종료 시각(UTC, 포함 또는 미만 — 구현체가 정렬/경계 처리)
-     * @param interval 샘플 간격: "1m"|"5m"|"1h"|"1d" (null이면 구현체 기본값 권장)
+     * @param interval 샘플 간격: "1m"|"5m"|"1h"|"1d"|... (null이면 구현체 기본값 권장)
      * @return 시간 오름차순의 포인트 리스트 (빈 리스트 가능)
      */
     List<Point> series(String symbol, Instant from, Instant to, String interval);
 
+    /**
+     * 구간 경계 정렬 단위(초): from은 이 단위로 올림, to는 내림해도 같은 점들을 돌려주는 값.
+     * 요청 합치기(RangeKey)가 "같은 데이터를 보는 요청"을 판단할 때 쓴다.
+     * 기본값 1 = 초 단위 그대로 (부분 버킷을 다르게 다루는 구현체도 안전)
+     */
+    default long alignmentSeconds(String interval) {
+        return 1;
+    }
+
+    /**
+     * 간격 문자열을 조회 전에 검증한다 (null/빈 값은 기본 1h).
+     * 스트리밍 응답은 첫 점을 읽을 때에야 해석 오류가 나면 이미 200이 나간 뒤라, 응답을 만들기 전에 부른다.
+     *
+     * @throws IllegalArgumentException 이 소스가 해석할 수 없는 간격 (→ 400)
+     */
+    default void checkInterval(String interval) {
+        if (interval != null && !interval.isBlank()) Intervals.toSeconds(interval);
+    }
+
+    /**
+     * series()와 같은 구간을 "지연 스트림"으로 공급합니다. (긴 구간 리플레이/스트리밍 응답용)
+     *
+     * 기본 구현은 구간을 CHUNK_POINTS 개 단위의 작은 창으로 잘라 series()를 반복 호출하므로,
+     * 어떤 구현체든 전체 구간을 한 번에 메모리에 올리지 않는다. 구현체가 더 효율적인 방법
+     * (파일 직접 스캔, 위치 기반 생성 등)을 갖고 있으면 재정의한다.
+     *
+     * @return 시간 오름차순의 지연 스트림 (소비한 만큼만 조회/생성)
+     */
+    default Stream<Point> stream(String symbol, Instant from, Instant to, String interval) {
+        String iv = (interval != null && !interval.isBlank()) ? interval : "1h";
+        long span = Math.multiplyExact(Intervals.toSeconds(iv), CHUNK_POINTS);
+
+        Iterator<Point> it = new Iterator<>() {
+            long cursor = from.getEpochSecond();       // 다음 창 시작(초)
+            long lastTs = Long.MIN_VALUE;              // 창 경계 중복 방지
+            Iterator<Point> chunk = java.util.Collections.emptyIterator();
+            Point next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (chunk.hasNext()) {
+                        Point p = chunk.next();
+                        if (p.t().getEpochSecond() > lastTs) next = p;
+                        continue;
+                    }
+                    if (cursor > to.getEpochSecond()) return false;
+                    long end = Math.min(to.getEpochSecond(), cursor + span - 1);
+                    chunk = series(symbol, Instant.ofEpochSecond(cursor), Instant.ofEpochSecond(end), iv).iterator();
+                    cursor = end + 1;
+                }
+                return true;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Point p = next;
+                next = null;
+                lastTs = p.t().getEpochSecond();
+                return p;
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * 포인트 간격이 일정하지 않은 소스인지 (원시 틱을 그대로 공급: 틱 사이 간격 제각각, 틱이 없는 구간 존재).
+     * true면 지표 계층이 샘플 개수 대신 raw() 기반 시간가중 지표를 쓴다 (같은 간격 가정이 깨지므로).
+     * 기본 false = series()/stream()이 interval 간격으로 빈틈없이 샘플을 만든다
+     */
+    default boolean irregular() {
+        return false;
+    }
+
+    /**
+     * 인터벌로 샘플링하기 전의 가장 촘촘한 원본 포인트 (리샘플링 입력).
+     * 기본 구현은 1분 간격 스트림. 원시 틱을 가진 구현체(tickstore)는 틱 그대로 공급하도록 재정의한다.
+     */
+    default Stream<Point> raw(String symbol, Instant from, Instant to) {
+        return stream(symbol, from, to, "1m");
+    }
+
+    // stream() 기본 구현이 한 번에 조회하는 최대 포인트 수
+    int CHUNK_POINTS = 10_000;
+
     /**
      * 시계열 한 지점.
      * - t: 타임스탬프(UTC)
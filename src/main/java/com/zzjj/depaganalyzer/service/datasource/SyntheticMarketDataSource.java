@@ -1,12 +1,19 @@
 package com.zzjj.depaganalyzer.service.datasource;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -20,14 +27,37 @@ import java.util.Random;
  *  - @Profile({"default","synthetic"}) → 기본/합성 모드에서 활성화
  *  - 실데이터(거래소/DB) 구현에는 @Profile("real")을 붙여 분리
  *
- * 재현성:
- *  - Random(42)로 시드 고정 → 동일 입력(from/to/interval) 시 항상 같은 시계열 생성
- *  - 필요하면 생성자 파라미터/설정으로 시드를 외부에서 주입해 시드 변경도 가능
+ * 재현성 / 위치 기반 생성:
+ *  - 타임스탬프는 epoch 기준 버킷(ts / stepSec)에 정렬되고, 각 버킷의 값은 (symbol, seed, 버킷 번호)만으로 결정된다.
+ *    → from이 달라도 겹치는 구간은 항상 같은 값 (질의 간 일관성, 결과 캐시 가능)
+ *  - 노이즈는 카운터 기반 RNG(SplitMix64 해시 → Box-Muller): 버킷 번호로 바로 뽑으므로 앞 구간을 돌릴 필요 없음
+ *  - 평균회귀 상태는 CHECKPOINT_SPAN 버킷마다 체크포인트로 끊는다.
+ *    체크포인트 상태 = 직전 WARMUP 버킷을 mean에서 출발해 돌린 값 (평균회귀로 초기값 영향이 1e-9 이하로 소멸)
+ *    → 임의 구간 조회 비용 = O(WARMUP + CHECKPOINT_SPAN + 구간 길이), 체크포인트는 캐시
+ *  - 시드는 stabilisim.synthetic.seed (기본 42)
+ *
+ * 지연 생성:
+ *  - stream()은 CHUNK 개씩 채우는 지연 이터레이터 → 1년치 범위의 마지막 하루만 읽어도 하루치만 생성
+ *  - series()는 stream()을 리스트로 모은 것 (기존 호출부 호환)
  */
 @Service
 //@Profile({"default", "synthetic"}) // 기본/합성 프로파일에서 활성화
 public class SyntheticMarketDataSource implements MarketDataSource{
 
+    static final int CHECKPOINT_SPAN = 8192; // 체크포인트 간격(버킷 수)
+    static final int WARMUP = 1024;          // 체크포인트 상태를 만들 때 돌리는 워밍업 길이
+    static final int CHUNK = 1024;           // 이터레이터가 한 번에 생성하는 포인트 수
+    private static final int MAX_CACHED_CHECKPOINTS = 100_000;
+
+    private final long seed;
+
+    // (심볼/간격/시드 키, 체크포인트 번호) -> 체크포인트 직전 가격
+    private final ConcurrentMap<CheckpointKey, Double> checkpoints = new ConcurrentHashMap<>();
+
+    public SyntheticMarketDataSource(@Value("${stabilisim.synthetic.seed:42}") long seed) {
+        this.seed = seed;
+    }
+
     // 값이 경계 밖으로 튀지 않도록 간단한 클램프 함수 (디페그 폭주 방지)
     private static double clamp(double x, double lo, double hi) {
         return Math.max(lo, Math.min(hi, x));
@@ -35,56 +65,153 @@ public class SyntheticMarketDataSource implements MarketDataSource{
 
     @Override
     public List<Point> series(String symbol, Instant from, Instant to, String interval) {
-        //interval -> 초 단위 스텝으로 변환
-        long stepSec = switch (interval) {
-            case "1m" -> 60;    // 1분
-            case "5m" -> 300;   // 5분
-            case "1d" -> 86400; // 1일
-            default -> 3600;    // 기본 1시간
+        return stream(symbol, from, to, interval).toList();
+    }
+
+    // 포인트는 버킷 경계(epoch 기준 stepSec 배수)에만 있으므로 구간도 버킷 단위로 정렬 가능
+    @Override
+    public long alignmentSeconds(String interval) {
+        return stepSeconds(interval);
+    }
+
+    //interval -> 초 단위 스텝으로 변환 (null이면 1시간, 형식이 틀리면 IllegalArgumentException → 400)
+    private static long stepSeconds(String interval) {
+        return interval != null && !interval.isBlank() ? Intervals.toSeconds(interval) : 3600;
+    }
+
+
+    @Override
+    public Stream<Point> stream(String symbol, Instant from, Instant to, String interval) {
+        long stepSec = stepSeconds(interval);
+
+        var gen = new Generator(symbol, seed, stepSec);
+        // from 이상 첫 버킷 ~ to 이하 마지막 버킷
+        long firstBucket = Math.floorDiv(from.getEpochSecond() + stepSec - 1, stepSec);
+        long lastBucket = Math.floorDiv(to.getEpochSecond(), stepSec);
+
+        Iterator<Point> it = new Iterator<>() {
+            final double[] buf = new double[CHUNK];
+            long bufStart = firstBucket; // buf[0]의 버킷 번호
+            int len = 0, pos = 0;
+            long nextBucket = firstBucket;
+            double state = Double.NaN;   // 직전 버킷 가격 (NaN이면 체크포인트에서 복원)
+
+            @Override
+            public boolean hasNext() {
+                if (pos < len) return true;
+                if (nextBucket > lastBucket) return false;
+                // 다음 청크 생성
+                bufStart = nextBucket;
+                len = (int) Math.min(CHUNK, lastBucket - nextBucket + 1);
+                for (int i = 0; i < len; i++, nextBucket++) {
+                    if (Double.isNaN(state) || Math.floorMod(nextBucket, CHECKPOINT_SPAN) == 0) {
+                        state = stateBefore(gen, nextBucket);
+                    }
+                    state = gen.step(state, nextBucket);
+                    buf[i] = state;
+                }
+                pos = 0;
+                return true;
+            }
+
+            @Override
+            public Point next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                long bucket = bufStart + pos;
+                return new Point(Instant.ofEpochSecond(bucket * stepSec), buf[pos++]);
+            }
         };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * bucket을 생성하기 직전의 가격 상태.
+     * 소속 체크포인트 상태(캐시)에서 출발해 bucket 직전까지 전진 (최대 CHECKPOINT_SPAN 스텝).
+     */
+    private double stateBefore(Generator gen, long bucket) {
+        long cp = Math.floorDiv(bucket, CHECKPOINT_SPAN);
+        long cpStart = cp * CHECKPOINT_SPAN;
+        double s = checkpoint(gen, cp);
+        for (long b = cpStart; b < bucket; b++) s = gen.step(s, b);
+        return s;
+    }
+
+    // 체크포인트 cp 시작 직전 상태: mean에서 출발해 직전 WARMUP 버킷을 돌린 값
+    private double checkpoint(Generator gen, long cp) {
+        var key = new CheckpointKey(gen.key, cp);
+        Double cached = checkpoints.get(key);
+        if (cached != null) return cached;
+
+        long cpStart = cp * CHECKPOINT_SPAN;
+        double s = Generator.MEAN;
+        for (long b = cpStart - WARMUP; b < cpStart; b++) s = gen.step(s, b);
+
+        if (checkpoints.size() >= MAX_CACHED_CHECKPOINTS) checkpoints.clear(); // 단순 상한
+        checkpoints.put(key, s);
+        return s;
+    }
+
+    private record CheckpointKey(long generatorKey, long checkpoint) {}
 
+    /**
+     * 심볼/간격/시드별 생성 규칙.
+     * step(prev, bucket)은 순수 함수: 같은 (prev, bucket)이면 항상 같은 결과.
+     */
+    private static final class Generator {
+        static final double MEAN = 1.0000;
+
+        final long key;
         // 심볼별로 조금 다른 특성 부여
         // - meanRevert: 평균으로 끌어당기는 (값이 클수록 peg 복귀가 빠름)
         // - noiseSigma: 무작위 변동성 (값이 클수록 흔들림이 큼)
-        double mean = 1.0000;
-        double meanRevert = switch (symbol.toUpperCase()) {
-            case "USDT" -> 0.03;    //가장 안정적
-            case "USDC" -> 0.025;   // 중간
-            default -> 0.02;        // DAI 또는 기타 -> 약간 느슨
-        };
-
-        double noiseSigma = switch (symbol.toUpperCase()) {
-            case "USDT" -> 0.0006;
-            case "USDC" -> 0.0007;
-            default -> 0.0009;
-        };
-
-        // 재현성 보장용 고정 시드 (필요시 외부에서 seed 주입 가능) - 나중에 변환 예정.
-        Random rnd = new Random(42);
-        List<Point> out = new ArrayList<>();
+        final double meanRevert;
+        final double noiseSigma;
 
-        // 초기 가격은 mean(=1.0) 근처
-        double price = mean;
+        Generator(String symbol, long seed, long stepSec) {
+            String s = symbol.toUpperCase();
+            this.meanRevert = switch (s) {
+                case "USDT" -> 0.03;    //가장 안정적
+                case "USDC" -> 0.025;   // 중간
+                default -> 0.02;        // DAI 또는 기타 -> 약간 느슨
+            };
+            this.noiseSigma = switch (s) {
+                case "USDT" -> 0.0006;
+                case "USDC" -> 0.0007;
+                default -> 0.0009;
+            };
+            this.key = mix(mix(s.hashCode() * 0x9E3779B97F4A7C15L ^ seed) ^ stepSec);
+        }
 
-        // from~to 구간을 stepSec 간격으로 순회하며 포인트 생성
-        for (long ts = from.getEpochSecond(); ts <= to.getEpochSecond(); ts += stepSec) {
-            // 가우시안 노이즈 (랜덤 요인)
-            double noise = rnd.nextGaussian() * noiseSigma;
+        double step(double price, long bucket) {
+            // 가우시안 노이즈 (버킷 번호 기반 카운터 RNG)
+            double noise = gaussian(key, bucket) * noiseSigma;
 
             // 평균회귀 (peg로 복귀하려는 힘)
-            double pull = (mean - price) * meanRevert;
+            double pull = (MEAN - price) * meanRevert;
 
             //아주 미세한 계절성/파동 요소 (시각적 변동을 조금 더 자연스럽게)
-            //  - 48 샘플 주기로 사인파 가미 (interval에 따라 체감 주기 달라짐)
-            double wave =  Math.sin((ts - from.getEpochSecond()) / (double) stepSec / 48.0) * 0.0004;
+            //  - 48 버킷 주기로 사인파 가미 (epoch 버킷 기준이라 질의 시작점과 무관)
+            double wave = Math.sin(bucket / 48.0) * 0.0004;
 
             // 가격 갱신: noise + pull + wave
-            price = clamp(price + noise + pull + wave, 0.97, 1.03);
             // -> 0.97~1.03 사이로 제한: 합성 모드에서는 과도한 폭주를 막아 시각화/지표가 안정적이게 함.
+            return clamp(price + noise + pull + wave, 0.97, 1.03);
+        }
+
+        // SplitMix64 기반 카운터 RNG → Box-Muller 표준정규
+        static double gaussian(long key, long counter) {
+            long a = mix(key + counter * 0x9E3779B97F4A7C15L);
+            long b = mix(a ^ 0xD1B54A32D192ED03L);
+            double u1 = ((a >>> 11) + 1) * 0x1.0p-53; // (0, 1]
+            double u2 = (b >>> 11) * 0x1.0p-53;       // [0, 1)
+            return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+        }
 
-            // 결과 리스트에 추가 (시간 오름차순으로)
-            out.add(new Point(Instant.ofEpochSecond(ts), price));
+        static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
         }
-        return out;
     }
 }
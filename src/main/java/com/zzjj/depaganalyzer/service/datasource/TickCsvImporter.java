@@ -0,0 +1,81 @@
+package com.zzjj.depaganalyzer.service.datasource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * CSV → TickFile 임포트 도구.
+ *
+ * 입력 형식 (행마다 "timestamp,price"):
+ *  - timestamp: ISO-8601(2024-03-11T00:00:00Z) 또는 epoch 초/밀리초
+ *  - 첫 줄이 헤더(숫자가 아닌 값)면 자동으로 건너뜀
+ *  - 시간 오름차순이어야 하며, 기존 마지막 틱 이하 시각의 행은 건너뜀 (append-only)
+ *
+ * 사용:
+ *  ./gradlew importTicks -Pdir=./data/ticks -Psymbol=USDC -Pcsv=usdc_1m.csv
+ *
+ * 한 줄씩 읽어 바로 append하므로 CSV 크기와 무관하게 메모리 사용량이 일정하다.
+ * 임포트 중에도 서버(tickstore 프로파일)는 같은 파일을 읽기 전용으로 조회할 수 있다.
+ */
+public final class TickCsvImporter {
+    private TickCsvImporter() {}
+
+    /** 임포트 결과 요약. */
+    public record Result(long imported, long skipped) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: TickCsvImporter <storeDir> <SYMBOL> <file.csv>");
+            System.exit(2);
+        }
+        Path dir = Path.of(args[0]);
+        Files.createDirectories(dir);
+        var r = importCsv(Path.of(args[2]), TickStoreMarketDataSource.fileFor(dir, args[1]));
+        System.out.printf("imported=%d skipped=%d%n", r.imported(), r.skipped());
+    }
+
+    public static Result importCsv(Path csv, Path tickFile) throws IOException {
+        long imported = 0, skipped = 0;
+        try (TickFile out = TickFile.openForWrite(tickFile);
+             BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            boolean first = true;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                int comma = line.indexOf(',');
+                if (comma < 0) { skipped++; continue; }
+                String tsText = line.substring(0, comma).trim();
+                String pxText = line.substring(comma + 1).trim();
+                int next = pxText.indexOf(',');
+                if (next >= 0) pxText = pxText.substring(0, next).trim(); // 추가 컬럼 무시
+
+                long ts;
+                double px;
+                try {
+                    ts = parseEpochSecond(tsText);
+                    px = Double.parseDouble(pxText);
+                } catch (RuntimeException e) {
+                    if (!first) skipped++; // 첫 줄 파싱 실패는 헤더로 간주
+                    first = false;
+                    continue;
+                }
+                first = false;
+
+                if (out.append(ts, px)) imported++; else skipped++;
+            }
+        }
+        return new Result(imported, skipped);
+    }
+
+    private static long parseEpochSecond(String text) {
+        if (text.indexOf('T') > 0) return Instant.parse(text).getEpochSecond();
+        long v = Long.parseLong(text);
+        return v > 100_000_000_000L ? v / 1000 : v; // 밀리초 표기면 초로 변환
+    }
+}
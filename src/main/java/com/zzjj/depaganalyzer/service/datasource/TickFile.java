@@ -0,0 +1,229 @@
+package com.zzjj.depaganalyzer.service.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 심볼 하나의 append-only, 메모리 매핑 컬럼형 틱 파일.
+ *
+ * ─ 파일 레이아웃 ─
+ *  [헤더 64B] magic(8) | version(4) | blockRows(4) | count(8) | 예약
+ *  [블록 0] ts long[blockRows] | price double[blockRows]
+ *  [블록 1] ...
+ *  - 블록 안에서 컬럼형(epoch-seconds 열 → 가격 열)으로 저장해 범위 스캔이 연속 메모리를 읽도록 함
+ *  - 블록 단위로 매핑하므로 파일이 커져도 기존 매핑을 다시 만들 필요가 없음
+ *
+ * ─ 희소 시간 인덱스 ─
+ *  - 블록마다 첫 타임스탬프(firstTs)만 메모리에 보관 → 블록 이진 탐색 후 블록 내부 ts 열 이진 탐색
+ *
+ * ─ 동시성 ─
+ *  - 쓰기는 단일 작성자(append는 synchronized). 타임스탬프는 엄격히 증가해야 함.
+ *  - 데이터를 먼저 쓰고 헤더 count를 release로 갱신 → 읽는 쪽은 count를 acquire로 읽은 뒤
+ *    그 범위 안만 읽으므로 적재 중에도 여러 리더가 안전하게 동시 조회 가능.
+ *  - 다른 프로세스(임포트 도구)가 쓰는 파일도 읽기 전용으로 열어 refresh()로 새 블록을 따라감.
+ *    리더는 count()를 따로 읽지 말고 refresh()가 돌려준 행 수까지만 읽는다
+ *    (refresh와 count 사이에 새 블록이 추가되면 count가 아직 매핑하지 않은 블록을 가리킬 수 있음)
+ */
+public final class TickFile implements Closeable {
+
+    static final long MAGIC = 0x3130_4B43_4954_5044L; // "DPTICK01" (little-endian)
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int COUNT_OFFSET = 16;
+    public static final int DEFAULT_BLOCK_ROWS = 1 << 16; // 블록당 65,536행 (1MiB)
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private final MappedByteBuffer header;
+    private final int blockRows;
+    private final long blockBytes;
+
+    // copy-on-write: 새 블록이 생길 때만 배열을 교체 (리더는 락 없이 읽음)
+    private volatile MappedByteBuffer[] blocks = new MappedByteBuffer[0];
+    private volatile long[] firstTs = new long[0];
+
+    // 작성자 전용 상태
+    private long lastTs = Long.MIN_VALUE;
+
+    private TickFile(Path path, FileChannel channel, boolean readOnly, MappedByteBuffer header, int blockRows) {
+        this.path = path;
+        this.channel = channel;
+        this.readOnly = readOnly;
+        this.header = header;
+        this.blockRows = blockRows;
+        this.blockBytes = (long) blockRows * 16;
+    }
+
+    /** 쓰기 가능 모드로 열기 (없으면 생성). */
+    public static TickFile openForWrite(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /** 읽기 전용 모드로 열기 (파일이 있어야 함). */
+    public static TickFile openForRead(Path path) throws IOException {
+        return open(path, true);
+    }
+
+    private static TickFile open(Path path, boolean readOnly) throws IOException {
+        FileChannel ch = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean fresh = ch.size() == 0;
+            if (fresh && readOnly) throw new IOException("empty tick file: " + path);
+
+            MappedByteBuffer header = ch.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                    0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (fresh) {
+                header.putLong(0, MAGIC);
+                header.putInt(8, VERSION);
+                header.putInt(12, DEFAULT_BLOCK_ROWS);
+                LONG_VIEW.setRelease(header, COUNT_OFFSET, 0L);
+            } else if (header.getLong(0) != MAGIC) {
+                throw new IOException("not a tick file: " + path);
+            }
+
+            var f = new TickFile(path, ch, readOnly, header, header.getInt(12));
+            long n = f.refresh();
+            if (n > 0) f.lastTs = f.ts(n - 1);
+            return f;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public Path path() { return path; }
+
+    /** 커밋된 행 수 (acquire 읽기). */
+    public long count() {
+        return (long) LONG_VIEW.getAcquire(header, COUNT_OFFSET);
+    }
+
+    /**
+     * 타임스탬프가 직전보다 큰 경우에만 한 행을 추가한다.
+     *
+     * @return 추가했으면 true, 순서가 어긋나 건너뛰었으면 false
+     */
+    public synchronized boolean append(long epochSecond, double price) throws IOException {
+        if (readOnly) throw new IllegalStateException("tick file opened read-only: " + path);
+        if (epochSecond <= lastTs) return false;
+
+        long n = count();
+        int b = (int) (n / blockRows);
+        int row = (int) (n % blockRows);
+        if (b >= blocks.length) addBlock(b, epochSecond);
+
+        MappedByteBuffer blk = blocks[b];
+        blk.putLong(row * 8, epochSecond);
+        blk.putDouble((int) (blockRows * 8L + row * 8L), price);
+
+        lastTs = epochSecond;
+        LONG_VIEW.setRelease(header, COUNT_OFFSET, n + 1); // 데이터 기록 후 공개
+        return true;
+    }
+
+    /** 디스크로 강제 반영 (임포트 종료 시 등). */
+    public synchronized void force() {
+        for (var blk : blocks) blk.force();
+        header.force();
+    }
+
+    /**
+     * 다른 프로세스가 추가한 블록을 따라잡는다.
+     * 리더는 조회 전에 호출하고, 작성자는 addBlock에서 직접 갱신한다.
+     *
+     * @return 매핑이 보장된 커밋 행 수 (이 호출에서 읽은 count). 조회는 이 값을 상한으로 쓴다
+     */
+    public long refresh() throws IOException {
+        long n = count();
+        int needed = (int) ((n + blockRows - 1) / blockRows);
+        if (needed <= blocks.length) return n;
+        synchronized (this) {
+            for (int b = blocks.length; b < needed; b++) {
+                MappedByteBuffer blk = mapBlock(b);
+                publish(blk, blk.getLong(0));
+            }
+        }
+        return n;
+    }
+
+    /** i번째 행의 타임스탬프(epoch sec). i < count() 이어야 함. */
+    public long ts(long i) {
+        return blocks[(int) (i / blockRows)].getLong((int) (i % blockRows) * 8);
+    }
+
+    /** i번째 행의 가격. i < count() 이어야 함. */
+    public double price(long i) {
+        return blocks[(int) (i / blockRows)].getDouble((int) (blockRows * 8L + (i % blockRows) * 8L));
+    }
+
+    /**
+     * ts >= epochSecond 인 첫 행 인덱스 (없으면 limit).
+     * 희소 인덱스(블록 첫 ts)로 블록을 찾은 뒤 블록 내부를 이진 탐색.
+     */
+    public long lowerBound(long epochSecond, long limit) {
+        long[] idx = firstTs;
+        int nBlocks = (int) Math.min(idx.length, (limit + blockRows - 1) / blockRows);
+        if (nBlocks == 0) return 0;
+
+        // epochSecond 이하 firstTs를 가진 마지막 블록
+        int pos = Arrays.binarySearch(idx, 0, nBlocks, epochSecond);
+        int b = pos >= 0 ? pos : Math.max(0, -pos - 2);
+
+        long lo = (long) b * blockRows;
+        long hi = Math.min(limit, lo + blockRows);
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (ts(mid) < epochSecond) lo = mid + 1; else hi = mid;
+        }
+        // 블록 끝까지 모두 작으면 다음 블록 시작이 답
+        return lo;
+    }
+
+    private void addBlock(int b, long firstEpochSecond) throws IOException {
+        publish(mapBlock(b), firstEpochSecond);
+    }
+
+    private MappedByteBuffer mapBlock(int b) throws IOException {
+        long off = HEADER_BYTES + b * blockBytes;
+        MappedByteBuffer blk = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                off, blockBytes);
+        blk.order(ByteOrder.LITTLE_ENDIAN);
+        return blk;
+    }
+
+    // 블록 배열/인덱스를 새 배열로 교체 (리더는 이전 스냅샷을 계속 안전하게 사용)
+    private void publish(MappedByteBuffer blk, long first) {
+        var nb = Arrays.copyOf(blocks, blocks.length + 1);
+        var nf = Arrays.copyOf(firstTs, firstTs.length + 1);
+        nb[nb.length - 1] = blk;
+        nf[nf.length - 1] = first;
+        firstTs = nf;
+        blocks = nb;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!readOnly) force();
+        channel.close();
+    }
+
+    static boolean exists(Path path) {
+        return Files.isRegularFile(path);
+    }
+}
@@ -0,0 +1,226 @@
+package com.zzjj.depaganalyzer.service.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * TickStoreMarketDataSource
+ *
+ * - Postgres 없이 로컬 파일(심볼당 TickFile 1개)에서 과거 시세를 공급하는 구현체
+ * - 오프라인 연구 환경용: TickCsvImporter로 CSV를 적재한 뒤 "tickstore" 프로파일로 기동
+ *
+ * 조회 방식:
+ *  - series()는 희소 인덱스 + 이진 탐색으로 [from, to] 구간의 시작/끝 행을 찾고,
+ *    매핑된 파일을 직접 읽는 리스트 뷰를 반환 (복사 없음, 접근 시점에 Point 생성)
+ *  - interval이 "raw"/null이면 원시 틱 그대로, 그 외에는 버킷(interval)마다 마지막 틱 하나를 고른다.
+ *  - stream()은 리스트 없이 행 단위로 순회 (긴 구간 리플레이용)
+ *
+ * 프로파일:
+ *  - @Profile("tickstore") + @Primary → 활성화 시 합성 소스 대신 주입
+ *  - 저장 위치: stabilisim.tickstore.dir (기본 ./data/ticks), 파일명: {SYMBOL}.tick
+ */
+@Service
+@Primary
+@Profile("tickstore")
+public class TickStoreMarketDataSource implements MarketDataSource {
+
+    private final Path dir;
+    private final ConcurrentMap<String, TickFile> files = new ConcurrentHashMap<>();
+
+    public TickStoreMarketDataSource(@Value("${stabilisim.tickstore.dir:./data/ticks}") String dir) {
+        this.dir = Path.of(dir);
+    }
+
+    // "raw"/null/빈 값 = 버킷 샘플링 없이 원시 틱
+    private static boolean isRaw(String interval) {
+        return interval == null || interval.isBlank() || "raw".equalsIgnoreCase(interval);
+    }
+
+    /** 심볼의 틱 파일 경로 (임포트 도구와 공유하는 규칙). */
+    public static Path fileFor(Path dir, String symbol) {
+        return dir.resolve(symbol.toUpperCase(Locale.ROOT) + ".tick");
+    }
+
+    @Override
+    public List<Point> series(String symbol, Instant from, Instant to, String interval) {
+        TickFile f = open(symbol);
+        if (f == null) return List.of();
+
+        long n = snapshot(f); // 이 시점까지 커밋·매핑된 행만 본다 (이후 append와 무관한 일관된 스냅샷)
+        long start = f.lowerBound(from.getEpochSecond(), n);
+        long end = f.lowerBound(to.getEpochSecond() + 1, n); // to 포함
+        if (start >= end) return List.of();
+
+        if (isRaw(interval)) {
+            return new Slice(f, start, end);
+        }
+        return new Sampled(f, lastPerBucket(f, start, end, Intervals.toSeconds(interval)));
+    }
+
+    @Override
+    public void checkInterval(String interval) {
+        if (!isRaw(interval)) Intervals.toSeconds(interval);
+    }
+
+    /**
+     * 매핑된 파일을 행 단위로 직접 순회하는 지연 스트림.
+     * - 버킷 샘플링도 "다음 행이 다른 버킷이면 현재 행을 내보내는" 한 칸 선읽기로 처리 → 메모리 O(1)
+     */
+    @Override
+    public Stream<Point> stream(String symbol, Instant from, Instant to, String interval) {
+        TickFile f = open(symbol);
+        if (f == null) return Stream.empty();
+
+        long n = snapshot(f);
+        long start = f.lowerBound(from.getEpochSecond(), n);
+        long end = f.lowerBound(to.getEpochSecond() + 1, n);
+        boolean raw = isRaw(interval);
+        long stepSec = raw ? 0 : Intervals.toSeconds(interval);
+
+        Iterator<Point> it = new Iterator<>() {
+            long row = start;
+
+            @Override
+            public boolean hasNext() { return row < end; }
+
+            @Override
+            public Point next() {
+                if (row >= end) throw new NoSuchElementException();
+                if (!raw) {
+                    // 같은 버킷의 마지막 행까지 전진
+                    long bucket = Math.floorDiv(f.ts(row), stepSec);
+                    while (row + 1 < end && Math.floorDiv(f.ts(row + 1), stepSec) == bucket) row++;
+                }
+                long r = row++;
+                return new Point(Instant.ofEpochSecond(f.ts(r)), f.price(r));
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // 거래가 있을 때만 틱이 찍히므로 간격이 일정하지 않다
+    @Override
+    public boolean irregular() {
+        return true;
+    }
+
+    // 리샘플링 입력: 버킷 샘플링 없이 원시 틱
+    @Override
+    public Stream<Point> raw(String symbol, Instant from, Instant to) {
+        return stream(symbol, from, to, "raw");
+    }
+
+    // 적재 중인 다른 프로세스가 만든 블록을 반영하고, 매핑이 끝난 행 수를 돌려준다
+    // (count()를 따로 읽으면 그 사이 추가된 블록의 행까지 세어 매핑 밖을 읽을 수 있음)
+    private static long snapshot(TickFile f) {
+        try {
+            return f.refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TickFile open(String symbol) {
+        String key = symbol.toUpperCase(Locale.ROOT);
+        TickFile f = files.get(key);
+        if (f != null) return f;
+
+        Path p = fileFor(dir, key);
+        if (!Files.isRegularFile(p)) return null;
+        return files.computeIfAbsent(key, k -> {
+            try {
+                return TickFile.openForRead(p);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // 버킷(epoch 정렬)마다 마지막 틱의 행 번호만 모은다 → O(버킷 수) 메모리
+    private static long[] lastPerBucket(TickFile f, long start, long end, long stepSec) {
+        long[] idx = new long[64];
+        int k = 0;
+        long curBucket = Long.MIN_VALUE;
+        for (long i = start; i < end; i++) {
+            long bucket = Math.floorDiv(f.ts(i), stepSec);
+            if (bucket != curBucket) {
+                if (k == idx.length) idx = Arrays.copyOf(idx, k * 2);
+                k++;
+                curBucket = bucket;
+            }
+            idx[k - 1] = i; // 같은 버킷이면 마지막 행으로 덮어씀
+        }
+        return Arrays.copyOf(idx, k);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (var f : files.values()) f.close();
+    }
+
+    // [start, end) 원시 틱 구간 뷰 (매핑 메모리를 직접 읽음)
+    private static final class Slice extends AbstractList<Point> implements RandomAccess {
+        private final TickFile f;
+        private final long start;
+        private final int size;
+
+        Slice(TickFile f, long start, long end) {
+            this.f = f;
+            this.start = start;
+            this.size = (int) Math.min(Integer.MAX_VALUE, end - start);
+        }
+
+        @Override
+        public Point get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+            long row = start + i;
+            return new Point(Instant.ofEpochSecond(f.ts(row)), f.price(row));
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    // 선택된 행 번호 목록 뷰 (버킷 샘플링 결과)
+    private static final class Sampled extends AbstractList<Point> implements RandomAccess {
+        private final TickFile f;
+        private final long[] rows;
+
+        Sampled(TickFile f, long[] rows) {
+            this.f = f;
+            this.rows = rows;
+        }
+
+        @Override
+        public Point get(int i) {
+            long row = rows[i];
+            return new Point(Instant.ofEpochSecond(f.ts(row)), f.price(row));
+        }
+
+        @Override
+        public int size() { return rows.length; }
+    }
+}
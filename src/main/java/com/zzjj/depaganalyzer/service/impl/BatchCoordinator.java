@@ -0,0 +1,127 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.BatchResult;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+import com.zzjj.depaganalyzer.service.cluster.BatchJob;
+import com.zzjj.depaganalyzer.service.cluster.ClusterProperties;
+import com.zzjj.depaganalyzer.service.cluster.JobStatusStore;
+import com.zzjj.depaganalyzer.service.cluster.Shard;
+import com.zzjj.depaganalyzer.service.cluster.ShardResult;
+import com.zzjj.depaganalyzer.service.cluster.WorkQueue;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 분산 배치 시뮬의 코디네이터 (API 노드 쪽).
+ *
+ * - submit: 잡 메타를 JobStatusStore에 먼저 만들고, 멤버 구간을 샤드로 잘라 WorkQueue에 넣는다
+ *   (실행은 SimulationShardWorker가 같은/다른 JVM에서 담당)
+ * - status: 저장소의 샤드 요약을 그때그때 병렬 결합해 BatchResult로 만든다
+ *   → 코디네이터는 상태를 들고 있지 않으므로 어느 API 노드에서 조회해도 같은 결과
+ */
+@Component
+public class BatchCoordinator {
+
+    private static final int MAX_SHARDS = 4096; // 조회 시 읽는 샤드 결과 수 상한 (넘으면 shardSize를 키움)
+    private static final double DEFAULT_CONFIDENCE = 0.95;
+    private static final SensitivityResult.Metric[] METRICS = SensitivityResult.Metric.values();
+
+    private final WorkQueue queue;
+    private final JobStatusStore jobs;
+    private final ClusterProperties props;
+
+    public BatchCoordinator(WorkQueue queue, JobStatusStore jobs, ClusterProperties props) {
+        this.queue = queue;
+        this.jobs = jobs;
+        this.props = props;
+    }
+
+    /** 요청 검증 (호출 스레드에서 바로 400을 내기 위해 분리) */
+    public void validate(BatchRequest req) {
+        if (req.base().replay() != null) {
+            throw new IllegalArgumentException("replay is not supported for batch simulations");
+        }
+        ScenarioSchedule.compile(req.base().scenarios(), req.base().steps());
+        long total = (long) req.base().steps() * req.members();
+        if (total > props.maxTotalSteps()) {
+            throw new IllegalArgumentException("batch too large: steps × members = " + total
+                    + " (limit " + props.maxTotalSteps() + ")");
+        }
+    }
+
+    /** 잡 등록 + 샤드 분배 */
+    public BatchJob submit(String id, BatchRequest req) {
+        validate(req);
+        int members = req.members();
+        int requested = req.shardSize() != null ? req.shardSize() : props.shardSize();
+        int shardSize = Math.max(requested, ceilDiv(members, MAX_SHARDS));
+        int shards = ceilDiv(members, shardSize);
+
+        BatchJob job = new BatchJob(id, req, shardSize, shards, Instant.now());
+        jobs.create(job); // 메타가 먼저 있어야 빠른 워커의 결과가 버려지지 않는다
+        for (int i = 0; i < shards; i++) {
+            int from = i * shardSize;
+            queue.enqueue(new Shard(id, i, req.base(), from, Math.min(members, from + shardSize)));
+        }
+        return job;
+    }
+
+    /** 현재 상태/중간 결과 (없는 잡이면 null) */
+    public BatchResult status(String id) {
+        BatchJob job = jobs.job(id);
+        if (job == null) return null;
+        BatchRequest req = job.request();
+
+        ShardResult.Moments[] acc = new ShardResult.Moments[METRICS.length];
+        Arrays.fill(acc, ShardResult.Moments.EMPTY);
+        int done = 0, failed = 0;
+        long membersDone = 0;
+        TreeSet<String> workers = new TreeSet<>();
+        Instant finishedAt = null;
+        String error = null;
+        for (ShardResult r : jobs.results(id)) {
+            if (r.error() != null) {
+                failed++;
+                if (error == null) error = "shard " + r.index() + ": " + r.error();
+            } else {
+                done++;
+                membersDone += r.members();
+                for (var e : r.metrics().entrySet()) {
+                    int k = e.getKey().ordinal();
+                    acc[k] = acc[k].merge(e.getValue());
+                }
+            }
+            if (r.workerId() != null) workers.add(r.workerId());
+            if (finishedAt == null || r.finishedAt().isAfter(finishedAt)) finishedAt = r.finishedAt();
+        }
+
+        boolean complete = done + failed >= job.shards();
+        BatchResult.Status status = complete
+                ? (failed > 0 ? BatchResult.Status.FAILED : BatchResult.Status.FINISHED)
+                : (done + failed == 0 ? BatchResult.Status.QUEUED : BatchResult.Status.RUNNING);
+
+        double confidence = req.confidence() != null ? req.confidence() : DEFAULT_CONFIDENCE;
+        Map<SensitivityResult.Metric, BatchResult.MetricSummary> metrics = new EnumMap<>(SensitivityResult.Metric.class);
+        for (int k = 0; k < METRICS.length; k++) {
+            ShardResult.Moments m = acc[k];
+            metrics.put(METRICS[k], new BatchResult.MetricSummary(
+                    EnsembleStats.estimate(m.n(), m.mean(), m.m2(), confidence),
+                    m.n() > 0 ? m.min() : null,
+                    m.n() > 0 ? m.max() : null));
+        }
+        return new BatchResult(id, status, req.base().steps(), req.members(), job.shards(), done, failed,
+                membersDone, (double) (done + failed) / job.shards(), metrics, List.copyOf(workers),
+                job.createdAt(), complete ? finishedAt : null, error);
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+}
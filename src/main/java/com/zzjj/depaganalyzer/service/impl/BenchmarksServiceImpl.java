@@ -4,21 +4,38 @@ import com.zzjj.depaganalyzer.dto.benchmark.BenchmarkPegDeviationResponse;
 import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
 import com.zzjj.depaganalyzer.service.BenchmarksService;
 import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.coalesce.RangeKey;
+import com.zzjj.depaganalyzer.service.coalesce.SingleFlight;
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 //**MetricsService**를 재사용해서 각 심볼의 지표를 뽑아 동일 포맷으로 묶는 것.
+// 같은 심볼 집합(순서 무관)/정렬된 구간/인터벌의 동시 요청은 계산 하나를 공유하고,
+// 심볼별 지표는 MetricsService의 요약 합치기를 거치므로 겹치는 심볼의 다른 벤치마크/메트릭 요청과도 공유된다.
 @Service
 public class BenchmarksServiceImpl implements BenchmarksService {
     private final MetricsService metricsService;
+    private final MarketDataSource source; // 구간 정렬 단위 (합치기 키)
+    private final SingleFlight<BenchKey, BenchmarkPegDeviationResponse> flight;
 
-    public BenchmarksServiceImpl(MetricsService metricsService) {
+    // symbols는 정렬된 목록 (USDT,USDC와 USDC,USDT는 같은 계산), range.symbol은 null
+    private record BenchKey(List<String> symbols, RangeKey range) {}
+
+    public BenchmarksServiceImpl(MetricsService metricsService, MarketDataSource source, MeterRegistry registry) {
         this.metricsService = metricsService;
+        this.source = source;
+        this.flight = new SingleFlight<>("benchmark", registry);
     }
     @Override
     public BenchmarkPegDeviationResponse pegDeviation(List<String> symbols, Instant from, Instant to, String interval) {
@@ -38,12 +55,34 @@ public class BenchmarksServiceImpl implements BenchmarksService {
         Instant _to = (to != null) ? to : Instant.now();
         Instant _from = (from != null) ? from : _to.minus(7, ChronoUnit.DAYS);
         String _interval = (interval != null && !interval.isBlank()) ? interval : "1h";
+        metricsService.checkInterval(_interval); // 합치기/심볼 루프에 들어가기 전에 400
+
+        var key = new BenchKey(distinct.stream().sorted().toList(), RangeKey.of(source, null, _from, _to, _interval));
+        var shared = flight.execute(key, () -> compute(distinct, _from, _to, _interval));
+        if (shared.symbols().equals(List.copyOf(distinct)) && shared.from().equals(_from) && shared.to().equals(_to)) {
+            return shared;
+        }
+        // 공유받은 결과: 호출자의 심볼 순서/구간 표기로 다시 담는다
+        Map<String, BenchmarkPegDeviationResponse.Result> bySymbol = new HashMap<>();
+        for (var r : shared.results()) bySymbol.put(r.symbol(), r);
+        List<BenchmarkPegDeviationResponse.Result> results = new ArrayList<>(distinct.size());
+        for (String symbol : distinct) results.add(bySymbol.get(symbol));
+        return new BenchmarkPegDeviationResponse(new ArrayList<>(distinct), _from, _to, _interval, results);
+    }
 
-        // 1) 각 심볼에 대해 MetricsService 호출 → 요약 지표만 추출
+    // 벤치마크 본체 (합치기 leader만 실행)
+    private BenchmarkPegDeviationResponse compute(LinkedHashSet<String> distinct, Instant _from, Instant _to,
+                                                  String _interval) {
+        // 1) 각 심볼에 대해 MetricsService 스캔 → 요약 지표만 추출
+        //    (샘플 리스트를 만들지 않는 scanMetrics 사용: 긴 구간도 메모리 일정)
         List<BenchmarkPegDeviationResponse.Result> results = new ArrayList<>(distinct.size());
         for (String symbol : distinct) {
-            AssetMetricsResponse m = metricsService.getMetrics(symbol, _from, _to, _interval);
-            AssetMetricsResponse.Metrics mm = m.metrics();
+            AssetMetricsResponse.Metrics mm;
+            try {
+                mm = metricsService.scanMetrics(symbol, _from, _to, _interval, MetricsService.SampleSink.NONE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
 
             // null 방지(지표 계산 실패 시 안전하게 0 또는 null 유지)
             Double avgDev = (mm != null) ? mm.avgDeviation() : null;
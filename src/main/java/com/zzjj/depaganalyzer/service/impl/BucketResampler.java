@@ -0,0 +1,258 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.metrics.OhlcResponse;
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource.Point;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 시간 버킷 리샘플링 엔진.
+ *
+ * ─ 1단계: aggregate (파티션별, 병렬 가능) ─
+ * - 버킷 구간 [b0, b0+n) 에 속하는 원본 틱을 한 번 순회하며 버킷마다 OHLC / 틱 수 / 첫 틱 시각과
+ *   "가격 × 유지 시간" 합을 누적 (틱은 보관하지 않음 → 메모리는 버킷 수에만 비례)
+ * - 유지 시간은 다음 틱까지, 단 버킷 끝(또는 구간 끝)에서 자른다
+ *   → 버킷끼리(파티션끼리) 독립. 버킷 시작 ~ 첫 틱 사이는 직전 버킷 종가가 유지된 것으로 보고 2단계에서 채운다
+ *
+ * ─ 2단계: finish (순차, 버킷 수만큼) ─
+ * - 파티션 결과를 이어 붙이며 빈 버킷을 GapPolicy대로 처리하고 구간 전체 지표를 만든다
+ * - 지표만 필요하면(metrics) 파티션을 만드는 대로 바로 접어 버킷 목록/파티션을 들고 있지 않는다
+ * - 변동성: 실제 데이터 버킷 종가 사이 로그수익률 r을 √k(k = 두 버킷 사이 칸 수)로 나눠 한 칸 기준으로 맞춘 뒤
+ *   Welford 모표준편차 (빈 버킷을 건너뛴 수익률이 변동성을 부풀리지 않게)
+ *
+ * 시간 단위는 초. 구간은 [from, to] 포함이며 마지막 초까지 가격이 유지된 것으로 본다 (end = to + 1).
+ */
+final class BucketResampler {
+
+    private BucketResampler() {}
+
+    /** 파티션 하나의 버킷별 누적값 (인덱스 i = 버킷 firstBucket + i) */
+    static final class Partial {
+        final long firstBucket;
+        final double[] open, high, low, close;
+        final double[] priceDt, devDt;  // Σ p·dt, Σ |p-1|·dt (첫 틱 ~ 버킷 끝)
+        final long[] upDt, heldDt;      // 밴드 안 유지 시간, 전체 유지 시간
+        final long[] firstT;
+        final int[] ticks;
+        long totalTicks;
+
+        Partial(long firstBucket, int n) {
+            this.firstBucket = firstBucket;
+            open = new double[n];
+            high = new double[n];
+            low = new double[n];
+            close = new double[n];
+            priceDt = new double[n];
+            devDt = new double[n];
+            upDt = new long[n];
+            heldDt = new long[n];
+            firstT = new long[n];
+            ticks = new int[n];
+        }
+
+        int size() { return ticks.length; }
+    }
+
+    /**
+     * 틱 스트림 한 번 순회로 버킷 [firstBucket, firstBucket+n) 누적.
+     *
+     * @param ticks 시간 오름차순 틱 (이 파티션 구간 밖의 틱은 무시)
+     * @param from  전체 구간 시작(초). 첫 버킷이 from 이전에서 시작해도 from 전 시간은 세지 않는다
+     * @param end   전체 구간 끝(초, 미포함)
+     */
+    static Partial aggregate(Iterator<Point> ticks, long firstBucket, int n, long iv, long from, long end) {
+        Partial a = new Partial(firstBucket, n);
+        int cur = -1;
+        long lastT = 0;
+        double lastP = 0;
+        while (ticks.hasNext()) {
+            Point p = ticks.next();
+            long t = p.t().getEpochSecond();
+            int i = (int) (Math.floorDiv(t, iv) - firstBucket);
+            if (i < 0 || i >= n || t < from || t >= end || t < lastT) continue;
+            double px = p.price();
+
+            if (i == cur) {
+                hold(a, cur, lastP, t - lastT);
+                if (px > a.high[i]) a.high[i] = px;
+                if (px < a.low[i]) a.low[i] = px;
+            } else {
+                if (cur >= 0) hold(a, cur, lastP, Math.min((firstBucket + cur + 1) * iv, end) - lastT);
+                cur = i;
+                a.open[i] = px;
+                a.high[i] = px;
+                a.low[i] = px;
+                a.firstT[i] = t;
+            }
+            a.close[i] = px;
+            a.ticks[i]++;
+            a.totalTicks++;
+            lastT = t;
+            lastP = px;
+        }
+        if (cur >= 0) hold(a, cur, lastP, Math.min((firstBucket + cur + 1) * iv, end) - lastT);
+        return a;
+    }
+
+    private static void hold(Partial a, int i, double px, long dt) {
+        if (dt <= 0) return;
+        a.priceDt[i] += px * dt;
+        a.devDt[i] += Math.abs(px - 1.0) * dt;
+        if (px >= RiskMetricsCalc.PEG_LOWER && px <= RiskMetricsCalc.PEG_UPPER) a.upDt[i] += dt;
+        a.heldDt[i] += dt;
+    }
+
+    /** 2단계 결과 (DTO 조립은 서비스에서) */
+    record Result(List<OhlcResponse.Bucket> buckets, OhlcResponse.Metrics metrics,
+                  int dataBuckets, int gapBuckets, long ticks) {}
+
+    /**
+     * 파티션(버킷 순서대로 이어지는)을 합쳐 버킷 목록과 구간 지표 생성.
+     */
+    static Result finish(List<Partial> parts, OhlcResponse.GapPolicy gaps, long iv, long from, long end) {
+        int total = parts.stream().mapToInt(Partial::size).sum();
+        Finisher f = new Finisher(gaps, iv, from, end, new ArrayList<>(gaps == OhlcResponse.GapPolicy.SKIP ? 16 : total));
+        for (Partial a : parts) f.add(a);
+        return new Result(f.out, f.metrics(), f.dataBuckets, f.gapBuckets, f.ticks);
+    }
+
+    /**
+     * 버킷 목록 없이 구간 지표만 (/metrics의 불규칙 소스 경로, 빈 버킷은 FLAG처럼 시간가중에서 제외).
+     * - chunk 버킷씩 차례로 원본을 조회해 aggregate → Finisher에 접는다 → 메모리는 구간 길이와 무관하게 O(chunk)
+     * - 파티션 경계와 무관하게 finish와 같은 값 (버킷끼리 독립, 이어지는 상태는 Finisher가 들고 감)
+     */
+    static OhlcResponse.Metrics metrics(MarketDataSource source, String symbol, long iv, long from, long end, int chunk) {
+        Finisher f = new Finisher(OhlcResponse.GapPolicy.FLAG, iv, from, end, null);
+        long last = Math.floorDiv(end - 1, iv);
+        for (long b0 = Math.floorDiv(from, iv); b0 <= last; b0 += chunk) {
+            f.add(aggregate(source, symbol, b0, (int) Math.min(chunk, last - b0 + 1), iv, from, end));
+        }
+        return f.metrics();
+    }
+
+    /** 버킷 [b0, b0+size) 구간의 원본만 조회해 집계 */
+    static Partial aggregate(MarketDataSource source, String symbol, long b0, int size, long iv, long from, long end) {
+        Instant lo = Instant.ofEpochSecond(Math.max(from, b0 * iv));
+        Instant hi = Instant.ofEpochSecond(Math.min(end, (b0 + size) * iv) - 1);
+        try (var ticks = source.raw(symbol, lo, hi)) {
+            return aggregate(ticks.iterator(), b0, size, iv, from, end);
+        }
+    }
+
+    /**
+     * 2단계 누적기: 파티션을 버킷 순서대로 하나씩 받아 빈 버킷 처리 + 구간 지표 누적.
+     * out이 null이면 버킷 목록은 만들지 않는다.
+     */
+    private static final class Finisher {
+        private final OhlcResponse.GapPolicy gaps;
+        private final long iv, from, end;
+        private final List<OhlcResponse.Bucket> out;
+
+        private double prevClose = Double.NaN;  // 직전 버킷(데이터/채움)의 종가. 빈 칸을 지나면 NaN (FILL 제외)
+        private double lastReal = Double.NaN;   // 마지막 실제 데이터 버킷 종가 (변동성용)
+        private long lastRealIdx = 0;
+        private long idx = 0;
+
+        private double priceDt = 0, devDt = 0;
+        private long upDt = 0, heldDt = 0, ticks = 0;
+        private int dataBuckets = 0, gapBuckets = 0;
+        private long nRet = 0;
+        private double retMean = 0, retM2 = 0;
+
+        Finisher(OhlcResponse.GapPolicy gaps, long iv, long from, long end, List<OhlcResponse.Bucket> out) {
+            this.gaps = gaps;
+            this.iv = iv;
+            this.from = from;
+            this.end = end;
+            this.out = out;
+        }
+
+        void add(Partial a) {
+            ticks += a.totalTicks;
+            for (int i = 0; i < a.size(); i++, idx++) {
+                long b = a.firstBucket + i;
+                long start = Math.max(b * iv, from);
+                long stop = Math.min((b + 1) * iv, end);
+
+                if (a.ticks[i] > 0) {
+                    dataBuckets++;
+                    double bp = a.priceDt[i], bd = a.devDt[i];
+                    long bu = a.upDt[i], bh = a.heldDt[i];
+                    // 첫 틱 전: 직전 종가 유지
+                    long head = a.firstT[i] - start;
+                    if (head > 0 && !Double.isNaN(prevClose)) {
+                        bp += prevClose * head;
+                        bd += Math.abs(prevClose - 1.0) * head;
+                        if (prevClose >= RiskMetricsCalc.PEG_LOWER && prevClose <= RiskMetricsCalc.PEG_UPPER) bu += head;
+                        bh += head;
+                    }
+                    priceDt += bp;
+                    devDt += bd;
+                    upDt += bu;
+                    heldDt += bh;
+
+                    double c = a.close[i];
+                    if (lastReal > 0 && c > 0) {
+                        double r = Math.log(c / lastReal) / Math.sqrt(idx - lastRealIdx);
+                        nRet++;
+                        double d = r - retMean;
+                        retMean += d / nRet;
+                        retM2 += d * (r - retMean);
+                    }
+                    lastReal = c;
+                    lastRealIdx = idx;
+                    prevClose = c;
+
+                    // vwap: Point에 거래량이 없어 계산 불가 → null (거래량 있는 소스가 생기면 여기서 Σpv/Σv)
+                    if (out != null) {
+                        out.add(new OhlcResponse.Bucket(Instant.ofEpochSecond(b * iv), OhlcResponse.Kind.DATA,
+                                a.open[i], a.high[i], a.low[i], c, bh > 0 ? bp / bh : c, null, a.ticks[i]));
+                    }
+                    continue;
+                }
+
+                gapBuckets++;
+                if (gaps == OhlcResponse.GapPolicy.FILL && !Double.isNaN(prevClose)) {
+                    long dt = stop - start;
+                    if (dt > 0) {
+                        priceDt += prevClose * dt;
+                        devDt += Math.abs(prevClose - 1.0) * dt;
+                        if (prevClose >= RiskMetricsCalc.PEG_LOWER && prevClose <= RiskMetricsCalc.PEG_UPPER) upDt += dt;
+                        heldDt += dt;
+                    }
+                    if (out != null) {
+                        out.add(new OhlcResponse.Bucket(Instant.ofEpochSecond(b * iv), OhlcResponse.Kind.FILLED,
+                                prevClose, prevClose, prevClose, prevClose, prevClose, null, 0));
+                    }
+                    continue;
+                }
+                prevClose = Double.NaN;
+                // 채울 값이 없는 FILL(구간 앞쪽 빈 칸)은 FLAG처럼 표시
+                if (out != null && gaps != OhlcResponse.GapPolicy.SKIP) {
+                    out.add(new OhlcResponse.Bucket(Instant.ofEpochSecond(b * iv), OhlcResponse.Kind.GAP,
+                            null, null, null, null, null, null, 0));
+                }
+            }
+        }
+
+        OhlcResponse.Metrics metrics() {
+            return new OhlcResponse.Metrics(
+                    heldDt > 0 ? priceDt / heldDt : null,
+                    heldDt > 0 ? devDt / heldDt : null,
+                    nRet > 0 ? Math.sqrt(retM2 / nRet) : null,
+                    heldDt > 0 ? (double) upDt / heldDt : null,
+                    heldDt);
+        }
+    }
+
+    /** 전체 버킷 [first, first+total)을 최대 parts개의 연속 구간으로 나눈 시작 오프셋 (마지막 원소 = total) */
+    static int[] split(int total, int parts) {
+        int[] bounds = new int[parts + 1];
+        for (int k = 0; k <= parts; k++) bounds[k] = (int) ((long) total * k / parts);
+        return bounds;
+    }
+}
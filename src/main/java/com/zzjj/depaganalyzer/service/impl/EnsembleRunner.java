@@ -0,0 +1,256 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleResult;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+
+/**
+ * 적응형 몬테카를로 앙상블 실행기 (목표 정밀도 도달 시 조기 종료).
+ *
+ * ─ 동작 ─
+ * 1) 경로(시드)를 waveSize개씩 웨이브로 묶어 워커 풀에 배치. 항상 PIPELINE개 웨이브를 미리 띄워 둔다
+ *    (판정 대기 중에도 코어가 놀지 않게)
+ * 2) 웨이브가 끝날 때마다(배치 순서대로) 지표를 t-digest/Welford에 반영하고 목표 지표의 신뢰구간 반폭 계산
+ *    - 평균 목표: t · s/√n
+ *    - 분위수 목표: 순서통계량 구간 [Q(q - z·√(q(1-q)/n)), Q(q + z·√(q(1-q)/n))] (분포 가정 없음)
+ * 3) 반폭 < 목표(그리고 경로 수 ≥ minPaths)면 수렴: 대기 중인 경로는 취소, 실행 중인 경로는
+ *    취소 플래그를 보고 수천 스텝 안에 멈춘다 → 남은 CPU 낭비 없음
+ *    (판정 사이에 이미 끝난 경로는 취소가 아니라 버림으로 따로 센다)
+ *
+ * ─ 재현성 ─
+ * - 경로 i의 시드는 EnsembleStats.memberSeed(seed, i), 집계는 웨이브(배치) 순서 → 같은 요청이면 같은 결과
+ */
+@Component
+public class EnsembleRunner {
+
+    private static final int DEFAULT_WAVE = 64;
+    private static final int DEFAULT_MIN_PATHS = 128;
+    private static final int DEFAULT_MAX_PATHS = 100_000;
+    private static final double DEFAULT_CONFIDENCE = 0.95;
+    private static final List<Double> DEFAULT_QUANTILES = List.of(0.05, 0.5, 0.95);
+    private static final int PIPELINE = 2;           // 동시에 띄워 두는 웨이브 수
+    private static final double COMPRESSION = 200;   // t-digest δ (꼬리 분위수 정확도)
+    private static final SensitivityResult.Metric[] METRICS = SensitivityResult.Metric.values();
+
+    private final ExecutorService workers;
+    private final long maxTotalSteps;
+
+    public EnsembleRunner(
+            @Value("${stabilisim.ensemble.parallelism:0}") int parallelism,
+            @Value("${stabilisim.ensemble.maxTotalSteps:2000000000}") long maxTotalSteps
+    ) {
+        int n = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "ensemble-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.maxTotalSteps = maxTotalSteps;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** 요청 검증 (호출 스레드에서 바로 400을 내기 위해 분리) */
+    public void validate(EnsembleRequest req) {
+        if (req.base().replay() != null) {
+            throw new IllegalArgumentException("replay is not supported for ensembles");
+        }
+        ScenarioSchedule.compile(req.base().scenarios(), req.base().steps());
+        if (minPaths(req) > maxPaths(req)) {
+            throw new IllegalArgumentException("minPaths must be <= maxPaths");
+        }
+        for (double q : quantiles(req)) {
+            if (!(q > 0 && q < 1)) throw new IllegalArgumentException("quantiles must be in (0, 1): " + q);
+        }
+        long total = (long) req.base().steps() * maxPaths(req);
+        if (total > maxTotalSteps) {
+            throw new IllegalArgumentException("ensemble too large: steps × maxPaths = " + total
+                    + " (limit " + maxTotalSteps + ")");
+        }
+    }
+
+    /**
+     * 앙상블 실행 (블로킹). 진행률은 maxPaths 대비 집계된 경로 비율 (조기 종료 시 1에 못 미친 채 끝날 수 있음).
+     */
+    public EnsembleResult run(String id, EnsembleRequest req, DoubleConsumer progress) throws InterruptedException {
+        validate(req);
+        Instant startedAt = Instant.now();
+        SimulationRequest base = req.base();
+        var target = req.target();
+        int wave = req.waveSize() != null ? req.waveSize() : DEFAULT_WAVE;
+        int minPaths = minPaths(req), maxPaths = maxPaths(req);
+        double confidence = req.confidence() != null ? req.confidence() : DEFAULT_CONFIDENCE;
+        long baseSeed = base.seed() != null ? base.seed() : 42;
+
+        ScenarioSchedule schedule = ScenarioSchedule.compile(base.scenarios(), base.steps()); // 모든 경로가 공유
+        Accumulator acc = new Accumulator();
+        AtomicBoolean stop = new AtomicBoolean(false);
+        Deque<List<Future<RiskMetrics>>> inflight = new ArrayDeque<>();
+        int dispatched = 0, used = 0, waves = 0, cancelled = 0, discarded = 0;
+        boolean converged = false;
+        Double halfWidth = null;
+
+        try {
+            while (inflight.size() < PIPELINE && dispatched < maxPaths) {
+                int n = Math.min(wave, maxPaths - dispatched);
+                inflight.add(dispatch(base, schedule, baseSeed, dispatched, n, stop));
+                dispatched += n;
+            }
+            while (!inflight.isEmpty()) {
+                // 가장 먼저 배치한 웨이브부터 집계 (완료 순서와 무관하게 결정적)
+                for (Future<RiskMetrics> f : inflight.peek()) {
+                    acc.add(f.get());
+                    used++;
+                }
+                inflight.poll();
+                waves++;
+                progress.accept((double) used / maxPaths);
+
+                if (used >= minPaths) {
+                    halfWidth = acc.halfWidth(target, confidence);
+                    if (halfWidth != null && halfWidth < target.halfWidth()) {
+                        converged = true;
+                        break;
+                    }
+                }
+                if (dispatched < maxPaths) {
+                    int n = Math.min(wave, maxPaths - dispatched);
+                    inflight.add(dispatch(base, schedule, baseSeed, dispatched, n, stop));
+                    dispatched += n;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ensemble path failed", e.getCause());
+        } finally {
+            // 남은 경로 정리: 대기 중이면 시작 자체를 막고, 실행 중이면 stop 플래그로 중단
+            // (cancel이 false면 이미 끝난 경로 → 집계하지 않고 버린 것으로 센다)
+            stop.set(true);
+            for (var w : inflight) {
+                for (var f : w) {
+                    if (f.cancel(false)) cancelled++;
+                    else discarded++;
+                }
+            }
+        }
+
+        Map<SensitivityResult.Metric, EnsembleResult.MetricSummary> metrics = new EnumMap<>(SensitivityResult.Metric.class);
+        for (int k = 0; k < METRICS.length; k++) {
+            metrics.put(METRICS[k], acc.summary(k, quantiles(req), confidence));
+        }
+        return new EnsembleResult(id, SimulationResult.Status.FINISHED, base.steps(), target,
+                converged, halfWidth, used, cancelled, discarded, waves, metrics, startedAt, Instant.now(), null);
+    }
+
+    private List<Future<RiskMetrics>> dispatch(SimulationRequest base, ScenarioSchedule schedule, long baseSeed,
+                                              int from, int n, AtomicBoolean stop) {
+        List<Future<RiskMetrics>> fs = new ArrayList<>(n);
+        for (int i = from; i < from + n; i++) {
+            long seed = EnsembleStats.memberSeed(baseSeed, i);
+            fs.add(workers.submit(() -> ReserveModel.simulateMetrics(
+                    base.params(), schedule, base.steps(), base.dt(), seed, stop::get)));
+        }
+        return fs;
+    }
+
+    /**
+     * 지표별 스트리밍 집계: t-digest(분위수) + Welford(평균/분산).
+     * 코디네이터 스레드 하나만 접근하므로 동기화 없음.
+     */
+    private static final class Accumulator {
+        final TDigest[] digests = new TDigest[METRICS.length];
+        final long[] n = new long[METRICS.length];
+        final double[] mean = new double[METRICS.length];
+        final double[] m2 = new double[METRICS.length];
+
+        Accumulator() {
+            for (int k = 0; k < digests.length; k++) digests[k] = new TDigest(COMPRESSION);
+        }
+
+        void add(RiskMetrics m) {
+            if (m == null) return; // 취소된 경로 (정상 흐름에선 집계 전에 취소되지 않음)
+            double[] xs = EnsembleStats.toArray(m);
+            for (int k = 0; k < xs.length; k++) {
+                double x = xs[k];
+                if (Double.isNaN(x)) continue;
+                digests[k].add(x);
+                n[k]++;
+                double d = x - mean[k];
+                mean[k] += d / n[k];
+                m2[k] += d * (x - mean[k]);
+            }
+        }
+
+        // 목표 지표의 신뢰구간 반폭 (표본이 부족하면 null)
+        Double halfWidth(EnsembleRequest.Target t, double confidence) {
+            int k = t.metric().ordinal();
+            if (t.quantile() == null) {
+                var e = EnsembleStats.estimate(n[k], mean[k], m2[k], confidence);
+                return e.ciHigh() != null ? (e.ciHigh() - e.ciLow()) / 2 : null;
+            }
+            double[] ci = quantileCi(k, t.quantile(), confidence);
+            return ci != null ? (ci[1] - ci[0]) / 2 : null;
+        }
+
+        // 순서통계량 기반 분위수 신뢰구간 (정규 근사 순위 ± z·√(n q (1-q)))
+        double[] quantileCi(int k, double q, double confidence) {
+            long cnt = digests[k].size();
+            if (cnt < 2) return null;
+            double z = EnsembleStats.normalQuantile((1 + confidence) / 2);
+            double d = z * Math.sqrt(q * (1 - q) / cnt);
+            return new double[]{
+                    digests[k].quantile(Math.max(0.0, q - d)),
+                    digests[k].quantile(Math.min(1.0, q + d))
+            };
+        }
+
+        EnsembleResult.MetricSummary summary(int k, List<Double> qs, double confidence) {
+            List<EnsembleResult.QuantileEstimate> out = new ArrayList<>(qs.size());
+            for (double q : qs) {
+                double v = digests[k].quantile(q);
+                double[] ci = quantileCi(k, q, confidence);
+                out.add(new EnsembleResult.QuantileEstimate(q,
+                        Double.isNaN(v) ? null : v,
+                        ci != null ? ci[0] : null,
+                        ci != null ? ci[1] : null));
+            }
+            return new EnsembleResult.MetricSummary(EnsembleStats.estimate(n[k], mean[k], m2[k], confidence), out);
+        }
+    }
+
+    static int minPaths(EnsembleRequest req) {
+        return req.minPaths() != null ? req.minPaths() : Math.min(DEFAULT_MIN_PATHS, maxPaths(req));
+    }
+
+    private static int maxPaths(EnsembleRequest req) {
+        return req.maxPaths() != null ? req.maxPaths() : DEFAULT_MAX_PATHS;
+    }
+
+    private static List<Double> quantiles(EnsembleRequest req) {
+        return req.quantiles() != null && !req.quantiles().isEmpty() ? req.quantiles() : DEFAULT_QUANTILES;
+    }
+}
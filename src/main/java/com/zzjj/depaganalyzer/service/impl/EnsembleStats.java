@@ -0,0 +1,179 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+
+//공용 유틸: 앙상블(여러 시드) 결과의 평균/표준오차/신뢰구간
+final class EnsembleStats {
+    private EnsembleStats() {} //유틸 클래스이므로 인스턴스 방지
+
+    // 멤버 0은 요청 시드 그대로 (단일 실행과 같은 경로), 이후는 SplitMix64로 섞어 시드 간 상관 제거
+    static long memberSeed(long baseSeed, int member) {
+        if (member == 0) return baseSeed;
+        long z = baseSeed + member * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // 지표 → 배열 (null은 NaN, 순서는 Metric enum과 동일)
+    static double[] toArray(RiskMetrics m) {
+        return new double[]{
+                m.avgDeviation() != null ? m.avgDeviation() : Double.NaN,
+                m.volatility() != null ? m.volatility() : Double.NaN,
+                m.pegUptime() != null ? m.pegUptime() : Double.NaN,
+                m.recoveryTime() != null ? m.recoveryTime() : Double.NaN,
+                m.maxDrawdown() != null ? m.maxDrawdown() : Double.NaN
+        };
+    }
+
+    /**
+     * NaN을 건너뛰고 평균 ± t(n-1) · s/√n 신뢰구간 계산.
+     * - 값이 1개뿐이면 평균만, 없으면 전부 null
+     */
+    static SensitivityResult.Estimate estimate(double[] xs, double confidence) {
+        int n = 0;
+        double mean = 0.0, m2 = 0.0; // Welford
+        for (double x : xs) {
+            if (Double.isNaN(x)) continue;
+            n++;
+            double d = x - mean;
+            mean += d / n;
+            m2 += d * (x - mean);
+        }
+        return estimate(n, mean, m2, confidence);
+    }
+
+    /** Welford 누적값(n, 평균, 편차제곱합)으로 신뢰구간 계산 (스트리밍 집계용) */
+    static SensitivityResult.Estimate estimate(long n, double mean, double m2, double confidence) {
+        if (n == 0) return new SensitivityResult.Estimate(null, null, null, null, 0);
+        if (n == 1) return new SensitivityResult.Estimate(mean, null, null, null, 1);
+
+        double se = Math.sqrt(m2 / (n - 1)) / Math.sqrt(n);
+        double half = studentT((1 + confidence) / 2, (int) Math.min(Integer.MAX_VALUE, n - 1)) * se;
+        return new SensitivityResult.Estimate(mean, se, mean - half, mean + half, (int) Math.min(Integer.MAX_VALUE, n));
+    }
+
+    // 이 자유도까지는 t 분포 CDF를 수치로 뒤집어 정확한 분위수를 쓴다 (작은 표본에서 근사 오차가 구간 폭을 좁힘)
+    static final int EXACT_T_DF = 30;
+
+    /**
+     * 스튜던트 t 분포의 p 분위수.
+     * - df ≤ EXACT_T_DF: 정규화 불완전 베타로 쓴 CDF를 이분법으로 역산 (상대오차 ~1e-10)
+     * - 그보다 크면 Cornish-Fisher 전개 (df > 30에서 상대오차 < 1e-4)
+     */
+    static double studentT(double p, int df) {
+        if (p <= 0 || p >= 1) throw new IllegalArgumentException("p must be in (0, 1): " + p);
+        if (df < 1) throw new IllegalArgumentException("df must be >= 1: " + df);
+        if (df <= EXACT_T_DF) return exactStudentT(p, df);
+
+        double z = normalQuantile(p);
+        double z2 = z * z, z3 = z2 * z, z5 = z3 * z2, z7 = z5 * z2;
+        double v = df;
+        return z
+                + (z3 + z) / (4 * v)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * v * v * v);
+    }
+
+    // 대칭성으로 위쪽 꼬리만 풀고, P(T > t) = I_{df/(df+t²)}(df/2, 1/2) / 2 를 t에 대해 이분법
+    private static double exactStudentT(double p, int df) {
+        if (p == 0.5) return 0.0;
+        if (p < 0.5) return -exactStudentT(1 - p, df);
+        double tail = 1 - p;
+
+        double lo = 0, hi = 1;
+        while (upperTail(hi, df) > tail) {
+            lo = hi;
+            hi *= 2;
+        }
+        for (int i = 0; i < 200 && hi - lo > 1e-12 * hi; i++) {
+            double mid = 0.5 * (lo + hi);
+            if (upperTail(mid, df) > tail) lo = mid;
+            else hi = mid;
+        }
+        return 0.5 * (lo + hi);
+    }
+
+    private static double upperTail(double t, int df) {
+        return 0.5 * incompleteBeta(df / (df + t * t), df, 1);
+    }
+
+    /**
+     * 정규화 불완전 베타 I_x(a, b), a = twiceA/2, b = twiceB/2 (t 분포에 필요한 반정수 인자만).
+     * 연분수(수정 Lentz)로 계산하고, 수렴이 느린 쪽은 I_x(a, b) = 1 - I_{1-x}(b, a)로 바꿔 푼다.
+     */
+    private static double incompleteBeta(double x, int twiceA, int twiceB) {
+        if (x <= 0) return 0;
+        if (x >= 1) return 1;
+        double a = twiceA / 2.0, b = twiceB / 2.0;
+        double front = Math.exp(logGammaHalf(twiceA + twiceB) - logGammaHalf(twiceA) - logGammaHalf(twiceB)
+                + a * Math.log(x) + b * Math.log1p(-x));
+        if (x < (a + 1) / (a + b + 2)) return front * betaFraction(a, b, x) / a;
+        return 1 - front * betaFraction(b, a, 1 - x) / b;
+    }
+
+    private static double betaFraction(double a, double b, double x) {
+        final double tiny = 1e-300;
+        double c = 1, d = 1 - (a + b) * x / (a + 1);
+        if (Math.abs(d) < tiny) d = tiny;
+        d = 1 / d;
+        double h = d;
+        for (int m = 1; m <= 10_000; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a - 1 + m2) * (a + m2));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            h *= d * c;
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + 1 + m2));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double del = d * c;
+            h *= del;
+            if (Math.abs(del - 1) < 1e-15) break;
+        }
+        return h;
+    }
+
+    // ln Γ(n/2): Γ(1/2) = √π, Γ(1) = 1 에서 Γ(x+1) = xΓ(x)로 정확히 (작은 자유도 전용)
+    private static double logGammaHalf(int n) {
+        double x = n % 2 == 0 ? 1.0 : 0.5;
+        double lg = n % 2 == 0 ? 0.0 : 0.5 * Math.log(Math.PI);
+        for (; x < n / 2.0; x += 1) lg += Math.log(x);
+        return lg;
+    }
+
+    // 표준정규 분위수 (Acklam 유리함수 근사, 상대오차 ~1e-9)
+    static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) throw new IllegalArgumentException("p must be in (0, 1): " + p);
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double pLow = 0.02425;
+
+        if (p < pLow) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - pLow) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5, r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
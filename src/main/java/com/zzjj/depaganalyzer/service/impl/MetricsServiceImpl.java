@@ -2,10 +2,16 @@ package com.zzjj.depaganalyzer.service.impl;
 
 import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
 import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.coalesce.RangeKey;
+import com.zzjj.depaganalyzer.service.coalesce.SingleFlight;
+import com.zzjj.depaganalyzer.service.datasource.Intervals;
 import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -24,16 +30,40 @@ import java.util.List;
  * 프로파일:
  *  - @Profile({"default","synthetic"}) → 기본/합성 모드에서 활성화
  *  - 실데이터 버전은 MetricsServiceDbImpl 같은 클래스로 만들고 @Profile("real") 부여 권장
+ *
+ * 요청 합치기:
+ *  - 같은 (심볼, 정렬된 구간, 인터벌[, window, step])으로 동시에 들어온 getMetrics는 계산 하나를 공유 (SingleFlight)
+ *  - 요약 지표만 필요한 scanMetrics(sink 없음, 벤치마크 경로)도 합치고,
+ *    같은 구간의 getMetrics가 진행 중이면 그 결과의 지표를 빌려 쓴다
+ *  - 공유받은 응답은 from/to/interval만 호출자 값으로 바꿔 돌려준다 (정렬 단위 안의 차이라 데이터는 같음)
+ *
+ * 불규칙 소스(MarketDataSource.irregular(), 예: 틱 저장소):
+ *  - 샘플(버킷마다 마지막 틱)은 그대로 내보내되, 리스크 지표는 샘플 개수 대신 raw() 틱의 시간가중 값
+ *    (BucketResampler: 유지 시간 가중 괴리율/페그 유지율, 빈 버킷을 건너뛴 수익률은 √칸 수로 나눈 interval 기준 변동성,
+ *    빈 버킷은 /ohlc?gaps=flag처럼 제외) → 같은 구간 /ohlc?gaps=flag 지표와 같은 값
+ *  - interval이 raw면 1초 버킷 (변동성은 초 단위)
+ *  - 가격 요약(OHLC)은 두 경우 모두 응답 샘플에서 계산
  */
 @Service
 //@Profile({"default", "synthetic"})
 //1주차 : 간단하게 가짜 시세를 생성해서 지표를 계산
 public class MetricsServiceImpl implements MetricsService {
 
+    // 불규칙 소스의 시간가중 지표를 한 번에 집계하는 버킷 수 (메모리 상한, 구간 길이와 무관)
+    private static final int TIME_WEIGHTED_CHUNK = 16_384;
+
     private final MarketDataSource source;
 
-    MetricsServiceImpl(MarketDataSource source) {
+    // getMetrics 전체 응답 / 요약 지표 합치기
+    private final SingleFlight<MetricsKey, AssetMetricsResponse> metricsFlight;
+    private final SingleFlight<RangeKey, AssetMetricsResponse.Metrics> summaryFlight;
+
+    private record MetricsKey(RangeKey range, String window, String step) {}
+
+    MetricsServiceImpl(MarketDataSource source, MeterRegistry registry) {
         this.source = source;
+        this.metricsFlight = new SingleFlight<>("metrics", registry);
+        this.summaryFlight = new SingleFlight<>("metrics-summary", registry);
     }
 
     /**
@@ -44,11 +74,13 @@ public class MetricsServiceImpl implements MetricsService {
      * @param symbol   자산 심볼 (예: USDT, DAI 등)
      * @param from     시작 시각(UTC). null이면 to 기준 7일 전으로 설정
      * @param to       종료 시각(UTC). null이면 현재 시각(Instant.now())
-     * @param interval 샘플 간격 문자열 ("1m", "5m", "1h", "1d"). 알 수 없으면 "1h"로 처리
-     * @return 기간/인터벌/지표/샘플이 포함된 AssetMetricsResponse
+     * @param interval 샘플 간격 문자열 ("1m", "5m", "1h", "1d", "15s", "PT4H" ...). 해석할 수 없으면 400
+     * @param window   롤링 윈도우 길이 (예: "24h"). null이면 롤링 지표 생략
+     * @param step     롤링 지표 출력 간격 (예: "1h"). null이면 매 샘플마다 출력
+     * @return 기간/인터벌/지표/샘플(+롤링 지표)이 포함된 AssetMetricsResponse
      */
     @Override
-    public AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval) {
+    public AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval, String window, String step) {
         // 1) 기본 기간/인터벌 디폴트 처리
         //    - to가 없으면 "지금"을 종료시각으로 사용
         //    - from이 없으면 종료시각으로부터 7일 전을 시작시각으로 사용
@@ -56,6 +88,16 @@ public class MetricsServiceImpl implements MetricsService {
         Instant _from = from != null ? from : _to.minus(7, ChronoUnit.DAYS);
         String _interval = (interval != null) ? interval : "1h";
 
+        var key = new MetricsKey(RangeKey.of(source, symbol, _from, _to, _interval), window, step);
+        var shared = metricsFlight.execute(key, () -> computeMetrics(symbol, _from, _to, _interval, window, step));
+        if (shared.from().equals(_from) && shared.to().equals(_to)) return shared;
+        return new AssetMetricsResponse(symbol, _from, _to, _interval,
+                shared.metrics(), shared.samples(), shared.rolling());
+    }
+
+    // getMetrics 본체 (합치기 leader만 실행)
+    private AssetMetricsResponse computeMetrics(String symbol, Instant _from, Instant _to, String _interval,
+                                                String window, String step) {
         // 합성 데이터 소스로부터 시계열 생성
         var points = source.series(symbol, _from, _to, _interval);
 
@@ -74,8 +116,12 @@ public class MetricsServiceImpl implements MetricsService {
         }
 
         // 리스크 지표 계산 (평균 괴리율, 변동성, 페깅 유지율)
-        // - RiskMetricsCalc는 시뮬/실데이터 공용 유틸 (이미 제공됨)
-        var rm = RiskMetricsCalc.calcFromSamples(samples);
+        // - scanMetrics와 같은 누적기(OnlineRiskMetrics)/같은 시간가중 경로를 써서 부동소수 결과까지 같게
+        //   → 벤치마크가 진행 중인 getMetrics의 지표를 빌려 써도 직접 스캔한 값과 비트 단위로 동일
+        var risk = new OnlineRiskMetrics();
+        if (!source.irregular()) {
+            for (var sample : samples) risk.push(sample.price());
+        }
 
         // 응답 객체 조립
         var summary = new AssetMetricsResponse.PriceSummary(open, high, low, close);
@@ -83,14 +129,130 @@ public class MetricsServiceImpl implements MetricsService {
                 symbol,
                 _from, _to,
                 _interval,
-                new AssetMetricsResponse.Metrics(
-                        rm.avgDeviation(),  // 평균 |p-1| (1달러 페그에서 평균 이탈)
-                        rm.volatility(),    // 로그수익률 표준편차 (간격 정규화 가정)
-                        rm.pegUptime(),     // 0.995~1.005 구간 체류 비율
-                        summary             // 가격 요약
-                ),
-                samples                     // 시각화/디버깅용 원시 샘플
+                metrics(risk, summary, symbol, _from, _to, _interval),
+                samples,                    // 시각화/디버깅용 원시 샘플
+                window != null ? rolling(samples, window, step) : null
         );
 
     }
+
+    @Override
+    public void checkInterval(String interval) {
+        source.checkInterval(interval); // 틱 저장소는 "raw"도 받는다
+    }
+
+    /**
+     * 스트리밍 스캔.
+     * - MarketDataSource.stream()으로 포인트를 지연 조회하고, 각 점을 sink에 넘긴 뒤 바로 버린다.
+     * - OHLC는 단순 비교로, 리스크 지표는 OnlineRiskMetrics로 한 번의 순회에서 누적
+     *   (지표 정의는 RiskMetricsCalc.calcFromSamples와 동일)
+     */
+    @Override
+    public AssetMetricsResponse.Metrics scanMetrics(String symbol, Instant from, Instant to, String interval,
+                                                    SampleSink sink) throws IOException {
+        Instant _to = to != null ? to : Instant.now();
+        Instant _from = from != null ? from : _to.minus(7, ChronoUnit.DAYS);
+        String _interval = (interval != null) ? interval : "1h";
+
+        if (sink == SampleSink.NONE) {
+            // 요약만 필요: 같은 구간의 진행 중인 스캔/getMetrics와 합친다
+            var key = RangeKey.of(source, symbol, _from, _to, _interval);
+            try {
+                return summaryFlight.execute(key, () -> {
+                    var full = metricsFlight.joinIfRunning(new MetricsKey(key, null, null));
+                    if (full != null) return full.metrics();
+                    try {
+                        return scan(symbol, _from, _to, _interval, SampleSink.NONE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return scan(symbol, _from, _to, _interval, sink);
+    }
+
+    private AssetMetricsResponse.Metrics scan(String symbol, Instant _from, Instant _to, String _interval,
+                                              SampleSink sink) throws IOException {
+        var risk = new OnlineRiskMetrics();
+        boolean irregular = source.irregular();
+        double open = Double.NaN, close = Double.NaN;
+        double high = Double.NEGATIVE_INFINITY, low = Double.POSITIVE_INFINITY;
+
+        try (var points = source.stream(symbol, _from, _to, _interval)) {
+            var it = points.iterator();
+            while (it.hasNext()) {
+                var p = it.next();
+                double px = p.price();
+                sink.accept(p.t().getEpochSecond(), px);
+
+                if (Double.isNaN(open)) open = px;
+                close = px;
+                if (px > high) high = px;
+                if (px < low) low = px;
+                if (!irregular) risk.push(px);
+            }
+        }
+
+        boolean any = !Double.isNaN(open);
+        return metrics(risk, new AssetMetricsResponse.PriceSummary(
+                        any ? open : null, any ? high : null, any ? low : null, any ? close : null),
+                symbol, _from, _to, _interval);
+    }
+
+    /**
+     * 리스크 지표 조립.
+     * - 일정 간격 소스: 샘플마다 누적한 값 (평균 |p-1|, 로그수익률 표준편차, 0.995~1.005 구간 체류 비율)
+     * - 불규칙 소스: 샘플 대신 raw() 틱의 시간가중 값 (클래스 설명 참고, sampled는 비어 있음)
+     */
+    private AssetMetricsResponse.Metrics metrics(OnlineRiskMetrics sampled, AssetMetricsResponse.PriceSummary summary,
+                                                 String symbol, Instant _from, Instant _to, String _interval) {
+        if (!source.irregular()) {
+            var rm = sampled.toRiskMetrics();
+            return new AssetMetricsResponse.Metrics(rm.avgDeviation(), rm.volatility(), rm.pegUptime(), summary);
+        }
+        long iv = "raw".equalsIgnoreCase(_interval) ? 1 : Intervals.toSeconds(_interval);
+        var tw = _from.isAfter(_to) ? null : BucketResampler.metrics(source, symbol, iv,
+                _from.getEpochSecond(), _to.getEpochSecond() + 1, TIME_WEIGHTED_CHUNK);
+        return tw == null
+                ? new AssetMetricsResponse.Metrics(null, null, null, summary)
+                : new AssetMetricsResponse.Metrics(tw.avgDeviation(), tw.volatility(), tw.pegUptime(), summary);
+    }
+
+    /**
+     * 롤링 지표 시계열 계산.
+     * - window/step(시간 길이)을 샘플 개수로 환산한 뒤 RollingRiskWindow로 O(1) 갱신
+     * - 샘플 간격은 실제 데이터의 첫 두 타임스탬프 차이로 판단 (데이터 소스의 인터벌 해석과 어긋나지 않도록)
+     * - 윈도우가 가득 찬 시점부터, step 간격마다 한 점씩 출력
+     */
+    private static List<AssetMetricsResponse.RollingSample> rolling(
+            List<AssetMetricsResponse.Sample> samples, String window, String step) {
+        long windowSec = Intervals.toSeconds(window);
+        if (samples.size() < 2) return List.of();
+
+        long spacing = samples.get(1).t().getEpochSecond() - samples.get(0).t().getEpochSecond();
+        if (spacing <= 0) return List.of();
+
+        int windowN = (int) Math.max(2, windowSec / spacing);
+        int stepN = step != null ? (int) Math.max(1, Intervals.toSeconds(step) / spacing) : 1;
+
+        var rw = new RollingRiskWindow(windowN);
+        List<AssetMetricsResponse.RollingSample> out = new ArrayList<>(samples.size() / stepN + 1);
+        for (int i = 0; i < samples.size(); i++) {
+            var s = samples.get(i);
+            rw.push(s.price());
+            if (rw.emitDue(stepN)) {
+                double vol = rw.volatility();
+                out.add(new AssetMetricsResponse.RollingSample(
+                        s.t(),
+                        rw.avgDeviation(),
+                        Double.isNaN(vol) ? null : vol,
+                        rw.pegUptime()
+                ));
+            }
+        }
+        return out;
+    }
 }
@@ -0,0 +1,64 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+
+/**
+ * 한 번의 순회로 RiskMetrics를 계산하는 온라인 누적기 (메모리 O(1)).
+ *
+ * - 시계열을 리스트로 모으지 않고 push(price)만으로 지표를 누적
+ *   → 리플레이 모드의 "실제 가격" 지표처럼 보관하지 않는 시계열에 사용.
+ * - 지표 정의는 SimulationServiceImpl.calcRisk와 동일:
+ *   avgDeviation / pegUptime(샘플 기반) / volatility(로그수익률 모표준편차, Welford)
+ *   / recoveryTime(1.0±0.002 최초 진입 인덱스) / maxDrawdown((max-min)/max 근사)
+ */
+public final class OnlineRiskMetrics {
+
+    private long n = 0;
+    private double sumDev = 0.0;
+    private long up = 0;
+
+    // Welford (로그수익률 평균/분산)
+    private long nRet = 0;
+    private double retMean = 0.0;
+    private double retM2 = 0.0;
+    private double prev = Double.NaN;
+
+    private int recovery = -1;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double min = Double.POSITIVE_INFINITY;
+
+    public void push(double price) {
+        sumDev += Math.abs(price - 1.0);
+        if (price >= RiskMetricsCalc.PEG_LOWER && price <= RiskMetricsCalc.PEG_UPPER) up++;
+
+        if (prev > 0 && price > 0) {
+            double r = Math.log(price / prev);
+            nRet++;
+            double d = r - retMean;
+            retMean += d / nRet;
+            retM2 += d * (r - retMean);
+        }
+        prev = price;
+
+        if (recovery < 0 && price >= 0.998 && price <= 1.002) recovery = (int) n;
+        if (price > max) max = price;
+        if (price < min) min = price;
+        n++;
+    }
+
+    public long count() { return n; }
+
+    /** 지금까지 누적한 값으로 RiskMetrics 생성 (샘플 2개 미만이면 전부 null). */
+    public RiskMetrics toRiskMetrics() {
+        if (n < 2) return new RiskMetrics(null, null, null, null, null);
+        Double vol = nRet > 0 ? Math.sqrt(retM2 / nRet) : null;
+        Double mdd = max > 0 ? (max - min) / max : null;
+        return new RiskMetrics(
+                sumDev / n,
+                vol,
+                (double) up / n,
+                recovery >= 0 ? recovery : null,
+                mdd
+        );
+    }
+}
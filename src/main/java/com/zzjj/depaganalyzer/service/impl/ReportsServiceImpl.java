@@ -1,14 +1,398 @@
 package com.zzjj.depaganalyzer.service.impl;
 
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
 import com.zzjj.depaganalyzer.dto.report.ReportRequest;
 import com.zzjj.depaganalyzer.dto.report.ReportResponse;
+import com.zzjj.depaganalyzer.dto.sim.SeriesPoint;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.service.MetricsService;
 import com.zzjj.depaganalyzer.service.ReportsService;
+import com.zzjj.depaganalyzer.service.SimulationsService;
+import com.zzjj.depaganalyzer.service.datasource.Intervals;
+import com.zzjj.depaganalyzer.service.report.ReportArtifactStore;
+import com.zzjj.depaganalyzer.service.report.ReportDocument;
+import com.zzjj.depaganalyzer.service.report.ReportRenderer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 비동기 리포트 생성 파이프라인.
+ *
+ * ─ 흐름 ─
+ * 1) createReport: 요청 정규화 → SHA-256 캐시 키 → 같은 키의 리포트가 살아 있으면(QUEUED/RUNNING/READY) 재사용
+ * 2) 새 리포트면 전용 렌더링 풀(고정 스레드 + 고정 길이 큐)에 제출하고 QUEUED로 즉시 반환
+ *    → 큐가 가득 차면 503 (무한 적체 대신 빠른 실패)
+ * 3) 워커: 데이터 수집(다운샘플) → ReportDocument → 렌더러가 아티팩트 파일로 바로 스트리밍 → READY
+ * 4) 아티팩트는 ttl 뒤 만료 → 주기적 purge가 메타와 파일을 함께 삭제
+ *
+ * ─ 메모리 ─
+ * - 시뮬 리포트: 결과 series를 복사하지 않고 인덱스로 읽어 LTTB로 차트당 CHART_POINTS개만 추림
+ *   (1M 스텝이어도 문서 크기는 수천 점 수준)
+ * - 벤치마크 리포트: scanMetrics 스트리밍 + 시간 버킷 min/max → 샘플 리스트를 만들지 않음
+ */
 @Service
 public class ReportsServiceImpl implements ReportsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportsServiceImpl.class);
+
+    private static final int CHART_POINTS = 800;   // 차트 한 장당 최대 점 개수 (LTTB 목표)
+    private static final int BENCH_BUCKETS = 400;  // 벤치마크 시간 버킷 (버킷당 min/max 2점)
+    private static final int MAX_NOTES = 200;      // 이벤트 로그 최대 줄 수
+    private static final double[] PEG_BANDS = {RiskMetricsCalc.PEG_LOWER, RiskMetricsCalc.PEG_UPPER};
+
+    private final SimulationsService simulations;
+    private final MetricsService metricsService;
+    private final ReportArtifactStore artifacts;
+    private final Map<ReportRequest.Format, ReportRenderer> renderers = new EnumMap<>(ReportRequest.Format.class);
+
+    private final ThreadPoolExecutor renderPool;
+
+    private final ConcurrentMap<String, Entry> reports = new ConcurrentHashMap<>(); // reportId -> 상태
+    private final ConcurrentMap<String, String> byKey = new ConcurrentHashMap<>();  // 캐시 키 -> reportId
+
+    // 리포트 하나의 상태 (워커 스레드가 갱신, 조회 스레드가 읽음 → volatile)
+    private static final class Entry {
+        final String id;
+        final String key;
+        final ReportRequest.Format format;
+        final Instant createdAt = Instant.now();
+        volatile ReportResponse.Status status = ReportResponse.Status.QUEUED;
+        volatile Path path;
+        volatile Instant expiresAt;
+        volatile String error;
+
+        Entry(String id, String key, ReportRequest.Format format) {
+            this.id = id;
+            this.key = key;
+            this.format = format;
+        }
+
+        boolean expired(Instant now) {
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+    }
+
+    public ReportsServiceImpl(
+            SimulationsService simulations,
+            MetricsService metricsService,
+            ReportArtifactStore artifacts,
+            List<ReportRenderer> renderers,
+            @Value("${stabilisim.reports.workers:2}") int workers,
+            @Value("${stabilisim.reports.queueCapacity:64}") int queueCapacity
+    ) {
+        this.simulations = simulations;
+        this.metricsService = metricsService;
+        this.artifacts = artifacts;
+        for (ReportRenderer r : renderers) this.renderers.put(r.format(), r);
+
+        AtomicInteger seq = new AtomicInteger();
+        this.renderPool = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "report-render-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
     @Override
     public ReportResponse createReport(ReportRequest request) {
-        return null;
+        ReportRenderer renderer = renderers.get(request.format());
+        if (renderer == null) {
+            throw new IllegalArgumentException("unsupported format: " + request.format());
+        }
+        Job job = switch (request.type()) {
+            case SIMULATION -> simulationJob(request);
+            case BENCHMARK -> benchmarkJob(request);
+        };
+        String key = sha256(request.format() + "|" + job.cacheKey());
+
+        Instant now = Instant.now();
+        String id = byKey.compute(key, (k, existingId) -> {
+            Entry existing = existingId == null ? null : reports.get(existingId);
+            if (existing != null && existing.status != ReportResponse.Status.FAILED && !existing.expired(now)) {
+                return existingId; // 캐시 적중 (진행 중이면 같은 작업을 기다리게 함)
+            }
+            Entry e = new Entry(UUID.randomUUID().toString(), k, request.format());
+            reports.put(e.id, e);
+            try {
+                renderPool.execute(() -> render(e, job, renderer));
+            } catch (RejectedExecutionException rex) {
+                reports.remove(e.id);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "report queue is full, retry later");
+            }
+            return e.id;
+        });
+        return toResponse(reports.get(id));
+    }
+
+    @Override
+    public ReportResponse getReport(String reportId) {
+        return toResponse(live(reportId));
+    }
+
+    @Override
+    public Artifact getArtifact(String reportId) {
+        Entry e = live(reportId);
+        ReportResponse res = toResponse(e);
+        if (e.status != ReportResponse.Status.READY) {
+            return new Artifact(res, null, null, null);
+        }
+        ReportRenderer r = renderers.get(e.format);
+        return new Artifact(res, e.path, r.contentType(), "report-" + e.id + "." + r.extension());
+    }
+
+    /**
+     * 만료된 리포트 정리 (메타 + 파일).
+     * - FAILED는 ttl 동안만 조회 가능하게 남겨둠
+     * - 메타 없이 남은 파일(재시작 전 산출물)도 수정 시각 기준으로 삭제
+     */
+    @Scheduled(fixedDelayString = "${stabilisim.reports.purgeMs:600000}")
+    void purgeExpired() {
+        Instant now = Instant.now();
+        Instant failedCutoff = now.minus(artifacts.ttl());
+        for (Entry e : reports.values()) {
+            boolean failedOld = e.status == ReportResponse.Status.FAILED && e.createdAt.isBefore(failedCutoff);
+            if (e.expired(now) || failedOld) {
+                reports.remove(e.id);
+                byKey.remove(e.key, e.id);
+                if (e.path != null) artifacts.delete(e.path);
+            }
+        }
+        int orphans = artifacts.deleteOlderThan(failedCutoff);
+        if (orphans > 0) log.info("purged {} stale report artifacts", orphans);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // 워커
+    // ─────────────────────────────────────────────────────────────
+
+    private void render(Entry e, Job job, ReportRenderer renderer) {
+        e.status = ReportResponse.Status.RUNNING;
+        try {
+            ReportDocument doc = job.build();
+            e.path = artifacts.store(e.id, renderer.extension(), out -> renderer.render(doc, out));
+            e.expiresAt = Instant.now().plus(artifacts.ttl());
+            e.status = ReportResponse.Status.READY;
+        } catch (Exception ex) {
+            log.warn("report {} failed: {}", e.id, ex.toString());
+            e.error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            e.status = ReportResponse.Status.FAILED;
+        }
+    }
+
+    // 요청 검증은 호출 스레드에서, 무거운 수집/렌더링은 워커에서
+    private interface Job {
+        String cacheKey();
+
+        ReportDocument build() throws Exception;
+    }
+
+    private Job simulationJob(ReportRequest req) {
+        String simId = req.simulationId();
+        if (simId == null || simId.isBlank()) {
+            throw new IllegalArgumentException("simulationId is required for SIMULATION reports");
+        }
+        // 없는 id → 404, 아직 진행 중 → 409 (완료 결과는 불변이므로 id만으로 캐시 키가 된다)
+        if (!(simulations.getSimulation(simId) instanceof SimulationResult result)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "simulation not finished yet: " + simId);
+        }
+        return new Job() {
+            public String cacheKey() { return "SIMULATION|" + simId; }
+
+            public ReportDocument build() { return simulationDocument(result); }
+        };
+    }
+
+    private Job benchmarkJob(ReportRequest req) {
+        var q = req.benchmarkQuery();
+        if (q == null || q.symbols() == null || q.symbols().isBlank()) {
+            throw new IllegalArgumentException("benchmarkQuery.symbols is required for BENCHMARK reports");
+        }
+        // 순서 보존 + 중복 제거
+        var symbols = new LinkedHashSet<String>();
+        for (String s : q.symbols().split(",")) {
+            if (!s.isBlank()) symbols.add(s.trim());
+        }
+        String interval = (q.interval() != null && !q.interval().isBlank()) ? q.interval().trim() : "1h";
+        long intervalSec = Intervals.toSeconds(interval);
+
+        // to 생략 시 "지금"을 interval 경계로 내림 → 같은 버킷 안의 반복 요청은 같은 캐시 키
+        Instant to;
+        try {
+            to = (q.to() != null && !q.to().isBlank())
+                    ? Instant.parse(q.to())
+                    : Instant.ofEpochSecond(Math.floorDiv(Instant.now().getEpochSecond(), intervalSec) * intervalSec);
+            Instant from = (q.from() != null && !q.from().isBlank()) ? Instant.parse(q.from()) : to.minus(7, ChronoUnit.DAYS);
+            if (!from.isBefore(to)) throw new IllegalArgumentException("from must be before to");
+
+            return new Job() {
+                public String cacheKey() { return "BENCHMARK|" + symbols + "|" + from + "|" + to + "|" + interval; }
+
+                public ReportDocument build() throws Exception {
+                    return benchmarkDocument(List.copyOf(symbols), from, to, interval);
+                }
+            };
+        } catch (java.time.format.DateTimeParseException ex) {
+            throw new IllegalArgumentException("from/to must be ISO-8601 instants: " + ex.getParsedString());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // 문서 조립
+    // ─────────────────────────────────────────────────────────────
+
+    private ReportDocument simulationDocument(SimulationResult r) {
+        List<ReportDocument.Row> summary = new ArrayList<>();
+        summary.add(new ReportDocument.Row("Simulation", r.id()));
+        summary.add(new ReportDocument.Row("Status", String.valueOf(r.status())));
+        summary.add(new ReportDocument.Row("Model", String.valueOf(r.modelType())));
+        summary.add(new ReportDocument.Row("Params", String.valueOf(r.params())));
+        summary.add(new ReportDocument.Row("Series points", String.valueOf(r.series() != null ? r.series().size() : 0)));
+        summary.add(new ReportDocument.Row("Retention", r.retention() != null ? String.valueOf(r.retention().mode()) : "FULL"));
+        summary.add(new ReportDocument.Row("Scenarios", String.valueOf(r.scenarios() != null ? r.scenarios().size() : 0)));
+        summary.add(new ReportDocument.Row("Started", String.valueOf(r.startedAt())));
+        summary.add(new ReportDocument.Row("Finished", String.valueOf(r.finishedAt())));
+
+        // 지표 표: 리플레이면 실제 구간 지표를 옆 열에 나란히
+        boolean replay = r.replay() != null;
+        List<String> header = replay ? List.of("Metric", "Simulated", "Actual") : List.of("Metric", "Value");
+        ReportDocument.Table table = new ReportDocument.Table(header,
+                metricRows(r.metrics(), replay ? r.replay().actualMetrics() : null, replay));
+
+        List<ReportDocument.Chart> charts = new ArrayList<>();
+        List<SeriesPoint> s = r.series() != null ? r.series() : List.of();
+        if (!s.isEmpty()) {
+            List<ReportDocument.Series> price = new ArrayList<>();
+            price.add(downsample("price", s, SeriesPoint::price));
+            if (s.getFirst().actualPrice() != null) {
+                price.add(downsample("actual price", s, p -> p.actualPrice() != null ? p.actualPrice() : p.price()));
+            }
+            charts.add(new ReportDocument.Chart("Price", "step", price, PEG_BANDS));
+            charts.add(new ReportDocument.Chart("Reserves", "step", List.of(
+                    downsample("reserve cash", s, SeriesPoint::reserveCash),
+                    downsample("reserve collateral", s, SeriesPoint::reserveCollateral)), new double[0]));
+            charts.add(new ReportDocument.Chart("Supply", "step", List.of(
+                    downsample("supply", s, SeriesPoint::supply)), new double[0]));
+        }
+
+        List<String> notes = new ArrayList<>();
+        if (r.events() != null) {
+            for (var ev : r.events()) {
+                if (notes.size() == MAX_NOTES) {
+                    notes.add("... " + (r.events().size() - MAX_NOTES) + " more events");
+                    break;
+                }
+                notes.add("t=" + ev.t() + " " + ev.kind() + " " + ev.data());
+            }
+        }
+        return new ReportDocument("Simulation report " + r.id(), Instant.now(), summary, table, charts, notes);
+    }
+
+    private ReportDocument benchmarkDocument(List<String> symbols, Instant from, Instant to, String interval) throws Exception {
+        List<ReportDocument.Row> summary = List.of(
+                new ReportDocument.Row("Symbols", String.join(",", symbols)),
+                new ReportDocument.Row("From", from.toString()),
+                new ReportDocument.Row("To", to.toString()),
+                new ReportDocument.Row("Interval", interval));
+
+        List<List<String>> rows = new ArrayList<>();
+        List<ReportDocument.Series> series = new ArrayList<>();
+        for (String symbol : symbols) {
+            // 샘플은 버킷 min/max로만 흘려보내고 지표는 스트리밍 계산 결과를 그대로 사용
+            var buckets = new SeriesDownsampler.TimeBucketMinMax(from.getEpochSecond(), to.getEpochSecond(), BENCH_BUCKETS);
+            var m = metricsService.scanMetrics(symbol, from, to, interval, buckets::accept);
+            rows.add(List.of(symbol,
+                    fmt(m != null ? m.avgDeviation() : null),
+                    fmt(m != null ? m.volatility() : null),
+                    fmt(m != null ? m.pegUptime() : null),
+                    fmt(m != null && m.priceSummary() != null ? m.priceSummary().low() : null),
+                    fmt(m != null && m.priceSummary() != null ? m.priceSummary().high() : null)));
+            double[][] xy = buckets.result();
+            series.add(new ReportDocument.Series(symbol, xy[0], xy[1]));
+        }
+        var table = new ReportDocument.Table(
+                List.of("Symbol", "Avg deviation", "Volatility", "Peg uptime", "Low", "High"), rows);
+        var chart = new ReportDocument.Chart("Price", "time (epoch s)", series, PEG_BANDS);
+        return new ReportDocument("Peg deviation benchmark", Instant.now(), summary, table, List.of(chart), List.of());
+    }
+
+    private static List<List<String>> metricRows(RiskMetrics sim, RiskMetrics actual, boolean withActual) {
+        List<List<String>> rows = new ArrayList<>();
+        addRow(rows, "Avg deviation", sim != null ? sim.avgDeviation() : null, actual != null ? actual.avgDeviation() : null, withActual);
+        addRow(rows, "Volatility", sim != null ? sim.volatility() : null, actual != null ? actual.volatility() : null, withActual);
+        addRow(rows, "Peg uptime", sim != null ? sim.pegUptime() : null, actual != null ? actual.pegUptime() : null, withActual);
+        addRow(rows, "Max drawdown", sim != null ? sim.maxDrawdown() : null, actual != null ? actual.maxDrawdown() : null, withActual);
+        addRow(rows, "Recovery time",
+                sim != null && sim.recoveryTime() != null ? sim.recoveryTime().doubleValue() : null,
+                actual != null && actual.recoveryTime() != null ? actual.recoveryTime().doubleValue() : null, withActual);
+        return rows;
+    }
+
+    private static void addRow(List<List<String>> rows, String name, Double sim, Double actual, boolean withActual) {
+        rows.add(withActual ? List.of(name, fmt(sim), fmt(actual)) : List.of(name, fmt(sim)));
+    }
+
+    private static String fmt(Double v) {
+        return v == null ? "-" : String.format(Locale.ROOT, "%.6g", v);
+    }
+
+    // x=t(스텝), y=field 로 LTTB 다운샘플 (원본은 인덱스로만 읽음)
+    private static ReportDocument.Series downsample(String label, List<SeriesPoint> s, ToDoubleFunction<SeriesPoint> field) {
+        int[] idx = SeriesDownsampler.lttb(s.size(), i -> s.get(i).t(), i -> field.applyAsDouble(s.get(i)), CHART_POINTS);
+        double[] xs = new double[idx.length];
+        double[] ys = new double[idx.length];
+        for (int k = 0; k < idx.length; k++) {
+            SeriesPoint p = s.get(idx[k]);
+            xs[k] = p.t();
+            ys[k] = field.applyAsDouble(p);
+        }
+        return new ReportDocument.Series(label, xs, ys);
+    }
+
+    private static ReportResponse toResponse(Entry e) {
+        String url = "/api/reports/" + e.id + "/artifact";
+        return new ReportResponse(e.id, e.status, url, e.expiresAt, e.error);
+    }
+
+    private Entry live(String reportId) {
+        Entry e = reports.get(reportId);
+        if (e == null || e.expired(Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "report not found or expired: " + reportId);
+        }
+        return e;
+    }
+
+    private static String sha256(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(d);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
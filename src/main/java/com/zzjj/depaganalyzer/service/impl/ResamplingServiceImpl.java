@@ -0,0 +1,114 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.metrics.OhlcResponse;
+import com.zzjj.depaganalyzer.service.ResamplingService;
+import com.zzjj.depaganalyzer.service.datasource.Intervals;
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 리샘플링 단계: MarketDataSource(원본 틱) → 임의 간격 OHLC 버킷 → 시간가중 지표.
+ *
+ * - 버킷은 에포크 기준 정렬 (4h 버킷은 00/04/08... UTC 시작). 첫/마지막 버킷은 from/to에서 잘린다
+ * - 긴 구간은 버킷을 연속된 시간 파티션으로 나눠 전용 ForkJoinPool에서 병렬 집계
+ *   (파티션마다 raw()를 자기 구간만큼만 조회 → 틱을 두 번 읽지 않음). 이어 붙이기/빈 칸 처리는 순차
+ * - 파티션 수 = min(parallelism, 버킷 수 / minPartitionBuckets), 최소 1
+ * - 버킷 수가 maxBuckets를 넘으면 400 (interval을 늘리거나 구간을 줄이도록)
+ */
+@Service
+public class ResamplingServiceImpl implements ResamplingService {
+
+    private final MarketDataSource source;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int minPartitionBuckets;
+    private final int maxBuckets;
+
+    public ResamplingServiceImpl(
+            MarketDataSource source,
+            @Value("${stabilisim.resample.parallelism:0}") int parallelism,
+            @Value("${stabilisim.resample.minPartitionBuckets:4096}") int minPartitionBuckets,
+            @Value("${stabilisim.resample.maxBuckets:100000}") int maxBuckets
+    ) {
+        this.source = source;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.minPartitionBuckets = Math.max(1, minPartitionBuckets);
+        this.maxBuckets = maxBuckets;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public OhlcResponse resample(String symbol, Instant from, Instant to, String interval, String gaps) {
+        Instant _to = to != null ? to : Instant.now();
+        Instant _from = from != null ? from : _to.minus(7, ChronoUnit.DAYS);
+        String _interval = (interval != null) ? interval : "1h";
+        OhlcResponse.GapPolicy policy = policy(gaps);
+        if (_from.isAfter(_to)) throw new IllegalArgumentException("from must not be after to");
+
+        long iv = Intervals.toSeconds(_interval);
+        long fromSec = _from.getEpochSecond();
+        long end = _to.getEpochSecond() + 1;
+        long firstBucket = Math.floorDiv(fromSec, iv);
+        long n = Math.floorDiv(end - 1, iv) - firstBucket + 1;
+        if (n > maxBuckets) {
+            throw new IllegalArgumentException("too many buckets: " + n + " (limit " + maxBuckets
+                    + "); use a larger interval or a shorter range");
+        }
+        int total = (int) n;
+
+        int partitions = Math.max(1, Math.min(parallelism, total / minPartitionBuckets));
+        int[] bounds = BucketResampler.split(total, partitions);
+        List<BucketResampler.Partial> parts;
+        if (partitions == 1) {
+            parts = List.of(BucketResampler.aggregate(source, symbol, firstBucket, total, iv, fromSec, end));
+        } else {
+            List<Future<BucketResampler.Partial>> futures = new ArrayList<>(partitions);
+            for (int k = 0; k < partitions; k++) {
+                long b0 = firstBucket + bounds[k];
+                int size = bounds[k + 1] - bounds[k];
+                futures.add(pool.submit(() -> BucketResampler.aggregate(source, symbol, b0, size, iv, fromSec, end)));
+            }
+            parts = new ArrayList<>(partitions);
+            try {
+                for (var f : futures) parts.add(f.get());
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("resampling interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IllegalStateException("resampling failed", e.getCause());
+            }
+        }
+
+        var r = BucketResampler.finish(parts, policy, iv, fromSec, end);
+        return new OhlcResponse(symbol, _from, _to, _interval, iv, policy, r.buckets(), r.metrics(),
+                new OhlcResponse.Coverage(total, r.dataBuckets(), r.gapBuckets(), r.ticks(), partitions));
+    }
+
+    private static OhlcResponse.GapPolicy policy(String gaps) {
+        if (gaps == null || gaps.isBlank()) return OhlcResponse.GapPolicy.FLAG;
+        try {
+            return OhlcResponse.GapPolicy.valueOf(gaps.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("gaps must be one of skip, flag, fill: " + gaps);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 담보형(Reserve-backed) 데모 모델의 상태와 한 스텝 전개식.
+ *
+ * - 단일 실행(SimulationServiceImpl)과 섭동 앙상블(SensitivityAnalyzer)이 같은 식을 쓰도록 분리
+ * - 스텝당 정규난수를 정확히 1개(noise) 소비 → 같은 시드면 파라미터가 달라도 같은 소음 경로
+ *   (공통 난수(CRN) 쌍 비교의 전제 조건이므로 난수 소비 순서를 바꾸지 말 것)
+ * - 리플레이 드라이버처럼 외부에서 상태(reserveCol, shockMemory)를 직접 건드릴 수 있게 필드는 패키지 공개
+ * - 시나리오는 ScenarioSchedule로 컴파일된 원시 배열을 커서로 따라가며 적용 (스텝당 할당/박싱 없음)
+ */
+final class ReserveModel {
+
+    static final double NOISE_SIGMA = 0.0006; // 스텝당 랜덤 소음 표준편차
+    private static final int CANCEL_CHECK = 4096; // 헤드리스 실행의 취소 확인 주기(스텝, 2의 거듭제곱)
+    static final int MAX_LAG_STEPS = 1 << 20; // 오라클 지연 링버퍼 상한(스텝)
+
+    double supply;       // 스테이블 발행량
+    double reserveCash;  // 준비금 현금(상환에 사용)
+    double reserveCol;   // 추가 담보 (옵션)
+    final double ltv;    // 담보인정비율(0~1)
+    double redeemFee;    // 상환 수수료
+
+    double price = 1.0;       // 시작 가격 (페그 1.0)
+    double shockMemory = 0.0; // 충격 이후 남아있는 하방 압력(점차 감소)
+    private boolean priceBand = true; // 데모 안전장치(0.95~1.05 클램프) 적용 여부 (리플레이에서는 끔)
+
+    // 오라클 지연: 최근 가격 링버퍼. 평균회귀(차익거래)는 lagSteps 전 가격(오라클 가격)을 보고 움직인다
+    private final double dt;
+    private final int baseLagSteps;     // params.oracleLagSec 기준 지연(스텝)
+    private final double[] oracleHist;  // 길이 = 최대 지연 + 1 (컴파일된 시나리오까지 고려해 한 번만 할당)
+    private int histPos = 0;            // 현재 가격이 들어 있는 칸
+    private int lagSteps;
+
+    // 컴파일된 시나리오 스케줄 + 커서 (스텝마다 정수 비교 한 번)
+    private final ScenarioSchedule schedule;
+    private int cursor = 0;
+    private int nextAt;
+
+    // 진행 중인 램프 누적기 (활성 개수가 0이 되면 비율을 정확히 0으로 되돌려 부동소수 잔여값 제거)
+    private double redeemRate = 0.0;
+    private int redeemActive = 0;
+    private double dropRate = 0.0;
+    private int dropActive = 0;
+    private double feeSlope = 0.0;
+    private int feeActive = 0;
+    private final double[] feeSlopes; // 램프 번호별 시작 시점에 정해진 기울기 (종료 때 그대로 뺀다)
+
+    ReserveModel(SimParams params, List<Scenario> scenarios, int steps, double dt) {
+        this(params, ScenarioSchedule.compile(scenarios, steps), steps, dt);
+    }
+
+    /** 앙상블처럼 같은 시나리오로 여러 경로를 돌릴 때는 미리 컴파일한 스케줄을 공유 */
+    ReserveModel(SimParams params, ScenarioSchedule schedule, int steps, double dt) {
+        this.supply      = nz(params.initSupply(),           1_000_000);
+        this.reserveCash = nz(params.initReserveCash(),       1_000_000);
+        this.reserveCol  = nz(params.initReserveCollateral(), 0.0);
+        this.ltv         = clamp(nz(params.ltv(), 0.9), 0, 1);
+        this.redeemFee   = clamp(nz(params.redeemFee(), 0.001), 0, 0.1);
+
+        this.dt = dt > 0 ? dt : 1.0;
+        this.schedule = schedule;
+        this.nextAt = schedule.firstAt();
+        this.feeSlopes = new double[schedule.rampDuration.length];
+        this.baseLagSteps = lagToSteps(Math.max(0, nzInt(params.oracleLagSec(), 60)), steps);
+        int maxLag = Math.max(baseLagSteps, lagToSteps(schedule.maxLagSeconds, steps));
+        this.oracleHist = new double[maxLag + 1];
+        Arrays.fill(oracleHist, price);
+        this.lagSteps = baseLagSteps;
+    }
+
+    /** 가우시안 소음 한 개 (스텝마다 정확히 한 번 호출) */
+    static double noise(Random rng) {
+        return rng.nextGaussian() * NOISE_SIGMA;
+    }
+
+    /** 시작 가격 재설정 (리플레이 가격 드라이버): 오라클 이력도 같은 값으로 채운다 */
+    void resetPrice(double p) {
+        price = p;
+        Arrays.fill(oracleHist, p);
+    }
+
+    /**
+     * 0.95~1.05 클램프를 끈다 (외생 리플레이 드라이버용).
+     * 실제 디페그(예: 0.87)를 따라가야 시뮬-실제 차이 지표가 클램프가 아닌 모델 동역학을 잰다. 가격은 0 아래로만 가지 않게 막는다
+     */
+    void disablePriceBand() {
+        priceBand = false;
+    }
+
+    /** 오라클이 보고 있는 가격 (lagSteps 스텝 전 가격, 지연 0이면 현재가) */
+    double oraclePrice() {
+        int i = histPos - lagSteps;
+        return oracleHist[i >= 0 ? i : i + oracleHist.length];
+    }
+
+    /**
+     * 시점 t의 시나리오 처리: 예약된 이벤트 발동 후 진행 중인 램프(상환/담보하락/수수료)를 한 스텝 적용.
+     * @param sink 발동 이벤트 로그 (null이면 기록 안 함 → 헤드리스 실행은 스텝당 할당 없음)
+     */
+    void beginStep(int t, List<SimulationResult.SimEvent> sink) {
+        if (t == nextAt) fire(t, sink);
+        if (feeActive > 0) redeemFee = clamp(redeemFee + feeSlope, 0, 0.1);
+        if (redeemActive > 0) redeem(redeemRate);
+        if (dropActive > 0) {
+            // 담보 가치 하락: reserveCol의 가치 하락 반영, 하방 압력으로도 작용
+            reserveCol *= (1.0 - dropRate);
+            shockMemory = Math.max(shockMemory, dropRate * 0.015);
+        }
+    }
+
+    /** 지금까지 발동한 스케줄 이벤트 수 (스텝 전후 비교로 발동 여부 판단) */
+    int eventsApplied() {
+        return cursor;
+    }
+
+    /** 스케줄 이벤트 [from, to) 의 종류 이름 (쉼표 구분) */
+    String scheduledOps(int from, int to) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(ScenarioSchedule.opName(schedule.op[i]));
+        }
+        return sb.toString();
+    }
+
+    // 대량 상환 충격: 공급량 감소, 준비금 현금 유출(수수료만큼은 남음)
+    private void redeem(double frac) {
+        double redeemFrac = Math.min(1.0, frac);    // 상환 비율(0~1), 램프가 겹치면 합산
+        double redeemed   = supply * redeemFrac;    // 상환량
+        double fee        = redeemed * redeemFee;   // 상환 수수료
+        supply      -= redeemed;                    // 공급량 감소
+        reserveCash -= (redeemed - fee);            // 수수료 제외하고 현금 유출
+        // 상환 충격이 클수록 가격 하방 압력(shockMemory) 증가 (램프는 스텝당 비율만큼만 → 압력도 분산)
+        shockMemory = Math.max(shockMemory, redeemFrac * 0.02);
+    }
+
+    // 시점 t에 몰린 이벤트를 요청 순서대로 모두 적용하고 커서를 다음 시점으로
+    private void fire(int t, List<SimulationResult.SimEvent> sink) {
+        final int[] at = schedule.at;
+        int i = cursor;
+        do {
+            apply(i, t, sink);
+            i++;
+        } while (i < at.length && at[i] == t);
+        cursor = i;
+        nextAt = i < at.length ? at[i] : Integer.MAX_VALUE;
+    }
+
+    private void apply(int i, int t, List<SimulationResult.SimEvent> sink) {
+        double v = schedule.value[i];
+        int a = schedule.aux[i];
+        switch (schedule.op[i]) {
+            case ScenarioSchedule.REDEEM_START -> {
+                redeemRate += v;
+                redeemActive++;
+                if (sink != null) sink.add(new SimulationResult.SimEvent(t, "REDEEM_SHOCK_TRIGGERED", rampPayload("fraction", v, a)));
+            }
+            case ScenarioSchedule.REDEEM_END -> {
+                redeemRate = --redeemActive == 0 ? 0.0 : redeemRate - v;
+            }
+            case ScenarioSchedule.DROP_START -> {
+                dropRate += v;
+                dropActive++;
+                if (sink != null) sink.add(new SimulationResult.SimEvent(t, "COLLATERAL_DROP_TRIGGERED", rampPayload("drop", v, a)));
+            }
+            case ScenarioSchedule.DROP_END -> {
+                dropRate = --dropActive == 0 ? 0.0 : dropRate - v;
+            }
+            case ScenarioSchedule.LAG_SET -> {
+                lagSteps = Math.min(oracleHist.length - 1, lagToSteps(v, Integer.MAX_VALUE));
+                if (sink != null) sink.add(new SimulationResult.SimEvent(t, "ORACLE_LAG_SET", a > 0
+                        ? Map.of("seconds", v, "steps", lagSteps, "duration", a)
+                        : Map.of("seconds", v, "steps", lagSteps)));
+            }
+            case ScenarioSchedule.LAG_RESTORE -> {
+                lagSteps = baseLagSteps;
+                if (sink != null) sink.add(new SimulationResult.SimEvent(t, "ORACLE_LAG_RESTORED", Map.of("steps", lagSteps)));
+            }
+            case ScenarioSchedule.FEE_SET -> {
+                redeemFee = v;
+                if (sink != null) sink.add(new SimulationResult.SimEvent(t, "FEE_CHANGE", Map.of("newFee", v)));
+            }
+            case ScenarioSchedule.FEE_RAMP_START -> {
+                int d = schedule.rampDuration[a];
+                double slope = (v - redeemFee) / d; // 현재 수수료에서 목표까지 d 스텝 선형 이동
+                feeSlopes[a] = slope;
+                feeSlope += slope;
+                feeActive++;
+                if (sink != null) sink.add(new SimulationResult.SimEvent(t, "FEE_CHANGE", Map.of("newFee", v, "duration", d)));
+            }
+            case ScenarioSchedule.FEE_RAMP_END -> {
+                if (--feeActive == 0) {
+                    feeSlope = 0.0;
+                    redeemFee = v; // 누적 오차 없이 목표값에 맞춘다
+                } else {
+                    feeSlope -= feeSlopes[a];
+                }
+            }
+            default -> throw new IllegalStateException("unknown schedule op: " + schedule.op[i]);
+        }
+    }
+
+    // 램프면 총량(1 - (1 - f)^d)과 길이를, 단발이면 기존과 같은 값 하나만 기록
+    private static Map<String, Object> rampPayload(String key, double perStep, int d) {
+        if (d <= 1) return Map.of(key, perStep);
+        return Map.of(key, -Math.expm1(d * Math.log1p(-Math.min(perStep, 1.0 - 1e-12))), "duration", d);
+    }
+
+    // 지연(초) → 스텝 수 (버퍼 상한과 전체 스텝 수로 제한)
+    private int lagToSteps(double seconds, int steps) {
+        long s = Math.round(seconds / dt);
+        return (int) Math.max(0, Math.min(Math.min(s, steps), MAX_LAG_STEPS));
+    }
+
+    /**
+     * 가격 한 스텝 전개 (데모 공식):
+     *   price <- price + noise(외생 충격) + 평균회귀(오라클 가격 기준, 1.0으로 복귀하려는 힘) + 충격 잔상(하방 압력)
+     * 이후 충격 잔상 감쇠와 준비금 건전성 체크까지 수행.
+     * @return 갱신된 가격
+     */
+    double advance(double noise) {
+        double meanRevert = (1.0 - oraclePrice()) * 0.02; // 1.0으로 끌어당기는 힘 (차익거래는 오라클 가격을 본다)
+        double shockPull  = -shockMemory;         // 충격으로 누르는 힘(음수)
+
+        // 가격 갱신 후, 과도한 튐 방지 위해 0.95~1.05 범위로 클램프(데모 안전장치, 리플레이에서는 0 이상만)
+        double next = price + noise + meanRevert + shockPull;
+        price = priceBand ? clamp(next, 0.95, 1.05) : Math.max(0.0, next);
+
+        // 충격 잔상은 매 스텝 5%씩 감소 (서서히 정상화)
+        shockMemory *= 0.95;
+
+        // 간단한 재무 건전성 체크:
+        //   준비금 현금이 특정 임계 이하로 내려가면 추가 하방 압력
+        //   (supply * (1 - ltv) * 0.1 : 완전한 의미의 규칙은 아니고 데모용 힌트)
+        if (reserveCash < supply * (1 - ltv) * 0.1) {
+            price = priceBand ? Math.max(0.97, price - 0.001) : Math.max(0.0, price - 0.001);
+        }
+
+        // 오라클 이력 기록 (링버퍼, 할당 없음)
+        if (++histPos == oracleHist.length) histPos = 0;
+        oracleHist[histPos] = price;
+        return price;
+    }
+
+    /**
+     * 시계열을 남기지 않고 지표만 계산하는 헤드리스 실행 (앙상블/민감도 분석용, 메모리 O(1)).
+     * - 단일 실행과 같은 스텝 순서(시나리오 → 소음 → 전개)라 같은 시드면 같은 지표가 나온다.
+     */
+    static RiskMetrics simulateMetrics(SimParams params, ScenarioSchedule schedule, int steps, double dt, long seed) {
+        return simulateMetrics(params, schedule, steps, dt, seed, () -> false);
+    }
+
+    /**
+     * 취소 가능한 헤드리스 실행: CANCEL_CHECK 스텝마다 cancelled를 확인하고, 취소되면 null 반환.
+     * (적응형 앙상블에서 목표 정밀도 도달 후 남은 경로를 빨리 멈추기 위함)
+     */
+    static RiskMetrics simulateMetrics(SimParams params, ScenarioSchedule schedule, int steps, double dt, long seed,
+                                       BooleanSupplier cancelled) {
+        ReserveModel m = new ReserveModel(params, schedule, steps, dt);
+        Random rng = new Random(seed);
+        OnlineRiskMetrics acc = new OnlineRiskMetrics();
+        for (int t = 0; t < steps; t++) {
+            if ((t & (CANCEL_CHECK - 1)) == 0 && cancelled.getAsBoolean()) return null;
+            m.beginStep(t, null);
+            acc.push(m.advance(noise(rng)));
+        }
+        return acc.toRiskMetrics();
+    }
+
+    // 유틸: null이면 기본값(d) 반환 (Double용)
+    static double nz(Double v, double d) { return v != null ? v : d; }
+    // 유틸: null이면 기본값(d) 반환 (Integer용)
+    static int nzInt(Integer v, int d) { return v != null ? v : d; }
+    // 유틸: [lo, hi]로 값 제한
+    static double clamp(double x, double lo, double hi) { return Math.max(lo, Math.min(hi, x)); }
+}
@@ -0,0 +1,59 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+
+/**
+ * 저장소에 남는 SimulationResult의 힙 크기 추정 (64비트 JVM, compressed oops 기준 얕은 크기 합).
+ *
+ * - 직렬화해서 재는 대신 원소 수 × 원소당 크기로 계산 → 1M 스텝 결과도 O(1)
+ * - project(): 실행 전 요청만 보고 최대 크기 예측 (쿼터 선점용, 리플레이 조기 종료 등으로 실제는 더 작을 수 있음)
+ * - estimate(): 완료된 결과의 실제 원소 수로 계산 (쿼터 정산/ResourceUsage.resultBytes)
+ */
+final class ResultSizeEstimator {
+    private ResultSizeEstimator() {}
+
+    // 결과 레코드 + params/scenarios/metrics/retention 등 고정 부분 (대략치)
+    static final long BASE_BYTES = 1024;
+    // SeriesPoint: 헤더 12 + int 4 + double 5개 40 + 참조 4 = 64 (8바이트 정렬) + 리스트 슬롯 4
+    static final long SERIES_POINT_BYTES = 68;
+    // actualPrice(Double) 박싱 객체
+    static final long BOXED_DOUBLE_BYTES = 16;
+    // SimEvent(헤더 + int + 참조 2) 24 + data(Map.of 1~3개 + 박싱 값) 평균치 + 리스트 슬롯
+    static final long EVENT_BYTES = 128;
+    // RollingPoint: 32 + Double 3개 48 + 리스트 슬롯 4
+    static final long ROLLING_POINT_BYTES = 84;
+
+    static long estimate(SimulationResult r) {
+        long bytes = BASE_BYTES;
+        if (r.series() != null) {
+            long n = r.series().size();
+            boolean replay = n > 0 && r.series().get(0).actualPrice() != null;
+            bytes += n * (SERIES_POINT_BYTES + (replay ? BOXED_DOUBLE_BYTES : 0));
+        }
+        if (r.events() != null) bytes += (long) r.events().size() * EVENT_BYTES;
+        if (r.rolling() != null) bytes += (long) r.rolling().size() * ROLLING_POINT_BYTES;
+        return bytes;
+    }
+
+    /**
+     * @param scheduledEvents 컴파일된 시나리오 스케줄의 이벤트 수 (이벤트 로그 길이의 근사)
+     * @param retainedPoints  DOWNSAMPLED일 때 남길 점 수
+     */
+    static long project(SimulationRequest r, int scheduledEvents, int retainedPoints) {
+        var mode = r.retention() != null ? r.retention().mode() : SimulationRequest.Retention.Mode.FULL;
+        long point = SERIES_POINT_BYTES + (r.replay() != null ? BOXED_DOUBLE_BYTES : 0);
+        long bytes = BASE_BYTES;
+        bytes += switch (mode) {
+            case FULL -> (long) r.steps() * point;
+            case DOWNSAMPLED -> (long) Math.min(r.steps(), retainedPoints) * point;
+            case EVENTS_ONLY, METRICS_ONLY -> 0L;
+        };
+        if (mode != SimulationRequest.Retention.Mode.METRICS_ONLY) bytes += (long) scheduledEvents * EVENT_BYTES;
+        if (r.rolling() != null) {
+            int step = r.rolling().step() != null ? Math.max(1, r.rolling().step()) : 1;
+            bytes += (long) (r.steps() / step + 1) * ROLLING_POINT_BYTES;
+        }
+        return bytes;
+    }
+}
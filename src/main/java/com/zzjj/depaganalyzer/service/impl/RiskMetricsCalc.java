@@ -10,6 +10,10 @@ import java.util.List;
 public final class RiskMetricsCalc {
     private RiskMetricsCalc() {} //유틸 클래스이므로 인스턴스 방지
 
+    // 페그 유지 밴드 (RiskMetrics 정의: 0.995 ~ 1.005)
+    public static final double PEG_LOWER = 0.995;
+    public static final double PEG_UPPER = 1.005;
+
     /**
      * 샘플 가격 데이터로부터 리스크 지표(RiskMetrics)를 계산한다.
      * - avgDeviation : 페그(1.0)에서 벗어난 평균 거리
@@ -42,7 +46,7 @@ public final class RiskMetricsCalc {
         for(int i = 0; i < n; i++) {
             double p = samples.get(i).price();
             sumDev += Math.abs(p - 1.0);
-            if (p >= 0.995 && p <= 1.005) uptime++;
+            if (p >= PEG_LOWER && p <= PEG_UPPER) uptime++;
             if (i > 0) {
                 double p0 = samples.get(i - 1).price();
                 if (p0 > 0 && p > 0) {
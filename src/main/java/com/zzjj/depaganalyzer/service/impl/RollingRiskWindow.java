@@ -0,0 +1,162 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+/**
+ * 슬라이딩 윈도우 리스크 지표 누적기 (링버퍼 기반).
+ *
+ * - 최근 window개 가격만 유지하면서 평균 괴리율 / 페그 유지율 / 로그수익률 변동성을
+ *   add/remove 방식으로 갱신 → 한 스텝당 O(1).
+ * - 매 윈도우를 처음부터 다시 계산하면 O(n·w)이므로, 대시보드용 롤링 시계열이나
+ *   시뮬레이션 루프 안에서 롤링 지표를 뽑을 때 이 클래스를 사용한다.
+ * - 생성 이후 push()는 할당이 없음(원시 배열만 사용).
+ *
+ * 지표 정의는 RiskMetricsCalc.calcFromSamples와 동일:
+ *  - avgDeviation : 윈도우 내 mean(|p - 1.0|)
+ *  - pegUptime    : 윈도우 내 [0.995, 1.005] 체류 비율
+ *  - volatility   : 윈도우 내부 로그수익률의 (모)표준편차
+ *
+ * 출력 간격(emitDue): 윈도우가 처음 가득 찬 점부터 step개마다 한 점.
+ * 시뮬 롤링 시계열과 /metrics의 rolling이 같은 규칙을 쓰도록 여기서만 정의한다.
+ *
+ * 스레드 안전하지 않음: 한 스레드(한 시계열)에서만 사용.
+ */
+public final class RollingRiskWindow {
+
+    private final int capacity;
+
+    // 가격 링버퍼 + 각 슬롯에 "직전 가격 대비 로그수익률"을 함께 보관
+    // (윈도우의 가장 오래된 슬롯의 수익률은 윈도우 밖 가격과 이어지므로 조회 시 제외)
+    private final double[] prices;
+    private final double[] rets;
+    private final boolean[] hasRet;
+
+    private int head = 0;   // 다음에 쓸 위치
+    private int size = 0;   // 현재 채워진 개수
+    private double lastPrice = Double.NaN;
+    private long pushed = 0; // clear() 이후 push 횟수 (출력 간격 기준)
+
+    // 누적 합 (윈도우 내 모든 슬롯 기준)
+    private double sumDev = 0.0;
+    private int inBand = 0;
+    private double sumRet = 0.0;
+    private double sumRet2 = 0.0;
+    private int nRet = 0;
+
+    // add/remove 누적 오차 방지용: capacity번 push마다 합계를 재계산 (상각 O(1))
+    private int sinceRebuild = 0;
+
+    public RollingRiskWindow(int window) {
+        if (window < 2) throw new IllegalArgumentException("window must be >= 2");
+        this.capacity = window;
+        this.prices = new double[window];
+        this.rets = new double[window];
+        this.hasRet = new boolean[window];
+    }
+
+    /** 새 가격 하나를 윈도우에 넣는다. 가득 차 있으면 가장 오래된 값을 밀어낸다. */
+    public void push(double price) {
+        if (size == capacity) {
+            // 가장 오래된 슬롯(head 위치) 제거
+            double old = prices[head];
+            sumDev -= Math.abs(old - 1.0);
+            if (inPegBand(old)) inBand--;
+            if (hasRet[head]) {
+                sumRet -= rets[head];
+                sumRet2 -= rets[head] * rets[head];
+                nRet--;
+            }
+        } else {
+            size++;
+        }
+
+        prices[head] = price;
+        sumDev += Math.abs(price - 1.0);
+        if (inPegBand(price)) inBand++;
+
+        // 직전 가격과의 로그수익률 (양수 가격끼리만)
+        boolean ok = lastPrice > 0 && price > 0;
+        hasRet[head] = ok;
+        if (ok) {
+            double r = Math.log(price / lastPrice);
+            rets[head] = r;
+            sumRet += r;
+            sumRet2 += r * r;
+            nRet++;
+        }
+        lastPrice = price;
+        head = (head + 1) % capacity;
+        pushed++;
+
+        if (++sinceRebuild >= capacity) rebuild();
+    }
+
+    /** 윈도우를 비운다 (배열은 재사용). */
+    public void clear() {
+        head = 0; size = 0; lastPrice = Double.NaN; pushed = 0;
+        sumDev = 0.0; inBand = 0; sumRet = 0.0; sumRet2 = 0.0; nRet = 0;
+        sinceRebuild = 0;
+    }
+
+    public int size() { return size; }
+
+    public int capacity() { return capacity; }
+
+    public boolean isFull() { return size == capacity; }
+
+    /** 방금 넣은 점에서 롤링 값을 출력할 차례인지: 윈도우가 처음 찬 점부터 step개마다 (step ≥ 1) */
+    public boolean emitDue(int step) {
+        return size == capacity && (pushed - capacity) % Math.max(1, step) == 0;
+    }
+
+    /** 윈도우 내 평균 |p - 1.0|. 비어 있으면 NaN. */
+    public double avgDeviation() {
+        return size == 0 ? Double.NaN : sumDev / size;
+    }
+
+    /** 윈도우 내 페그 밴드 체류 비율. 비어 있으면 NaN. */
+    public double pegUptime() {
+        return size == 0 ? Double.NaN : (double) inBand / size;
+    }
+
+    /** 윈도우 내부 로그수익률의 표준편차. 수익률이 없으면 NaN. */
+    public double volatility() {
+        double s = sumRet, s2 = sumRet2;
+        int n = nRet;
+        // 가장 오래된 슬롯의 수익률은 윈도우 밖 가격 기준이므로 제외
+        int oldest = oldestIndex();
+        if (size > 0 && hasRet[oldest]) {
+            s -= rets[oldest];
+            s2 -= rets[oldest] * rets[oldest];
+            n--;
+        }
+        if (n <= 0) return Double.NaN;
+        double mean = s / n;
+        double var = s2 / n - mean * mean;
+        return Math.sqrt(Math.max(0.0, var)); // 부동소수 오차로 음수가 나오는 경우 방지
+    }
+
+    /** 가장 최근에 넣은 가격. 비어 있으면 NaN. */
+    public double lastPrice() { return lastPrice; }
+
+    private int oldestIndex() {
+        return size == capacity ? head : 0;
+    }
+
+    private void rebuild() {
+        sinceRebuild = 0;
+        sumDev = 0.0; inBand = 0; sumRet = 0.0; sumRet2 = 0.0; nRet = 0;
+        for (int i = 0; i < size; i++) {
+            double p = prices[i];
+            sumDev += Math.abs(p - 1.0);
+            if (inPegBand(p)) inBand++;
+            if (hasRet[i]) {
+                sumRet += rets[i];
+                sumRet2 += rets[i] * rets[i];
+                nRet++;
+            }
+        }
+    }
+
+    private static boolean inPegBand(double p) {
+        return p >= RiskMetricsCalc.PEG_LOWER && p <= RiskMetricsCalc.PEG_UPPER;
+    }
+}
@@ -0,0 +1,182 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 시나리오 목록을 "시점 오름차순 원시 배열 스케줄"로 컴파일한 결과 (불변, 경로 간 공유 가능).
+ *
+ * - 루프는 커서 하나만 들고 매 스텝 `t == at[cursor]` 정수 비교 한 번으로 이벤트 유무를 판단
+ *   (박싱된 Map 조회 없음, 같은 t의 이벤트는 요청 순서대로 연속 배치)
+ * - 램프(duration)는 스텝마다 이벤트를 펼치지 않고 시작/종료 이벤트 한 쌍으로 표현
+ *   → 시작 때 스텝당 비율을 누적기에 더하고 종료 때 뺀다 (이벤트 수 = 시나리오 × 반복 × 2 이하)
+ * - 반복(repeatEvery/repeatCount)은 컴파일 시 steps 범위 안으로 전개
+ */
+final class ScenarioSchedule {
+
+    // 이벤트 종류 (op)
+    static final byte REDEEM_START = 0;   // value = 스텝당 상환 비율, aux = duration
+    static final byte REDEEM_END = 1;     // value = 시작 때 더한 비율
+    static final byte DROP_START = 2;     // value = 스텝당 담보 하락률, aux = duration
+    static final byte DROP_END = 3;
+    static final byte LAG_SET = 4;        // value = 지연(초), aux = duration (0이면 영구)
+    static final byte LAG_RESTORE = 5;
+    static final byte FEE_SET = 6;        // value = 새 수수료
+    static final byte FEE_RAMP_START = 7; // value = 목표 수수료, aux = 램프 번호 (길이는 rampDuration[aux])
+    static final byte FEE_RAMP_END = 8;   // value = 목표 수수료, aux = 램프 번호(시작 이벤트와 같음)
+
+    static final int MAX_EVENTS = 1_000_000; // 반복 전개 후 이벤트 수 상한 (메모리 보호)
+
+    static final ScenarioSchedule EMPTY = new ScenarioSchedule(new int[0], new byte[0], new double[0], new int[0], new int[0], 0.0);
+
+    final int[] at;
+    final byte[] op;
+    final double[] value;
+    final int[] aux;
+    final int[] rampDuration;   // 수수료 램프 번호 → 길이(스텝). 모델은 램프별 기울기 슬롯을 이 크기로 잡는다
+    final double maxLagSeconds; // ORACLE_LAG 시나리오 중 최대 지연 (오라클 링버퍼 크기 산정용)
+
+    private ScenarioSchedule(int[] at, byte[] op, double[] value, int[] aux, int[] rampDuration, double maxLagSeconds) {
+        this.at = at;
+        this.op = op;
+        this.value = value;
+        this.aux = aux;
+        this.rampDuration = rampDuration;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    int size() { return at.length; }
+
+    /** 이벤트 종류 이름 (트레이싱/로그용) */
+    static String opName(byte op) {
+        return switch (op) {
+            case REDEEM_START -> "REDEEM_START";
+            case REDEEM_END -> "REDEEM_END";
+            case DROP_START -> "DROP_START";
+            case DROP_END -> "DROP_END";
+            case LAG_SET -> "LAG_SET";
+            case LAG_RESTORE -> "LAG_RESTORE";
+            case FEE_SET -> "FEE_SET";
+            case FEE_RAMP_START -> "FEE_RAMP_START";
+            case FEE_RAMP_END -> "FEE_RAMP_END";
+            default -> "OP_" + op;
+        };
+    }
+
+    /** 첫 이벤트 시점 (없으면 Integer.MAX_VALUE → 루프의 비교가 항상 거짓) */
+    int firstAt() { return at.length > 0 ? at[0] : Integer.MAX_VALUE; }
+
+    /**
+     * 시나리오 목록 컴파일. steps 이후 시점의 이벤트는 버린다 (종료 이벤트 포함: 시뮬이 먼저 끝남).
+     * @throws IllegalArgumentException 음수 시점, 잘못된 duration/반복 값, 이벤트 수 초과
+     */
+    static ScenarioSchedule compile(List<Scenario> scenarios, int steps) {
+        if (scenarios == null || scenarios.isEmpty()) return EMPTY;
+
+        Builder b = new Builder();
+        int feeRamps = 0;
+        int[] rampDuration = new int[4];
+        double maxLag = 0.0;
+        for (Scenario sc : scenarios) {
+            if (sc.t() < 0) throw new IllegalArgumentException("scenario t must be >= 0: " + sc.t());
+            int duration = positive(sc.duration(), 1, "duration");
+            int every = positive(sc.repeatEvery(), 0, "repeatEvery");
+            int count = every > 0 ? positive(sc.repeatCount(), Integer.MAX_VALUE, "repeatCount") : 1;
+            if (sc.type() == Scenario.ScenarioType.ORACLE_LAG) maxLag = Math.max(maxLag, Math.max(0.0, sc.value()));
+
+            for (long r = 0, t = sc.t(); r < count && t < steps; r++, t += every) {
+                int t0 = (int) t;
+                long end = t + duration;
+                switch (sc.type()) {
+                    case REDEEM_SHOCK -> {
+                        double f = perStep(ReserveModel.clamp(sc.value(), 0, 1), duration);
+                        b.add(t0, REDEEM_START, f, duration);
+                        if (end < steps) b.add((int) end, REDEEM_END, f, duration);
+                    }
+                    case COLLATERAL_DROP -> {
+                        double f = perStep(ReserveModel.clamp(sc.value(), 0, 0.99), duration);
+                        b.add(t0, DROP_START, f, duration);
+                        if (end < steps) b.add((int) end, DROP_END, f, duration);
+                    }
+                    case ORACLE_LAG -> {
+                        boolean temporary = sc.duration() != null;
+                        b.add(t0, LAG_SET, Math.max(0.0, sc.value()), temporary ? duration : 0);
+                        if (temporary && end < steps) b.add((int) end, LAG_RESTORE, 0.0, 0);
+                    }
+                    case FEE_CHANGE -> {
+                        double fee = ReserveModel.clamp(sc.value(), 0, 0.1);
+                        if (duration == 1) {
+                            b.add(t0, FEE_SET, fee, 0);
+                        } else {
+                            int ramp = feeRamps++;
+                            if (ramp == rampDuration.length) rampDuration = Arrays.copyOf(rampDuration, ramp * 2);
+                            rampDuration[ramp] = duration;
+                            b.add(t0, FEE_RAMP_START, fee, ramp);
+                            if (end < steps) b.add((int) end, FEE_RAMP_END, fee, ramp);
+                        }
+                    }
+                }
+                if (every == 0) break;
+            }
+        }
+        return b.build(Arrays.copyOf(rampDuration, feeRamps), maxLag);
+    }
+
+    // 총량 v를 d 스텝에 복리로 나눈 스텝당 비율: (1 - f)^d = 1 - v (d=1이면 v 그대로)
+    private static double perStep(double v, int d) {
+        if (d == 1) return v;
+        return v >= 1.0 ? 1.0 : -Math.expm1(Math.log1p(-v) / d);
+    }
+
+    private static int positive(Integer v, int dflt, String name) {
+        if (v == null) return dflt;
+        if (v < 1) throw new IllegalArgumentException("scenario " + name + " must be >= 1: " + v);
+        return v;
+    }
+
+    // 삽입 순서를 보존하는 정렬용 누적기: key = (t << 32) | 삽입번호
+    private static final class Builder {
+        int n = 0;
+        long[] keys = new long[16];
+        byte[] op = new byte[16];
+        double[] value = new double[16];
+        int[] aux = new int[16];
+
+        void add(int t, byte o, double v, int a) {
+            if (n == MAX_EVENTS) {
+                throw new IllegalArgumentException("scenario schedule too large (> " + MAX_EVENTS + " events after repeats)");
+            }
+            if (n == keys.length) {
+                int cap = Math.min(MAX_EVENTS, n * 2);
+                keys = Arrays.copyOf(keys, cap);
+                op = Arrays.copyOf(op, cap);
+                value = Arrays.copyOf(value, cap);
+                aux = Arrays.copyOf(aux, cap);
+            }
+            keys[n] = ((long) t << 32) | n;
+            op[n] = o;
+            value[n] = v;
+            aux[n] = a;
+            n++;
+        }
+
+        ScenarioSchedule build(int[] rampDuration, double maxLag) {
+            long[] sorted = Arrays.copyOf(keys, n);
+            Arrays.sort(sorted); // t 오름차순, 같은 t는 삽입 순서
+            int[] at = new int[n];
+            byte[] o = new byte[n];
+            double[] v = new double[n];
+            int[] a = new int[n];
+            for (int i = 0; i < n; i++) {
+                int src = (int) sorted[i];
+                at[i] = (int) (sorted[i] >>> 32);
+                o[i] = op[src];
+                v[i] = value[src];
+                a[i] = aux[src];
+            }
+            return new ScenarioSchedule(at, o, v, a, rampDuration, maxLag);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityRequest;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * SimParams에 대한 리스크 지표 민감도(유한차분) 추정기.
+ *
+ * ─ 방법 ─
+ * - 앙상블 멤버 i마다 시드 s_i 하나를 정하고, 기준 런과 모든 ±섭동 런을 같은 s_i로 돌린다 (공통 난수, CRN)
+ *   → 멤버별 차분 (f(θ+h) - f(θ-h)) / 2h 에서 소음 성분이 상쇄되어 분산이 크게 줄어든다
+ * - 기준 런(섭동 없음)은 멤버당 한 번만 돌리고 모든 파라미터가 공유
+ *   (경계에 걸린 파라미터의 전진/후진 차분, baseline 지표에 재사용)
+ * - 멤버별 차분의 평균 ± t·SE 로 신뢰구간
+ *
+ * ─ 병렬화 ─
+ * - (변형 × 멤버) 런을 전용 ForkJoinPool에서 병렬 실행. 런끼리 상태 공유 없음(시드만 공유)
+ * - 헤드리스 실행(ReserveModel.simulateMetrics)이라 런당 메모리 O(1)
+ */
+@Component
+public class SensitivityAnalyzer {
+
+    private static final double DEFAULT_REL_STEP = 0.05;
+    private static final int DEFAULT_ENSEMBLE = 32;
+    private static final double DEFAULT_CONFIDENCE = 0.95;
+    private static final SensitivityResult.Metric[] METRICS = SensitivityResult.Metric.values();
+
+    private final ForkJoinPool pool;
+    private final long maxTotalSteps;
+
+    public SensitivityAnalyzer(
+            @Value("${stabilisim.sensitivity.parallelism:0}") int parallelism,
+            @Value("${stabilisim.sensitivity.maxTotalSteps:500000000}") long maxTotalSteps
+    ) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxTotalSteps = maxTotalSteps;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // 파라미터별 섭동 계획 (plus/minusVariant: variants 인덱스, 0번은 기준)
+    private record Plan(SensitivityRequest.Param param, double value, double step, SensitivityResult.Scheme scheme,
+                        int plusVariant, int minusVariant) {}
+
+    /**
+     * 요청 검증 (호출 스레드에서 바로 400을 내기 위해 분리)
+     * @return 잡 전체가 돌릴 steps 합 (steps × ensemble × 변형 수, 쿼터 청구량)
+     */
+    public long validate(SensitivityRequest req) {
+        if (req.base().replay() != null) {
+            throw new IllegalArgumentException("replay is not supported for sensitivity analysis");
+        }
+        ScenarioSchedule.compile(req.base().scenarios(), req.base().steps());
+        long total = (long) req.base().steps() * ensemble(req) * (1 + 2L * params(req).size());
+        if (total > maxTotalSteps) {
+            throw new IllegalArgumentException("sensitivity job too large: " + total
+                    + " total steps (limit " + maxTotalSteps + "); reduce steps, ensemble or params");
+        }
+        return total;
+    }
+
+    /**
+     * 민감도 분석 실행 (블로킹). 진행률은 0~1로 progress에 보고.
+     */
+    public SensitivityResult run(String id, SensitivityRequest req, DoubleConsumer progress) throws InterruptedException {
+        validate(req);
+        var startedAt = Instant.now();
+        SimulationRequest base = req.base();
+        int members = ensemble(req);
+        double relStep = req.relStep() != null ? req.relStep() : DEFAULT_REL_STEP;
+        double confidence = req.confidence() != null ? req.confidence() : DEFAULT_CONFIDENCE;
+
+        // 1) 변형 목록: 0번은 기준, 이후 파라미터별 +/- (경계에 걸리면 한쪽만)
+        List<SimParams> variants = new ArrayList<>();
+        variants.add(base.params());
+        List<Plan> plans = new ArrayList<>();
+        for (var p : params(req)) {
+            plans.add(plan(p, base.params(), relStep, variants));
+        }
+
+        // 2) (변형 × 멤버) 병렬 실행. 같은 멤버 = 같은 시드 (공통 난수), 시나리오 스케줄은 한 번만 컴파일해 공유
+        ScenarioSchedule schedule = ScenarioSchedule.compile(base.scenarios(), base.steps());
+        long baseSeed = base.seed() != null ? base.seed() : 42;
+        int nv = variants.size();
+        double[][][] out = new double[nv][members][];
+        int total = nv * members;
+        int reportEvery = Math.max(1, total / 20);
+        AtomicInteger done = new AtomicInteger();
+        try {
+            pool.submit(() -> IntStream.range(0, total).parallel().forEach(k -> {
+                int v = k / members, i = k % members;
+                RiskMetrics m = ReserveModel.simulateMetrics(
+                        variants.get(v), schedule, base.steps(), base.dt(), EnsembleStats.memberSeed(baseSeed, i));
+                out[v][i] = EnsembleStats.toArray(m);
+                int d = done.incrementAndGet();
+                if (d % reportEvery == 0) progress.accept((double) d / total);
+            })).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("sensitivity run failed", e.getCause());
+        }
+
+        // 3) 기준 지표
+        Map<SensitivityResult.Metric, SensitivityResult.Estimate> baseline = new EnumMap<>(SensitivityResult.Metric.class);
+        for (int k = 0; k < METRICS.length; k++) {
+            double[] xs = new double[members];
+            for (int i = 0; i < members; i++) xs[i] = out[0][i][k];
+            baseline.put(METRICS[k], EnsembleStats.estimate(xs, confidence));
+        }
+
+        // 4) 멤버별 차분 → 평균/신뢰구간
+        List<SensitivityResult.ParamSensitivity> sens = new ArrayList<>(plans.size());
+        for (Plan pl : plans) {
+            Map<SensitivityResult.Metric, SensitivityResult.Estimate> d = new EnumMap<>(SensitivityResult.Metric.class);
+            for (int k = 0; k < METRICS.length; k++) {
+                double[] xs = new double[members];
+                for (int i = 0; i < members; i++) {
+                    double hi = out[pl.plusVariant()][i][k];
+                    double lo = out[pl.minusVariant()][i][k];
+                    double span = pl.scheme() == SensitivityResult.Scheme.CENTRAL ? 2 * pl.step() : pl.step();
+                    xs[i] = (hi - lo) / span; // 한쪽이 null(NaN)이면 NaN → 집계에서 제외
+                }
+                d.put(METRICS[k], EnsembleStats.estimate(xs, confidence));
+            }
+            sens.add(new SensitivityResult.ParamSensitivity(pl.param(), pl.value(), pl.step(), pl.scheme(), d));
+        }
+
+        return new SensitivityResult(id, SimulationResult.Status.FINISHED,
+                base.steps(), members, relStep, confidence, baseline, sens,
+                (long) total, startedAt, Instant.now(), null);
+    }
+
+    /**
+     * 파라미터 하나의 섭동 계획: 섭동 크기 h와 차분 방식 결정, 필요한 변형을 variants에 추가.
+     * - h = relStep × max(|θ|, 최소 스케일)  (θ=0이어도 h가 0이 되지 않게)
+     * - θ±h가 허용 범위를 벗어나면 기준 런(0번 변형)과의 전진/후진 차분
+     */
+    private static Plan plan(SensitivityRequest.Param p, SimParams params, double relStep, List<SimParams> variants) {
+        double theta = current(p, params);
+        double h = relStep * Math.max(Math.abs(theta), minScale(p));
+        if (p == SensitivityRequest.Param.ORACLE_LAG_SEC) h = Math.max(1, Math.round(h)); // 정수 파라미터
+        double lo = lowerBound(p), hi = upperBound(p);
+
+        boolean up = theta + h <= hi, down = theta - h >= lo;
+        if (!up && !down) {
+            // 범위가 h보다 좁음 → 넓은 쪽으로 h를 줄여 한쪽 차분
+            up = hi - theta >= theta - lo;
+            h = up ? hi - theta : theta - lo;
+            down = false;
+        }
+        int plus = 0, minus = 0;
+        if (up) {
+            plus = variants.size();
+            variants.add(with(p, params, theta + h));
+        }
+        if (down) {
+            minus = variants.size();
+            variants.add(with(p, params, theta - h));
+        }
+        SensitivityResult.Scheme scheme = up && down ? SensitivityResult.Scheme.CENTRAL
+                : up ? SensitivityResult.Scheme.FORWARD : SensitivityResult.Scheme.BACKWARD;
+        return new Plan(p, theta, h, scheme, plus, minus); // 한쪽 차분이면 빠진 쪽은 0번(기준) 변형
+    }
+
+    // 모델 기본값까지 반영한 현재 값 (ReserveModel 생성자와 같은 기본값)
+    private static double current(SensitivityRequest.Param p, SimParams s) {
+        return switch (p) {
+            case LTV -> ReserveModel.clamp(ReserveModel.nz(s.ltv(), 0.9), 0, 1);
+            case REDEEM_FEE -> ReserveModel.clamp(ReserveModel.nz(s.redeemFee(), 0.001), 0, 0.1);
+            case ORACLE_LAG_SEC -> Math.max(0, ReserveModel.nzInt(s.oracleLagSec(), 60));
+            case INIT_SUPPLY -> ReserveModel.nz(s.initSupply(), 1_000_000);
+            case INIT_RESERVE_CASH -> ReserveModel.nz(s.initReserveCash(), 1_000_000);
+            case INIT_RESERVE_COLLATERAL -> ReserveModel.nz(s.initReserveCollateral(), 0.0);
+        };
+    }
+
+    private static SimParams with(SensitivityRequest.Param p, SimParams s, double v) {
+        return switch (p) {
+            case LTV -> new SimParams(v, s.redeemFee(), s.oracleLagSec(), s.initSupply(), s.initReserveCash(), s.initReserveCollateral());
+            case REDEEM_FEE -> new SimParams(s.ltv(), v, s.oracleLagSec(), s.initSupply(), s.initReserveCash(), s.initReserveCollateral());
+            case ORACLE_LAG_SEC -> new SimParams(s.ltv(), s.redeemFee(), (int) Math.round(v), s.initSupply(), s.initReserveCash(), s.initReserveCollateral());
+            case INIT_SUPPLY -> new SimParams(s.ltv(), s.redeemFee(), s.oracleLagSec(), v, s.initReserveCash(), s.initReserveCollateral());
+            case INIT_RESERVE_CASH -> new SimParams(s.ltv(), s.redeemFee(), s.oracleLagSec(), s.initSupply(), v, s.initReserveCollateral());
+            case INIT_RESERVE_COLLATERAL -> new SimParams(s.ltv(), s.redeemFee(), s.oracleLagSec(), s.initSupply(), s.initReserveCash(), v);
+        };
+    }
+
+    // 값이 0일 때도 의미 있는 섭동이 되도록 하는 파라미터별 최소 스케일
+    private static double minScale(SensitivityRequest.Param p) {
+        return switch (p) {
+            case LTV -> 0.1;
+            case REDEEM_FEE -> 0.001;
+            case ORACLE_LAG_SEC -> 10;
+            case INIT_SUPPLY, INIT_RESERVE_CASH, INIT_RESERVE_COLLATERAL -> 10_000;
+        };
+    }
+
+    // 허용 범위 (ReserveModel의 clamp와 일치시켜야 섭동이 클램프에 먹히지 않음)
+    private static double lowerBound(SensitivityRequest.Param p) { return 0.0; }
+
+    private static double upperBound(SensitivityRequest.Param p) {
+        return switch (p) {
+            case LTV -> 1.0;
+            case REDEEM_FEE -> 0.1;
+            default -> Double.POSITIVE_INFINITY;
+        };
+    }
+
+    private static List<SensitivityRequest.Param> params(SensitivityRequest req) {
+        if (req.params() == null || req.params().isEmpty()) return Arrays.asList(SensitivityRequest.Param.values());
+        return req.params().stream().distinct().toList();
+    }
+
+    private static int ensemble(SensitivityRequest req) {
+        return req.ensemble() != null ? req.ensemble() : DEFAULT_ENSEMBLE;
+    }
+}
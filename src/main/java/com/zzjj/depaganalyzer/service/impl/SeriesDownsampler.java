@@ -0,0 +1,165 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+//공용 유틸: 긴 시계열 다운샘플링 (차트/리포트용)
+public final class SeriesDownsampler {
+    private SeriesDownsampler() {} //유틸 클래스이므로 인스턴스 방지
+
+    /**
+     * LTTB(Largest-Triangle-Three-Buckets) 다운샘플링.
+     * - 시각적으로 중요한 점(급락/급등)을 보존하면서 n개 점을 threshold개로 줄인다.
+     * - 원본을 복사하지 않고 인덱스 접근 함수(x, y)로 읽는다 → 추가 메모리 O(threshold)
+     * - 시간 O(n)
+     *
+     * @param n         원본 점 개수
+     * @param x         i번째 점의 x (단조 증가 가정)
+     * @param y         i번째 점의 y
+     * @param threshold 목표 점 개수 (3 미만이거나 n 이상이면 전체 인덱스 반환)
+     * @return 선택된 원본 인덱스 (오름차순)
+     */
+    public static int[] lttb(int n, IntToDoubleFunction x, IntToDoubleFunction y, int threshold) {
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] out = new int[threshold];
+        int k = 0;
+        out[k++] = 0; // 첫 점은 항상 포함
+
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            // 다음 버킷의 평균점
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            int avgLen = avgEnd - avgStart;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x.applyAsDouble(j);
+                avgY += y.applyAsDouble(j);
+            }
+            if (avgLen > 0) { avgX /= avgLen; avgY /= avgLen; }
+
+            // 현재 버킷에서 (이전 선택점, 다음 버킷 평균점)과 만드는 삼각형 면적이 최대인 점 선택
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double ax = x.applyAsDouble(a), ay = y.applyAsDouble(a);
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (y.applyAsDouble(j) - ay)
+                        - (ax - x.applyAsDouble(j)) * (avgY - ay));
+                if (area > maxArea) { maxArea = area; next = j; }
+            }
+            out[k++] = next;
+            a = next;
+        }
+        out[k++] = n - 1; // 마지막 점도 항상 포함
+        return Arrays.copyOf(out, k);
+    }
+
+    /**
+     * 길이(steps)를 아는 스트림용 스텝 버킷 min/max 다운샘플러 (시뮬 결과 DOWNSAMPLED 보관용).
+     * - [0, steps)를 buckets개로 나누고 버킷마다 값이 최소/최대인 원소만 유지 → 메모리 O(buckets)
+     * - offer(t, v)가 true일 때만 원소를 만들어 accept하면 스텝마다 객체를 만들 필요가 없다
+     */
+    public static final class StepBucketMinMax<T> {
+        private final int steps;
+        private final double[] minV, maxV;
+        private final int[] minT, maxT;
+        private final Object[] minItem, maxItem;
+
+        public StepBucketMinMax(int steps, int buckets) {
+            this.steps = Math.max(1, steps);
+            int n = Math.max(1, Math.min(buckets, this.steps));
+            this.minV = new double[n];
+            this.maxV = new double[n];
+            this.minT = new int[n];
+            this.maxT = new int[n];
+            this.minItem = new Object[n];
+            this.maxItem = new Object[n];
+            Arrays.fill(minV, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxV, Double.NEGATIVE_INFINITY);
+        }
+
+        private int bucket(int t) {
+            return (int) Math.min(minV.length - 1, Math.max(0, (long) t * minV.length / steps));
+        }
+
+        /** 값 v가 해당 버킷의 새 최소/최대가 되는지 (true면 accept 호출) */
+        public boolean offer(int t, double v) {
+            int b = bucket(t);
+            return v < minV[b] || v > maxV[b];
+        }
+
+        public void accept(int t, double v, T item) {
+            int b = bucket(t);
+            if (v < minV[b]) { minV[b] = v; minT[b] = t; minItem[b] = item; }
+            if (v > maxV[b]) { maxV[b] = v; maxT[b] = t; maxItem[b] = item; }
+        }
+
+        /** 버킷 순서대로, 버킷 안에서는 시점 순서대로 (min과 max가 같은 점이면 한 번만) */
+        @SuppressWarnings("unchecked")
+        public List<T> result() {
+            List<T> out = new ArrayList<>(minV.length * 2);
+            for (int b = 0; b < minV.length; b++) {
+                if (minItem[b] == null) continue; // 빈 버킷 (시뮬이 일찍 끝난 경우)
+                boolean minFirst = minT[b] <= maxT[b];
+                out.add((T) (minFirst ? minItem[b] : maxItem[b]));
+                if (minT[b] != maxT[b]) out.add((T) (minFirst ? maxItem[b] : minItem[b]));
+            }
+            return out;
+        }
+    }
+
+    /**
+     * 개수를 모르는 스트림용 시간 버킷 min/max 다운샘플러.
+     * - [from, to] 구간을 buckets개 시간 버킷으로 나누고 버킷마다 최소/최대 점만 유지 → 메모리 O(buckets)
+     * - 급락(디페그) 같은 극값이 사라지지 않도록 평균 대신 min/max를 남긴다.
+     */
+    public static final class TimeBucketMinMax {
+        private final long from;
+        private final double width;
+        private final double[] minY, maxY;
+        private final long[] minX, maxX;
+
+        public TimeBucketMinMax(long fromEpochSec, long toEpochSec, int buckets) {
+            this.from = fromEpochSec;
+            this.width = Math.max(1.0, (double) (toEpochSec - fromEpochSec + 1) / buckets);
+            this.minY = new double[buckets];
+            this.maxY = new double[buckets];
+            this.minX = new long[buckets];
+            this.maxX = new long[buckets];
+            Arrays.fill(minY, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxY, Double.NEGATIVE_INFINITY);
+        }
+
+        public void accept(long t, double v) {
+            int b = (int) Math.min(minY.length - 1, Math.max(0, (long) ((t - from) / width)));
+            if (v < minY[b]) { minY[b] = v; minX[b] = t; }
+            if (v > maxY[b]) { maxY[b] = v; maxX[b] = t; }
+        }
+
+        /** 결과를 [x(epoch sec)[], y[]] 로 반환 (버킷 내 min/max는 시간 순서 유지). */
+        public double[][] result() {
+            double[] xs = new double[minY.length * 2];
+            double[] ys = new double[minY.length * 2];
+            int k = 0;
+            for (int b = 0; b < minY.length; b++) {
+                if (minY[b] == Double.POSITIVE_INFINITY) continue; // 빈 버킷
+                boolean minFirst = minX[b] <= maxX[b];
+                long x1 = minFirst ? minX[b] : maxX[b], x2 = minFirst ? maxX[b] : minX[b];
+                double y1 = minFirst ? minY[b] : maxY[b], y2 = minFirst ? maxY[b] : minY[b];
+                xs[k] = x1; ys[k++] = y1;
+                if (x2 != x1) { xs[k] = x2; ys[k++] = y2; }
+            }
+            return new double[][]{Arrays.copyOf(xs, k), Arrays.copyOf(ys, k)};
+        }
+    }
+}
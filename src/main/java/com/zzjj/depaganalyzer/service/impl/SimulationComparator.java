@@ -0,0 +1,233 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.SimulationComparison;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.service.resultstore.PriceColumn;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 완료된 시뮬 N개를 스텝(t) 기준으로 정렬해 한 번에 스캔하는 비교기.
+ *
+ * ─ 정렬 ─
+ * - 스텝 s에서 런 r의 가격 = t ≤ s인 마지막 점의 가격 (FULL이면 그 스텝 값, DOWNSAMPLED면 직전 보관 점)
+ * - 런의 첫 점 이전/마지막 점 이후 스텝은 그 런이 없는 것으로 본다 (일찍 끝난 런이 엔벨로프를 끌지 않게)
+ *
+ * ─ 병렬화 ─
+ * - 밴드(스텝 구간)를 연속된 파티션으로 나눠 전용 ForkJoinPool에서 스캔
+ *   파티션마다 런별 커서를 이진 탐색으로 시작 위치에 맞춘 뒤 앞으로만 전진 → 전체 O(steps × N)
+ * - 컬럼은 PriceColumn으로 직접 읽는다 (힙 밖 결과도 점마다 레코드를 만들지 않음)
+ * - 파티션 수 = min(parallelism, steps × N / minCellsPerPartition), 최소 1
+ */
+@Component
+public class SimulationComparator {
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final long minCellsPerPartition;
+
+    public SimulationComparator(
+            @Value("${stabilisim.compare.parallelism:0}") int parallelism,
+            @Value("${stabilisim.compare.minCellsPerPartition:262144}") long minCellsPerPartition
+    ) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.minCellsPerPartition = Math.max(1, minCellsPerPartition);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param runs      비교할 완료 결과 (요청 순서)
+     * @param ref       기준 런 인덱스
+     * @param points    밴드 개수
+     * @param threshold 발산 임계값 (가격 차)
+     */
+    public SimulationComparison compare(List<SimulationResult> runs, int ref, int points, double threshold) {
+        int n = runs.size();
+        PriceColumn[] cols = new PriceColumn[n];
+        try {
+            for (int r = 0; r < n; r++) cols[r] = PriceColumn.open(runs.get(r).series());
+            return scan(runs, cols, ref, points, threshold);
+        } finally {
+            for (PriceColumn c : cols) if (c != null) c.close();
+        }
+    }
+
+    // 파티션 하나의 스캔 결과
+    private static final class Part {
+        final List<SimulationComparison.Band> bands = new ArrayList<>();
+        final int[] firstDiv;
+        final double[] maxGap;
+        final int[] maxGapT;
+        Integer firstBreach;
+
+        Part(int n) {
+            firstDiv = new int[n];
+            maxGap = new double[n];
+            maxGapT = new int[n];
+            Arrays.fill(firstDiv, -1);
+            Arrays.fill(maxGap, -1);
+        }
+    }
+
+    private SimulationComparison scan(List<SimulationResult> runs, PriceColumn[] cols, int ref, int points,
+                                      double threshold) {
+        int n = cols.length;
+        int[] first = new int[n], last = new int[n];
+        int maxT = -1;
+        for (int r = 0; r < n; r++) {
+            first[r] = cols[r].size() > 0 ? cols[r].t(0) : Integer.MAX_VALUE;
+            last[r] = cols[r].size() > 0 ? cols[r].t(cols[r].size() - 1) : -1;
+            maxT = Math.max(maxT, last[r]);
+        }
+        int steps = maxT + 1;
+
+        List<Part> parts = new ArrayList<>();
+        if (steps > 0) {
+            int bands = Math.min(points, steps);
+            int partitions = (int) Math.max(1, Math.min(Math.min(parallelism, bands),
+                    (long) steps * n / minCellsPerPartition));
+            int[] bounds = BucketResampler.split(bands, partitions);
+            if (partitions == 1) {
+                parts.add(scanBands(cols, first, last, ref, threshold, steps, bands, 0, bands));
+            } else {
+                List<Future<Part>> futures = new ArrayList<>(partitions);
+                for (int k = 0; k < partitions; k++) {
+                    int b0 = bounds[k], b1 = bounds[k + 1];
+                    futures.add(pool.submit(() -> scanBands(cols, first, last, ref, threshold, steps, bands, b0, b1)));
+                }
+                try {
+                    for (var f : futures) parts.add(f.get());
+                } catch (InterruptedException e) {
+                    futures.forEach(f -> f.cancel(true));
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("comparison interrupted", e);
+                } catch (ExecutionException e) {
+                    futures.forEach(f -> f.cancel(true));
+                    if (e.getCause() instanceof RuntimeException re) throw re;
+                    throw new IllegalStateException("comparison failed", e.getCause());
+                }
+            }
+        }
+
+        // 파티션 결과 합치기 (파티션은 스텝 순서)
+        List<SimulationComparison.Band> bands = new ArrayList<>();
+        Integer firstBreach = null;
+        int[] firstDiv = new int[n];
+        double[] maxGap = new double[n];
+        int[] maxGapT = new int[n];
+        Arrays.fill(firstDiv, -1);
+        Arrays.fill(maxGap, -1);
+        for (Part p : parts) {
+            bands.addAll(p.bands);
+            if (firstBreach == null) firstBreach = p.firstBreach;
+            for (int r = 0; r < n; r++) {
+                if (firstDiv[r] < 0) firstDiv[r] = p.firstDiv[r];
+                if (p.maxGap[r] > maxGap[r]) { maxGap[r] = p.maxGap[r]; maxGapT[r] = p.maxGapT[r]; }
+            }
+        }
+
+        RiskMetrics refMetrics = runs.get(ref).metrics();
+        List<SimulationComparison.Run> out = new ArrayList<>(n);
+        for (int r = 0; r < n; r++) {
+            var run = runs.get(r);
+            boolean self = r == ref;
+            out.add(new SimulationComparison.Run(
+                    run.id(), run.params(), cols[r].size(), run.metrics(),
+                    !self && firstDiv[r] >= 0 ? firstDiv[r] : null,
+                    !self && maxGap[r] >= 0 ? maxGap[r] : null,
+                    !self && maxGap[r] >= 0 ? maxGapT[r] : null,
+                    delta(run.metrics(), refMetrics)));
+        }
+        return new SimulationComparison(runs.get(ref).id(), steps, threshold, bands, firstBreach, out);
+    }
+
+    // 밴드 [b0, b1) 스캔 (밴드 k = 스텝 [k·steps/bands, (k+1)·steps/bands))
+    private static Part scanBands(PriceColumn[] cols, int[] first, int[] last, int ref, double threshold,
+                                  int steps, int bands, int b0, int b1) {
+        int n = cols.length;
+        Part part = new Part(n);
+        int s0 = bandStart(b0, steps, bands);
+        int[] cursor = new int[n];
+        for (int r = 0; r < n; r++) cursor[r] = cols[r].floorIndex(s0);
+        double[] v = new double[n];
+        double[] sorted = new double[n];
+        boolean[] active = new boolean[n];
+
+        for (int b = b0; b < b1; b++) {
+            int from = bandStart(b, steps, bands), to = bandStart(b + 1, steps, bands);
+            double bMin = Double.POSITIVE_INFINITY, bMax = Double.NEGATIVE_INFINITY, medSum = 0, spread = 0;
+            int stepsWithData = 0, maxRuns = 0;
+
+            for (int s = from; s < to; s++) {
+                int cnt = 0;
+                for (int r = 0; r < n; r++) {
+                    active[r] = s >= first[r] && s <= last[r];
+                    if (!active[r]) continue;
+                    PriceColumn c = cols[r];
+                    int i = cursor[r];
+                    while (i + 1 < c.size() && c.t(i + 1) <= s) i++;
+                    cursor[r] = i;
+                    v[r] = c.price(i);
+                    sorted[cnt++] = v[r];
+                }
+                if (cnt == 0) continue;
+
+                Arrays.sort(sorted, 0, cnt);
+                double lo = sorted[0], hi = sorted[cnt - 1];
+                double med = (cnt & 1) == 1 ? sorted[cnt / 2] : 0.5 * (sorted[cnt / 2 - 1] + sorted[cnt / 2]);
+                bMin = Math.min(bMin, lo);
+                bMax = Math.max(bMax, hi);
+                spread = Math.max(spread, hi - lo);
+                medSum += med;
+                stepsWithData++;
+                maxRuns = Math.max(maxRuns, cnt);
+                if (part.firstBreach == null && hi - lo > threshold) part.firstBreach = s;
+
+                if (!active[ref]) continue;
+                for (int r = 0; r < n; r++) {
+                    if (r == ref || !active[r]) continue;
+                    double gap = Math.abs(v[r] - v[ref]);
+                    if (gap > part.maxGap[r]) { part.maxGap[r] = gap; part.maxGapT[r] = s; }
+                    if (part.firstDiv[r] < 0 && gap > threshold) part.firstDiv[r] = s;
+                }
+            }
+            if (stepsWithData > 0) {
+                part.bands.add(new SimulationComparison.Band(from, to - 1, bMin, medSum / stepsWithData, bMax,
+                        spread, maxRuns));
+            }
+        }
+        return part;
+    }
+
+    private static int bandStart(int k, int steps, int bands) {
+        return (int) ((long) k * steps / bands);
+    }
+
+    private static SimulationComparison.MetricDelta delta(RiskMetrics m, RiskMetrics ref) {
+        if (m == null || ref == null) return null;
+        return new SimulationComparison.MetricDelta(
+                diff(m.avgDeviation(), ref.avgDeviation()),
+                diff(m.volatility(), ref.volatility()),
+                diff(m.pegUptime(), ref.pegUptime()),
+                m.recoveryTime() != null && ref.recoveryTime() != null ? m.recoveryTime() - ref.recoveryTime() : null,
+                diff(m.maxDrawdown(), ref.maxDrawdown()));
+    }
+
+    private static Double diff(Double a, Double b) {
+        return a != null && b != null ? a - b : null;
+    }
+}
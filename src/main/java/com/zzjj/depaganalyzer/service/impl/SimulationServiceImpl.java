@@ -5,11 +5,23 @@ import com.zzjj.depaganalyzer.domain.sim.SimModelType;
 import com.zzjj.depaganalyzer.dto.sim.*;
 import com.zzjj.depaganalyzer.service.MetricsService;
 import com.zzjj.depaganalyzer.service.SimulationsService;
+import com.zzjj.depaganalyzer.service.cluster.BatchJob;
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import com.zzjj.depaganalyzer.service.quota.ClientQuotas;
+import com.zzjj.depaganalyzer.service.resultstore.OffHeapResultStore;
+import com.zzjj.depaganalyzer.service.trace.SimulationEvents;
+import com.zzjj.depaganalyzer.service.trace.StepPhaseTracer;
+import com.zzjj.depaganalyzer.service.trace.StepPhaseTracer.Phase;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 /**
  * 시뮬레이션 생성/실행/조회 서비스 구현체.
@@ -25,6 +37,8 @@ import java.util.concurrent.*;
  * - store(String id -> Object value)
  *   value는 SimulationStatus(대기/진행 중) 또는 SimulationResult(완료/실패)를 담는다.
  *   메모리 기반이므로 서버 재시작 시 날아감(데모/1주차 단계라 충분).
+ * - 완료된 SimulationResult의 series/rolling은 OffHeapResultStore가 힙 밖 컬럼으로 옮긴 뷰일 수 있음
+ *   → 삭제/TTL 만료 시 release()로 힙 밖 메모리와 저장 바이트 쿼터를 함께 반환
  *
  * ─ 주의 ─
  * - ExecutorService를 생성만 하고 종료(shutdown)하지 않음: 애플리케이션 종료 시 적절히 정리 필요.
@@ -39,32 +53,181 @@ public class SimulationServiceImpl implements SimulationsService {
             Math.max(2, Runtime.getRuntime().availableProcessors()/2)
     );
 
+    // retention=DOWNSAMPLED에서 points를 생략했을 때 남기는 시계열 점 수
+    private static final int DEFAULT_RETAINED_POINTS = 1000;
+
+    // 비교 요청에서 points/divergenceThreshold를 생략했을 때의 엔벨로프 밴드 수 / 발산 임계값
+    private static final int DEFAULT_COMPARE_POINTS = 500;
+    private static final double DEFAULT_DIVERGENCE = 0.01;
+
     // 시뮬 ID -> 상태/결과 저장. 상태(SimulationStatus) 또는 결과(SimulationResult)를 넣는다.
     // ConcurrentHashMap으로 멀티스레드에서 안전하게 접근 가능.
     private final ConcurrentMap<String, Object> store = new ConcurrentHashMap<>();
 
+    // 리플레이 모드에서 실제 가격 경로를 공급 (stream()으로 필요한 만큼만 읽음)
+    private final MarketDataSource marketData;
+
+    // 민감도 분석(섭동 앙상블) 실행기
+    private final SensitivityAnalyzer sensitivity;
+
+    // 적응형 몬테카를로 앙상블 실행기
+    private final EnsembleRunner ensembles;
+
+    // 분산 배치 코디네이터 (상태는 JobStatusStore에 있으므로 이 노드의 store에는 넣지 않음)
+    private final BatchCoordinator batches;
+
+    // 클라이언트별 동시 잡/분당 steps/저장 바이트 쿼터
+    private final ClientQuotas quotas;
+
+    // 이 노드가 제출한 진행 중 배치 → 쿼터 임대 (배치는 다른 JVM 워커가 끝내므로 완료를 주기적으로 확인해 반환)
+    private final ConcurrentMap<String, ClientQuotas.Lease> batchLeases = new ConcurrentHashMap<>();
+
+    // 완료 결과의 큰 컬럼을 힙 밖(MemorySegment)으로 옮기는 저장소 + 결과 보관 기간
+    private final OffHeapResultStore results;
+
+    // 완료 결과 여러 개 비교 (스텝 정렬 병렬 스캔)
+    private final SimulationComparator comparator;
+
+    public SimulationServiceImpl(MarketDataSource marketData, SensitivityAnalyzer sensitivity, EnsembleRunner ensembles,
+                                 BatchCoordinator batches, ClientQuotas quotas, OffHeapResultStore results,
+                                 SimulationComparator comparator) {
+        this.marketData = marketData;
+        this.sensitivity = sensitivity;
+        this.ensembles = ensembles;
+        this.batches = batches;
+        this.quotas = quotas;
+        this.results = results;
+        this.comparator = comparator;
+    }
+
     /**
      * 시뮬레이션 생성 요청.
      * - 고유 ID 생성 후, 상태를 QUEUED로 저장
      * - 별도 스레드에서 runJob(...) 실행 시작
      * - 즉시 "큐에 들어갔음" 응답을 반환 (비동기)
+     * - 큐에 넣기 전에 클라이언트 쿼터 검사 (초과 시 429, 예상 결과 크기는 미리 선점하고 종료 때 실제 크기로 정산)
      */
     @Override
-    public SimulationCreateResponse createSimulation(SimulationRequest request) {
+    public SimulationCreateResponse createSimulation(SimulationRequest request, String clientId) {
+        // 시나리오 스케줄은 실행 전에 한 번 컴파일해 검증 (잘못된 duration/반복은 큐에 넣기 전에 거절)
+        var schedule = ScenarioSchedule.compile(request.scenarios(), request.steps());
+        String client = client(clientId);
+        var lease = quotas.acquire(client, request.steps(),
+                ResultSizeEstimator.project(request, schedule.size(), retainedPoints(request)));
+
         // sim_타임스탬프_랜덤6자리 식으로 ID 생성
         String id = "sim_" + Instant.now().toEpochMilli() + "_" + UUID.randomUUID().toString().substring(0, 6);
 
         // 첫 상태는 "대기(QUEUED)". 진행률은 0.0, 시작시간은 null.
-        store.put(id, new SimulationStatus(id, SimulationStatus.Status.QUEUED, 0.0, null));
+        store.put(id, new SimulationStatus(id, SimulationStatus.Status.QUEUED, 0.0, null, null));
         Instant createdAt = Instant.now();
+        traceQueued(id, client, request);
 
         // 비동기 실행 시작 (runJob이 실제 시뮬 실행을 담당)
-        CompletableFuture.runAsync(() -> runJob(id, request), exec);
+        CompletableFuture.runAsync(() -> runJob(id, request, lease, createdAt), exec);
 
         // 클라이언트에는 "등록 완료, 대기 중"이라는 신호만 반환
         return new SimulationCreateResponse(id, SimulationCreateResponse.Status.QUEUED, createdAt);
     }
 
+    /**
+     * 민감도 분석 요청.
+     * - 크기/옵션 검증은 즉시(400), 실행은 시뮬과 같은 풀에서 비동기
+     * - 내부 런들은 SensitivityAnalyzer 전용 풀에서 병렬로 돌고, 이 잡은 진행률만 갱신
+     * - 쿼터: 동시 잡 1개 + 전체 steps(steps × ensemble × 변형 수)를 생성 시점에 청구
+     */
+    @Override
+    public SimulationCreateResponse createSensitivity(SensitivityRequest request, String clientId) {
+        long totalSteps = sensitivity.validate(request);
+        var lease = quotas.acquire(client(clientId), totalSteps, 0);
+        String id = "sens_" + Instant.now().toEpochMilli() + "_" + UUID.randomUUID().toString().substring(0, 6);
+        store.put(id, new SimulationStatus(id, SimulationStatus.Status.QUEUED, 0.0, null, null));
+        Instant createdAt = Instant.now();
+
+        CompletableFuture.runAsync(() -> {
+            Instant started = Instant.now();
+            store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, 0.0, started, null));
+            try {
+                store.put(id, sensitivity.run(id, request, progress ->
+                        store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, progress, started, null))));
+            } catch (Exception e) {
+                store.put(id, new SensitivityResult(id, SimulationResult.Status.FAILED,
+                        request.base().steps(), 0, 0, 0, Map.of(), List.of(), 0, started, Instant.now(),
+                        e.getMessage()));
+            } finally {
+                quotas.complete(lease, 0);
+            }
+        }, exec);
+
+        return new SimulationCreateResponse(id, SimulationCreateResponse.Status.QUEUED, createdAt);
+    }
+
+    /**
+     * 적응형 앙상블 요청.
+     * - 경로는 EnsembleRunner 워커 풀에서 웨이브 단위로 돌고, 이 잡은 수렴 판정/진행률만 담당
+     * - 쿼터: 경로 수는 실행 중에 정해지므로 생성 시점엔 minPaths만큼 검사/청구하고,
+     *   끝난 뒤 실제로 배치한 나머지 경로의 steps를 사후 청구 (다음 제출부터 반영)
+     */
+    @Override
+    public SimulationCreateResponse createEnsemble(EnsembleRequest request, String clientId) {
+        ensembles.validate(request);
+        long pathSteps = request.base().steps();
+        int minPaths = EnsembleRunner.minPaths(request);
+        var lease = quotas.acquire(client(clientId), pathSteps * minPaths, 0);
+        String id = "ens_" + Instant.now().toEpochMilli() + "_" + UUID.randomUUID().toString().substring(0, 6);
+        store.put(id, new SimulationStatus(id, SimulationStatus.Status.QUEUED, 0.0, null, null));
+        Instant createdAt = Instant.now();
+
+        CompletableFuture.runAsync(() -> {
+            Instant started = Instant.now();
+            store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, 0.0, started, null));
+            try {
+                EnsembleResult r = ensembles.run(id, request, progress ->
+                        store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, progress, started, null)));
+                store.put(id, r);
+                quotas.charge(lease.clientId(), pathSteps * Math.max(0, r.pathsUsed() + r.pathsCancelled() + r.pathsDiscarded() - minPaths));
+            } catch (Exception e) {
+                store.put(id, new EnsembleResult(id, SimulationResult.Status.FAILED, request.base().steps(),
+                        request.target(), false, null, 0, 0, 0, 0, Map.of(), started, Instant.now(), e.getMessage()));
+            } finally {
+                quotas.complete(lease, 0);
+            }
+        }, exec);
+
+        return new SimulationCreateResponse(id, SimulationCreateResponse.Status.QUEUED, createdAt);
+    }
+
+    /**
+     * 분산 배치 요청.
+     * - 잡 메타 + 샤드를 큐에 넣고 바로 반환 (실행은 SimulationShardWorker들이 담당)
+     * - 쿼터: 동시 잡 1개 + steps × members를 제출한 이 노드에서 청구, 동시 잡 수는 settleBatches가 완료를 보고 반환
+     */
+    @Override
+    public SimulationCreateResponse createBatch(BatchRequest request, String clientId) {
+        batches.validate(request);
+        var lease = quotas.acquire(client(clientId), (long) request.base().steps() * request.members(), 0);
+        String id = "batch_" + Instant.now().toEpochMilli() + "_" + UUID.randomUUID().toString().substring(0, 6);
+        BatchJob job;
+        try {
+            job = batches.submit(id, request);
+        } catch (RuntimeException e) {
+            quotas.complete(lease, 0);
+            throw e;
+        }
+        batchLeases.put(id, lease);
+        return new SimulationCreateResponse(id, SimulationCreateResponse.Status.QUEUED, job.createdAt());
+    }
+
+    /** 이 노드가 제출한 배치 중 끝난(또는 보관 기간이 지나 사라진) 잡의 동시 잡 쿼터 반환 */
+    @Scheduled(fixedDelay = 5_000)
+    void settleBatches() {
+        batchLeases.forEach((id, lease) -> {
+            BatchResult r = batches.status(id);
+            boolean done = r == null || r.status() == BatchResult.Status.FINISHED || r.status() == BatchResult.Status.FAILED;
+            if (done && batchLeases.remove(id, lease)) quotas.complete(lease, 0);
+        });
+    }
+
     /**
      * 시뮬레이션 현재 상태/결과 조회.
      * - 진행 중이면 SimulationStatus
@@ -73,49 +236,221 @@ public class SimulationServiceImpl implements SimulationsService {
     @Override
     public Object getSimulation(String id) {
         Object v = store.get(id);
+        if (v == null && id.startsWith("batch_")) v = batches.status(id); // 다른 노드가 만든 배치도 조회 가능
         if (v == null) {
-            // 전역 예외 핸들러에서 404로 매핑된다고 가정 (커스텀 예외가 더 적절)
-            // TODO: Error 대신 NotFound 계열 예외로 교체 권장
-            throw new Error("Error");
+            // 스프링이 404로 매핑 (리포트 생성 등 내부 호출자도 같은 예외로 분기)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "simulation not found: " + id);
         }
         return v;
     }
 
+    /**
+     * 완료된 결과 삭제.
+     * - 실행 중(SimulationStatus)이면 409 (실행 중인 잡 취소는 지원하지 않음)
+     * - 시뮬 결과면 제출한 클라이언트의 저장 바이트 쿼터를 돌려준다
+     */
+    @Override
+    public void deleteSimulation(String id) {
+        Object v = store.get(id);
+        if (v == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "simulation not found: " + id);
+        if (v instanceof SimulationStatus) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "simulation still running: " + id);
+        }
+        if (store.remove(id, v) && v instanceof SimulationResult r) release(r);
+    }
+
+    /**
+     * 완료된 시뮬 비교.
+     * - 같은 ID가 여러 번 오면 한 번만 비교
+     * - 가격 시계열을 보관하지 않은 런(METRICS_ONLY/EVENTS_ONLY)은 정렬할 점이 없으므로 400
+     *   (빈 엔벨로프를 "차이 없음"으로 돌려주지 않게)
+     * - 스캔 도중 삭제/만료된 결과는 컬럼을 붙잡고 있으므로 끝까지 읽힌다. 스캔 전에 이미 해제됐으면 404
+     */
+    @Override
+    public SimulationComparison compareSimulations(CompareRequest request) {
+        List<String> ids = request.ids().stream().distinct().toList();
+        if (ids.size() < 2) throw new IllegalArgumentException("at least two distinct simulation ids are required");
+        String refId = request.reference() != null ? request.reference() : ids.getFirst();
+        int ref = ids.indexOf(refId);
+        if (ref < 0) throw new IllegalArgumentException("reference must be one of ids: " + refId);
+
+        List<SimulationResult> runs = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Object v = store.get(id);
+            if (v == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "simulation not found: " + id);
+            if (v instanceof SimulationStatus) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "simulation still running: " + id);
+            }
+            if (!(v instanceof SimulationResult r)) {
+                throw new IllegalArgumentException("not a single simulation result: " + id);
+            }
+            if (r.status() != SimulationResult.Status.FINISHED) {
+                throw new IllegalArgumentException("simulation did not finish: " + id);
+            }
+            if (r.series() == null || r.series().isEmpty()) {
+                var mode = r.retention() != null ? r.retention().mode() : SimulationRequest.Retention.Mode.FULL;
+                throw new IllegalArgumentException("simulation has no price series to compare (retention "
+                        + mode + "): " + id);
+            }
+            runs.add(r);
+        }
+
+        int points = request.points() != null ? request.points() : DEFAULT_COMPARE_POINTS;
+        double threshold = request.divergenceThreshold() != null ? request.divergenceThreshold() : DEFAULT_DIVERGENCE;
+        try {
+            return comparator.compare(runs, ref, points, threshold);
+        } catch (IllegalStateException e) {
+            // 조회와 컬럼 열기 사이에 삭제/만료된 결과 → 404 (그 외는 그대로)
+            for (var r : runs) {
+                if (store.get(r.id()) != r) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "simulation not found: " + r.id());
+                }
+            }
+            throw e;
+        }
+    }
+
+    /** 보관 기간(stabilisim.results.ttl)이 지난 시뮬 결과 정리 */
+    @Scheduled(fixedDelay = 60_000)
+    void evictExpired() {
+        var ttl = results.ttl();
+        if (ttl.isZero() || ttl.isNegative()) return;
+        Instant cutoff = Instant.now().minus(ttl);
+        store.forEach((id, v) -> {
+            if (v instanceof SimulationResult r && r.finishedAt() != null && r.finishedAt().isBefore(cutoff)
+                    && store.remove(id, v)) {
+                release(r);
+            }
+        });
+    }
+
+    // 쿼터 집계 키 (클라이언트 ID가 없는 내부 호출은 LOCAL_CLIENT)
+    private static String client(String clientId) {
+        return clientId != null && !clientId.isBlank() ? clientId : LOCAL_CLIENT;
+    }
+
+    // 저장소에서 빠진 결과의 힙 밖 컬럼 해제 + 저장 바이트 쿼터 반환
+    private void release(SimulationResult r) {
+        results.free(r);
+        if (r.usage() != null && r.usage().resultBytes() != null) {
+            quotas.free(r.usage().clientId(), r.usage().resultBytes());
+        }
+    }
+
     /**
      * 실제 시뮬 작업 엔트리 포인트.
      * - 상태 RUNNING으로 전환하고, 모델 타입에 따라 실행
      * - 결과/실패를 store에 반영
+     * - 이 스레드의 CPU 시간/할당 바이트 + 결과 추정 크기를 usage로 붙이고 쿼터 정산
      */
-    private void runJob(String id, SimulationRequest req) {
+    private void runJob(String id, SimulationRequest req, ClientQuotas.Lease lease, Instant queuedAt) {
+        long bytes = 0;
+        try {
+            bytes = execute(id, req, lease, queuedAt);
+        } catch (Error e) {
+            // OOM/LinkageError 등은 execute의 catch를 지나친다 → RUNNING에 멈춰 있지 않도록 FAILED로 남기고 다시 던짐
+            Instant started = store.get(id) instanceof SimulationStatus st && st.startedAt() != null
+                    ? st.startedAt() : queuedAt;
+            store.put(id, failedResult(id, req, started));
+            throw e;
+        } finally {
+            quotas.complete(lease, bytes); // Error(OOM 등)로 빠져나가도 동시 잡 수는 반환
+        }
+    }
+
+    // 실패 시 저장하는 FAILED 결과 (지표는 null들로 채움)
+    private static SimulationResult failedResult(String id, SimulationRequest req, Instant started) {
+        return new SimulationResult(
+                id,
+                SimulationResult.Status.FAILED,
+                req.modelType(),
+                req.params(),
+                req.scenarios(),
+                new RiskMetrics(null, null, null, null, null), // 계산 불가 지표
+                List.of(), // 시계열 없음
+                List.of(), // 이벤트 없음
+                List.of(), // 롤링 지표 없음
+                null,      // 리플레이 요약 없음
+                req.retention(),
+                started,
+                Instant.now(),
+                null
+        );
+    }
+
+    // runJob 본체: 결과(또는 FAILED)를 저장하고 그 추정 크기를 반환
+    private long execute(String id, SimulationRequest req, ClientQuotas.Lease lease, Instant queuedAt) {
         Instant started = Instant.now();
+        ThreadResourceMeter meter = ThreadResourceMeter.start(); // 큐 대기 시간은 빼고 이 스레드에서만 측정
+        var run = new SimulationEvents.Run();
+        run.begin();
         // RUNNING으로 전환 (progress 0으로 초기화)
-        store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, 0.0, started));
+        store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, 0.0, started,
+                new ResourceUsage(lease.clientId(), 0.0, 0L, null)));
 
+        SimulationResult result;
         try {
             // 모델 타입에 따라 실제 엔진을 선택/실행
-            SimulationResult result = switch (req.modelType()) {
-                case RESERVE -> runReserveModel(id, req, started);
-                case ALGO, HYBRID -> runReserveModel(id, req, started); // 데모 단계에서는 동일 엔진 사용
+            result = switch (req.modelType()) {
+                case RESERVE -> runReserveModel(id, req, started, meter, lease.clientId());
+                case ALGO, HYBRID -> runReserveModel(id, req, started, meter, lease.clientId()); // 데모 단계에서는 동일 엔진 사용
             };
 
-            // 성공적으로 끝났다면 결과를 저장
-            store.put(id, result);
-
         } catch (Exception e) {
-            // 실패 시 FAILED 결과를 저장 (지표는 null들로 채움)
-            store.put(id, new SimulationResult(
-                    id,
-                    SimulationResult.Status.FAILED,
-                    req.modelType(),
-                    req.params(),
-                    req.scenarios(),
-                    new RiskMetrics(null, null, null, null, null), // 계산 불가 지표
-                    List.of(), // 시계열 없음
-                    List.of(), // 이벤트 없음
-                    started,
-                    Instant.now()
-            ));
+            result = failedResult(id, req, started);
         }
+
+        // 결과 저장 + 사용량 기록
+        var persisted = new SimulationEvents.Persisted();
+        persisted.begin();
+        long bytes = ResultSizeEstimator.estimate(result);
+        var usage = new ResourceUsage(lease.clientId(), meter.cpuTimeMs(), meter.allocatedBytes(), bytes);
+        store.put(id, results.offload(result.withUsage(usage)));
+        persisted.end();
+        if (persisted.shouldCommit()) {
+            persisted.jobId = id;
+            persisted.status = result.status().name();
+            persisted.resultBytes = bytes;
+            persisted.commit();
+        }
+
+        run.end();
+        if (run.shouldCommit()) {
+            run.jobId = id;
+            run.modelType = req.modelType().name();
+            run.steps = req.steps();
+            run.status = result.status().name();
+            run.queueDelay = Duration.between(queuedAt, started).toMillis();
+            run.cpuTime = usage.cpuTimeMs() != null ? (long) (usage.cpuTimeMs() * 1_000_000) : 0L;
+            run.allocated = usage.allocatedBytes() != null ? usage.allocatedBytes() : 0L;
+            run.resultBytes = bytes;
+            run.commit();
+        }
+        return bytes;
+    }
+
+    // JFR: 큐 등록 (녹화가 없으면 shouldCommit()이 false라 필드도 채우지 않는다)
+    private static void traceQueued(String id, String client, SimulationRequest r) {
+        var e = new SimulationEvents.Queued();
+        if (!e.shouldCommit()) return;
+        e.jobId = id;
+        e.clientId = client;
+        e.modelType = r.modelType().name();
+        e.steps = r.steps();
+        e.retention = r.retention() != null ? r.retention().mode().name() : SimulationRequest.Retention.Mode.FULL.name();
+        e.commit();
+    }
+
+    // JFR: 스텝 t에서 발동한 스케줄 이벤트 [from, m.eventsApplied())
+    private static void traceScenarios(String id, ReserveModel m, int t, int from) {
+        var e = new SimulationEvents.ScenarioFired();
+        if (!e.shouldCommit()) return;
+        int to = m.eventsApplied();
+        e.jobId = id;
+        e.step = t;
+        e.count = to - from;
+        e.ops = m.scheduledOps(from, to);
+        e.commit();
     }
 
     /**
@@ -123,123 +458,200 @@ public class SimulationServiceImpl implements SimulationsService {
      * - steps 만큼 시간 전개
      * - 가격은 1.0을 중심으로: 난수소음 + 평균회귀 + 충격 잔상(shockMemory)로 진동
      * - 시나리오(대량상환, 담보하락, 오라클지연, 수수료변경)를 적용해 충격/로그 기록
+     *   (램프/반복/같은 시점 복수 이벤트 지원, ScenarioSchedule 참고)
+     * - 리플레이 모드(r.replay)면 실제 가격 경로를 스텝마다 하나씩 읽어 외생 드라이버로 사용
+     *   (MarketDataSource.stream → 구간 전체를 메모리에 올리지 않음)
      * - 진행률은 store에 주기적으로 업데이트
-     * - 종료 후 리스크 지표 계산(calcRisk)
+     * - 리스크 지표는 매 스텝 온라인 누적(OnlineRiskMetrics) → 보관 방식(retention)과 무관하게 같은 값
+     * - retention에 따라 시계열/이벤트를 전부, 버킷 min/max로 줄여서, 또는 아예 남기지 않음
      */
-    private SimulationResult runReserveModel(String id, SimulationRequest r, Instant startedAt) throws InterruptedException {
+    private SimulationResult runReserveModel(String id, SimulationRequest r, Instant startedAt,
+                                             ThreadResourceMeter meter, String clientId) throws InterruptedException {
         int steps = r.steps();                 // 총 스텝 수 (시간 축 길이)
-        double dt = r.dt() > 0 ? r.dt() : 1.0; // 1스텝당 시간(초)처럼 사용하는 파라미터 (데모에서는 sleep에만 사용)
+        double dt = r.dt() > 0 ? r.dt() : 1.0; // 1스텝당 시간(초): 오라클 지연(초 → 스텝) 환산과 데모 sleep에 사용
         long sleepMs = (long) Math.min(2, Math.max(0, dt)); // 진행감만 주는 의도: 0~2ms 사이
 
-        // 파라미터(초기 공급량/준비금/담보, LTV, 상환 수수료, 오라클 지연 등)
-        var params = r.params();
-        double supply      = nz(params.initSupply(),           1_000_000); // 스테이블 발행량
-        double reserveCash = nz(params.initReserveCash(),       1_000_000); // 준비금 현금(상환에 사용)
-        double reserveCol  = nz(params.initReserveCollateral(), 0.0);       // 추가 담보 (옵션)
-        double ltv         = clamp(nz(params.ltv(), 0.9), 0, 1);            // 담보인정비율(0~1)
-        double redeemFee   = clamp(nz(params.redeemFee(), 0.001), 0, 0.1);  // 상환 수수료
-        int oracleLag      = Math.max(0, nzInt(params.oracleLagSec(), 60)); // 오라클 지연(데모에선 로그 용도)
+        // 모델 상태(초기 공급량/준비금/담보, LTV, 상환 수수료, 시나리오 스케줄)
+        ReserveModel m = new ReserveModel(r.params(), r.scenarios(), steps, dt);
 
         Random rng = new Random(r.seed() != null ? r.seed() : 42); // 재현 가능성 위해 seed 허용
 
-        // 시점 t -> 시나리오 매핑(필요 시점에 이벤트를 터뜨림)
-        Map<Integer, Scenario> scenarioAt = new HashMap<>();
-        if (r.scenarios() != null) {
-            for (var sc : r.scenarios()) scenarioAt.put(sc.t(), sc);
+        // 결과 시계열(SeriesPoint)과 이벤트 로그: 보관 방식에 따라 필요한 것만 만든다 (null = 보관 안 함)
+        var retention = r.retention() != null ? r.retention().mode() : SimulationRequest.Retention.Mode.FULL;
+        List<SeriesPoint> series = retention == SimulationRequest.Retention.Mode.FULL ? new ArrayList<>(steps) : null;
+        SeriesDownsampler.StepBucketMinMax<SeriesPoint> sampled = retention == SimulationRequest.Retention.Mode.DOWNSAMPLED
+                ? new SeriesDownsampler.StepBucketMinMax<>(steps, retainedPoints(r) / 2)
+                : null;
+        List<SimulationResult.SimEvent> events = retention != SimulationRequest.Retention.Mode.METRICS_ONLY ? new ArrayList<>() : null;
+        OnlineRiskMetrics risk = new OnlineRiskMetrics();
+
+        // 롤링 지표(선택): 링버퍼 누적기로 매 스텝 O(1) 갱신, rollingStep마다 한 점 출력
+        RollingRiskWindow rolling = r.rolling() != null ? new RollingRiskWindow(r.rolling().window()) : null;
+        int rollingStep = r.rolling() != null ? Math.max(1, nzInt(r.rolling().step(), 1)) : 1;
+        List<SimulationResult.RollingPoint> rollingSeries = rolling != null ? new ArrayList<>() : null;
+
+        // 리플레이(선택): 실제 가격 스트림 + 비교 누적기
+        var replay = r.replay();
+        var driver = replay != null && replay.driver() != null ? replay.driver() : SimulationRequest.Replay.Driver.PRICE;
+        Iterator<MarketDataSource.Point> actual = null;
+        Stream<MarketDataSource.Point> actualStream = null;
+        OnlineRiskMetrics actualRisk = null;
+        double prevActual = Double.NaN;
+        double firstActual = Double.NaN;
+        double baseCol = m.reserveCol;
+        double gapSum = 0.0, gapSq = 0.0, gapMax = 0.0;
+        long replayed = 0;
+        if (replay != null) {
+            actualStream = marketData.stream(replay.symbol(), replay.from(), replay.to(), replay.interval());
+            actual = actualStream.iterator();
+            actualRisk = new OnlineRiskMetrics();
+            m.disablePriceBand(); // 실제 디페그 폭을 재현할 수 있게 데모 클램프 해제
         }
 
-        // 결과 시계열(SeriesPoint)과 이벤트 로그
-        List<SeriesPoint> series = new ArrayList<>(steps);
-        List<SimulationResult.SimEvent> events = new ArrayList<>();
-
-        double price = 1.0;       // 시작 가격 (페그 1.0)
-        double shockMemory = 0.0; // 충격 이후 남아있는 하방 압력(점차 감소)
-
-        // ──────────────── 시뮬레이션 메인 루프 ────────────────
-        for (int t = 0; t < steps; t++) {
-            // 1) 해당 시점에 시나리오가 있으면 적용
-            Scenario sc = scenarioAt.get(t);
-            if (sc != null) {
-                switch (sc.type()) {
-                    case REDEEM_SHOCK -> {
-                        // 대량 상환 충격: 공급량 감소, 준비금 현금 유출(수수료만큼은 남음)
-                        double redeemFrac = clamp(sc.value(), 0, 1); // 상환 비율(0~1)
-                        double redeemed   = supply * redeemFrac;     // 상환량
-                        double fee        = redeemed * redeemFee;    // 상환 수수료
-                        supply      -= redeemed;                     // 공급량 감소
-                        reserveCash -= (redeemed - fee);             // 수수료 제외하고 현금 유출
-                        // 상환 충격이 클수록 가격 하방 압력(shockMemory) 증가
-                        shockMemory = Math.max(shockMemory, redeemFrac * 0.02);
-                        events.add(new SimulationResult.SimEvent(
-                                t, "REDEEM_SHOCK_TRIGGERED",
-                                Map.of("fraction", redeemFrac)
-                        ));
-                    }
-                    case COLLATERAL_DROP -> {
-                        // 담보 가치 하락: reserveCol의 가치 하락 반영
-                        double drop = clamp(sc.value(), 0, 0.99);
-                        reserveCol *= (1.0 - drop);
-                        // 담보 하락도 하방 압력으로 작용
-                        shockMemory = Math.max(shockMemory, drop * 0.015);
-                        events.add(new SimulationResult.SimEvent(
-                                t, "COLLATERAL_DROP_TRIGGERED",
-                                Map.of("drop", drop)
-                        ));
-                    }
-                    case ORACLE_LAG -> {
-                        // 데모 단계: 실제 가격 지연 반영 대신 이벤트 로그만 남김(변동성 증가 요인으로 보고서 등에 활용 가능)
-                        events.add(new SimulationResult.SimEvent(
-                                t, "ORACLE_LAG_SET",
-                                Map.of("seconds", (Double) sc.value())
-                        ));
+        // 단계별 타이밍 (StepBatch 이벤트가 켜진 녹화 중일 때만 non-null, BATCH 스텝마다 하나씩 커밋)
+        StepPhaseTracer trace = null;
+        String modelName = r.modelType().name();
+        int t = 0;
+        try {
+            // ──────────────── 시뮬레이션 메인 루프 ────────────────
+            for (; t < steps; t++) {
+                if ((t & (StepPhaseTracer.BATCH - 1)) == 0) {
+                    if (trace != null) trace.commit(t);
+                    trace = StepPhaseTracer.startIfEnabled(id, modelName, t);
+                }
+
+                // 0) 리플레이: 이번 스텝의 실제 가격 (시계열이 끝나면 시뮬도 종료)
+                double actualPx = Double.NaN;
+                if (actual != null) {
+                    if (!actual.hasNext()) {
+                        if (events != null) events.add(new SimulationResult.SimEvent(t, "REPLAY_EXHAUSTED", Map.of("points", replayed)));
+                        break;
                     }
-                    case FEE_CHANGE -> {
-                        // 수수료 변경: 데모에선 단순 로그. (실제로 redeemFee 갱신하도록 확장 가능)
-                        events.add(new SimulationResult.SimEvent(
-                                t, "FEE_CHANGE",
-                                Map.of("newFee", sc.value())
-                        ));
+                    actualPx = actual.next().price();
+                    actualRisk.push(actualPx);
+                    replayed++;
+                    if (Double.isNaN(firstActual)) {
+                        firstActual = actualPx;
+                        if (driver == SimulationRequest.Replay.Driver.PRICE) m.resetPrice(actualPx); // 실제 시작가에서 출발
                     }
                 }
-            }
-
-            // 2) 가격 업데이트(데모 공식):
-            //    price <- price + 랜덤소음 + 평균회귀(1.0으로 복귀하려는 힘) + 충격 잔상(하방 압력)
-            double noise       = (rng.nextGaussian()) * 0.0006; // 랜덤 소음(정규분포)
-            double meanRevert  = (1.0 - price) * 0.02;          // 1.0으로 끌어당기는 힘
-            double shockPull   = -shockMemory;                  // 충격으로 누르는 힘(음수)
-
-            // 가격 갱신 후, 과도한 튐 방지 위해 0.95~1.05 범위로 클램프(데모 안전장치)
-            price = clamp(price + noise + meanRevert + shockPull, 0.95, 1.05);
 
-            // 충격 잔상은 매 스텝 5%씩 감소 (서서히 정상화)
-            shockMemory *= 0.95;
-
-            // 3) 간단한 재무 건전성 체크:
-            //    준비금 현금이 특정 임계 이하로 내려가면 추가 하방 압력
-            //    (supply * (1 - ltv) * 0.1 : 완전한 의미의 규칙은 아니고 데모용 힌트)
-            if (reserveCash < supply * (1 - ltv) * 0.1) {
-                price = Math.max(0.97, price - 0.001);
-            }
+                if (trace != null) trace.mark(Phase.REPLAY);
+
+                // 1) 해당 시점의 시나리오 이벤트(여러 개 가능) + 진행 중인 램프 적용
+                int applied = m.eventsApplied();
+                m.beginStep(t, events);
+                if (m.eventsApplied() != applied) traceScenarios(id, m, t, applied);
+                if (trace != null) trace.mark(Phase.SCENARIO);
+
+                // 2) 가격 업데이트: 랜덤소음(정규분포) + 평균회귀 + 충격 잔상 (ReserveModel.advance)
+                double noise = ReserveModel.noise(rng);
+                if (trace != null) trace.mark(Phase.RNG);
+
+                // 2-1) 리플레이 드라이버
+                if (actual != null) {
+                    if (driver == SimulationRequest.Replay.Driver.PRICE) {
+                        // 가격 드라이버: 난수 소음 대신 실제 가격 변화분을 외생 충격으로 사용
+                        noise = Double.isNaN(prevActual) ? 0.0 : actualPx - prevActual;
+                    } else if (firstActual > 0) {
+                        // 담보 드라이버: 담보 가치를 실제 가격 경로에 연동, 하락분은 담보 하락 충격과 같은 방식으로 반영
+                        double ratio = actualPx / firstActual;
+                        double newCol = baseCol * ratio;
+                        if (!Double.isNaN(prevActual) && actualPx < prevActual && prevActual > 0) {
+                            double drop = (prevActual - actualPx) / prevActual;
+                            m.shockMemory = Math.max(m.shockMemory, drop * 0.015);
+                        }
+                        m.reserveCol = newCol;
+                    }
+                    prevActual = actualPx;
+                }
 
-            // 4) 페그 편차(절댓값) 기록
-            double pegDev = Math.abs(price - 1.0);
+                // 3) 가격 전개 + 충격 잔상 감쇠 + 준비금 건전성 체크
+                double price = m.advance(noise);
+                if (trace != null) trace.mark(Phase.MODEL);
+
+                // 4) 리스크 지표 온라인 누적 + 페그 편차(절댓값)
+                risk.push(price);
+                double pegDev = Math.abs(price - 1.0);
+                if (trace != null) trace.mark(Phase.METRICS);
+
+                // 5) 시계열 포인트 저장 (시점 t의 상태 스냅샷). DOWNSAMPLED는 버킷 극값이 바뀔 때만 점을 만든다
+                if (series != null) {
+                    series.add(new SeriesPoint(t, price, m.supply, m.reserveCash, m.reserveCol, pegDev,
+                            actual != null ? actualPx : null));
+                } else if (sampled != null && sampled.offer(t, price)) {
+                    sampled.accept(t, price, new SeriesPoint(t, price, m.supply, m.reserveCash, m.reserveCol, pegDev,
+                            actual != null ? actualPx : null));
+                }
+                if (trace != null) trace.mark(Phase.SERIES);
+
+                // 5-0) 리플레이 비교: 시뮬 가격 vs 실제 가격 차이 누적
+                if (actual != null) {
+                    double gap = Math.abs(price - actualPx);
+                    gapSum += gap;
+                    gapSq += gap * gap;
+                    gapMax = Math.max(gapMax, gap);
+                }
 
-            // 5) 시계열 포인트 저장 (시점 t의 상태 스냅샷)
-            series.add(new SeriesPoint(t, price, supply, reserveCash, reserveCol, pegDev));
+                // 5-1) 롤링 지표 (요청 시에만)
+                if (rolling != null) {
+                    rolling.push(price);
+                    if (rolling.emitDue(rollingStep)) {
+                        double vol = rolling.volatility();
+                        rollingSeries.add(new SimulationResult.RollingPoint(
+                                t, rolling.avgDeviation(), Double.isNaN(vol) ? null : vol, rolling.pegUptime()));
+                    }
+                }
+                if (trace != null) trace.mark(Phase.METRICS);
+
+                // 6) 진행률 저장: 전체의 20등분 간격으로 대략적인 진행률 갱신
+                if (t % Math.max(1, steps / 20) == 0) {
+                    double progress = (double) t / (double) steps;
+                    var checkpoint = new SimulationEvents.Checkpoint();
+                    checkpoint.begin();
+                    store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, progress, startedAt,
+                            new ResourceUsage(clientId, meter.cpuTimeMs(), meter.allocatedBytes(), null)));
+                    checkpoint.end();
+                    if (checkpoint.shouldCommit()) {
+                        checkpoint.jobId = id;
+                        checkpoint.step = t;
+                        checkpoint.progress = progress;
+                        checkpoint.commit();
+                    }
+                }
+                if (trace != null) trace.mark(Phase.PROGRESS);
 
-            // 6) 진행률 저장: 전체의 20등분 간격으로 대략적인 진행률 갱신
-            if (t % Math.max(1, steps / 20) == 0) {
-                double progress = (double) t / (double) steps;
-                store.put(id, new SimulationStatus(id, SimulationStatus.Status.RUNNING, progress, startedAt));
+                // 7) 데모용 지연(진행감용)
+                if (sleepMs > 0) Thread.sleep(sleepMs);
+                if (trace != null) trace.mark(Phase.PACING);
             }
-
-            // 7) 데모용 지연(진행감용)
-            if (sleepMs > 0) Thread.sleep(sleepMs);
+        } finally {
+            if (trace != null) trace.commit(t);
+            if (actualStream != null) actualStream.close();
         }
 
         // ─ 시뮬 종료: 리스크 지표 계산
-        var metrics = calcRisk(series);
+        var metricsEvent = new SimulationEvents.MetricsComputed();
+        metricsEvent.begin();
+        var metrics = risk.toRiskMetrics();
+
+        SimulationResult.ReplayReport replayReport = null;
+        if (replay != null) {
+            replayReport = new SimulationResult.ReplayReport(
+                    replay.symbol(), replay.from(), replay.to(), replay.interval(), driver,
+                    replayed,
+                    actualRisk.toRiskMetrics(),
+                    replayed > 0 ? gapSum / replayed : null,
+                    replayed > 0 ? gapMax : null,
+                    replayed > 0 ? Math.sqrt(gapSq / replayed) : null
+            );
+        }
+        metricsEvent.end();
+        if (metricsEvent.shouldCommit()) {
+            metricsEvent.jobId = id;
+            metricsEvent.steps = t;
+            metricsEvent.commit();
+        }
 
         // 최종 결과 조립 및 반환
         return new SimulationResult(
@@ -249,70 +661,22 @@ public class SimulationServiceImpl implements SimulationsService {
                 r.params(),
                 r.scenarios(),
                 metrics,
-                series,
-                events,
+                series != null ? series : sampled != null ? sampled.result() : List.of(),
+                events != null ? events : List.of(),
+                rollingSeries,
+                replayReport,
+                r.retention(),
                 startedAt,
-                Instant.now()
+                Instant.now(),
+                null // usage는 runJob에서 결과 크기까지 재서 붙인다
         );
     }
 
-    /**
-     * 리스크 지표 계산:
-     * - avgDeviation : |price - 1.0|의 평균
-     * - uptime       : 가격이 [0.995, 1.005] 내에 있었던 샘플 비율 (샘플 기반)
-     * - volatility   : 로그수익률 표준편차 (rets = log(p_t / p_{t-1}))
-     * - recoveryTime : price가 1.0±0.002 범위로 최초 복귀한 시점(인덱스)
-     * - maxDrawdown  : (최대가격 대비 최저가격 하락폭) = (max - min) / max (단순 MDD 근사)
-     *
-     * ※ uptime은 "샘플 개수 기반"이라, 불규칙 간격 샘플일 땐 "시간 가중"으로 바꾸는 게 더 정확함.
-     */
-    private static RiskMetrics calcRisk(List<SeriesPoint> series) {
-        if (series.size() < 2) return new RiskMetrics(null, null, null, null, null);
-
-        // 1) 평균 편차 & 페그 유지율(샘플 기반)
-        double sumDev = 0.0; int up = 0;
-        for (var p : series) {
-            sumDev += Math.abs(p.pegDeviation()); // 이미 |price - 1.0|값이 들어있음
-            if (p.price() >= 0.995 && p.price() <= 1.005) up++; // 밴드 내 샘플 카운트
-        }
-        double avgDev = sumDev / series.size();
-        double uptime = (double) up / series.size();
-
-        // 2) 변동성: 로그수익률 표준편차
-        List<Double> rets = new ArrayList<>(series.size() - 1);
-        for (int i = 1; i < series.size(); i++) {
-            double p  = series.get(i).price();
-            double p0 = series.get(i - 1).price();
-            if (p > 0 && p0 > 0) rets.add(Math.log(p / p0));
-        }
-        Double vol = null;
-        if (!rets.isEmpty()) {
-            double mean = rets.stream().mapToDouble(d -> d).average().orElse(0.0);
-            double var  = rets.stream().mapToDouble(d -> (d - mean) * (d - mean)).sum() / rets.size();
-            vol = Math.sqrt(var); // 표준편차
-        }
-
-        // 3) 회복 시간: 처음으로 1.0±0.002 범위로 돌아온 시점 인덱스
-        //    (데모 기준. 실제로는 "연속 X분 이상 유지" 같은 조건을 붙이면 더 현실적)
-        Integer rec = null;
-        for (int i = 0; i < series.size(); i++) {
-            double p = series.get(i).price();
-            if (p >= 0.998 && p <= 1.002) { rec = i; break; }
-        }
-
-        // 4) 최대 낙폭(MDD): 단순히 전체 구간에서의 max→min 하락폭 비율
-        //    (고전적 MDD는 '고점 이후 저점'으로 구간 순서를 고려하지만, 여기선 단순 근사)
-        double max = series.stream().mapToDouble(SeriesPoint::price).max().orElse(1.0);
-        double min = series.stream().mapToDouble(SeriesPoint::price).min().orElse(1.0);
-        Double mdd = max > 0 ? (max - min) / max : null;
-
-        return new RiskMetrics(avgDev, vol, uptime, rec, mdd);
+    // DOWNSAMPLED에서 남길 시계열 점 수
+    private static int retainedPoints(SimulationRequest r) {
+        return r.retention() != null ? nzInt(r.retention().points(), DEFAULT_RETAINED_POINTS) : DEFAULT_RETAINED_POINTS;
     }
 
-    // 유틸: null이면 기본값(d) 반환 (Double용)
-    private static double nz(Double v, double d) { return v != null ? v : d; }
     // 유틸: null이면 기본값(d) 반환 (Integer용)
     private static int nzInt(Integer v, int d) { return v != null ? v : d; }
-    // 유틸: [lo, hi]로 값 제한
-    private static double clamp(double x, double lo, double hi) { return Math.max(lo, Math.min(hi, x)); }
 }
\ No newline at end of file
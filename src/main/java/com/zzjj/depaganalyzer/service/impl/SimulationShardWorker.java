@@ -0,0 +1,187 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.service.cluster.ClusterProperties;
+import com.zzjj.depaganalyzer.service.cluster.JobStatusStore;
+import com.zzjj.depaganalyzer.service.cluster.Shard;
+import com.zzjj.depaganalyzer.service.cluster.ShardResult;
+import com.zzjj.depaganalyzer.service.cluster.WorkQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 무상태 샤드 워커 (stabilisim.cluster.worker=true인 JVM에서 동작, 기본 켜짐).
+ *
+ * - workerThreads개의 루프가 WorkQueue에서 샤드를 임대 → 헤드리스 실행 → 요약 결과 기록 → ack
+ * - 실행 중인 임대는 leaseTtl/3마다 하트비트(renew). 워커가 죽으면 하트비트가 끊겨 다른 워커가 회수
+ * - 실행 예외(잘못된 요청 등)는 재시도해도 같으므로 바로 실패 결과로 기록하고 ack
+ * - 저장소/큐 오류는 ack하지 않고 넘긴다 → 임대 만료 후 재배달
+ * - maxDeliveries를 넘긴 샤드는 실패로 기록 (워커를 연달아 죽이는 독성 샤드 차단)
+ * - 종료(@PreDestroy) 시 실행 중인 샤드는 취소 플래그로 멈추고 ack하지 않아 다른 워커가 이어받는다
+ */
+@Component
+@ConditionalOnProperty(prefix = "stabilisim.cluster", name = "worker", havingValue = "true", matchIfMissing = true)
+public class SimulationShardWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationShardWorker.class);
+    private static final Duration POLL_WAIT = Duration.ofSeconds(2);
+    private static final long ERROR_BACKOFF_MS = 1000;
+    private static final SensitivityResult.Metric[] METRICS = SensitivityResult.Metric.values();
+
+    private final WorkQueue queue;
+    private final JobStatusStore jobs;
+    private final ClusterProperties props;
+    private final String workerId;
+    private final ExecutorService loops;
+    private final ScheduledExecutorService heartbeat;
+    private final Map<String, WorkQueue.Lease> active = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public SimulationShardWorker(WorkQueue queue, JobStatusStore jobs, ClusterProperties props) {
+        this.queue = queue;
+        this.jobs = jobs;
+        this.props = props;
+        this.workerId = hostName() + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 6);
+        AtomicInteger seq = new AtomicInteger();
+        this.loops = Executors.newFixedThreadPool(props.workerThreads(), r -> {
+            Thread t = new Thread(r, "shard-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "shard-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < props.workerThreads(); i++) loops.submit(this::loop);
+        long period = Math.max(100, props.leaseTtl().toMillis() / 3);
+        heartbeat.scheduleWithFixedDelay(this::renewAll, period, period, TimeUnit.MILLISECONDS);
+        log.info("shard worker {} started ({} threads, lease {})", workerId, props.workerThreads(), props.leaseTtl());
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        heartbeat.shutdownNow();
+        loops.shutdownNow();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                WorkQueue.Lease lease = queue.poll(workerId, POLL_WAIT);
+                if (lease != null) process(lease);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // 큐/저장소 장애 (예: Redis 재시작): 잠시 쉬었다가 다시 poll
+                log.warn("shard worker {} error: {}", workerId, e.toString());
+                try {
+                    Thread.sleep(ERROR_BACKOFF_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(WorkQueue.Lease lease) {
+        Shard shard = lease.shard();
+        if (lease.deliveries() > props.maxDeliveries()) {
+            jobs.record(ShardResult.failed(shard, workerId,
+                    "gave up after " + (lease.deliveries() - 1) + " deliveries"));
+            queue.ack(lease);
+            return;
+        }
+
+        active.put(lease.receipt(), lease);
+        try {
+            ShardResult result;
+            try {
+                result = execute(shard);
+            } catch (RuntimeException e) {
+                result = ShardResult.failed(shard, workerId, e.toString());
+            }
+            if (result == null) return; // 종료 중 취소 → ack 안 함 (다른 워커가 재실행)
+            jobs.record(result);
+            queue.ack(lease);
+        } finally {
+            active.remove(lease.receipt());
+        }
+    }
+
+    /** 샤드의 멤버 구간을 헤드리스로 실행하고 지표별 모멘트만 남긴다 (취소되면 null) */
+    ShardResult execute(Shard shard) {
+        long t0 = System.nanoTime();
+        SimulationRequest base = shard.base();
+        ScenarioSchedule schedule = ScenarioSchedule.compile(base.scenarios(), base.steps());
+        long baseSeed = base.seed() != null ? base.seed() : 42;
+
+        ShardResult.Moments[] acc = new ShardResult.Moments[METRICS.length];
+        Arrays.fill(acc, ShardResult.Moments.EMPTY);
+        for (int i = shard.memberFrom(); i < shard.memberTo(); i++) {
+            RiskMetrics m = ReserveModel.simulateMetrics(base.params(), schedule, base.steps(), base.dt(),
+                    EnsembleStats.memberSeed(baseSeed, i), () -> !running);
+            if (m == null) return null;
+            double[] xs = EnsembleStats.toArray(m);
+            for (int k = 0; k < xs.length; k++) {
+                if (!Double.isNaN(xs[k])) acc[k] = acc[k].add(xs[k]);
+            }
+        }
+
+        Map<SensitivityResult.Metric, ShardResult.Moments> metrics = new EnumMap<>(SensitivityResult.Metric.class);
+        for (int k = 0; k < METRICS.length; k++) {
+            if (acc[k].n() > 0) metrics.put(METRICS[k], acc[k]);
+        }
+        return new ShardResult(shard.jobId(), shard.index(), workerId, shard.members(), metrics,
+                (System.nanoTime() - t0) / 1_000_000, Instant.now(), null);
+    }
+
+    private void renewAll() {
+        for (WorkQueue.Lease lease : active.values()) {
+            try {
+                if (!queue.renew(lease)) {
+                    active.remove(lease.receipt()); // 계속 실행은 하되 더는 연장하지 않음
+                    log.info("lease {} for {}#{} was reclaimed; result will be deduplicated",
+                            lease.receipt(), lease.shard().jobId(), lease.shard().index());
+                }
+            } catch (RuntimeException e) {
+                log.warn("lease renewal failed: {}", e.toString());
+            }
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
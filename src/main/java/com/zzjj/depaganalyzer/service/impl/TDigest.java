@@ -0,0 +1,137 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * 병합형(merging) t-digest: 스트리밍 분위수 스케치.
+ *
+ * - 값은 버퍼에 모았다가 가득 차면 기존 중심점(centroid)과 함께 정렬·병합
+ * - 중심점 크기는 k1 스케일 k(q) = δ/(2π)·asin(2q-1) 기준으로 제한
+ *   → 꼬리(q≈0, q≈1)일수록 중심점이 작아져 p95/p99 같은 꼬리 분위수가 정확
+ * - 메모리 O(δ), add는 분할상환 O(log δ)
+ * - 스레드 안전하지 않음 (한 스레드가 결과를 모아 add하는 용도)
+ */
+final class TDigest {
+
+    private final double compression;
+
+    // 병합된 중심점 (mean 오름차순)
+    private double[] mean;
+    private double[] weight;
+    private int centroids = 0;
+
+    // 아직 병합 안 된 값
+    private final double[] buffer;
+    private int buffered = 0;
+
+    private long count = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    TDigest(double compression) {
+        this.compression = compression;
+        int cap = (int) Math.ceil(compression * Math.PI / 2) + 8; // k1 스케일에서 가능한 최대 중심점 수
+        this.mean = new double[cap];
+        this.weight = new double[cap];
+        this.buffer = new double[Math.max(64, (int) (compression * 5))];
+    }
+
+    void add(double x) {
+        if (Double.isNaN(x)) return;
+        if (buffered == buffer.length) merge();
+        buffer[buffered++] = x;
+        count++;
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    long size() { return count; }
+
+    /**
+     * q 분위수 추정 (0 ≤ q ≤ 1). 값이 없으면 NaN.
+     * 인접 중심점 사이를 선형 보간, 양 끝은 실제 min/max로 고정.
+     */
+    double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        merge();
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        if (centroids == 1) return mean[0];
+
+        double target = q * count;
+        double cum = 0.0; // 현재 중심점 왼쪽까지의 누적 가중치
+        for (int i = 0; i < centroids; i++) {
+            double center = cum + weight[i] / 2; // 중심점 i의 "위치"
+            if (target < center) {
+                if (i == 0) {
+                    // 첫 중심점 왼쪽: min과 보간
+                    return min + (mean[0] - min) * (target / center);
+                }
+                double prevCenter = cum - weight[i - 1] / 2;
+                double f = (target - prevCenter) / (center - prevCenter);
+                return mean[i - 1] + f * (mean[i] - mean[i - 1]);
+            }
+            cum += weight[i];
+        }
+        // 마지막 중심점 오른쪽: max와 보간
+        double lastCenter = count - weight[centroids - 1] / 2;
+        double f = (target - lastCenter) / (count - lastCenter);
+        return mean[centroids - 1] + f * (max - mean[centroids - 1]);
+    }
+
+    // 버퍼 + 기존 중심점을 mean 순으로 정렬 후 k1 스케일 한도 안에서 합친다
+    private void merge() {
+        if (buffered == 0) return;
+        int n = centroids + buffered;
+        double[] m = new double[n];
+        double[] w = new double[n];
+        Arrays.sort(buffer, 0, buffered);
+        // 이미 정렬된 두 배열(중심점, 버퍼) 병합
+        int i = 0, j = 0, k = 0;
+        while (i < centroids || j < buffered) {
+            if (j >= buffered || (i < centroids && mean[i] <= buffer[j])) {
+                m[k] = mean[i]; w[k++] = weight[i++];
+            } else {
+                m[k] = buffer[j++]; w[k++] = 1.0;
+            }
+        }
+        buffered = 0;
+
+        double total = count;
+        int out = 0;
+        double curMean = m[0], curW = w[0];
+        double wSoFar = 0.0;
+        double kLeft = k(0.0);
+        for (int idx = 1; idx < n; idx++) {
+            double proposed = curW + w[idx];
+            double kRight = k((wSoFar + proposed) / total);
+            if (kRight - kLeft <= 1.0) {
+                // 같은 중심점으로 흡수 (가중 평균)
+                curW = proposed;
+                curMean += (m[idx] - curMean) * w[idx] / curW;
+            } else {
+                out = emit(out, curMean, curW);
+                wSoFar += curW;
+                kLeft = k(wSoFar / total);
+                curMean = m[idx];
+                curW = w[idx];
+            }
+        }
+        centroids = emit(out, curMean, curW);
+    }
+
+    private int emit(int at, double m, double w) {
+        if (at == mean.length) {
+            mean = Arrays.copyOf(mean, at * 2);
+            weight = Arrays.copyOf(weight, at * 2);
+        }
+        mean[at] = m;
+        weight[at] = w;
+        return at + 1;
+    }
+
+    // k1 스케일 함수
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1.0, Math.max(0.0, q)) - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 현재 스레드의 CPU 시간/할당 바이트를 시작 시점 대비 차이로 재는 측정기.
+ *
+ * - start()를 부른 스레드에서만 읽어야 한다 (잡 하나 = 풀 스레드 하나에서 끝까지 실행되는 구조에 맞춤)
+ * - 할당 바이트는 HotSpot 확장(com.sun.management.ThreadMXBean), 지원하지 않는 JVM이면 null
+ * - 읽기 비용은 수 µs 수준이라 진행률 갱신(잡당 ~20회) 때마다 불러도 부담 없음
+ */
+final class ThreadResourceMeter {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean HOTSPOT = hotspot();
+    private static final boolean CPU_SUPPORTED = cpuSupported();
+
+    private final long cpu0;
+    private final long alloc0;
+
+    private ThreadResourceMeter(long cpu0, long alloc0) {
+        this.cpu0 = cpu0;
+        this.alloc0 = alloc0;
+    }
+
+    static ThreadResourceMeter start() {
+        return new ThreadResourceMeter(currentCpuNanos(), currentAllocatedBytes());
+    }
+
+    /** 시작 이후 CPU 시간(ms), 미지원이면 null */
+    Double cpuTimeMs() {
+        return CPU_SUPPORTED ? (currentCpuNanos() - cpu0) / 1e6 : null;
+    }
+
+    /** 시작 이후 할당 바이트, 미지원이면 null */
+    Long allocatedBytes() {
+        return HOTSPOT != null ? currentAllocatedBytes() - alloc0 : null;
+    }
+
+    private static long currentCpuNanos() {
+        return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0L;
+    }
+
+    private static long currentAllocatedBytes() {
+        return HOTSPOT != null ? HOTSPOT.getCurrentThreadAllocatedBytes() : 0L;
+    }
+
+    private static boolean cpuSupported() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) return false;
+        try {
+            if (!THREADS.isThreadCpuTimeEnabled()) THREADS.setThreadCpuTimeEnabled(true);
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean hotspot() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean t) || !t.isThreadAllocatedMemorySupported()) return null;
+        try {
+            if (!t.isThreadAllocatedMemoryEnabled()) t.setThreadAllocatedMemoryEnabled(true);
+            return t;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.zzjj.depaganalyzer.service.ingest;
+
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 시세 적재기 (스케줄러).
+ *
+ * - stabilisim.ingest.symbols 의 각 심볼에 대해 주기적으로 MarketDataSource를 조회하고,
+ *   "마지막으로 본 시각 이후"의 새 포인트만 MarketDataListener들(경보 엔진 등)에 전달한다.
+ * - 첫 조회 시에는 backfillDays 만큼 과거를 먼저 흘려보내 롤링 지표/고점 상태를 워밍업.
+ * - 심볼은 순차 처리 (외부 API rate limit 고려).
+ */
+@Component
+@ConditionalOnProperty(prefix = "stabilisim.ingest", name = "enabled", havingValue = "true")
+public class MarketDataIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketDataIngestor.class);
+
+    private final MarketDataSource source;
+    private final List<MarketDataListener> listeners;
+    private final List<String> symbols;
+    private final String interval;
+    private final int backfillDays;
+
+    // 심볼 -> 마지막으로 전달한 포인트 시각(epoch sec)
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+
+    public MarketDataIngestor(MarketDataSource source,
+                              List<MarketDataListener> listeners,
+                              @Value("${stabilisim.ingest.symbols:USDT,USDC,DAI}") String symbols,
+                              @Value("${stabilisim.ingest.interval:1h}") String interval,
+                              @Value("${stabilisim.ingest.backfillDays:7}") int backfillDays) {
+        this.source = source;
+        this.listeners = listeners;
+        this.symbols = Arrays.stream(symbols.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.interval = interval;
+        this.backfillDays = backfillDays;
+    }
+
+    @Scheduled(initialDelayString = "${stabilisim.ingest.initialDelayMs:5000}",
+               fixedDelayString = "${stabilisim.ingest.pollMs:60000}")
+    public void poll() {
+        Instant now = Instant.now();
+        for (String symbol : symbols) {
+            try {
+                ingest(symbol, now);
+            } catch (Exception e) {
+                // 한 심볼 실패가 다른 심볼 적재를 막지 않도록
+                log.warn("ingest failed: symbol={}", symbol, e);
+            }
+        }
+    }
+
+    private void ingest(String symbol, Instant now) {
+        Long last = lastSeen.get(symbol);
+        Instant from = last != null ? Instant.ofEpochSecond(last + 1) : now.minus(backfillDays, ChronoUnit.DAYS);
+        if (!from.isBefore(now)) return;
+
+        long newest = last != null ? last : Long.MIN_VALUE;
+        for (var p : source.series(symbol, from, now, interval)) {
+            long ts = p.t().getEpochSecond();
+            if (ts <= newest) continue; // 이미 전달한 포인트는 건너뜀 (소스 경계 처리 차이 방어)
+            for (var l : listeners) l.onPoint(symbol, ts, p.price());
+            newest = ts;
+        }
+        if (newest != Long.MIN_VALUE) lastSeen.put(symbol, newest);
+    }
+}
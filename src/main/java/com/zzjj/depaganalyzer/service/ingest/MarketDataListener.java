@@ -0,0 +1,10 @@
+package com.zzjj.depaganalyzer.service.ingest;
+
+/**
+ * 새로 적재된 시세 포인트를 받는 리스너.
+ * - MarketDataIngestor가 시간 오름차순으로 심볼별 포인트를 전달한다.
+ * - 적재 스레드에서 호출되므로 구현체는 빠르게 반환해야 한다 (무거운 일은 비동기로).
+ */
+public interface MarketDataListener {
+    void onPoint(String symbol, long epochSecond, double price);
+}
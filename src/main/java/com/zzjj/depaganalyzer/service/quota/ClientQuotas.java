@@ -0,0 +1,163 @@
+package com.zzjj.depaganalyzer.service.quota;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 클라이언트별 사용량 집계 + 쿼터 검사 (단일 노드 메모리).
+ *
+ * - acquire(): 잡 생성 시점에 동시 잡 수 / 최근 1분 steps / 저장 바이트(예측치 선점)를 검사하고 바로 반영
+ *   → 검사와 반영이 같은 키 잠금(ConcurrentHashMap.compute) 안에서 일어나 동시 제출로 한도를 넘지 못함
+ * - complete(): 잡 종료 시 동시 잡 수 반환 + 선점한 예측 바이트를 실제 결과 크기로 정산
+ * - charge(): 실행 중에야 정해지는 작업량(앙상블의 추가 경로)을 사후에 steps 윈도우에 더함 (검사 없음 → 다음 제출에 반영)
+ * - free(): 결과 삭제 시 저장 바이트 반환
+ * - 할 일 없는 클라이언트 항목은 주기적으로 정리 (클라이언트 ID가 계속 늘어나도 메모리 유지)
+ */
+@Component
+public class ClientQuotas {
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /** 생성 시 선점한 몫 (종료 때 그대로 돌려준다) */
+    public record Lease(String clientId, long steps, long reservedBytes) {}
+
+    private final QuotaProperties props;
+    private final LongSupplier clock;
+    private final ConcurrentMap<String, Usage> clients = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClientQuotas(QuotaProperties props) {
+        this(props, System::nanoTime);
+    }
+
+    ClientQuotas(QuotaProperties props, LongSupplier clock) {
+        this.props = props;
+        this.clock = clock;
+    }
+
+    /**
+     * @throws QuotaExceededException 한도 초과 (429). steps 한도는 윈도우가 비워지는 시점을 Retry-After로 알려준다
+     */
+    public Lease acquire(String clientId, long steps, long projectedBytes) {
+        clients.compute(clientId, (k, u) -> {
+            if (u == null) u = new Usage();
+            long now = clock.getAsLong();
+            u.expire(now);
+            if (props.enabled()) check(k, u, steps, projectedBytes, now);
+            u.active++;
+            u.window.addLast(new long[]{now, steps});
+            u.windowSteps += steps;
+            u.storedBytes += projectedBytes;
+            return u;
+        });
+        return new Lease(clientId, steps, projectedBytes);
+    }
+
+    /** 잡 종료 (성공/실패 모두): 동시 잡 수 반환 + 저장 바이트를 실제 크기로 정산 */
+    public void complete(Lease lease, long storedBytes) {
+        clients.computeIfPresent(lease.clientId(), (k, u) -> {
+            u.active = Math.max(0, u.active - 1);
+            u.storedBytes = Math.max(0, u.storedBytes + storedBytes - lease.reservedBytes());
+            return u;
+        });
+    }
+
+    /** 생성 시점에 몰랐던 steps를 최근 1분 사용량에 추가 (이미 실행한 양이므로 거절하지 않는다) */
+    public void charge(String clientId, long steps) {
+        if (steps <= 0) return;
+        clients.computeIfPresent(clientId, (k, u) -> {
+            long now = clock.getAsLong();
+            u.expire(now);
+            u.window.addLast(new long[]{now, steps});
+            u.windowSteps += steps;
+            return u;
+        });
+    }
+
+    /** 저장된 결과 삭제 시 그 크기만큼 반환 */
+    public void free(String clientId, long storedBytes) {
+        clients.computeIfPresent(clientId, (k, u) -> {
+            u.storedBytes = Math.max(0, u.storedBytes - storedBytes);
+            return u;
+        });
+    }
+
+    /** 현재 사용량 (없으면 전부 0) */
+    public Snapshot usage(String clientId) {
+        Snapshot[] out = {new Snapshot(0, 0, 0)};
+        clients.computeIfPresent(clientId, (k, u) -> {
+            u.expire(clock.getAsLong());
+            out[0] = new Snapshot(u.active, u.windowSteps, u.storedBytes);
+            return u;
+        });
+        return out[0];
+    }
+
+    public record Snapshot(int activeJobs, long stepsLastMinute, long storedBytes) {}
+
+    @Scheduled(fixedDelay = 60_000)
+    void purgeIdle() {
+        long now = clock.getAsLong();
+        for (String id : clients.keySet()) {
+            clients.computeIfPresent(id, (k, u) -> {
+                u.expire(now);
+                return u.active == 0 && u.storedBytes == 0 && u.window.isEmpty() ? null : u;
+            });
+        }
+    }
+
+    private void check(String clientId, Usage u, long steps, long projectedBytes, long now) {
+        int maxJobs = props.maxConcurrentJobs();
+        if (maxJobs > 0 && u.active >= maxJobs) {
+            throw new QuotaExceededException("client '" + clientId + "' already has " + u.active
+                    + " queued/running simulations (limit " + maxJobs + ")", 1);
+        }
+        long maxSteps = props.maxStepsPerMinute();
+        if (maxSteps > 0 && u.windowSteps + steps > maxSteps) {
+            // 요청 하나가 한도보다 크면 기다려도 소용없으므로 Retry-After 없음
+            long retry = steps > maxSteps ? 0 : u.secondsUntilFits(steps, maxSteps, now);
+            throw new QuotaExceededException("client '" + clientId + "' step budget exceeded: "
+                    + u.windowSteps + " + " + steps + " steps in the last minute (limit " + maxSteps + ")", retry);
+        }
+        long maxBytes = props.maxStoredBytes();
+        if (maxBytes > 0 && u.storedBytes + projectedBytes > maxBytes) {
+            throw new QuotaExceededException("client '" + clientId + "' stored result quota exceeded: "
+                    + u.storedBytes + " + ~" + projectedBytes + " bytes (limit " + maxBytes
+                    + "); delete old results or use a lighter retention mode", 0);
+        }
+    }
+
+    // 클라이언트 하나의 누적 상태 (항상 clients의 키 잠금 안에서 변경)
+    private static final class Usage {
+        int active;
+        long storedBytes;
+        long windowSteps;
+        final ArrayDeque<long[]> window = new ArrayDeque<>(); // {제출 시각(ns), steps}
+
+        void expire(long now) {
+            while (!window.isEmpty() && now - window.peekFirst()[0] >= WINDOW_NANOS) {
+                windowSteps -= window.pollFirst()[1];
+            }
+        }
+
+        // 오래된 제출부터 빠져나갈 때 steps가 들어갈 자리가 생기는 시점 (초, 올림)
+        long secondsUntilFits(long steps, long maxSteps, long now) {
+            long remaining = windowSteps;
+            for (long[] e : window) {
+                remaining -= e[1];
+                if (remaining + steps <= maxSteps) {
+                    long waitNanos = e[0] + WINDOW_NANOS - now;
+                    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                }
+            }
+            return TimeUnit.NANOSECONDS.toSeconds(WINDOW_NANOS);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.zzjj.depaganalyzer.service.quota;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 쿼터 초과 → 429 Too Many Requests (+ 다시 시도해 볼 만한 시점이 있으면 Retry-After 초).
+ */
+public class QuotaExceededException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public QuotaExceededException(String reason, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, reason);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (retryAfterSeconds <= 0) return super.getHeaders();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,27 @@
+package com.zzjj.depaganalyzer.service.quota;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 클라이언트별 시뮬 쿼터 (application.yml의 stabilisim.quota.*). 0 이하는 해당 한도 없음.
+ *
+ * @param enabled            쿼터 검사 여부 (false여도 사용량 집계는 계속)
+ * @param maxConcurrentJobs  동시에 대기/실행 중일 수 있는 잡 수
+ * @param maxStepsPerMinute  최근 1분 동안 제출한 steps 합 (슬라이딩 윈도우)
+ * @param maxStoredBytes     저장소에 남아 있는 결과의 추정 크기 합 (DELETE로 결과를 지우면 반환)
+ */
+@ConfigurationProperties(prefix = "stabilisim.quota")
+public record QuotaProperties(
+        Boolean enabled,
+        Integer maxConcurrentJobs,
+        Long maxStepsPerMinute,
+        Long maxStoredBytes
+) {
+    // 설정이 비어 있으면 기본값으로 채움
+    public QuotaProperties {
+        if (enabled == null) enabled = true;
+        if (maxConcurrentJobs == null) maxConcurrentJobs = 4;
+        if (maxStepsPerMinute == null) maxStepsPerMinute = 20_000_000L;
+        if (maxStoredBytes == null) maxStoredBytes = 512L * 1024 * 1024;
+    }
+}
@@ -0,0 +1,219 @@
+package com.zzjj.depaganalyzer.service.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 클라이언트별 속도 제한기 (GCRA: Generic Cell Rate Algorithm, 토큰 버킷과 같은 동작).
+ *
+ * ─ 버킷 ─
+ * - 버킷 하나 = long 하나(TAT: 이론상 다음 도착 시각, ns). 토큰 수/마지막 갱신 시각을 따로 들고 있지 않으므로
+ *   갱신은 CAS 한 번 (잠금 없음, 할당 없음)
+ * - cost 토큰 요청: next = max(TAT, now) + cost × 간격. next - now ≤ burst × 간격이면 통과(TAT = next),
+ *   아니면 거절하고 넘친 만큼(next - now - burst × 간격)을 기다릴 시간으로 돌려준다 (TAT는 그대로)
+ *
+ * ─ 스트라이프 ─
+ * - 규칙마다 (클라이언트 → 버킷) 표를 stripes개로 나눈다. 이미 있는 클라이언트는 ConcurrentHashMap.get + CAS라 잠금이 없고,
+ *   조각 잠금은 새 클라이언트 생성(상한 확인)과 정리에만 쓴다
+ * - 조각마다 버킷 수 상한(maxClients / stripes). 꽉 찬 조각에 새 클라이언트가 오면 그 조각의 공용 버킷 하나를 함께 쓴다
+ *   → 키가 계속 늘어나도 메모리는 상한 안, 넘친 클라이언트들도 제한은 받는다 (서로 한도를 나눠 씀)
+ * - 가득 찬 채로 idleTtl이 지난 버킷은 주기적으로 제거 (가득 찬 버킷을 지우는 것은 처음 상태와 같으므로 허용량 변화 없음).
+ *   지울 버킷은 먼저 TAT를 CAS로 DEAD로 바꿔, 그 사이 차감하던 요청은 CAS가 실패해 새 버킷으로 다시 시도한다 (차감이 사라지지 않음)
+ */
+@Component
+public class GcraRateLimiter {
+
+    /** 거절 시 acquire 반환값: 요청 하나가 burst보다 커서 기다려도 통과할 수 없음 */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private final boolean enabled;
+    private final long idleTtlNanos;
+    private final List<Limit> limits;
+    private final LongSupplier clock;
+
+    @Autowired
+    public GcraRateLimiter(RateLimitProperties props, MeterRegistry registry) {
+        this(props, registry, System::nanoTime);
+    }
+
+    GcraRateLimiter(RateLimitProperties props, MeterRegistry registry, LongSupplier clock) {
+        this.enabled = props.enabled();
+        this.idleTtlNanos = props.idleTtl().toNanos();
+        this.clock = clock;
+        int stripes = Integer.highestOneBit(Math.max(1, props.stripes() > 0
+                ? props.stripes() : Runtime.getRuntime().availableProcessors() * 4) * 2 - 1);
+        int perStripe = Math.max(1, (props.maxClients() + stripes - 1) / stripes);
+        List<Limit> list = new ArrayList<>();
+        for (var rule : props.rules()) list.add(new Limit(rule, stripes, perStripe, registry));
+        this.limits = List.copyOf(list);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * 요청(메서드, 경로)에 처음 맞는 규칙 (없으면 null).
+     *
+     * @param path 컨텍스트 경로를 뺀 조회 경로 (디코딩/경로 파라미터 처리는 PathPattern이 핸들러 매핑과 같게 한다)
+     */
+    public Limit match(String method, PathContainer path) {
+        for (Limit l : limits) {
+            if (l.method != null && !l.method.equalsIgnoreCase(method)) continue;
+            if (l.pattern.matches(path)) return l;
+        }
+        return null;
+    }
+
+    public Limit match(String method, String path) {
+        return match(method, PathContainer.parsePath(path));
+    }
+
+    /**
+     * client의 버킷에서 cost 토큰 차감.
+     *
+     * @return 0이면 통과, 양수면 다시 시도할 수 있을 때까지 남은 ns (NEVER: cost가 burst보다 큼)
+     */
+    public long acquire(Limit limit, String client, long cost) {
+        if (cost > limit.rule.burst()) {
+            limit.rejected.increment();
+            return NEVER;
+        }
+        long inc = cost * limit.emissionNanos;
+        Stripe stripe = limit.stripe(client);
+        Bucket b = stripe.bucket(client);
+        for (;;) {
+            long tat = b.tat;
+            if (tat == Bucket.DEAD) { // 정리 중인 버킷 → 새 버킷으로
+                b = stripe.bucket(client);
+                continue;
+            }
+            long now = clock.getAsLong();
+            long next = Math.max(tat, now) + inc;
+            long over = next - now - limit.capacityNanos;
+            if (over > 0) {
+                limit.rejected.increment();
+                return over;
+            }
+            if (Bucket.TAT.compareAndSet(b, tat, next)) return 0;
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * acquire로 차감한 cost 토큰을 되돌린다 (뒤이은 추가 차감이 거절돼 요청 전체가 429가 될 때).
+     * TAT에서 cost × 간격을 빼는 것은 차감(더하기)과 순서를 바꿔도 같으므로, 그 사이 다른 요청이 끼어도 정확하다.
+     * 그 사이 버킷이 정리됐으면 이미 가득 찬 상태라 되돌릴 것이 없다.
+     */
+    public void refund(Limit limit, String client, long cost) {
+        long dec = cost * limit.emissionNanos;
+        Bucket b = limit.stripe(client).bucket(client);
+        for (;;) {
+            long tat = b.tat;
+            if (tat == Bucket.DEAD || Bucket.TAT.compareAndSet(b, tat, tat - dec)) return;
+            Thread.onSpinWait();
+        }
+    }
+
+    /** 가득 찬 뒤 idleTtl 동안 쓰이지 않은 버킷 제거 */
+    @Scheduled(fixedDelay = 60_000)
+    void purgeIdle() {
+        long cutoff = clock.getAsLong() - idleTtlNanos;
+        for (Limit l : limits) {
+            for (Stripe s : l.stripes) {
+                synchronized (s) {
+                    s.buckets.values().removeIf(b -> {
+                        long tat = b.tat;
+                        return tat < cutoff && Bucket.TAT.compareAndSet(b, tat, Bucket.DEAD);
+                    });
+                }
+            }
+        }
+    }
+
+    /** 컴파일된 규칙 + 그 규칙의 클라이언트 버킷들 */
+    public static final class Limit {
+        private final RateLimitProperties.Rule rule;
+        private final String method;
+        private final PathPattern pattern;
+        private final long emissionNanos;   // 토큰 하나당 간격
+        private final long capacityNanos;   // burst × 간격
+        private final Stripe[] stripes;
+        private final Counter rejected;
+
+        private Limit(RateLimitProperties.Rule rule, int stripes, int perStripe, MeterRegistry registry) {
+            this.rule = rule;
+            this.method = rule.method() == null || rule.method().isBlank() ? null : rule.method().toUpperCase(Locale.ROOT);
+            this.pattern = PathPatternParser.defaultInstance.parse(rule.path());
+            this.emissionNanos = Math.max(1, Math.round(1e9 / rule.perSecond()));
+            this.capacityNanos = Math.multiplyExact(emissionNanos, (long) rule.burst());
+            this.stripes = new Stripe[stripes];
+            for (int i = 0; i < stripes; i++) this.stripes[i] = new Stripe(perStripe);
+            this.rejected = registry.counter("depag.ratelimit.rejected", "rule", rule.name());
+        }
+
+        public RateLimitProperties.Rule rule() {
+            return rule;
+        }
+
+        private Stripe stripe(String client) {
+            // 조각은 섞은 해시의 윗부분으로 고른다 (아랫비트는 각 HashMap이 버킷 인덱스로 쓰므로 겹치지 않게)
+            return stripes[((client.hashCode() * 0x9E3779B9) >>> 16) & (stripes.length - 1)];
+        }
+    }
+
+    // 클라이언트 버킷 표 한 조각 (조회는 잠금 없이, 생성/제거는 이 객체의 잠금 안에서만 → 상한 확인과 삽입이 한 번에)
+    private static final class Stripe {
+        final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+        final Bucket overflow = new Bucket(); // 상한을 넘은 새 클라이언트들이 함께 쓰는 버킷 (정리하지 않음)
+        final int max;
+
+        Stripe(int max) {
+            this.max = max;
+        }
+
+        Bucket bucket(String client) {
+            Bucket b = buckets.get(client);
+            if (b != null && b.tat != Bucket.DEAD) return b;
+            synchronized (this) {
+                // 정리는 같은 잠금 안에서 DEAD 표시 + 제거를 끝내므로 여기서 다시 본 버킷은 살아 있다
+                b = buckets.get(client);
+                if (b != null) return b;
+                if (buckets.size() >= max) return overflow;
+                b = new Bucket();
+                buckets.put(client, b);
+                return b;
+            }
+        }
+    }
+
+    // TAT 하나만 가진 버킷 (AtomicLong 대신 VarHandle → 버킷당 객체 하나)
+    private static final class Bucket {
+        static final long DEAD = Long.MIN_VALUE; // 정리되어 표에서 빠진 버킷 (더는 차감하지 않음)
+        static final VarHandle TAT;
+
+        static {
+            try {
+                TAT = MethodHandles.lookup().findVarHandle(Bucket.class, "tat", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        volatile long tat = Long.MIN_VALUE / 2; // 처음엔 가득 찬 상태 (nanoTime이 음수여도 max(TAT, now) = now)
+    }
+}
@@ -0,0 +1,53 @@
+package com.zzjj.depaganalyzer.service.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 엔드포인트별 요청 속도 제한 (application.yml의 stabilisim.ratelimit.*).
+ *
+ * @param enabled  제한 여부 (false면 인터셉터가 아무것도 하지 않음)
+ * @param stripes  규칙마다 클라이언트 버킷 테이블을 나누는 수 (0 = CPU 코어 수 × 4, 2의 거듭제곱으로 올림)
+ * @param idleTtl  이 시간 동안 요청이 없어 가득 찬 버킷은 정리
+ * @param maxClients 규칙마다 따로 버킷을 두는 클라이언트 수 상한 (조각마다 maxClients / stripes).
+ *                   넘으면 새 클라이언트는 조각의 공용 버킷을 함께 쓴다 (클라이언트 키가 계속 늘어나도 메모리 유지)
+ * @param rules    위에서부터 처음 맞는 규칙 하나만 적용. 맞는 규칙이 없으면 제한 없음
+ */
+@ConfigurationProperties(prefix = "stabilisim.ratelimit")
+public record RateLimitProperties(
+        Boolean enabled,
+        Integer stripes,
+        Duration idleTtl,
+        Integer maxClients,
+        List<Rule> rules
+) {
+    public RateLimitProperties {
+        if (enabled == null) enabled = true;
+        if (stripes == null) stripes = 0;
+        if (idleTtl == null) idleTtl = Duration.ofMinutes(10);
+        if (maxClients == null) maxClients = 100_000;
+        if (maxClients < 1) throw new IllegalArgumentException("maxClients must be at least 1");
+        if (rules == null) rules = List.of();
+    }
+
+    /**
+     * @param name          규칙 이름 (429 메시지, depag.ratelimit.rejected{rule} 태그)
+     * @param method        HTTP 메서드 (비우면 전부)
+     * @param path          경로 패턴 (PathPattern 문법, 컨텍스트 경로 제외, 예: /api/simulations/**)
+     * @param perSecond     초당 허용 토큰 (지속 속도)
+     * @param burst         한 번에 몰아 쓸 수 있는 토큰 수 (요청 하나의 비용도 이 값으로 상한)
+     * @param stepsPerToken 본문의 시뮬 steps를 토큰으로 환산하는 단위 (0 = steps 가중 없음, 요청당 1토큰)
+     */
+    public record Rule(String name, String method, String path, Double perSecond, Integer burst, Long stepsPerToken) {
+        public Rule {
+            if (path == null || path.isBlank()) throw new IllegalArgumentException("rate limit rule needs a path");
+            if (name == null || name.isBlank()) name = path;
+            if (perSecond == null || perSecond <= 0) throw new IllegalArgumentException("perSecond must be positive: " + name);
+            if (burst == null) burst = Math.max(1, (int) Math.ceil(perSecond));
+            if (burst < 1) throw new IllegalArgumentException("burst must be at least 1: " + name);
+            if (stepsPerToken == null) stepsPerToken = 0L;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.zzjj.depaganalyzer.service.report;
+
+/**
+ * 차트 좌표 변환 (데이터 범위 → 픽셀/포인트 좌표). HTML/PDF 렌더러 공용.
+ */
+record ChartScale(double xMin, double xMax, double yMin, double yMax) {
+
+    static ChartScale of(ReportDocument.Chart chart) {
+        double xMin = Double.POSITIVE_INFINITY, xMax = Double.NEGATIVE_INFINITY;
+        double yMin = Double.POSITIVE_INFINITY, yMax = Double.NEGATIVE_INFINITY;
+        for (var s : chart.series()) {
+            for (int i = 0; i < s.x().length; i++) {
+                xMin = Math.min(xMin, s.x()[i]);
+                xMax = Math.max(xMax, s.x()[i]);
+                yMin = Math.min(yMin, s.y()[i]);
+                yMax = Math.max(yMax, s.y()[i]);
+            }
+        }
+        for (double b : chart.bands()) {
+            yMin = Math.min(yMin, b);
+            yMax = Math.max(yMax, b);
+        }
+        if (xMin > xMax) { xMin = 0; xMax = 1; }   // 빈 차트
+        if (yMin > yMax) { yMin = 0; yMax = 1; }
+        if (xMax == xMin) xMax = xMin + 1;
+        if (yMax == yMin) { yMax += 1e-6; yMin -= 1e-6; }
+        return new ChartScale(xMin, xMax, yMin, yMax);
+    }
+
+    // 좌상단 원점(HTML/SVG) 기준
+    double px(double x, int width, int pad) {
+        return pad + (x - xMin) / (xMax - xMin) * (width - 2 * pad);
+    }
+
+    double py(double y, int height, int pad) {
+        return height - pad - (y - yMin) / (yMax - yMin) * (height - 2 * pad);
+    }
+}
@@ -0,0 +1,126 @@
+package com.zzjj.depaganalyzer.service.report;
+
+import com.zzjj.depaganalyzer.dto.report.ReportRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * HTML 리포트 렌더러.
+ * - 외부 JS/CSS 없이 단일 파일로 열리도록 차트는 인라인 SVG polyline으로 그린다.
+ * - Writer로 바로 출력 (문서 전체 문자열을 만들지 않음)
+ */
+@Component
+public class HtmlReportRenderer implements ReportRenderer {
+
+    static final String[] PALETTE = {"#2563eb", "#dc2626", "#16a34a", "#9333ea", "#ea580c", "#0891b2"};
+    private static final int W = 900, H = 320, PAD = 40;
+
+    @Override
+    public ReportRequest.Format format() { return ReportRequest.Format.HTML; }
+
+    @Override
+    public String contentType() { return "text/html; charset=utf-8"; }
+
+    @Override
+    public String extension() { return "html"; }
+
+    @Override
+    public void render(ReportDocument doc, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write("<!doctype html><html><head><meta charset=\"utf-8\"><title>");
+        w.write(esc(doc.title()));
+        w.write("</title><style>body{font-family:sans-serif;margin:24px;color:#111}"
+                + "table{border-collapse:collapse;margin:8px 0}td,th{border:1px solid #ddd;padding:4px 8px;text-align:right}"
+                + "th{background:#f3f4f6}td:first-child{text-align:left}svg{background:#fafafa;border:1px solid #eee}"
+                + ".legend span{margin-right:12px}</style></head><body>");
+
+        w.write("<h1>" + esc(doc.title()) + "</h1>");
+        w.write("<p>Generated at " + esc(doc.generatedAt().toString()) + "</p>");
+
+        // 요청 메타
+        w.write("<table>");
+        for (var r : doc.summary()) {
+            w.write("<tr><td>" + esc(r.key()) + "</td><td>" + esc(r.value()) + "</td></tr>");
+        }
+        w.write("</table>");
+
+        // 지표 표
+        if (doc.metrics() != null) {
+            w.write("<h2>Risk metrics</h2><table><tr>");
+            for (String h : doc.metrics().header()) w.write("<th>" + esc(h) + "</th>");
+            w.write("</tr>");
+            for (var row : doc.metrics().rows()) {
+                w.write("<tr>");
+                for (String c : row) w.write("<td>" + esc(c) + "</td>");
+                w.write("</tr>");
+            }
+            w.write("</table>");
+        }
+
+        for (var chart : doc.charts()) writeChart(w, chart);
+
+        if (!doc.notes().isEmpty()) {
+            w.write("<h2>Notes</h2><ul>");
+            for (String n : doc.notes()) w.write("<li>" + esc(n) + "</li>");
+            w.write("</ul>");
+        }
+        w.write("</body></html>");
+        w.flush();
+    }
+
+    private static void writeChart(Writer w, ReportDocument.Chart chart) throws IOException {
+        var sc = ChartScale.of(chart);
+        w.write("<h2>" + esc(chart.title()) + "</h2>");
+        w.write("<svg width=\"" + W + "\" height=\"" + H + "\" viewBox=\"0 0 " + W + " " + H + "\">");
+
+        // 보조선(페그 밴드 등)
+        for (double b : chart.bands()) {
+            double y = sc.py(b, H, PAD);
+            w.write(String.format(Locale.ROOT,
+                    "<line x1=\"%d\" x2=\"%d\" y1=\"%.1f\" y2=\"%.1f\" stroke=\"#9ca3af\" stroke-dasharray=\"4 4\"/>",
+                    PAD, W - PAD, y, y));
+        }
+        // 축 라벨 (y 최소/최대)
+        w.write(String.format(Locale.ROOT, "<text x=\"4\" y=\"%d\" font-size=\"10\">%.4f</text>", PAD, sc.yMax()));
+        w.write(String.format(Locale.ROOT, "<text x=\"4\" y=\"%d\" font-size=\"10\">%.4f</text>", H - PAD, sc.yMin()));
+        w.write("<text x=\"" + (W / 2) + "\" y=\"" + (H - 8) + "\" font-size=\"11\">" + esc(chart.xLabel()) + "</text>");
+
+        int ci = 0;
+        for (var s : chart.series()) {
+            w.write("<polyline fill=\"none\" stroke-width=\"1.2\" stroke=\"" + PALETTE[ci++ % PALETTE.length] + "\" points=\"");
+            for (int i = 0; i < s.x().length; i++) {
+                w.write(String.format(Locale.ROOT, "%.1f,%.1f ", sc.px(s.x()[i], W, PAD), sc.py(s.y()[i], H, PAD)));
+            }
+            w.write("\"/>");
+        }
+        w.write("</svg><div class=\"legend\">");
+        ci = 0;
+        for (var s : chart.series()) {
+            w.write("<span style=\"color:" + PALETTE[ci++ % PALETTE.length] + "\">&#9632; " + esc(s.label()) + "</span>");
+        }
+        w.write("</div>");
+    }
+
+    private static String esc(String s) {
+        if (s == null) return "";
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<' -> b.append("&lt;");
+                case '>' -> b.append("&gt;");
+                case '&' -> b.append("&amp;");
+                case '"' -> b.append("&quot;");
+                default -> b.append(c);
+            }
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package com.zzjj.depaganalyzer.service.report;
+
+import com.zzjj.depaganalyzer.dto.report.ReportRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PDF 리포트 렌더러 (외부 라이브러리 없이 PDF 1.4를 직접 기록).
+ *
+ * - 1페이지: 제목 + 요청 메타 + 지표 표 + 첫 번째 차트, 이후 차트는 페이지당 1개, 마지막에 노트
+ * - 차트는 PDF 벡터 경로(m/l/S)로 그린다 → 다운샘플된 수백~수천 점이면 수십 KB 수준
+ * - 객체를 순서대로 out에 바로 쓰고 xref 오프셋만 기억 (페이지 콘텐츠 스트림 하나만 버퍼링)
+ * - 기본 폰트 Helvetica(Type1, WinAnsi)만 사용 → 비 ASCII 문자는 '?'로 치환
+ */
+@Component
+public class PdfReportRenderer implements ReportRenderer {
+
+    private static final int PAGE_W = 842, PAGE_H = 595; // A4 가로
+    private static final int MARGIN = 40;
+    private static final int MAX_NOTES = 40;
+
+    // 시리즈 색상 (RGB 0~1) — HTML 팔레트와 동일
+    private static final double[][] COLORS = {
+            {0.15, 0.39, 0.92}, {0.86, 0.15, 0.15}, {0.09, 0.64, 0.29},
+            {0.58, 0.20, 0.92}, {0.92, 0.35, 0.05}, {0.03, 0.57, 0.70}
+    };
+
+    @Override
+    public ReportRequest.Format format() { return ReportRequest.Format.PDF; }
+
+    @Override
+    public String contentType() { return "application/pdf"; }
+
+    @Override
+    public String extension() { return "pdf"; }
+
+    @Override
+    public void render(ReportDocument doc, OutputStream target) throws IOException {
+        var out = new CountingOutputStream(target);
+        List<Long> offsets = new ArrayList<>();
+
+        // 페이지 구성: 첫 페이지(텍스트+첫 차트), 나머지 차트, 노트
+        List<byte[]> pages = new ArrayList<>();
+        pages.add(firstPage(doc));
+        for (int i = 1; i < doc.charts().size(); i++) {
+            var c = new Content();
+            chart(c, doc.charts().get(i), MARGIN, MARGIN + 20, PAGE_W - 2 * MARGIN, PAGE_H - 2 * MARGIN - 40);
+            pages.add(c.bytes());
+        }
+        if (!doc.notes().isEmpty()) pages.add(notesPage(doc));
+
+        int nPages = pages.size();
+        int nObjects = 3 + nPages * 2;
+
+        out.ascii("%PDF-1.4\n%âãÏÓ\n");
+
+        // 1: 카탈로그, 2: 페이지 트리, 3: 폰트
+        offsets.add(out.pos);
+        out.ascii("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        offsets.add(out.pos);
+        StringBuilder kids = new StringBuilder();
+        for (int p = 0; p < nPages; p++) kids.append(4 + p * 2).append(" 0 R ");
+        out.ascii("2 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + nPages + " >>\nendobj\n");
+        offsets.add(out.pos);
+        out.ascii("3 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+
+        // 페이지마다: 페이지 객체 + 콘텐츠 스트림
+        for (int p = 0; p < nPages; p++) {
+            int pageObj = 4 + p * 2;
+            offsets.add(out.pos);
+            out.ascii(pageObj + " 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + PAGE_W + " " + PAGE_H + "]"
+                    + " /Resources << /Font << /F1 3 0 R >> >> /Contents " + (pageObj + 1) + " 0 R >>\nendobj\n");
+            byte[] content = pages.get(p);
+            pages.set(p, null); // 기록 후 바로 해제
+            offsets.add(out.pos);
+            out.ascii((pageObj + 1) + " 0 obj\n<< /Length " + content.length + " >>\nstream\n");
+            out.write(content);
+            out.ascii("\nendstream\nendobj\n");
+        }
+
+        // xref + trailer
+        long xref = out.pos;
+        out.ascii("xref\n0 " + (nObjects + 1) + "\n0000000000 65535 f \n");
+        for (long off : offsets) out.ascii(String.format(Locale.ROOT, "%010d 00000 n \n", off));
+        out.ascii("trailer\n<< /Size " + (nObjects + 1) + " /Root 1 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        out.flush();
+    }
+
+    private byte[] firstPage(ReportDocument doc) {
+        var c = new Content();
+        int y = PAGE_H - MARGIN;
+        c.text(MARGIN, y, 18, doc.title());
+        y -= 18;
+        c.text(MARGIN, y, 9, "Generated at " + doc.generatedAt());
+        y -= 18;
+        for (var r : doc.summary()) {
+            c.text(MARGIN, y, 9, r.key() + ": " + r.value());
+            y -= 12;
+        }
+        if (doc.metrics() != null) {
+            y -= 6;
+            int colW = (PAGE_W - 2 * MARGIN) / Math.max(1, doc.metrics().header().size());
+            for (int i = 0; i < doc.metrics().header().size(); i++) {
+                c.text(MARGIN + i * colW, y, 9, doc.metrics().header().get(i));
+            }
+            y -= 12;
+            for (var row : doc.metrics().rows()) {
+                for (int i = 0; i < row.size(); i++) c.text(MARGIN + i * colW, y, 9, row.get(i));
+                y -= 12;
+            }
+        }
+        if (!doc.charts().isEmpty()) {
+            int h = Math.max(120, y - MARGIN - 40);
+            chart(c, doc.charts().getFirst(), MARGIN, MARGIN + 20, PAGE_W - 2 * MARGIN, h);
+        }
+        return c.bytes();
+    }
+
+    private byte[] notesPage(ReportDocument doc) {
+        var c = new Content();
+        int y = PAGE_H - MARGIN;
+        c.text(MARGIN, y, 14, "Notes");
+        y -= 20;
+        int shown = 0;
+        for (String n : doc.notes()) {
+            if (shown++ >= MAX_NOTES) {
+                c.text(MARGIN, y, 9, "... " + (doc.notes().size() - MAX_NOTES) + " more");
+                break;
+            }
+            c.text(MARGIN, y, 9, n);
+            y -= 12;
+        }
+        return c.bytes();
+    }
+
+    // (x0, y0)=좌하단, w×h 영역에 차트를 그린다
+    private static void chart(Content c, ReportDocument.Chart chart, int x0, int y0, int w, int h) {
+        var sc = ChartScale.of(chart);
+        c.text(x0, y0 + h + 8, 11, chart.title());
+
+        // 프레임
+        c.raw("0.8 0.8 0.8 RG 0.5 w ");
+        c.raw(String.format(Locale.ROOT, "%d %d %d %d re S\n", x0, y0, w, h));
+
+        // 보조선 (점선)
+        c.raw("0.6 0.6 0.6 RG [4 4] 0 d ");
+        for (double b : chart.bands()) {
+            double yy = y0 + (b - sc.yMin()) / (sc.yMax() - sc.yMin()) * h;
+            c.raw(String.format(Locale.ROOT, "%d %.2f m %d %.2f l S ", x0, yy, x0 + w, yy));
+        }
+        c.raw("[] 0 d\n");
+
+        c.text(x0 - 36, y0 + h - 8, 7, String.format(Locale.ROOT, "%.4f", sc.yMax()));
+        c.text(x0 - 36, y0, 7, String.format(Locale.ROOT, "%.4f", sc.yMin()));
+        c.text(x0 + w / 2, y0 - 14, 8, chart.xLabel());
+
+        int ci = 0;
+        int legendX = x0;
+        for (var s : chart.series()) {
+            double[] rgb = COLORS[ci++ % COLORS.length];
+            c.raw(String.format(Locale.ROOT, "%.2f %.2f %.2f RG 0.8 w ", rgb[0], rgb[1], rgb[2]));
+            for (int i = 0; i < s.x().length; i++) {
+                double px = x0 + (s.x()[i] - sc.xMin()) / (sc.xMax() - sc.xMin()) * w;
+                double py = y0 + (s.y()[i] - sc.yMin()) / (sc.yMax() - sc.yMin()) * h;
+                c.raw(String.format(Locale.ROOT, "%.2f %.2f %s ", px, py, i == 0 ? "m" : "l"));
+            }
+            if (s.x().length > 0) c.raw("S\n");
+            // 범례
+            c.raw(String.format(Locale.ROOT, "%.2f %.2f %.2f rg ", rgb[0], rgb[1], rgb[2]));
+            c.raw(String.format(Locale.ROOT, "%d %d 8 8 re f ", legendX, y0 + h + 22));
+            c.raw("0 0 0 rg ");
+            c.text(legendX + 11, y0 + h + 22, 8, s.label());
+            legendX += 14 + s.label().length() * 5;
+        }
+    }
+
+    // 페이지 콘텐츠 스트림 버퍼
+    private static final class Content {
+        private final StringBuilder sb = new StringBuilder(8192);
+
+        void raw(String s) { sb.append(s); }
+
+        void text(int x, int y, int size, String s) {
+            sb.append("BT /F1 ").append(size).append(" Tf ").append(x).append(' ').append(y)
+              .append(" Td (").append(pdfString(s)).append(") Tj ET\n");
+        }
+
+        byte[] bytes() { return sb.toString().getBytes(StandardCharsets.ISO_8859_1); }
+    }
+
+    // PDF 문자열 이스케이프 + ASCII 외 문자 치환
+    private static String pdfString(String s) {
+        if (s == null) return "";
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '(' || ch == ')' || ch == '\\') b.append('\\').append(ch);
+            else if (ch < 32 || ch > 126) b.append('?');
+            else b.append(ch);
+        }
+        return b.toString();
+    }
+
+    // xref용 바이트 오프셋 추적
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long pos = 0;
+
+        CountingOutputStream(OutputStream out) { super(out); }
+
+        @Override
+        public void write(int b) throws IOException { out.write(b); pos++; }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException { out.write(b, off, len); pos += len; }
+
+        void ascii(String s) throws IOException { write(s.getBytes(StandardCharsets.ISO_8859_1)); }
+    }
+}
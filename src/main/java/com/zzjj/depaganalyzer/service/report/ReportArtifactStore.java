@@ -0,0 +1,102 @@
+package com.zzjj.depaganalyzer.service.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 로컬 디스크 리포트 아티팩트 저장소.
+ *
+ * - 파일명: {reportId}.{ext}  (reportId는 서버가 만든 UUID라 경로 조작 위험 없음)
+ * - 쓰기: 같은 디렉터리의 임시 파일에 렌더링 → 원자적 rename
+ *   → 다운로드 중인 클라이언트가 반쯤 쓰인 파일을 보지 않음
+ * - TTL: 만료 판단은 ReportsServiceImpl이 메타(expiresAt)로 하고, 디스크 청소는 deleteOlderThan
+ */
+@Component
+public class ReportArtifactStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportArtifactStore.class);
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private final Path dir;
+    private final Duration ttl;
+
+    public ReportArtifactStore(
+            @Value("${stabilisim.reports.dir:${java.io.tmpdir}/depag-reports}") String dir,
+            @Value("${stabilisim.reports.ttl:24h}") Duration ttl
+    ) {
+        this.dir = Path.of(dir);
+        this.ttl = ttl;
+        try {
+            Files.createDirectories(this.dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create report dir: " + dir, e);
+        }
+    }
+
+    public Duration ttl() { return ttl; }
+
+    public Path pathFor(String reportId, String extension) {
+        return dir.resolve(reportId + "." + extension);
+    }
+
+    /** writer가 쓴 내용을 아티팩트로 저장하고 최종 경로를 반환. 실패 시 임시 파일은 지운다. */
+    public Path store(String reportId, String extension, Writer writer) throws IOException {
+        Path target = pathFor(reportId, extension);
+        Path tmp = Files.createTempFile(dir, reportId, ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+                writer.write(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("failed to delete report artifact {}: {}", path, e.toString());
+        }
+    }
+
+    /**
+     * 수정 시각이 cutoff 이전인 파일 삭제 (메타 없이 남은 파일, 재시작 전 산출물 포함).
+     * @return 삭제한 파일 수
+     */
+    public int deleteOlderThan(Instant cutoff) {
+        int deleted = 0;
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(p).toInstant().isBefore(cutoff) && Files.deleteIfExists(p)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("failed to purge report artifact {}: {}", p, e.toString());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("failed to list report dir {}: {}", dir, e.toString());
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,29 @@
+package com.zzjj.depaganalyzer.service.report;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 렌더러에 넘기는 리포트 내용 (포맷 독립).
+ * - 차트 시계열은 이미 다운샘플된 상태여야 한다 (렌더러는 받은 점을 그대로 그림)
+ * - PDF 기본 폰트(Helvetica)는 ASCII만 지원하므로 라벨/표 값은 영문으로 작성
+ */
+public record ReportDocument(
+        String title,
+        Instant generatedAt,
+        List<Row> summary,        // 요청 메타 (key/value)
+        Table metrics,            // 지표 표
+        List<Chart> charts,
+        List<String> notes        // 이벤트 로그 등 부가 정보
+) {
+    public record Row(String key, String value) {}
+
+    public record Table(List<String> header, List<List<String>> rows) {}
+
+    /**
+     * @param bands 보조 수평선 (예: 페그 밴드 0.995 / 1.005)
+     */
+    public record Chart(String title, String xLabel, List<Series> series, double[] bands) {}
+
+    public record Series(String label, double[] x, double[] y) {}
+}
@@ -0,0 +1,20 @@
+package com.zzjj.depaganalyzer.service.report;
+
+import com.zzjj.depaganalyzer.dto.report.ReportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 리포트 포맷별 렌더러 (PDF / HTML).
+ * - out으로 바로 써 내려가며 전체 문서를 메모리에 모으지 않는다.
+ */
+public interface ReportRenderer {
+    ReportRequest.Format format();
+
+    String contentType();
+
+    String extension();
+
+    void render(ReportDocument doc, OutputStream out) throws IOException;
+}
@@ -0,0 +1,127 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 결과 하나의 컬럼형 시계열 블록 (힙 밖, 결과별 Arena 소유).
+ *
+ * 레이아웃: [t: int × rows][8바이트 정렬][col0: double × rows][col1 ...] (컬럼 우선 → 한 필드 스캔이 연속 읽기)
+ *
+ * 수명:
+ * - 참조 카운트 1(소유자)로 시작. 읽는 쪽은 acquire()/release()로 감싼다
+ * - free()는 소유자 몫을 내려놓을 뿐이고, 마지막 reader가 끝나는 순간 Arena를 닫는다
+ *   → 응답 직렬화 도중에 삭제/TTL 만료가 와도 읽던 메모리가 사라지지 않음
+ * - Arena는 shared: 할당(잡 스레드)과 해제(요청/스케줄러 스레드)가 다른 스레드
+ */
+final class OffHeapColumns {
+
+    private final Arena arena;
+    private final MemorySegment seg;
+    private final Path file;          // null이면 네이티브 메모리
+    private final int rows;
+    private final long doubleBase;
+    private final Runnable onClose;   // 저장소 사용량 반환
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private final AtomicBoolean freed = new AtomicBoolean();
+
+    private OffHeapColumns(Arena arena, MemorySegment seg, Path file, int rows, Runnable onClose) {
+        this.arena = arena;
+        this.seg = seg;
+        this.file = file;
+        this.rows = rows;
+        this.doubleBase = align8(4L * rows);
+        this.onClose = onClose;
+    }
+
+    static long sizeOf(int rows, int doubleColumns) {
+        return align8(4L * rows) + 8L * rows * doubleColumns;
+    }
+
+    /**
+     * @param dir null이면 네이티브 메모리, 아니면 그 디렉터리의 임시 파일에 mmap
+     */
+    static OffHeapColumns allocate(int rows, int doubleColumns, Path dir, Runnable onClose) throws IOException {
+        long size = sizeOf(rows, doubleColumns);
+        Arena arena = Arena.ofShared();
+        try {
+            if (dir == null) {
+                return new OffHeapColumns(arena, arena.allocate(size, 8), null, rows, onClose);
+            }
+            Path file = Files.createTempFile(dir, "result-", ".cols");
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // 매핑은 채널을 닫아도 Arena가 닫힐 때까지 유효
+                MemorySegment seg = ch.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+                return new OffHeapColumns(arena, seg, file, rows, onClose);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    int rows() { return rows; }
+
+    long bytes() { return seg.byteSize(); }
+
+    int t(int i) {
+        return seg.getAtIndex(ValueLayout.JAVA_INT, i);
+    }
+
+    void setT(int i, int t) {
+        seg.setAtIndex(ValueLayout.JAVA_INT, i, t);
+    }
+
+    double get(int col, int i) {
+        return seg.get(ValueLayout.JAVA_DOUBLE, doubleBase + ((long) col * rows + i) * 8);
+    }
+
+    void set(int col, int i, double v) {
+        seg.set(ValueLayout.JAVA_DOUBLE, doubleBase + ((long) col * rows + i) * 8, v);
+    }
+
+    /** 읽기 시작. 이미 해제됐으면 false */
+    boolean acquire() {
+        for (;;) {
+            int n = refs.get();
+            if (n == 0) return false;
+            if (refs.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    void release() {
+        if (refs.decrementAndGet() == 0) close();
+    }
+
+    /** 소유자 몫 반환 (여러 번 불려도 한 번만) */
+    void free() {
+        if (freed.compareAndSet(false, true)) release();
+    }
+
+    private void close() {
+        arena.close();
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 시작 시 디렉터리 정리에서 다시 지운다
+            }
+        }
+        onClose.run();
+    }
+
+    private static long align8(long n) {
+        return (n + 7) & ~7L;
+    }
+}
@@ -0,0 +1,162 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.zzjj.depaganalyzer.dto.sim.SeriesPoint;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 힙 밖 컬럼(OffHeapColumns)을 List처럼 보여주는 읽기 전용 뷰.
+ *
+ * - get(i)는 세그먼트에서 바로 읽어 레코드 하나를 만든다 (리포트 다운샘플링 등 인덱스 접근용, 단명 객체)
+ * - JSON 응답은 전용 serializer가 세그먼트에서 숫자를 바로 써서 점마다 레코드를 만들지 않는다
+ *   → 직렬화 전체를 acquire/release로 감싸 도중에 해제되지 않음, 이미 해제됐으면 410 (빈 배열로 속이지 않음)
+ * - null인 Double 필드는 NaN으로 저장 (actualPrice/volatility 모두 NaN이 실제 값일 수 없음)
+ */
+@JsonSerialize(using = OffHeapList.Json.class)
+public final class OffHeapList<T> extends AbstractList<T> implements RandomAccess {
+
+    /** 레코드 ↔ 컬럼 변환 규칙 */
+    interface Codec<T> {
+        int doubleColumns();
+        void write(T item, OffHeapColumns c, int i);
+        T read(OffHeapColumns c, int i);
+        void writeJson(JsonGenerator g, OffHeapColumns c, int i) throws IOException;
+    }
+
+    private final OffHeapColumns columns;
+    private final Codec<T> codec;
+
+    private OffHeapList(OffHeapColumns columns, Codec<T> codec) {
+        this.columns = columns;
+        this.codec = codec;
+    }
+
+    /** items를 columns에 채우고 뷰를 만든다 (columns 크기는 items.size()로 할당돼 있어야 함) */
+    static <T> OffHeapList<T> copyOf(List<T> items, OffHeapColumns columns, Codec<T> codec) {
+        int i = 0;
+        for (T item : items) codec.write(item, columns, i++);
+        return new OffHeapList<>(columns, codec);
+    }
+
+    OffHeapColumns columns() { return columns; }
+
+    @Override
+    public int size() {
+        return columns.rows();
+    }
+
+    @Override
+    public T get(int i) {
+        if (i < 0 || i >= columns.rows()) throw new IndexOutOfBoundsException(i);
+        if (!columns.acquire()) throw new IllegalStateException("simulation result was released");
+        try {
+            return codec.read(columns, i);
+        } finally {
+            columns.release();
+        }
+    }
+
+    static final Codec<SeriesPoint> SERIES = new Codec<>() {
+        // price, supply, reserveCash, reserveCollateral, pegDeviation, actualPrice
+        @Override public int doubleColumns() { return 6; }
+
+        @Override
+        public void write(SeriesPoint p, OffHeapColumns c, int i) {
+            c.setT(i, p.t());
+            c.set(0, i, p.price());
+            c.set(1, i, p.supply());
+            c.set(2, i, p.reserveCash());
+            c.set(3, i, p.reserveCollateral());
+            c.set(4, i, p.pegDeviation());
+            c.set(5, i, p.actualPrice() != null ? p.actualPrice() : Double.NaN);
+        }
+
+        @Override
+        public SeriesPoint read(OffHeapColumns c, int i) {
+            double actual = c.get(5, i);
+            return new SeriesPoint(c.t(i), c.get(0, i), c.get(1, i), c.get(2, i), c.get(3, i), c.get(4, i),
+                    Double.isNaN(actual) ? null : actual);
+        }
+
+        @Override
+        public void writeJson(JsonGenerator g, OffHeapColumns c, int i) throws IOException {
+            g.writeStartObject();
+            g.writeNumberField("t", c.t(i));
+            g.writeNumberField("price", c.get(0, i));
+            g.writeNumberField("supply", c.get(1, i));
+            g.writeNumberField("reserveCash", c.get(2, i));
+            g.writeNumberField("reserveCollateral", c.get(3, i));
+            g.writeNumberField("pegDeviation", c.get(4, i));
+            double actual = c.get(5, i);
+            if (!Double.isNaN(actual)) g.writeNumberField("actualPrice", actual); // SeriesPoint의 NON_NULL과 같게
+            g.writeEndObject();
+        }
+    };
+
+    static final Codec<SimulationResult.RollingPoint> ROLLING = new Codec<>() {
+        // avgDeviation, volatility, pegUptime
+        @Override public int doubleColumns() { return 3; }
+
+        @Override
+        public void write(SimulationResult.RollingPoint p, OffHeapColumns c, int i) {
+            c.setT(i, p.t());
+            c.set(0, i, nan(p.avgDeviation()));
+            c.set(1, i, nan(p.volatility()));
+            c.set(2, i, nan(p.pegUptime()));
+        }
+
+        @Override
+        public SimulationResult.RollingPoint read(OffHeapColumns c, int i) {
+            return new SimulationResult.RollingPoint(c.t(i), boxed(c.get(0, i)), boxed(c.get(1, i)), boxed(c.get(2, i)));
+        }
+
+        @Override
+        public void writeJson(JsonGenerator g, OffHeapColumns c, int i) throws IOException {
+            g.writeStartObject();
+            g.writeNumberField("t", c.t(i));
+            writeNullable(g, "avgDeviation", c.get(0, i));
+            writeNullable(g, "volatility", c.get(1, i));
+            writeNullable(g, "pegUptime", c.get(2, i));
+            g.writeEndObject();
+        }
+    };
+
+    private static double nan(Double v) { return v != null ? v : Double.NaN; }
+
+    private static Double boxed(double v) { return Double.isNaN(v) ? null : v; }
+
+    private static void writeNullable(JsonGenerator g, String name, double v) throws IOException {
+        if (Double.isNaN(v)) g.writeNullField(name);
+        else g.writeNumberField(name, v);
+    }
+
+    /**
+     * 세그먼트에서 바로 JSON 배열을 쓴다.
+     * 조회와 직렬화 사이에 삭제/만료로 해제된 결과는 410 (ApiExceptionHandler가 직렬화 예외에서 꺼내 응답)
+     */
+    static final class Json extends JsonSerializer<OffHeapList<?>> {
+        @Override
+        public void serialize(OffHeapList<?> list, JsonGenerator g, SerializerProvider provider) throws IOException {
+            OffHeapColumns c = list.columns;
+            if (!c.acquire()) throw new ResponseStatusException(HttpStatus.GONE, "simulation result was released");
+            try {
+                g.writeStartArray();
+                int n = c.rows();
+                for (int i = 0; i < n; i++) list.codec.writeJson(g, c, i);
+                g.writeEndArray();
+            } finally {
+                c.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 완료된 시뮬 결과의 큰 컬럼(series/rolling)을 힙 밖으로 옮기는 저장소.
+ *
+ * - offload(): 결과의 series/rolling을 결과별 Arena의 MemorySegment로 복사하고, 그 뷰(OffHeapList)를 단 사본을 반환
+ *   → 힙에는 메타데이터(파라미터/지표/이벤트)만 남아 old gen이 수십만 개의 SeriesPoint를 계속 스캔/복사하지 않음
+ * - free(): 결과 삭제/TTL 만료 시 즉시 해제 (GC/Cleaner를 기다리지 않음)
+ * - maxOffHeapBytes를 넘으면 새 결과는 힙에 그대로 둔다 (상한은 힙 밖 사용량만 막고 결과를 버리지 않음)
+ * - 사용량/건수는 stats()로 보고 (/actuator/resultstore)
+ * - FFM(java.lang.foreign)은 Java 21에서 preview: --enable-preview 없이 뜬 JVM이면 시작 시 감지해 힙 저장으로 대체
+ *   (OffHeapColumns를 처음 쓰는 순간 UnsupportedClassVersionError가 잡 스레드에서 터지지 않게)
+ */
+@Component
+public class OffHeapResultStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapResultStore.class);
+
+    public record Stats(boolean enabled, boolean fileBacked, long usedBytes, long maxBytes, long liveBlocks,
+                        long offloaded, long heapFallbacks, long freed) {}
+
+    private final ResultStoreProperties props;
+    private final boolean enabled; // offHeap 설정 && preview 사용 가능
+    private final Path dir; // fileBacked가 아니면 null
+
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong offloaded = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong freed = new AtomicLong();
+
+    public OffHeapResultStore(ResultStoreProperties props) {
+        this.props = props;
+        this.enabled = props.offHeap() && previewAvailable();
+        this.dir = enabled && props.fileBacked() ? Path.of(props.dir()) : null;
+        if (dir != null) {
+            try {
+                Files.createDirectories(dir);
+                purgeStaleFiles(); // 이전 프로세스가 남긴 컬럼 파일 (결과 자체는 메모리 저장소라 재시작 시 없음)
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot prepare result column dir: " + dir, e);
+            }
+        }
+    }
+
+    public Duration ttl() { return props.ttl(); }
+
+    /** series/rolling을 힙 밖으로 옮긴 사본 (꺼져 있거나 작거나 상한 초과면 원본 그대로) */
+    public SimulationResult offload(SimulationResult r) {
+        if (!enabled) return r;
+        var series = offload(r.series(), OffHeapList.SERIES);
+        var rolling = offload(r.rolling(), OffHeapList.ROLLING);
+        if (series == r.series() && rolling == r.rolling()) return r;
+        return new SimulationResult(r.id(), r.status(), r.modelType(), r.params(), r.scenarios(), r.metrics(),
+                series, r.events(), rolling, r.replay(), r.retention(), r.startedAt(), r.finishedAt(), r.usage());
+    }
+
+    /** 결과가 쥐고 있는 힙 밖 블록 해제 (힙 결과면 아무 일 없음, 두 번 불려도 안전) */
+    public void free(SimulationResult r) {
+        if (r.series() instanceof OffHeapList<?> s) s.columns().free();
+        if (r.rolling() instanceof OffHeapList<?> s) s.columns().free();
+    }
+
+    public Stats stats() {
+        return new Stats(enabled, dir != null, used.get(), props.maxOffHeapBytes(), live.get(),
+                offloaded.get(), fallbacks.get(), freed.get());
+    }
+
+    private <T> List<T> offload(List<T> items, OffHeapList.Codec<T> codec) {
+        if (items == null || items.size() < props.minPoints() || items instanceof OffHeapList<?>) return items;
+        long size = OffHeapColumns.sizeOf(items.size(), codec.doubleColumns());
+        if (!reserve(size)) {
+            fallbacks.incrementAndGet();
+            return items;
+        }
+        OffHeapColumns columns;
+        try {
+            columns = OffHeapColumns.allocate(items.size(), codec.doubleColumns(), dir, () -> {
+                used.addAndGet(-size);
+                live.decrementAndGet();
+                freed.incrementAndGet();
+            });
+        } catch (IOException | RuntimeException e) {
+            used.addAndGet(-size);
+            fallbacks.incrementAndGet();
+            log.warn("off-heap allocation of {} bytes failed, keeping result on heap: {}", size, e.toString());
+            return items;
+        }
+        live.incrementAndGet();
+        offloaded.incrementAndGet();
+        return OffHeapList.copyOf(items, columns, codec);
+    }
+
+    // 상한 안에서 size만큼 선점 (동시 offload가 함께 상한을 넘지 않게 CAS)
+    private boolean reserve(long size) {
+        long max = props.maxOffHeapBytes();
+        for (;;) {
+            long cur = used.get();
+            if (max > 0 && cur + size > max) return false;
+            if (used.compareAndSet(cur, cur + size)) return true;
+        }
+    }
+
+    // preview로 컴파일된 클래스는 --enable-preview 없이 로드하면 UnsupportedClassVersionError
+    private static boolean previewAvailable() {
+        try {
+            Class.forName("com.zzjj.depaganalyzer.service.resultstore.OffHeapColumns", true,
+                    OffHeapResultStore.class.getClassLoader());
+            return true;
+        } catch (UnsupportedClassVersionError | ClassNotFoundException e) {
+            log.warn("off-heap result store disabled, keeping results on heap (run the JVM with --enable-preview): {}",
+                    e.toString());
+            return false;
+        }
+    }
+
+    private void purgeStaleFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "result-*.cols")) {
+            for (Path f : files) Files.deleteIfExists(f);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import com.zzjj.depaganalyzer.dto.sim.SeriesPoint;
+
+import java.util.List;
+
+/**
+ * 시뮬 결과 series의 (t, price) 두 컬럼만 읽는 스캔용 뷰.
+ *
+ * - 힙 밖 결과(OffHeapList)면 세그먼트에서 바로 읽어 점마다 레코드를 만들지 않는다
+ *   → 여는 동안 acquire로 잡아 두므로 스캔 도중 삭제/TTL 만료가 와도 메모리가 유지된다 (close에서 반환)
+ * - 힙에 남은 결과(짧은 시계열, 상한 초과)는 리스트를 그대로 읽는다
+ * - 여러 스레드가 같은 뷰를 동시에 읽어도 안전 (읽기 전용)
+ */
+public final class PriceColumn implements AutoCloseable {
+
+    private final OffHeapColumns columns;   // null이면 힙 리스트
+    private final List<SeriesPoint> heap;
+    private final int size;
+
+    private PriceColumn(OffHeapColumns columns, List<SeriesPoint> heap) {
+        this.columns = columns;
+        this.heap = heap;
+        this.size = columns != null ? columns.rows() : heap.size();
+    }
+
+    /**
+     * @throws IllegalStateException 이미 해제된 힙 밖 결과일 때
+     */
+    public static PriceColumn open(List<SeriesPoint> series) {
+        if (series instanceof OffHeapList<?> off) {
+            OffHeapColumns c = off.columns();
+            if (!c.acquire()) throw new IllegalStateException("simulation result was released");
+            return new PriceColumn(c, null);
+        }
+        return new PriceColumn(null, series != null ? series : List.of());
+    }
+
+    public int size() { return size; }
+
+    public int t(int i) {
+        return columns != null ? columns.t(i) : heap.get(i).t();
+    }
+
+    public double price(int i) {
+        return columns != null ? columns.get(0, i) : heap.get(i).price();
+    }
+
+    /** t 이하인 마지막 점의 인덱스 (없으면 -1). series는 t 오름차순 */
+    public int floorIndex(int t) {
+        int lo = 0, hi = size - 1, ans = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (t(mid) <= t) { ans = mid; lo = mid + 1; }
+            else hi = mid - 1;
+        }
+        return ans;
+    }
+
+    @Override
+    public void close() {
+        if (columns != null) columns.release();
+    }
+}
@@ -0,0 +1,24 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/resultstore : 힙 밖 결과 컬럼 사용량 (사용/상한 바이트, 살아 있는 블록 수, 힙 대체 건수).
+ */
+@Component
+@Endpoint(id = "resultstore")
+public class ResultStoreEndpoint {
+
+    private final OffHeapResultStore store;
+
+    public ResultStoreEndpoint(OffHeapResultStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public OffHeapResultStore.Stats stats() {
+        return store.stats();
+    }
+}
@@ -0,0 +1,35 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 완료된 시뮬 결과 보관 설정 (application.yml의 stabilisim.results.*).
+ *
+ * @param offHeap         시계열/롤링 컬럼을 힙 밖(MemorySegment)에 둘지 여부
+ * @param fileBacked      true면 컬럼을 dir 아래 임시 파일에 mmap (OS가 페이지 아웃 가능), false면 네이티브 메모리
+ * @param dir             fileBacked일 때 컬럼 파일 위치 (시작 시 남은 파일 정리)
+ * @param maxOffHeapBytes 힙 밖 컬럼 총량 상한. 넘으면 그 결과는 힙에 그대로 둔다 (결과를 버리지는 않음)
+ * @param minPoints       이보다 점이 적은 시계열은 힙에 둔다 (Arena/파일 비용이 이득보다 큼)
+ * @param ttl             완료 후 보관 기간. 지나면 결과를 지우고 메모리/쿼터를 반환 (0이면 무기한)
+ */
+@ConfigurationProperties(prefix = "stabilisim.results")
+public record ResultStoreProperties(
+        Boolean offHeap,
+        Boolean fileBacked,
+        String dir,
+        Long maxOffHeapBytes,
+        Integer minPoints,
+        Duration ttl
+) {
+    // 설정이 비어 있으면 기본값으로 채움
+    public ResultStoreProperties {
+        if (offHeap == null) offHeap = true;
+        if (fileBacked == null) fileBacked = false;
+        if (dir == null || dir.isBlank()) dir = System.getProperty("java.io.tmpdir") + "/depag-results";
+        if (maxOffHeapBytes == null) maxOffHeapBytes = 1024L * 1024 * 1024;
+        if (minPoints == null) minPoints = 4096;
+        if (ttl == null) ttl = Duration.ofHours(24);
+    }
+}
@@ -0,0 +1,95 @@
+package com.zzjj.depaganalyzer.service.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 핵심 경로가 아닌 빈(리포트, 시세 적재/경보 등)의 초기화를 준비(readiness) 이후로 미룬다.
+ *
+ * - stabilisim.faststart.lazyBeans: 빈 클래스 이름 접두사 목록 (패키지 "a.b.report." 또는 클래스 이름).
+ *   맞는 빈 정의를 lazy로 바꿔 기동 중에는 만들지 않는다 (비어 있으면 아무것도 하지 않음)
+ * - spring.main.lazy-initialization(전역 lazy)을 쓰지 않는 이유: @Scheduled 빈(적재/정리 작업)은 아무도 주입받지 않으므로
+ *   전역 lazy에서는 영영 만들어지지 않는다. 그래서 미룬 빈은 ReadinessState.ACCEPTING_TRAFFIC 직후
+ *   백그라운드 스레드에서 만든다 (initAfterReady=false면 첫 사용 시점까지 미룸)
+ * - 미룬 빈을 주입받는 핵심 빈이 있으면 그 주입 지점은 @Lazy여야 한다 (예: ReportsController)
+ * - 빈 팩토리 후처리기라 @Value/@ConfigurationProperties 주입 전에 만들어진다 → 설정은 Binder로 직접 읽는다
+ */
+@Component
+public class DeferredBeanInitializer implements BeanFactoryPostProcessor, EnvironmentAware,
+        ApplicationListener<AvailabilityChangeEvent<ReadinessState>> {
+
+    private static final Logger log = LoggerFactory.getLogger(DeferredBeanInitializer.class);
+
+    private Environment environment;
+    private ConfigurableListableBeanFactory beanFactory;
+    private final List<String> deferred = new ArrayList<>();
+    private boolean initAfterReady;
+    private boolean started;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        Binder binder = Binder.get(environment);
+        List<String> prefixes = binder.bind("stabilisim.faststart.lazy-beans", Bindable.listOf(String.class))
+                .orElse(List.of());
+        if (prefixes.isEmpty()) return;
+        this.beanFactory = beanFactory;
+        this.initAfterReady = binder.bind("stabilisim.faststart.init-after-ready", Boolean.class).orElse(true);
+
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(name);
+            String type = bd.getBeanClassName();
+            if (type == null || bd.isAbstract() || !bd.isSingleton() || bd.isLazyInit()) continue;
+            if (prefixes.stream().anyMatch(type::startsWith)) {
+                bd.setLazyInit(true);
+                deferred.add(name);
+            }
+        }
+        log.info("faststart: deferred initialization of {} beans: {}", deferred.size(), deferred);
+    }
+
+    @Override
+    public void onApplicationEvent(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !initAfterReady || deferred.isEmpty()) return;
+        synchronized (this) {
+            if (started) return;
+            started = true;
+        }
+        Thread t = new Thread(this::initDeferred, "deferred-init");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY); // 첫 요청들과 CPU를 다투지 않게
+        t.start();
+    }
+
+    private void initDeferred() {
+        long start = System.nanoTime();
+        for (String name : deferred) {
+            try {
+                beanFactory.getBean(name); // 이미 첫 요청이 만들었으면 그대로 반환
+            } catch (RuntimeException e) {
+                log.warn("faststart: deferred bean '{}' failed to initialize", name, e);
+            }
+        }
+        log.info("faststart: initialized {} deferred beans in {} ms after readiness",
+                deferred.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,175 @@
+package com.zzjj.depaganalyzer.service.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest.Retention.Mode;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.dto.sim.SimulationStatus;
+import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.SimulationsService;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작 워밍업: 첫 잡이 인터프리터/C1 코드로 도는 것을 막기 위해 준비(readiness) 전에 엔진과 지표 경로를 한 번씩 태운다.
+ *
+ * - ApplicationRunner는 스프링 부트가 ReadinessState.ACCEPTING_TRAFFIC을 발행하기 전에 실행된다
+ *   → 이 메서드가 끝날 때까지 /actuator/health/readiness는 OUT_OF_SERVICE (로드밸런서가 트래픽을 보내지 않음)
+ * - 시뮬: 실제 잡과 같은 경로(createSimulation → 잡 풀 → runReserveModel)로 작은 합성 시뮬을 순차 실행.
+ *   보관 모드(FULL/DOWNSAMPLED/METRICS_ONLY)를 돌아가며 써서 결과 저장 경로까지 데우고, 끝나면 결과는 지운다
+ * - REST 경로: 요청은 JSON으로 썼다가 다시 읽고 검증(@Valid와 같은 Validator)한 뒤 넣고, 상태/결과도 JSON으로 써 본다
+ *   → 엔진만 데우면 첫 요청이 Jackson 역직렬화기/검증 메타데이터/결과 직렬화기 생성을 떠안는다.
+ *   큰 FULL 결과 직렬화는 비싸므로 결과는 보관 모드마다 처음 한 번만 쓴다
+ * - 지표: 심볼마다 최근 7일 + 롤링 지표 조회 한 번 (시세 소스, 지표 계산, 캐시)
+ * - 실패하거나 timeout을 넘겨도 기동은 막지 않는다 (로그만 남기고 준비 상태로 넘어감)
+ * - exitAfterWarmup이면 워밍업 후 바로 종료 → CDS 학습 실행이 엔진/지표 경로 클래스까지 아카이브에 담는다
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    // 워밍업 잡의 사용량/쿼터 집계 키 (실제 클라이언트와 섞이지 않게)
+    static final String CLIENT = "warmup";
+
+    // SimulationServiceImpl은 dt ≥ 1(또는 0)이면 스텝마다 데모 sleep을 넣으므로 엔진 루프만 돌도록 1 미만
+    private static final double DT = 0.5;
+    private static final long POLL_MILLIS = 5;
+    private static final Mode[] MODES = {Mode.METRICS_ONLY, Mode.FULL, Mode.DOWNSAMPLED};
+
+    private final SimulationsService simulations;
+    private final MetricsService metrics;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final WarmupProperties props;
+    private final ConfigurableApplicationContext context;
+
+    public StartupWarmup(SimulationsService simulations, MetricsService metrics, ObjectMapper objectMapper,
+                         Validator validator, WarmupProperties props, ConfigurableApplicationContext context) {
+        this.simulations = simulations;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.props = props;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!props.enabled()) return;
+        long start = System.nanoTime();
+        long deadline = start + props.timeout().toNanos();
+
+        int done = 0;
+        long firstMs = -1, lastMs = -1;
+        for (int i = 0; i < props.simulations() && System.nanoTime() < deadline; i++) {
+            long t0 = System.nanoTime();
+            try {
+                if (!simulate(i, deadline)) break;
+            } catch (RuntimeException e) {
+                log.warn("warm-up simulation {} failed", i, e);
+                break;
+            }
+            lastMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+            if (firstMs < 0) firstMs = lastMs;
+            done++;
+        }
+
+        int queried = 0;
+        Instant to = Instant.now();
+        for (String symbol : props.symbols()) {
+            if (System.nanoTime() >= deadline) break;
+            try {
+                metrics.getMetrics(symbol, to.minus(7, ChronoUnit.DAYS), to, "1h", "24h", "1h");
+                queried++;
+            } catch (RuntimeException e) {
+                log.warn("warm-up metrics query failed: symbol={}", symbol, e);
+            }
+        }
+
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("warm-up finished in {} ms: {}/{} simulations of {} steps (first {} ms, last {} ms), {}/{} metrics queries",
+                totalMs, done, props.simulations(), props.steps(), firstMs, lastMs, queried, props.symbols().size());
+
+        if (props.exitAfterWarmup()) {
+            log.info("exitAfterWarmup set: shutting down after warm-up");
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    /** 시뮬 하나를 끝까지 기다린 뒤 결과 삭제. deadline을 넘기면 false (실행 중인 잡은 TTL에 맡긴다) */
+    private boolean simulate(int i, long deadline) {
+        SimulationRequest req = roundTrip(request(i));
+        var violations = validator.validate(req);
+        if (!violations.isEmpty()) throw new IllegalStateException("warm-up request is invalid: " + violations);
+        String id = simulations.createSimulation(req, CLIENT).id();
+        Object v;
+        while ((v = simulations.getSimulation(id)) instanceof SimulationStatus s) {
+            write(s);
+            if (System.nanoTime() >= deadline) {
+                log.warn("warm-up timed out after {} while simulation {} was running", props.timeout(), id);
+                return false;
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (v instanceof SimulationResult r && r.status() == SimulationResult.Status.FAILED) {
+            log.warn("warm-up simulation {} failed", id);
+        }
+        try {
+            if (i < MODES.length) write(v);
+        } finally {
+            simulations.deleteSimulation(id);
+        }
+        return true;
+    }
+
+    // 컨트롤러가 받는 것처럼 JSON 본문을 거쳐 읽는다
+    private SimulationRequest roundTrip(SimulationRequest request) {
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(request), SimulationRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 부하 스위트와 같은 파라미터 + 상환 충격 하나 + 롤링 지표 (시드만 매번 다르게)
+    private SimulationRequest request(int i) {
+        int steps = props.steps();
+        return new SimulationRequest(
+                SimModelType.RESERVE, steps, DT, 1000 + i,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0),
+                List.of(new Scenario(steps / 2, Scenario.ScenarioType.REDEEM_SHOCK, 0.1)),
+                new SimulationRequest.Rolling(Math.max(2, Math.min(1_000, steps / 4)), 100),
+                null,
+                new SimulationRequest.Retention(MODES[i % MODES.length], null));
+    }
+}
@@ -0,0 +1,36 @@
+package com.zzjj.depaganalyzer.service.startup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 시작 워밍업 설정 (application.yml의 stabilisim.warmup.*, faststart 프로파일에서 켬).
+ *
+ * @param enabled          준비(readiness) 전에 워밍업을 돌릴지 여부
+ * @param simulations      순차로 돌릴 합성 시뮬 수 (엔진 루프가 C2로 컴파일될 만큼)
+ * @param steps            워밍업 시뮬 하나의 스텝 수
+ * @param symbols          지표 조회로 데울 심볼들 (심볼마다 최근 7일 + 롤링 지표 한 번)
+ * @param timeout          워밍업 전체 상한. 넘으면 남은 단계를 건너뛰고 그대로 준비 상태로 넘어간다
+ * @param exitAfterWarmup  워밍업 직후 종료 (CDS 아카이브 학습 실행용: ./gradlew cdsArchive)
+ */
+@ConfigurationProperties(prefix = "stabilisim.warmup")
+public record WarmupProperties(
+        Boolean enabled,
+        Integer simulations,
+        Integer steps,
+        List<String> symbols,
+        Duration timeout,
+        Boolean exitAfterWarmup
+) {
+    // 설정이 비어 있으면 기본값으로 채움
+    public WarmupProperties {
+        if (enabled == null) enabled = false;
+        if (simulations == null || simulations < 0) simulations = 8;
+        if (steps == null || steps < 1) steps = 50_000;
+        if (symbols == null) symbols = List.of("USDT");
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) timeout = Duration.ofSeconds(60);
+        if (exitAfterWarmup == null) exitAfterWarmup = false;
+    }
+}
@@ -0,0 +1,186 @@
+package com.zzjj.depaganalyzer.service.trace;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JFR 녹화 on-demand 제어 (actuator 엔드포인트 "jfr").
+ *
+ * - GET    /actuator/jfr          : 이 JVM의 녹화 목록 (-XX:StartFlightRecording으로 띄운 것도 포함)
+ * - POST   /actuator/jfr          : 녹화 시작 {settings: default|profile, durationSeconds, stepBatches, maxSizeMb}
+ *   → 시뮬 이벤트(com.zzjj.depaganalyzer.*)는 항상 켜고, StepBatch는 stepBatches=true일 때만
+ * - GET    /actuator/jfr/{id}     : 녹화 덤프(.jfr) 다운로드 (진행 중이어도 그 시점까지 복사해서 덤프)
+ * - DELETE /actuator/jfr/{id}     : 녹화 중지 + 정리 (이 엔드포인트가 만든 depag-* 녹화만, 그 외는 403)
+ *
+ * 녹화 길이는 maxDuration으로 상한을 둔다 (잊힌 녹화가 디스크를 계속 쓰지 않도록).
+ * 덤프 파일은 dir에 쌓이고 dumpTtl이 지나면 다음 덤프 때 지운다.
+ * 기본 노출 목록에는 없다: diagnostics 프로파일이 별도 management 포트에만 연다 (힙/스레드 정보가 녹화에 들어간다).
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private static final String EVENT_PREFIX = "com.zzjj.depaganalyzer.";
+    private static final List<String> JOB_EVENTS = List.of(
+            "SimulationQueued", "SimulationRun", "ScenarioFired", "SimulationCheckpoint",
+            "SimulationMetrics", "SimulationPersisted");
+    private static final String STEP_BATCH = "SimulationStepBatch";
+    private static final String NAME_PREFIX = "depag-"; // 이 엔드포인트가 시작한 녹화 이름 (중지 가능 범위)
+    private static final int STATUS_FORBIDDEN = 403;
+
+    public record RecordingInfo(long id, String name, String state, Instant startTime,
+                                Long durationSeconds, long sizeBytes, boolean stepBatches) {}
+
+    private final Path dir;
+    private final Duration maxDuration;
+    private final Duration dumpTtl;
+
+    public JfrRecordingEndpoint(
+            @Value("${stabilisim.jfr.dir:${java.io.tmpdir}/depag-jfr}") String dir,
+            @Value("${stabilisim.jfr.maxDuration:30m}") Duration maxDuration,
+            @Value("${stabilisim.jfr.dumpTtl:1h}") Duration dumpTtl
+    ) {
+        this.dir = Path.of(dir);
+        this.maxDuration = maxDuration;
+        this.dumpTtl = dumpTtl;
+    }
+
+    @ReadOperation
+    public List<RecordingInfo> recordings() {
+        if (!FlightRecorder.isAvailable()) return List.of();
+        return FlightRecorder.getFlightRecorder().getRecordings().stream().map(JfrRecordingEndpoint::info).toList();
+    }
+
+    /**
+     * @param settings        JDK 설정 이름 (default: 오버헤드 ~1%, profile: ~2% + 메서드 샘플링 촘촘히). 기본 default
+     * @param durationSeconds 자동 중지까지 시간 (기본/상한 maxDuration)
+     * @param stepBatches     스텝 루프 단계별 타이밍(StepBatch) 포함 여부 (기본 false)
+     * @param maxSizeMb       디스크 버퍼 상한 (기본 256MB, 넘으면 오래된 청크부터 버림)
+     */
+    @WriteOperation
+    public WebEndpointResponse<RecordingInfo> start(@Nullable String settings, @Nullable Long durationSeconds,
+                                                    @Nullable Boolean stepBatches, @Nullable Long maxSizeMb) {
+        if (!FlightRecorder.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        String name = settings != null && !settings.isBlank() ? settings : "default";
+        if (!name.equals("default") && !name.equals("profile")) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST); // 임의 파일 경로 차단
+        }
+        Configuration config;
+        try {
+            config = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("cannot load JFR settings '" + name + "'", e);
+        }
+
+        long maxSeconds = maxDuration.toSeconds();
+        long seconds = durationSeconds != null && durationSeconds > 0 ? Math.min(durationSeconds, maxSeconds) : maxSeconds;
+        boolean batches = Boolean.TRUE.equals(stepBatches);
+
+        Recording rec = new Recording(config);
+        rec.setName(NAME_PREFIX + name + (batches ? "-steps" : ""));
+        for (String e : JOB_EVENTS) rec.enable(EVENT_PREFIX + e);
+        if (batches) rec.enable(EVENT_PREFIX + STEP_BATCH);
+        else rec.disable(EVENT_PREFIX + STEP_BATCH);
+        rec.setToDisk(true);
+        rec.setMaxSize((maxSizeMb != null && maxSizeMb > 0 ? maxSizeMb : 256) * 1024 * 1024);
+        rec.setDuration(Duration.ofSeconds(seconds));
+        rec.start();
+        log.info("JFR recording {} started ({}, {}s, stepBatches={})", rec.getId(), name, seconds, batches);
+        return new WebEndpointResponse<>(info(rec));
+    }
+
+    /** 녹화 덤프: 진행 중이면 지금까지의 내용을 복사본으로 떠서 내려준다 (원본 녹화는 계속) */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) {
+        Recording rec = find(id);
+        if (rec == null) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        try {
+            Files.createDirectories(dir);
+            purgeOldDumps();
+            Path file = dir.resolve("depag-" + id + "-" + System.currentTimeMillis() + ".jfr");
+            if (rec.getState() == RecordingState.RUNNING) {
+                try (Recording snapshot = rec.copy(true)) {
+                    snapshot.dump(file);
+                }
+            } else {
+                rec.dump(file);
+            }
+            return new WebEndpointResponse<>(new FileSystemResource(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("JFR dump failed for recording " + id, e);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<RecordingInfo> stop(@Selector long id) {
+        Recording rec = find(id);
+        if (rec == null) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        // -XX:StartFlightRecording 등 운영자가 띄운 녹화는 덤프만 허용하고 끄지 않는다
+        if (rec.getName() == null || !rec.getName().startsWith(NAME_PREFIX)) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        RecordingInfo info = info(rec);
+        if (rec.getState() == RecordingState.RUNNING) rec.stop();
+        rec.close();
+        log.info("JFR recording {} closed", id);
+        return new WebEndpointResponse<>(info);
+    }
+
+    private static Recording find(long id) {
+        if (!FlightRecorder.isAvailable()) return null;
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (r.getId() == id) return r;
+        }
+        return null;
+    }
+
+    private static RecordingInfo info(Recording r) {
+        Duration d = r.getDuration();
+        return new RecordingInfo(r.getId(), r.getName(), r.getState().name(), r.getStartTime(),
+                d != null ? d.toSeconds() : null, r.getSize(),
+                r.getSettings().getOrDefault(EVENT_PREFIX + STEP_BATCH + "#enabled", "false").equals("true"));
+    }
+
+    // dumpTtl보다 오래된 덤프 파일 정리 (다운로드가 끝났는지 알 수 없으므로 시간 기준)
+    private void purgeOldDumps() throws IOException {
+        Instant cutoff = Instant.now().minus(dumpTtl);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "depag-*.jfr")) {
+            for (Path f : files) {
+                try {
+                    if (Files.getLastModifiedTime(f).toInstant().isBefore(cutoff)) Files.deleteIfExists(f);
+                } catch (IOException e) {
+                    log.warn("failed to delete old JFR dump {}: {}", f, e.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.zzjj.depaganalyzer.service.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 시뮬 잡 수명주기 JFR 커스텀 이벤트 (JDK Mission Control의 "Depag Analyzer / Simulation" 카테고리).
+ *
+ * - 녹화가 없으면 isEnabled()/shouldCommit()이 상수 false로 JIT되어 비용이 사실상 0
+ * - 잡당 몇 번 안 나는 이벤트(queued/run/checkpoint/metrics/persisted/scenario)는 기본 활성
+ * - StepBatch는 스텝 루프 안의 단계별 타이밍이라 기본 비활성 (녹화 시 명시적으로 켤 때만)
+ * - 스택트레이스는 끈다: 위치는 이벤트 종류로 이미 알 수 있고 수집 비용만 든다
+ */
+public final class SimulationEvents {
+    private SimulationEvents() {}
+
+    @Name("com.zzjj.depaganalyzer.SimulationQueued")
+    @Label("Simulation Queued")
+    @Description("Simulation job accepted and handed to the job pool")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    public static final class Queued extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Client Id") public String clientId;
+        @Label("Model Type") public String modelType;
+        @Label("Steps") public int steps;
+        @Label("Retention") public String retention;
+    }
+
+    /** 풀 스레드가 잡을 잡은 시점부터 결과 저장까지 (duration = 실행 시간, queueDelay = 큐 대기) */
+    @Name("com.zzjj.depaganalyzer.SimulationRun")
+    @Label("Simulation Run")
+    @Description("Simulation job execution from start to persisted result")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    public static final class Run extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Model Type") public String modelType;
+        @Label("Steps") public int steps;
+        @Label("Status") public String status;
+        @Label("Queue Delay") @Timespan(Timespan.MILLISECONDS) public long queueDelay;
+        @Label("CPU Time") @Timespan(Timespan.NANOSECONDS) public long cpuTime;
+        @Label("Allocated") @DataAmount public long allocated;
+        @Label("Result Size") @DataAmount public long resultBytes;
+    }
+
+    @Name("com.zzjj.depaganalyzer.ScenarioFired")
+    @Label("Scenario Fired")
+    @Description("Scheduled scenario events applied at one step")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    public static final class ScenarioFired extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Step") public int step;
+        @Label("Count") public int count;
+        @Label("Operations") public String ops;
+    }
+
+    /** 진행률 저장(store.put) 구간: 잡 저장소 경합이 의심될 때 */
+    @Name("com.zzjj.depaganalyzer.SimulationCheckpoint")
+    @Label("Simulation Checkpoint")
+    @Description("Progress status written to the job store")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    public static final class Checkpoint extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Step") public int step;
+        @Label("Progress") public double progress;
+    }
+
+    @Name("com.zzjj.depaganalyzer.SimulationMetrics")
+    @Label("Simulation Metrics Computed")
+    @Description("Final risk metrics and replay report assembled")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    public static final class MetricsComputed extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Steps") public int steps;
+    }
+
+    @Name("com.zzjj.depaganalyzer.SimulationPersisted")
+    @Label("Simulation Persisted")
+    @Description("Result size estimated and stored")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    public static final class Persisted extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Status") public String status;
+        @Label("Result Size") @DataAmount public long resultBytes;
+    }
+
+    /**
+     * StepPhaseTracer.BATCH 스텝 묶음 하나의 단계별 누적 시간 (duration = 묶음 전체).
+     * 단계 합과 duration의 차이는 루프 자체/타이머 오버헤드.
+     */
+    @Name("com.zzjj.depaganalyzer.SimulationStepBatch")
+    @Label("Simulation Step Batch")
+    @Description("Per-phase time spent in a batch of simulation steps (opt-in, adds a timer read per phase)")
+    @Category({"Depag Analyzer", "Simulation"})
+    @StackTrace(false)
+    @Enabled(false)
+    public static final class StepBatch extends Event {
+        @Label("Job Id") public String jobId;
+        @Label("Model Type") public String modelType;
+        @Label("From Step") public int fromStep;
+        @Label("To Step") public int toStep;
+        @Label("Replay Read") @Timespan(Timespan.NANOSECONDS) public long replay;
+        @Label("Scenario") @Timespan(Timespan.NANOSECONDS) public long scenario;
+        @Label("RNG") @Timespan(Timespan.NANOSECONDS) public long rng;
+        @Label("Model Advance") @Timespan(Timespan.NANOSECONDS) public long model;
+        @Label("Metrics") @Timespan(Timespan.NANOSECONDS) public long metrics;
+        @Label("Series Append") @Timespan(Timespan.NANOSECONDS) public long series;
+        @Label("Progress Store") @Timespan(Timespan.NANOSECONDS) public long progress;
+        @Label("Pacing Sleep") @Timespan(Timespan.NANOSECONDS) public long pacing;
+    }
+}
@@ -0,0 +1,64 @@
+package com.zzjj.depaganalyzer.service.trace;
+
+/**
+ * 스텝 루프 단계별 시간 누적기 → BATCH 스텝마다 StepBatch 이벤트 하나로 커밋.
+ *
+ * - 배치 경계에서 startIfEnabled()가 이벤트 활성 여부를 한 번 보고, 꺼져 있으면 null을 돌려준다
+ *   → 루프는 단계마다 `if (trace != null)` 분기만 남아 녹화가 없을 때 비용이 사실상 0
+ * - 켜져 있으면 mark(phase)가 직전 mark 이후 경과 시간을 그 단계에 더한다 (nanoTime 1회)
+ * - 스레드 하나(잡 스레드)에서만 쓴다
+ */
+public final class StepPhaseTracer {
+
+    /** 배치 크기 (2의 거듭제곱: 경계 판정을 비트 연산으로) */
+    public static final int BATCH = 4096;
+
+    public enum Phase { REPLAY, SCENARIO, RNG, MODEL, METRICS, SERIES, PROGRESS, PACING }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final SimulationEvents.StepBatch event;
+    private final long[] nanos = new long[PHASES.length];
+    private long last;
+
+    private StepPhaseTracer(SimulationEvents.StepBatch event) {
+        this.event = event;
+    }
+
+    /** 스텝 from에서 시작하는 배치 추적 (StepBatch 이벤트가 꺼져 있으면 null) */
+    public static StepPhaseTracer startIfEnabled(String jobId, String modelType, int fromStep) {
+        SimulationEvents.StepBatch e = new SimulationEvents.StepBatch();
+        if (!e.isEnabled()) return null;
+        e.jobId = jobId;
+        e.modelType = modelType;
+        e.fromStep = fromStep;
+        e.begin();
+        StepPhaseTracer t = new StepPhaseTracer(e);
+        t.last = System.nanoTime();
+        return t;
+    }
+
+    /** 직전 mark 이후 시간을 phase에 누적 */
+    public void mark(Phase phase) {
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - last;
+        last = now;
+    }
+
+    /** 스텝 [from, to) 배치 종료 */
+    public void commit(int toStep) {
+        SimulationEvents.StepBatch e = event;
+        e.end();
+        if (!e.shouldCommit()) return;
+        e.toStep = toStep;
+        e.replay = nanos[Phase.REPLAY.ordinal()];
+        e.scenario = nanos[Phase.SCENARIO.ordinal()];
+        e.rng = nanos[Phase.RNG.ordinal()];
+        e.model = nanos[Phase.MODEL.ordinal()];
+        e.metrics = nanos[Phase.METRICS.ordinal()];
+        e.series = nanos[Phase.SERIES.ordinal()];
+        e.progress = nanos[Phase.PROGRESS.ordinal()];
+        e.pacing = nanos[Phase.PACING.ordinal()];
+        e.commit();
+    }
+}
@@ -0,0 +1,172 @@
+package com.zzjj.depaganalyzer.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기동 비교 벤치마크 (./gradlew fastStartBench).
+ *
+ * 추출된 앱 jar(build/faststart)를 자식 JVM으로 두 번 띄워 비교한다.
+ * - default   : 기본 프로파일, CDS 아카이브 없음
+ * - faststart : faststart 프로파일(미룬 빈 + 워밍업) + -XX:SharedArchiveFile (아카이브가 있으면)
+ * ─ 측정 ─
+ * - first response : 프로세스 시작 → /actuator/health/readiness가 처음 응답 (포트가 열린 시점)
+ * - ready          : 프로세스 시작 → readiness 200 (로드밸런서가 트래픽을 보내기 시작하는 시점 = time-to-first-request)
+ * - first N jobs   : 준비 직후 REST로 잡 N개를 순차 제출/완료 대기한 지연 (첫 잡, p50, p95, 최대)
+ * 두 실행 모두 쿼터/속도 제한은 끄고 probes는 켠다 (순차 100건이 429에 막히지 않게, 같은 준비 판정 기준).
+ * 자식 로그는 bench.logs/faststart-{이름}.log.
+ */
+public final class FastStartBench {
+
+    private static final long START_TIMEOUT_MS = 180_000;
+    private static final double ENGINE_DT = 0.5;
+
+    private FastStartBench() {}
+
+    private record Launch(String name, List<String> jvmArgs, List<String> appArgs) {}
+
+    private record Result(String name, long firstResponseMs, long readyMs, double firstJobMs,
+                          double p50Ms, double p95Ms, double maxMs, double totalMs, int failed) {}
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("bench.java", "java");
+        File jar = new File(System.getProperty("bench.jar", "build/faststart/depaganalyzer-0.0.1-SNAPSHOT.jar"));
+        File archive = new File(System.getProperty("bench.archive", "build/faststart/application.jsa"));
+        File logs = new File(System.getProperty("bench.logs", "build/reports/perf"));
+        int jobs = Integer.parseInt(System.getProperty("bench.jobs", "100"));
+        int steps = Integer.parseInt(System.getProperty("bench.steps", "10000"));
+        if (!jar.isFile()) throw new IllegalStateException("app jar not found: " + jar + " (run ./gradlew extractBootJar)");
+        if (!archive.isFile()) System.out.println("[bench] no CDS archive at " + archive + " (faststart runs without it)");
+        logs.mkdirs();
+
+        List<String> faststartJvm = archive.isFile()
+                ? List.of("-XX:SharedArchiveFile=" + archive.getAbsolutePath())
+                : List.of();
+        List<Launch> launches = List.of(
+                new Launch("default", List.of(), List.of()),
+                new Launch("faststart", faststartJvm, List.of("--spring.profiles.active=faststart")));
+
+        List<Result> results = new ArrayList<>();
+        for (Launch l : launches) {
+            results.add(run(java, jar, logs, l, jobs, steps));
+        }
+
+        System.out.printf("%n%-10s %12s %10s %12s %9s %9s %9s %10s %6s%n",
+                "launch", "1st resp ms", "ready ms", "1st job ms", "p50 ms", "p95 ms", "max ms", "total ms", "failed");
+        for (Result r : results) {
+            System.out.printf("%-10s %12d %10d %12.1f %9.1f %9.1f %9.1f %10.0f %6d%n",
+                    r.name(), r.firstResponseMs(), r.readyMs(), r.firstJobMs(),
+                    r.p50Ms(), r.p95Ms(), r.maxMs(), r.totalMs(), r.failed());
+        }
+        System.out.println("[bench] first " + jobs + " jobs of " + steps + " steps (METRICS_ONLY, REST, sequential), processors="
+                + Runtime.getRuntime().availableProcessors());
+        System.exit(results.stream().allMatch(r -> r.failed() == 0) ? 0 : 1);
+    }
+
+    private static Result run(String java, File jar, File logs, Launch l, int jobs, int steps) throws Exception {
+        int port = freePort();
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java);
+        cmd.add("--enable-preview");
+        cmd.addAll(l.jvmArgs());
+        cmd.addAll(List.of("-jar", jar.getAbsolutePath(),
+                "--server.port=" + port,
+                "--stabilisim.quota.enabled=false",
+                "--stabilisim.ratelimit.enabled=false",
+                "--management.endpoint.health.probes.enabled=true"));
+        cmd.addAll(l.appArgs());
+
+        File log = new File(logs, "faststart-" + l.name() + ".log");
+        System.out.println("[bench] " + l.name() + ": " + String.join(" ", cmd));
+        Process p = new ProcessBuilder(cmd)
+                .directory(jar.getParentFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        long start = System.nanoTime();
+        try {
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+            URI readiness = URI.create("http://localhost:" + port + "/actuator/health/readiness");
+            long firstResponse = -1, ready = -1;
+            while (ready < 0) {
+                if (!p.isAlive()) throw new IllegalStateException(l.name() + " exited with " + p.exitValue() + ", see " + log);
+                if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) > START_TIMEOUT_MS) {
+                    throw new IllegalStateException(l.name() + " not ready after " + START_TIMEOUT_MS + " ms, see " + log);
+                }
+                try {
+                    int status = http.send(HttpRequest.newBuilder(readiness).timeout(Duration.ofSeconds(2)).GET().build(),
+                            HttpResponse.BodyHandlers.discarding()).statusCode();
+                    long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (firstResponse < 0) firstResponse = now;
+                    if (status == 200) ready = now;
+                } catch (IOException notYet) {
+                    // 포트가 아직 안 열림
+                }
+                if (ready < 0) Thread.sleep(10);
+            }
+
+            JobDriver driver = new JobDriver.Rest(port, new ObjectMapper().findAndRegisterModules());
+            double[] latency = new double[jobs];
+            int failed = 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < jobs; i++) {
+                long s = System.nanoTime();
+                String status;
+                try {
+                    String id = driver.submit(new JobDriver.Submission(JobDriver.Kind.SIMULATION, request(steps, i), steps));
+                    while (!JobDriver.done(status = driver.status(id))) Thread.sleep(driver.pollMillis());
+                } catch (Exception e) {
+                    System.out.println("[bench] " + l.name() + " job " + i + " failed: " + e.getMessage());
+                    status = "FAILED";
+                }
+                if (!"FINISHED".equals(status)) failed++;
+                latency[i] = (System.nanoTime() - s) / 1e6;
+            }
+            double total = (System.nanoTime() - t0) / 1e6;
+            double first = jobs > 0 ? latency[0] : 0;
+            Arrays.sort(latency);
+            return new Result(l.name(), firstResponse, ready, first,
+                    pct(latency, 0.50), pct(latency, 0.95), jobs > 0 ? latency[jobs - 1] : 0, total, failed);
+        } finally {
+            p.destroy();
+            if (!p.waitFor(30, TimeUnit.SECONDS)) p.destroyForcibly();
+        }
+    }
+
+    // SimulationPerfSuite의 엔진 측정용 요청과 같은 모양 (시드만 잡마다 다르게)
+    private static SimulationRequest request(int steps, int i) {
+        return new SimulationRequest(
+                SimModelType.RESERVE, steps, ENGINE_DT, 1000 + i,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0),
+                List.of(new Scenario(steps / 2, Scenario.ScenarioType.REDEEM_SHOCK, 0.1)),
+                null, null,
+                new SimulationRequest.Retention(SimulationRequest.Retention.Mode.METRICS_ONLY, null));
+    }
+
+    private static double pct(double[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(q * sorted.length))];
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.zzjj.depaganalyzer.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.BatchResult;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleResult;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.dto.sim.SimulationStatus;
+import com.zzjj.depaganalyzer.service.SimulationsService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 부하 스위트가 잡을 넣고 상태를 조회하는 경로.
+ * - service : SimulationsService 빈을 직접 호출 (직렬화/HTTP 비용 없이 엔진 + 잡 풀만 측정)
+ * - rest    : /api/simulations 를 HttpClient로 호출 (JSON 직렬화, 검증, 톰캣 스레드까지 포함)
+ */
+interface JobDriver {
+
+    /** 잡 종류 (REST 경로와 서비스 메서드 선택용) */
+    enum Kind { SIMULATION, ENSEMBLE, BATCH }
+
+    /** 제출할 요청 하나. steps = 이 잡이 실제로 도는 총 스텝 수 (앙상블/배치는 steps × 경로 수) */
+    record Submission(Kind kind, Object body, long steps) {}
+
+    String name();
+
+    /** 잡 생성 → id */
+    String submit(Submission s) throws Exception;
+
+    /** QUEUED / RUNNING / FINISHED / FAILED */
+    String status(String id) throws Exception;
+
+    /** 상태 폴링 간격 (REST는 서버를 두드리는 비용이 측정에 섞이지 않게 조금 길게) */
+    long pollMillis();
+
+    static boolean done(String status) {
+        return "FINISHED".equals(status) || "FAILED".equals(status);
+    }
+
+    final class Service implements JobDriver {
+        private final SimulationsService sims;
+
+        Service(SimulationsService sims) {
+            this.sims = sims;
+        }
+
+        @Override public String name() { return "service"; }
+
+        @Override
+        public String submit(Submission s) {
+            return switch (s.kind()) {
+                case SIMULATION -> sims.createSimulation((SimulationRequest) s.body()).id();
+                case ENSEMBLE -> sims.createEnsemble((EnsembleRequest) s.body()).id();
+                case BATCH -> sims.createBatch((BatchRequest) s.body()).id();
+            };
+        }
+
+        @Override
+        public String status(String id) {
+            return switch (sims.getSimulation(id)) {
+                case SimulationStatus st -> st.status().name();
+                case BatchResult b -> b.status().name();
+                case SimulationResult r -> r.status().name();
+                case EnsembleResult e -> e.status().name();
+                case SensitivityResult r -> r.status().name();
+                default -> "FAILED";
+            };
+        }
+
+        @Override public long pollMillis() { return 1; }
+    }
+
+    final class Rest implements JobDriver {
+        private final HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private final String base;
+        private final ObjectMapper mapper;
+
+        Rest(int port, ObjectMapper mapper) {
+            this.base = "http://localhost:" + port + "/api/simulations";
+            this.mapper = mapper;
+        }
+
+        @Override public String name() { return "rest"; }
+
+        @Override
+        public String submit(Submission s) throws Exception {
+            String path = switch (s.kind()) {
+                case SIMULATION -> "";
+                case ENSEMBLE -> "/ensemble";
+                case BATCH -> "/batch";
+            };
+            HttpRequest req = HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(s.body())))
+                    .build();
+            HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+            if (res.statusCode() != 202) {
+                throw new IllegalStateException("POST " + path + " -> " + res.statusCode() + ": " + res.body());
+            }
+            return mapper.readTree(res.body()).path("id").asText();
+        }
+
+        @Override
+        public String status(String id) throws Exception {
+            HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build();
+            HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+            if (res.statusCode() != 200) {
+                throw new IllegalStateException("GET " + id + " -> " + res.statusCode());
+            }
+            return mapper.readTree(res.body()).path("status").asText();
+        }
+
+        @Override public long pollMillis() { return 5; }
+    }
+}
@@ -0,0 +1,94 @@
+package com.zzjj.depaganalyzer.perf;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 성능 스위트 결과 (build/reports/perf/simulation-perf.json 으로 직렬화, 기준선 파일도 같은 형식).
+ *
+ * @param cells       측정 셀 (name이 기준선과의 매칭 키)
+ * @param regressions 기준선 대비 회귀 + 절대 한도(요구사항) 위반 + 실패한 잡. 비어 있지 않으면 태스크 실패
+ */
+record PerfReport(
+        Instant generatedAt,
+        Env env,
+        List<Cell> cells,
+        List<String> regressions
+) {
+    record Env(String javaVersion, int processors, long maxHeapMb, boolean quick) {}
+
+    /**
+     * 측정 셀 하나 = (드라이버, 워크로드, 스텝 수, 동시 제출자 수) 조합.
+     *
+     * @param steps      잡 하나의 시뮬 스텝 수 (혼합 워크로드는 0)
+     * @param jobs       완료된 잡 수 (실패 포함)
+     * @param wallMs     첫 제출부터 마지막 완료까지
+     * @param stepsPerSec 완료된 잡들의 총 스텝 / wall (앙상블/배치는 경로 수까지 곱한 값)
+     * @param limitMs    절대 한도 (요구사항 검사 셀만, 초과 시 기준선과 무관하게 회귀)
+     */
+    record Cell(
+            String name,
+            String driver,
+            String workload,
+            int steps,
+            int concurrency,
+            int jobs,
+            int failed,
+            String retention,
+            double wallMs,
+            double jobsPerSec,
+            double stepsPerSec,
+            Latency latencyMs,
+            Heap heap,
+            Gc gc,
+            Double limitMs
+    ) {}
+
+    /** 제출 → FINISHED/FAILED 관측까지의 지연 분위수 (ms, 큐 대기 포함) */
+    record Latency(double p50, double p90, double p95, double p99, double max) {}
+
+    /**
+     * @param usedBeforeMb 셀 시작 직전 (System.gc() 후) 힙 사용량
+     * @param usedAfterMb  셀 종료 직후 힙 사용량 (저장소에 남은 결과 포함)
+     * @param peakMb       셀 동안 힙 풀별 최대 사용량의 합 (풀마다 시점이 달라 상한 근사)
+     */
+    record Heap(double usedBeforeMb, double usedAfterMb, double peakMb) {}
+
+    record Gc(long count, long timeMs) {}
+
+    // p95 회귀 판정에서 무시할 절대 차이 (ms): 짧은 잡은 폴링 간격/스케줄링 잡음이 상대 오차를 키운다
+    private static final double LATENCY_NOISE_FLOOR_MS = 10.0;
+
+    /**
+     * 기준선과 비교: 같은 name의 셀끼리만 비교 (quick 모드나 셀 추가/삭제에도 동작).
+     * - steps/sec 가 기준선의 (1 - tolerance) 미만
+     * - p95 지연이 기준선의 (1 + tolerance) 초과 (그리고 차이가 잡음 하한 이상)
+     */
+    static List<String> compare(PerfReport current, PerfReport baseline, double tolerance) {
+        Map<String, Cell> base = baseline.cells().stream()
+                .collect(Collectors.toMap(Cell::name, Function.identity(), (a, b) -> a));
+        List<String> out = new ArrayList<>();
+        for (Cell c : current.cells()) {
+            Cell b = base.get(c.name());
+            if (b == null) continue;
+            if (c.stepsPerSec() < b.stepsPerSec() * (1 - tolerance)) {
+                out.add(String.format("%s: steps/sec %.3g < baseline %.3g (%+.1f%%)",
+                        c.name(), c.stepsPerSec(), b.stepsPerSec(), pct(c.stepsPerSec(), b.stepsPerSec())));
+            }
+            double p95 = c.latencyMs().p95(), bp95 = b.latencyMs().p95();
+            if (p95 > bp95 * (1 + tolerance) && p95 - bp95 >= LATENCY_NOISE_FLOOR_MS) {
+                out.add(String.format("%s: p95 %.1fms > baseline %.1fms (%+.1f%%)",
+                        c.name(), p95, bp95, pct(p95, bp95)));
+            }
+        }
+        return out;
+    }
+
+    private static double pct(double now, double before) {
+        return before == 0 ? 0 : (now - before) / before * 100;
+    }
+}
@@ -0,0 +1,173 @@
+package com.zzjj.depaganalyzer.perf;
+
+import com.zzjj.depaganalyzer.service.ratelimit.GcraRateLimiter;
+import com.zzjj.depaganalyzer.service.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.server.PathContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 속도 제한기 경합 벤치마크 (./gradlew rateLimitBench).
+ *
+ * 인터셉터와 같은 요청 흐름(규칙 찾기 + 클라이언트 버킷 차감)을 스레드 1 → 64에서 돌려 호출당 지연/처리량을 잰다.
+ * ─ 시나리오 ─
+ * - hot    : 모든 스레드가 클라이언트 하나 (같은 버킷에 CAS 경합, 최악의 경우)
+ * - spread : 클라이언트 4096개에 고르게 (조각별 맵 읽기 경로)
+ * - reject : 한도를 이미 다 쓴 클라이언트 하나 (429 경로: CAS 없이 읽기만)
+ * ─ 비교 대상 ─
+ * - gcra   : GcraRateLimiter (잠금 없는 CAS)
+ * - locked : 같은 토큰 버킷을 ConcurrentHashMap.compute(키 잠금) 안에서 갱신하는 구현 (ClientQuotas 방식, 규칙 찾기 없이 차감만)
+ *
+ * 지연은 16번째 호출마다 nanoTime으로 잰 표본의 분위수. bench.maxP99Nanos를 넘는 gcra 셀이 있으면 종료 코드 1.
+ * 결과는 실행한 머신의 코어 수에 크게 좌우된다 (마지막 줄의 processors와 함께 볼 것).
+ */
+public final class RateLimiterBench {
+
+    private static final int SAMPLE_EVERY = 16;
+    private static final int MAX_SAMPLES_PER_THREAD = 1 << 18;
+    private static final int SPREAD_CLIENTS = 4096;
+
+    private RateLimiterBench() {}
+
+    /** 벤치 대상: 요청 하나 처리 = 규칙 찾기 + 차감. 0이면 통과 */
+    private interface Admission {
+        long admit(String client);
+    }
+
+    public static void main(String[] args) throws Exception {
+        double seconds = Double.parseDouble(System.getProperty("bench.seconds", "2"));
+        long maxP99 = Long.parseLong(System.getProperty("bench.maxP99Nanos", "20000"));
+        int[] threadsGrid = {1, 4, 16, 64};
+
+        String[] clients = new String[SPREAD_CLIENTS];
+        for (int i = 0; i < clients.length; i++) clients[i] = "client-" + i;
+
+        List<String> failures = new ArrayList<>();
+        System.out.printf("%-8s %-7s %7s %14s %9s %9s %9s%n", "impl", "case", "threads", "ops/s", "p50 ns", "p99 ns", "p99.9 ns");
+        for (String scenario : new String[]{"hot", "spread", "reject"}) {
+            boolean reject = scenario.equals("reject");
+            // reject: 초당 1토큰/버스트 1을 먼저 다 써 둔다. 그 외: 사실상 무제한 (통과 경로를 잰다)
+            double perSecond = reject ? 1 : 1e9;
+            int burst = reject ? 1 : 1_000_000;
+            for (String impl : new String[]{"gcra", "locked"}) {
+                for (int threads : threadsGrid) {
+                    Admission a = impl.equals("gcra") ? gcra(perSecond, burst) : locked(perSecond, burst);
+                    if (reject) a.admit("hot");
+                    run(a, scenario, clients, threads, 0.5); // 워밍업
+                    var r = run(a, scenario, clients, threads, seconds);
+                    System.out.printf("%-8s %-7s %7d %14.0f %9d %9d %9d%n",
+                            impl, scenario, threads, r.opsPerSec, r.p50, r.p99, r.p999);
+                    if (impl.equals("gcra") && r.p99 > maxP99) {
+                        failures.add(scenario + "/" + threads + " threads: p99 " + r.p99 + "ns > " + maxP99 + "ns");
+                    }
+                }
+            }
+        }
+        System.out.println("[bench] processors=" + Runtime.getRuntime().availableProcessors()
+                + " (스레드 수가 코어 수보다 많으면 지연 표본에 선점 대기가 섞인다)");
+        failures.forEach(f -> System.out.println("[bench] SLOW " + f));
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private static Admission gcra(double perSecond, int burst) {
+        var limiter = new GcraRateLimiter(new RateLimitProperties(true, 0, Duration.ofMinutes(10), null, List.of(
+                new RateLimitProperties.Rule("metrics", "GET", "/api/assets/**", perSecond, burst, null))),
+                new SimpleMeterRegistry());
+        // 요청 경로는 핸들러 매핑이 한 번 파싱해 둔 것을 인터셉터가 재사용하므로 여기서도 미리 파싱
+        var path = PathContainer.parsePath("/api/assets/USDT/metrics");
+        return client -> limiter.acquire(limiter.match("GET", path), client, 1);
+    }
+
+    // 비교용: 키 잠금 안에서 (토큰, 마지막 갱신) 두 값을 고치는 고전적 토큰 버킷
+    private static Admission locked(double perSecond, int burst) {
+        var buckets = new ConcurrentHashMap<String, double[]>();
+        return client -> {
+            long[] wait = {0};
+            buckets.compute(client, (k, b) -> {
+                long now = System.nanoTime();
+                if (b == null) b = new double[]{burst, now};
+                b[0] = Math.min(burst, b[0] + (now - b[1]) * perSecond / 1e9);
+                b[1] = now;
+                if (b[0] >= 1) b[0] -= 1;
+                else wait[0] = (long) ((1 - b[0]) * 1e9 / perSecond);
+                return b;
+            });
+            return wait[0];
+        };
+    }
+
+    private record Result(double opsPerSec, long p50, long p99, long p999) {}
+
+    private static Result run(Admission a, String scenario, String[] clients, int threads, double seconds)
+            throws InterruptedException {
+        var stop = new AtomicBoolean();
+        var ready = new CountDownLatch(threads);
+        var go = new CountDownLatch(1);
+        long[] ops = new long[threads];
+        long[][] samples = new long[threads][];
+        int[] sampleCount = new int[threads];
+        boolean spread = scenario.equals("spread");
+
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            int id = w;
+            Thread t = new Thread(() -> {
+                long[] s = new long[MAX_SAMPLES_PER_THREAD];
+                int n = 0, k = id * 7919;
+                long count = 0, sink = 0;
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!stop.get()) {
+                    String client = spread ? clients[(k++) & (SPREAD_CLIENTS - 1)] : "hot";
+                    if ((count & (SAMPLE_EVERY - 1)) == 0 && n < s.length) {
+                        long t0 = System.nanoTime();
+                        sink += a.admit(client);
+                        s[n++] = System.nanoTime() - t0;
+                    } else {
+                        sink += a.admit(client);
+                    }
+                    count++;
+                }
+                ops[id] = count + (sink == 42 ? 1 : 0); // sink를 써서 호출이 제거되지 않게
+                samples[id] = s;
+                sampleCount[id] = n;
+            });
+            t.start();
+            workers.add(t);
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        TimeUnit.MILLISECONDS.sleep((long) (seconds * 1000));
+        stop.set(true);
+        for (Thread t : workers) t.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        int total = Arrays.stream(sampleCount).sum();
+        long[] all = new long[total];
+        int p = 0;
+        for (int w = 0; w < threads; w++) {
+            System.arraycopy(samples[w], 0, all, p, sampleCount[w]);
+            p += sampleCount[w];
+        }
+        Arrays.sort(all);
+        return new Result(Arrays.stream(ops).sum() / elapsed, pct(all, 0.50), pct(all, 0.99), pct(all, 0.999));
+    }
+
+    private static long pct(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(q * sorted.length))];
+    }
+}
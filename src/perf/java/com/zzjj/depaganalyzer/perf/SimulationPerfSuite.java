@@ -0,0 +1,215 @@
+package com.zzjj.depaganalyzer.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.DepaganalyzerApplication;
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest.Retention.Mode;
+import com.zzjj.depaganalyzer.service.SimulationsService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 시뮬 처리량/지연 회귀 스위트 (./gradlew perfTest).
+ *
+ * 앱을 같은 JVM에 띄우고(server.port=0, 수집기/쿼터 비활성) 서비스 계층과 REST 계층에 워크로드를 건다.
+ * ─ 워크로드 ─
+ * - scaling   : steps 1k → 1M × 동시 제출자 1 → 64 (service, METRICS_ONLY: 결과 보관 비용 없이 엔진 + 잡 풀 처리량)
+ * - rest      : 같은 스텝 수를 REST로 1 → 64 동시 (직렬화/검증/톰캣 비용 포함)
+ * - mixed     : 작은/큰 steps와 보관 모드를 섞은 요청을 16개 제출자가 동시에 (REST)
+ * - ensemble / batch : 경로 수백 개짜리 앙상블·분산 배치를 동시에 몰아넣는 버스트 (REST)
+ * - retention : 1M 스텝 FULL vs METRICS_ONLY 힙 비교 (저장소가 결과를 계속 들고 있으므로 맨 뒤에 실행)
+ * - requirement : 요구사항 §5.1 "10만 스텝 시뮬레이션 5분 이내" (REST, 문서 예시 그대로 dt=1 → 스텝당 데모 sleep 포함)
+ *
+ * 엔진 측정용 요청은 dt=0.5를 쓴다: SimulationServiceImpl은 dt ≥ 1(또는 0)이면 스텝마다 1~2ms sleep하므로
+ * 그대로 두면 처리량이 sleep 시간만 재게 된다.
+ *
+ * ─ 결과 ─
+ * - perf.report 경로에 JSON 리포트 (PerfReport)
+ * - perf.baseline 파일과 같은 이름의 셀끼리 비교해 perf.tolerance 이상 나빠지면 회귀
+ * - 회귀/요구사항 위반/실패한 잡이 있으면 종료 코드 1 (perf.updateBaseline=true면 기준선만 갱신하고 비교는 생략)
+ * - 기준선 파일이 없으면 스위트를 돌리기 전에 종료 코드 1 (기준선 없이 통과하면 회귀 검사가 조용히 꺼진 셈이므로).
+ *   처음 한 번은 perf.updateBaseline=true로 기록해 커밋할 것
+ */
+public final class SimulationPerfSuite {
+
+    private static final double ENGINE_DT = 0.5;
+    private static final long TARGET_STEPS_PER_CELL = 8_000_000L; // 셀당 총 스텝 목표 (작은 잡은 여러 번 돌려 분위수 표본 확보)
+    private static final int MAX_JOBS_PER_SUBMITTER = 20;
+    private static final double REQUIREMENT_LIMIT_MS = 5 * 60 * 1000.0;
+
+    private SimulationPerfSuite() {}
+
+    public static void main(String[] args) throws Exception {
+        File reportFile = new File(System.getProperty("perf.report", "build/reports/perf/simulation-perf.json"));
+        File baselineFile = new File(System.getProperty("perf.baseline", "src/perf/baseline/simulation-perf.json"));
+        double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.30"));
+        boolean quick = Boolean.parseBoolean(System.getProperty("perf.quick", "false"));
+        boolean updateBaseline = Boolean.parseBoolean(System.getProperty("perf.updateBaseline", "false"));
+        if (!updateBaseline && !baselineFile.isFile()) {
+            System.out.println("[perf] FAILED: no baseline at " + baselineFile
+                    + " (record one on the reference machine with -Pperf.updateBaseline=true and commit it)");
+            System.exit(1);
+        }
+
+        int exit;
+        try (ConfigurableApplicationContext ctx = SpringApplication.run(DepaganalyzerApplication.class,
+                "--server.port=0",
+                "--stabilisim.ingest.enabled=false",
+                "--stabilisim.alert.enabled=false",
+                "--stabilisim.quota.enabled=false", // 64 동시 제출이 클라이언트 쿼터(429)에 막히지 않게
+                "--stabilisim.ratelimit.enabled=false", // 같은 이유로 속도 제한(429)도 끈다
+                "--logging.level.root=WARN")) {
+            ObjectMapper mapper = ctx.getBean(ObjectMapper.class);
+            int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+            JobDriver service = new JobDriver.Service(ctx.getBean(SimulationsService.class));
+            JobDriver rest = new JobDriver.Rest(port, mapper);
+
+            List<PerfReport.Cell> cells = runAll(service, rest, quick);
+
+            List<String> regressions = new ArrayList<>();
+            for (PerfReport.Cell c : cells) {
+                if (c.failed() > 0) regressions.add(c.name() + ": " + c.failed() + "/" + c.jobs() + " jobs failed");
+                if (c.limitMs() != null && c.wallMs() > c.limitMs()) {
+                    regressions.add(String.format("%s: %.1fs exceeds limit %.0fs", c.name(), c.wallMs() / 1000, c.limitMs() / 1000));
+                }
+            }
+            PerfReport report = new PerfReport(Instant.now(),
+                    new PerfReport.Env(System.getProperty("java.version"), Runtime.getRuntime().availableProcessors(),
+                            Runtime.getRuntime().maxMemory() / (1024 * 1024), quick),
+                    cells, regressions);
+
+            if (updateBaseline) {
+                write(mapper, baselineFile, report);
+                System.out.println("[perf] baseline updated: " + baselineFile);
+            } else {
+                regressions.addAll(PerfReport.compare(report, mapper.readValue(baselineFile, PerfReport.class), tolerance));
+            }
+            write(mapper, reportFile, report);
+
+            print(cells);
+            System.out.println("[perf] report: " + reportFile);
+            regressions.forEach(r -> System.out.println("[perf] REGRESSION " + r));
+            exit = regressions.isEmpty() ? 0 : 1;
+        }
+        System.exit(exit);
+    }
+
+    private static List<PerfReport.Cell> runAll(JobDriver service, JobDriver rest, boolean quick) throws InterruptedException {
+        int[] stepsGrid = quick ? new int[]{1_000, 10_000, 100_000} : new int[]{1_000, 10_000, 100_000, 1_000_000};
+        int[] concurrencyGrid = quick ? new int[]{1, 4, 16} : new int[]{1, 4, 16, 64};
+        List<PerfReport.Cell> cells = new ArrayList<>();
+
+        // 워밍업 (JIT, 잡 풀 스레드, 톰캣 커넥션) — 기록하지 않음
+        WorkloadRunner.run(service, "warmup", 10_000, null, 4, 5, null, i -> simulation(10_000, ENGINE_DT, i, Mode.METRICS_ONLY));
+        WorkloadRunner.run(rest, "warmup", 1_000, null, 4, 5, null, i -> simulation(1_000, ENGINE_DT, i, Mode.FULL));
+
+        for (int steps : stepsGrid) {
+            for (int c : concurrencyGrid) {
+                cells.add(log(WorkloadRunner.run(service, "scaling", steps, "METRICS_ONLY", c, jobsPerSubmitter(steps, c), null,
+                        i -> simulation(steps, ENGINE_DT, i, Mode.METRICS_ONLY))));
+            }
+        }
+        for (int c : concurrencyGrid) {
+            cells.add(log(WorkloadRunner.run(rest, "scaling", 10_000, "METRICS_ONLY", c, jobsPerSubmitter(10_000, c), null,
+                    i -> simulation(10_000, ENGINE_DT, i, Mode.METRICS_ONLY))));
+        }
+
+        // 혼합: 작은 잡이 많고 큰 잡이 드문 분포 (1k:10k:100k:1M = 4:3:2:1, 1M은 quick에서 100k로 대체)
+        int largest = stepsGrid[stepsGrid.length - 1];
+        cells.add(log(WorkloadRunner.run(rest, "mixed", 0, null, 16, 8, null, i -> mixed(i, largest))));
+
+        // 앙상블/배치 버스트: 도달 불가능한 목표로 maxPaths를 끝까지 돌게 해 경로 수를 고정
+        int burstSteps = quick ? 2_000 : 10_000, paths = quick ? 64 : 256;
+        cells.add(log(WorkloadRunner.run(rest, "ensemble", burstSteps, null, 8, 1, null, i -> new JobDriver.Submission(
+                JobDriver.Kind.ENSEMBLE,
+                new EnsembleRequest(base(burstSteps, ENGINE_DT, i, Mode.METRICS_ONLY),
+                        new EnsembleRequest.Target(SensitivityResult.Metric.MAX_DRAWDOWN, 0.95, 1e-12),
+                        null, paths, paths, null, null),
+                (long) burstSteps * paths))));
+        cells.add(log(WorkloadRunner.run(rest, "batch", burstSteps, null, 4, 1, null, i -> new JobDriver.Submission(
+                JobDriver.Kind.BATCH,
+                new BatchRequest(base(burstSteps, ENGINE_DT, i, Mode.METRICS_ONLY), paths, null, null),
+                (long) burstSteps * paths))));
+
+        // 보관 모드별 힙 비교 (FULL 결과는 저장소에 남으므로 마지막에)
+        int retentionSteps = largest;
+        for (Mode m : new Mode[]{Mode.METRICS_ONLY, Mode.FULL}) {
+            cells.add(log(WorkloadRunner.run(service, "retention", retentionSteps, m.name(), 4, 1, null,
+                    i -> simulation(retentionSteps, ENGINE_DT, i, m))));
+        }
+
+        if (quick) {
+            System.out.println("[perf] quick mode: requirement check (100k steps < 5 min) skipped");
+        } else {
+            cells.add(log(WorkloadRunner.run(rest, "requirement", 100_000, "FULL", 1, 1, REQUIREMENT_LIMIT_MS,
+                    i -> simulation(100_000, 1.0, i, Mode.FULL))));
+        }
+        return cells;
+    }
+
+    private static int jobsPerSubmitter(int steps, int concurrency) {
+        long n = TARGET_STEPS_PER_CELL / ((long) steps * concurrency);
+        return (int) Math.max(1, Math.min(MAX_JOBS_PER_SUBMITTER, n));
+    }
+
+    private static JobDriver.Submission mixed(int i, int largest) {
+        Random rnd = new Random(0x5EED + i); // 같은 i면 같은 요청
+        int r = rnd.nextInt(10);
+        if (r < 4) return simulation(1_000, ENGINE_DT, i, Mode.FULL);
+        if (r < 7) return simulation(10_000, ENGINE_DT, i, Mode.FULL);
+        if (r < 9) return simulation(100_000, ENGINE_DT, i, Mode.DOWNSAMPLED);
+        return simulation(largest, ENGINE_DT, i, Mode.METRICS_ONLY);
+    }
+
+    private static JobDriver.Submission simulation(int steps, double dt, int i, Mode mode) {
+        return new JobDriver.Submission(JobDriver.Kind.SIMULATION, base(steps, dt, i, mode), steps);
+    }
+
+    // OpenAPI 예시와 같은 파라미터 + 상환 충격 하나 (시드만 잡마다 다르게)
+    private static SimulationRequest base(int steps, double dt, int i, Mode mode) {
+        return new SimulationRequest(
+                SimModelType.RESERVE, steps, dt, 1000 + i,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0),
+                List.of(new Scenario(steps / 2, Scenario.ScenarioType.REDEEM_SHOCK, 0.1)),
+                null, null,
+                new SimulationRequest.Retention(mode, null));
+    }
+
+    private static PerfReport.Cell log(PerfReport.Cell c) {
+        System.out.printf("[perf] %-48s %8.0f ms  %10.3g steps/s  p95 %9.1f ms%s%n",
+                c.name(), c.wallMs(), c.stepsPerSec(), c.latencyMs().p95(), c.failed() > 0 ? "  failed=" + c.failed() : "");
+        return c;
+    }
+
+    private static void print(List<PerfReport.Cell> cells) {
+        System.out.printf("%n%-48s %6s %10s %10s %9s %9s %9s %9s %8s %6s%n",
+                "cell", "jobs", "jobs/s", "steps/s", "p50 ms", "p95 ms", "p99 ms", "peak MB", "gc ms", "gc#");
+        for (PerfReport.Cell c : cells) {
+            System.out.printf("%-48s %6d %10.2f %10.3g %9.1f %9.1f %9.1f %9.1f %8d %6d%n",
+                    c.name(), c.jobs(), c.jobsPerSec(), c.stepsPerSec(),
+                    c.latencyMs().p50(), c.latencyMs().p95(), c.latencyMs().p99(),
+                    c.heap().peakMb(), c.gc().timeMs(), c.gc().count());
+        }
+    }
+
+    private static void write(ObjectMapper mapper, File file, PerfReport report) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+}
@@ -0,0 +1,156 @@
+package com.zzjj.depaganalyzer.perf;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * 측정 셀 하나를 실행: concurrency개 제출자가 각자 jobsPerSubmitter개 잡을 "제출 → 완료까지 폴링" 순서로 처리.
+ *
+ * - 지연 = 제출 직전 ~ FINISHED/FAILED 관측 (서버 잡 풀의 큐 대기 포함 → 동시성이 풀 크기를 넘으면 늘어나는 게 정상)
+ * - 처리량 = 완료된 잡의 총 스텝 / 셀 wall time
+ * - 힙/GC = 셀 직전에 System.gc()로 정리한 뒤 MXBean 값의 차이 (힙 풀 peak는 셀마다 리셋)
+ */
+final class WorkloadRunner {
+
+    private static final long JOB_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final double MB = 1024.0 * 1024.0;
+
+    private WorkloadRunner() {}
+
+    /**
+     * @param jobs i번째 잡(전체 셀 기준 0부터) → 제출할 요청. 같은 i면 같은 요청이어야 재실행 간 비교가 된다
+     */
+    static PerfReport.Cell run(JobDriver driver, String workload, int steps, String retention,
+                               int concurrency, int jobsPerSubmitter, Double limitMs,
+                               IntFunction<JobDriver.Submission> jobs) throws InterruptedException {
+        int total = concurrency * jobsPerSubmitter;
+        long[] latencies = new long[total];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong doneSteps = new AtomicLong();
+
+        System.gc();
+        double usedBefore = heapUsed();
+        resetPeaks();
+        long gcCount0 = gcCount(), gcTime0 = gcTimeMs();
+
+        ExecutorService submitters = Executors.newFixedThreadPool(concurrency);
+        long t0 = System.nanoTime();
+        List<Future<?>> fs = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            fs.add(submitters.submit(() -> {
+                for (int j = 0; j < jobsPerSubmitter; j++) {
+                    int i = next.getAndIncrement();
+                    JobDriver.Submission s = jobs.apply(i);
+                    long start = System.nanoTime();
+                    boolean ok = runOne(driver, s, start);
+                    latencies[i] = System.nanoTime() - start;
+                    if (ok) doneSteps.addAndGet(s.steps());
+                    else failed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : fs) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("submitter failed", e.getCause());
+            }
+        }
+        long wall = System.nanoTime() - t0;
+        submitters.shutdown();
+
+        double wallSec = wall / 1e9;
+        String name = driver.name() + "/" + workload
+                + (steps > 0 ? "/steps=" + steps : "")
+                + (retention != null ? "/" + retention : "")
+                + "/c=" + concurrency;
+        return new PerfReport.Cell(name, driver.name(), workload, steps, concurrency, total, failed.get(), retention,
+                wall / 1e6, total / wallSec, doneSteps.get() / wallSec,
+                latency(latencies),
+                new PerfReport.Heap(usedBefore, heapUsed(), heapPeak()),
+                new PerfReport.Gc(gcCount() - gcCount0, gcTimeMs() - gcTime0),
+                limitMs);
+    }
+
+    // 잡 하나 제출 후 완료까지 폴링. 실패/타임아웃/예외는 false (셀은 계속 진행, 리포트의 failed로 집계)
+    private static boolean runOne(JobDriver driver, JobDriver.Submission s, long start) {
+        try {
+            String id = driver.submit(s);
+            String status = driver.status(id);
+            while (!JobDriver.done(status)) {
+                if (System.nanoTime() - start > JOB_TIMEOUT_NANOS) {
+                    System.err.println("[perf] timeout: " + id);
+                    return false;
+                }
+                Thread.sleep(driver.pollMillis());
+                status = driver.status(id);
+            }
+            return "FINISHED".equals(status);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            System.err.println("[perf] job failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // nearest-rank 분위수 (ms)
+    private static PerfReport.Latency latency(long[] nanos) {
+        long[] xs = nanos.clone();
+        Arrays.sort(xs);
+        return new PerfReport.Latency(rank(xs, 0.50), rank(xs, 0.90), rank(xs, 0.95), rank(xs, 0.99),
+                xs.length > 0 ? xs[xs.length - 1] / 1e6 : 0.0);
+    }
+
+    private static double rank(long[] sorted, double q) {
+        if (sorted.length == 0) return 0.0;
+        int i = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, i))] / 1e6;
+    }
+
+    private static double heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / MB;
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) p.resetPeakUsage();
+        }
+    }
+
+    private static double heapPeak() {
+        long sum = 0;
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP && p.getPeakUsage() != null) sum += p.getPeakUsage().getUsed();
+        }
+        return sum / MB;
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long gcTimeMs() {
+        long ms = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) ms += Math.max(0, gc.getCollectionTime());
+        return ms;
+    }
+}
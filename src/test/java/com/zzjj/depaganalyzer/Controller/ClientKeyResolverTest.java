@@ -0,0 +1,41 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 클라이언트 키: 헤더는 신뢰 프록시(IP/CIDR)에서 온 요청만 반영, 그 외에는 원격 주소.
+ */
+class ClientKeyResolverTest {
+
+    @Test
+    void headerIsIgnoredUnlessSentByATrustedProxy() {
+        var open = new ClientKeyResolver(List.of());
+        assertEquals("203.0.113.7", open.resolve(request("203.0.113.7", "someone-else")));
+
+        var proxied = new ClientKeyResolver(List.of("10.0.0.0/8", " 192.168.1.5 ", "fd00::/8"));
+        assertEquals("tenant-a", proxied.resolve(request("10.20.30.40", " tenant-a ")));
+        assertEquals("tenant-b", proxied.resolve(request("fd12::1", "tenant-b")));
+        assertEquals("192.168.1.5", proxied.resolve(request("192.168.1.5", null)));   // 헤더 없으면 프록시 주소
+        assertEquals("192.168.1.6", proxied.resolve(request("192.168.1.6", "tenant-a"))); // 목록 밖 주소
+        assertEquals(64, proxied.resolve(request("10.0.0.1", "x".repeat(100))).length());
+    }
+
+    @Test
+    void rejectsHostNamesAndBadPrefixes() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientKeyResolver(List.of("proxy.internal")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientKeyResolver(List.of("10.0.0.0/33")));
+    }
+
+    private static MockHttpServletRequest request(String remote, String header) {
+        var r = new MockHttpServletRequest("POST", "/api/simulations");
+        r.setRemoteAddr(remote);
+        if (header != null) r.addHeader(ClientKeyResolver.CLIENT_HEADER, header);
+        return r;
+    }
+}
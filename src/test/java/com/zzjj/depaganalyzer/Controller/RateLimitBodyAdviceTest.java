@@ -0,0 +1,60 @@
+package com.zzjj.depaganalyzer.Controller;
+
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.service.quota.QuotaExceededException;
+import com.zzjj.depaganalyzer.service.ratelimit.GcraRateLimiter;
+import com.zzjj.depaganalyzer.service.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 요청 비용 = 인터셉터의 1토큰 + 본문 steps 비용. 본문 비용이 거절되면 요청 전체가 버킷에서 아무것도 쓰지 않는다.
+ */
+class RateLimitBodyAdviceTest {
+
+    // 1000초에 1토큰 → 테스트 중에는 다시 차지 않음
+    private final GcraRateLimiter limiter = new GcraRateLimiter(new RateLimitProperties(true, 1, Duration.ofMinutes(1), null,
+            List.of(new RateLimitProperties.Rule("create", "POST", "/api/simulations", 0.001, 5, 1_000L))),
+            new SimpleMeterRegistry());
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(limiter, new ClientKeyResolver(List.of()));
+    private final RateLimitBodyAdvice advice = new RateLimitBodyAdvice(limiter);
+
+    @AfterEach
+    void reset() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void rejectedBodyChargeRefundsTheRequestToken() {
+        post(1_000);                                         // 1 + 1
+        assertThrows(QuotaExceededException.class, () -> post(4_000)); // 1 + 4 > 남은 3 → 통째로 거절
+
+        var limit = limiter.match("POST", "/api/simulations");
+        assertEquals(0L, limiter.acquire(limit, "203.0.113.7", 3)); // 거절된 요청의 1토큰이 남아 있지 않음
+        assertTrue(limiter.acquire(limit, "203.0.113.7", 1) > 0);
+    }
+
+    private void post(int steps) {
+        var request = new MockHttpServletRequest("POST", "/api/simulations");
+        request.setRemoteAddr("203.0.113.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+        var body = new SimulationRequest(SimModelType.RESERVE, steps, 0.5, 7,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0), List.of(), null, null, null);
+        advice.afterBodyRead(body, null, null, SimulationRequest.class, null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.zzjj.depaganalyzer.service.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로컬 스텁 웹훅 수신기(HttpServer)로 경보 전송/재시도/중복제거를 검증.
+ */
+class WebhookAlertNotifierTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger failFirst = new AtomicInteger();
+    private CountDownLatch delivered;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        delivered = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", ex -> {
+            ex.getRequestBody().readAllBytes();
+            hits.incrementAndGet();
+            // 앞의 failFirst회는 500으로 응답해 재시도를 유도
+            int status = failFirst.getAndDecrement() > 0 ? 500 : 200;
+            ex.sendResponseHeaders(status, -1);
+            ex.close();
+            if (status == 200) delivered.countDown();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private WebhookAlertNotifier notifier() {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/hook";
+        var props = new AlertProperties(true, 3, 10, 0.002, 0.01, List.of(url),
+                Duration.ofMinutes(1), 3, Duration.ofMillis(20));
+        return new WebhookAlertNotifier(props, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static DepegAlert alert(AlertRule rule) {
+        return new DepegAlert("USDC", rule, Instant.parse("2025-01-01T00:00:00Z"), 0.97, 4, 3);
+    }
+
+    @Test
+    void retriesWithBackoffUntilDelivered() throws Exception {
+        failFirst.set(2);
+        notifier().notify(alert(AlertRule.PEG_BAND_BREACH));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, hits.get()); // 500, 500, 200
+    }
+
+    @Test
+    void dedupsSameRuleWithinCooldown() throws Exception {
+        var n = notifier();
+        n.notify(alert(AlertRule.DRAWDOWN));
+        n.notify(alert(AlertRule.DRAWDOWN));   // 쿨다운 중 → 무시
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void engineFiresBandBreachAfterConsecutiveSamples() throws Exception {
+        var engine = new DepegAlertEngine(
+                new AlertProperties(true, 3, 10, 1.0, 1.0, List.of(), null, null, null),
+                List.of(notifierFor(hits)));
+
+        engine.onPoint("DAI", 0, 0.990);
+        engine.onPoint("DAI", 60, 0.990);
+        assertEquals(0, hits.get());
+        engine.onPoint("DAI", 120, 0.990);   // 3회 연속 → 발동
+        engine.onPoint("DAI", 180, 0.990);   // 이미 활성 → 재발동 없음
+        assertEquals(1, hits.get());
+
+        engine.onPoint("DAI", 240, 1.000);   // 복귀 → 재무장
+        for (int i = 0; i < 3; i++) engine.onPoint("DAI", 300 + i * 60L, 0.990);
+        assertEquals(2, hits.get());
+    }
+
+    private static AlertNotifier notifierFor(AtomicInteger counter) {
+        return a -> {
+            if (a.rule() == AlertRule.PEG_BAND_BREACH) counter.incrementAndGet();
+        };
+    }
+}
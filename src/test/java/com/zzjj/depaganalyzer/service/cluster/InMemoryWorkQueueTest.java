@@ -0,0 +1,76 @@
+package com.zzjj.depaganalyzer.service.cluster;
+
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 단일 노드 대역 큐의 임대/재배달 의미와 결과 저장소의 멱등 기록을 검증 (Redis 구현과 같은 계약).
+ */
+class InMemoryWorkQueueTest {
+
+    private static final Duration LEASE = Duration.ofMillis(200);
+
+    private final ClusterProperties props = new ClusterProperties("memory", false, 1, LEASE, 3, 16, null, null, null);
+
+    private static Shard shard(int index) {
+        var base = new SimulationRequest(SimModelType.RESERVE, 100, 1.0, 7,
+                new SimParams(0.9, 0.001, 0, 1e6, 1e6, 0.0), null, null, null, null);
+        return new Shard("batch_test", index, base, index * 16, index * 16 + 16);
+    }
+
+    @Test
+    void expiredLeaseIsRedeliveredToAnotherWorker() throws Exception {
+        var q = new InMemoryWorkQueue(props);
+        q.enqueue(shard(0));
+
+        var first = q.poll("w1", Duration.ZERO);
+        assertNotNull(first);
+        assertEquals(1L, first.deliveries());
+        assertNull(q.poll("w2", Duration.ZERO)); // 임대 중에는 다른 워커가 못 가져감
+
+        // w1이 죽은 것처럼 하트비트 없이 임대 만료 → w2가 대기 중에 넘겨받음
+        var second = q.poll("w2", LEASE.multipliedBy(5));
+        assertNotNull(second);
+        assertEquals(0, second.shard().index());
+        assertEquals(2L, second.deliveries());
+        assertFalse(q.renew(first)); // 원래 소유자는 더 이상 연장 불가
+
+        q.ack(second);
+        assertNull(q.poll("w3", LEASE.multipliedBy(2)));
+    }
+
+    @Test
+    void renewKeepsLeaseAlive() throws Exception {
+        var q = new InMemoryWorkQueue(props);
+        q.enqueue(shard(0));
+        var lease = q.poll("w1", Duration.ZERO);
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(LEASE.toMillis() / 2);
+            assertTrue(q.renew(lease));
+        }
+        assertNull(q.poll("w2", Duration.ZERO));
+    }
+
+    @Test
+    void duplicateShardResultsAreRecordedOnce() {
+        var store = new InMemoryJobStatusStore(props);
+        store.create(new BatchJob("batch_test", null, 16, 1, Instant.now()));
+        var ok = new ShardResult("batch_test", 0, "w1", 16, Map.of(), 5, Instant.now(), null);
+        assertTrue(store.record(ok));
+        assertFalse(store.record(ShardResult.failed(shard(0), "w2", "late duplicate")));
+        assertEquals(1, store.results("batch_test").size());
+        assertNull(store.results("batch_test").iterator().next().error());
+    }
+}
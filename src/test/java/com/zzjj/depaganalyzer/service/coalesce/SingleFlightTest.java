@@ -0,0 +1,95 @@
+package com.zzjj.depaganalyzer.service.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 요청 합치기: 동시 호출은 계산 하나를 공유하고, 예외도 그대로 공유하며, 끝난 뒤엔 캐시하지 않는다.
+ */
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>("test", registry);
+
+    @Test
+    void concurrentCallsShareOneComputation() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.execute("k", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return 42;
+            }));
+            started.await();
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) followers.add(pool.submit(() -> flight.execute("k", calls::incrementAndGet)));
+            while (count("follower") < 7) Thread.onSpinWait();
+            release.countDown();
+
+            assertEquals(42, (int) leader.get(5, TimeUnit.SECONDS));
+            for (var f : followers) assertEquals(42, (int) f.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(1.0, count("leader"));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 끝난 뒤 같은 키는 새로 계산
+        assertEquals(7, (int) flight.execute("k", () -> 7));
+        assertNull(flight.joinIfRunning("k"));
+    }
+
+    @Test
+    void followersReceiveTheLeadersException() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.execute("bad", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalArgumentException("bad interval");
+            }));
+            started.await();
+            Future<Integer> follower = pool.submit(() -> flight.execute("bad", () -> 0));
+            while (count("follower") < 1) Thread.onSpinWait();
+            release.countDown();
+
+            for (var f : List.of(leader, follower)) {
+                var e = assertThrows(Exception.class, () -> f.get(5, TimeUnit.SECONDS));
+                assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private double count(String role) {
+        return registry.counter("depag.coalesce.calls", "flight", "test", "role", role).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.zzjj.depaganalyzer.service.datasource;
+
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource.Point;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 위치 기반 합성 시계열: 시작점만 다른 두 질의는 겹치는 구간에서 같은 값을 내야 하고,
+ * series()와 stream()은 CHUNK/체크포인트 경계를 넘어도 같은 점을 내야 한다.
+ */
+class SyntheticMarketDataSourceTest {
+
+    private static final long STEP = 60; // "1m"
+    // 체크포인트 경계 1500 버킷 앞에서 시작 → 구간이 CHUNK 경계 여러 개, 체크포인트 경계 두 개,
+    // 기본 stream()의 CHUNK_POINTS 창 경계 하나를 지남
+    private static final long FROM = (3L * SyntheticMarketDataSource.CHECKPOINT_SPAN - 1500) * STEP;
+    private static final long LEN = (MarketDataSource.CHUNK_POINTS + 2_000L) * STEP;
+
+    @Test
+    void shiftedQueriesAgreeOnOverlap() {
+        var source = new SyntheticMarketDataSource(42);
+        List<Point> base = source.stream("USDC", at(FROM), at(FROM + LEN), "1m").toList();
+
+        for (long k : new long[]{1, 700, SyntheticMarketDataSource.CHUNK - 1, SyntheticMarketDataSource.CHUNK, 1500}) {
+            long shift = k * STEP;
+            // 새 인스턴스 = 체크포인트 캐시 없이 시작해도 같은 값
+            var fresh = new SyntheticMarketDataSource(42);
+            Map<Instant, Double> shifted = byTime(fresh.stream("USDC", at(FROM + shift), at(FROM + LEN + shift), "1m").toList());
+
+            int overlap = 0;
+            for (Point p : base) {
+                Double q = shifted.get(p.t());
+                if (q == null) continue;
+                assertEquals(p.price(), q, 0.0, "k=" + k + " at " + p.t());
+                overlap++;
+            }
+            assertEquals(base.size() - k, overlap, "k=" + k);
+        }
+    }
+
+    @Test
+    void seriesMatchesStreamAcrossChunkBoundaries() {
+        var source = new SyntheticMarketDataSource(42);
+        // 버킷 중간(+17초)에서 시작 → 첫 버킷 올림 처리까지 같이 확인
+        Instant from = at(FROM + 17), to = at(FROM + LEN);
+        List<Point> series = source.series("DAI", from, to, "1m");
+        List<Point> stream = source.stream("DAI", from, to, "1m").toList();
+
+        assertFalse(series.isEmpty());
+        assertEquals(series, stream);
+        assertEquals(at(FROM + STEP), series.getFirst().t());
+        for (int i = 1; i < series.size(); i++) {
+            assertEquals(STEP, series.get(i).t().getEpochSecond() - series.get(i - 1).t().getEpochSecond());
+        }
+
+        // 인터페이스 기본 stream()(CHUNK_POINTS 창으로 series 반복)도 같은 점을 내야 한다
+        MarketDataSource windowed = (s, f, t, iv) -> source.series(s, f, t, iv);
+        assertEquals(series, windowed.stream("DAI", from, to, "1m").toList());
+    }
+
+    private static Instant at(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond);
+    }
+
+    private static Map<Instant, Double> byTime(List<Point> points) {
+        return points.stream().collect(Collectors.toMap(Point::t, Point::price));
+    }
+}
@@ -0,0 +1,65 @@
+package com.zzjj.depaganalyzer.service.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 적재 중인 틱 파일 읽기: refresh()와 조회 사이에 작성자가 새 블록을 추가해도
+ * 리더는 refresh()가 돌려준 (매핑된) 행까지만 읽어야 한다.
+ */
+class TickFileTest {
+
+    private static final int ROWS = TickFile.DEFAULT_BLOCK_ROWS;
+    private static final long T0 = 1_700_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendBetweenRefreshAndReadStaysWithinMappedRows() throws Exception {
+        Path p = TickStoreMarketDataSource.fileFor(dir, "USDC");
+        try (var writer = TickFile.openForWrite(p)) {
+            for (int i = 0; i < ROWS; i++) writer.append(T0 + i, 1.0); // 블록 0을 꽉 채움
+            try (var reader = TickFile.openForRead(p)) {
+                long n = reader.refresh();
+                assertEquals(ROWS, n);
+
+                writer.append(T0 + ROWS, 0.87); // 리더가 아직 매핑하지 않은 블록 1에 한 행
+                assertEquals(ROWS + 1, reader.count());
+                assertThrows(ArrayIndexOutOfBoundsException.class, () -> reader.ts(ROWS)); // count를 믿으면 터지는 지점
+
+                assertEquals(T0 + n - 1, reader.ts(n - 1));
+                assertEquals(n, reader.lowerBound(T0 + ROWS, n));
+
+                assertEquals(ROWS + 1, reader.refresh()); // 다음 조회에서 따라잡음
+                assertEquals(0.87, reader.price(ROWS));
+            }
+        }
+    }
+
+    @Test
+    void sourceSeesRowsAppendedAcrossBlocks() throws Exception {
+        Path p = TickStoreMarketDataSource.fileFor(dir, "USDC");
+        var source = new TickStoreMarketDataSource(dir.toString());
+        try (var writer = TickFile.openForWrite(p)) {
+            for (int i = 0; i < ROWS; i++) writer.append(T0 + i, 1.0);
+            Instant from = Instant.ofEpochSecond(T0), to = Instant.ofEpochSecond(T0 + 2L * ROWS);
+            assertEquals(ROWS, source.series("USDC", from, to, "raw").size());
+
+            writer.append(T0 + ROWS, 0.87);
+            var all = source.series("USDC", from, to, "raw");
+            assertEquals(ROWS + 1, all.size());
+            assertEquals(0.87, all.getLast().price());
+            assertTrue(source.stream("USDC", from, to, "raw").count() == ROWS + 1);
+        } finally {
+            source.close();
+        }
+    }
+}
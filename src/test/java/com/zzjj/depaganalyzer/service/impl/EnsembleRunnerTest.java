@@ -0,0 +1,88 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleResult;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityResult.Metric;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 적응형 앙상블: 목표 반폭에 닿으면 maxPaths 전에 멈추고, 배치한 경로는 집계/취소/버림 중 하나로 정확히 한 번 세며,
+ * 같은 요청(시드)이면 워커 수와 관계없이 같은 집계가 나와야 한다.
+ */
+class EnsembleRunnerTest {
+
+    private static final int WAVE = 32;
+    private static final int MIN_PATHS = 64;
+
+    private final EnsembleRunner runner = new EnsembleRunner(4, 2_000_000_000L);
+
+    @AfterEach
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void stopsOnceTargetHalfWidthIsMet() throws Exception {
+        // 보정: 256개 경로에서의 평균 반폭 h. 반폭은 1/√n로 줄므로 목표 1.5h는 256개보다 일찍 (대략 128개 근처에서) 달성
+        var calibration = runner.run("cal", request(1e-12, 256), p -> {});
+        assertFalse(calibration.converged());
+        assertEquals(256, calibration.pathsUsed());
+        assertEquals(0, calibration.pathsCancelled() + calibration.pathsDiscarded()); // maxPaths까지 다 집계
+        double h = calibration.targetHalfWidth();
+
+        List<Double> progress = new ArrayList<>();
+        var r = runner.run("ens", request(1.5 * h, 10_000), progress::add);
+
+        assertTrue(r.converged());
+        assertTrue(r.targetHalfWidth() < 1.5 * h);
+        assertTrue(r.pathsUsed() >= MIN_PATHS && r.pathsUsed() < 256, "pathsUsed=" + r.pathsUsed());
+        assertEquals(0, r.pathsUsed() % WAVE);
+        assertEquals(r.pathsUsed() / WAVE, r.waves());
+        // 수렴 시점에 떠 있던 웨이브 하나(PIPELINE - 1)는 취소되거나 이미 끝나 버려진다
+        assertEquals(WAVE, r.pathsCancelled() + r.pathsDiscarded());
+        assertEquals(r.waves(), progress.size());
+        assertEquals((double) r.pathsUsed() / 10_000, progress.getLast());
+    }
+
+    @Test
+    void sameSeedGivesSameAggregate() throws Exception {
+        var a = runner.run("a", request(1e-12, 160), p -> {});
+        var other = new EnsembleRunner(1, 2_000_000_000L);
+        EnsembleResult b;
+        try {
+            b = other.run("b", request(1e-12, 160), p -> {});
+        } finally {
+            other.shutdown();
+        }
+
+        assertEquals(160, a.pathsUsed());
+        assertEquals(a.pathsUsed(), b.pathsUsed());
+        assertEquals(a.targetHalfWidth(), b.targetHalfWidth());
+        assertEquals(a.metrics(), b.metrics());   // 평균/신뢰구간/분위수까지 비트 단위로 같음
+        assertNotNull(a.metrics().get(Metric.MAX_DRAWDOWN).mean().mean());
+    }
+
+    // MAX_DRAWDOWN 평균을 목표로 하는 작은 앙상블 (경로당 200스텝, 충격 하나)
+    private static EnsembleRequest request(double halfWidth, int maxPaths) {
+        var base = new SimulationRequest(
+                SimModelType.RESERVE, 200, 0.5, 7,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0),
+                List.of(new Scenario(50, Scenario.ScenarioType.REDEEM_SHOCK, 0.1)),
+                null, null, null);
+        return new EnsembleRequest(base, new EnsembleRequest.Target(Metric.MAX_DRAWDOWN, null, halfWidth),
+                WAVE, MIN_PATHS, maxPaths, null, null);
+    }
+}
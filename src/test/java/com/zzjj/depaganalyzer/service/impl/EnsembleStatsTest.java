@@ -0,0 +1,36 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 신뢰구간용 t 분위수: 작은 자유도에서 표준 분포표 값과 일치하고, 근사로 넘어가는 경계에서도 튀지 않아야 한다.
+ */
+class EnsembleStatsTest {
+
+    @Test
+    void studentTMatchesTableForSmallDf() {
+        // {p, df, t_p(df)} — 표준 t 분포표
+        double[][] table = {
+                {0.975, 1, 12.706204736}, {0.975, 2, 4.302652730}, {0.975, 3, 3.182446305},
+                {0.975, 5, 2.570581836}, {0.975, 10, 2.228138852}, {0.975, 30, 2.042272456},
+                {0.95, 1, 6.313751515}, {0.95, 4, 2.131846786}, {0.995, 2, 9.924843201},
+                {0.995, 3, 5.840909309}, {0.9995, 1, 636.619248768}, {0.9995, 7, 5.407882520},
+                {0.75, 1, 1.0}, {0.75, 2, 0.816496581}
+        };
+        for (double[] row : table) {
+            double t = EnsembleStats.studentT(row[0], (int) row[1]);
+            assertEquals(row[2], t, 1e-8 * row[2], "p=" + row[0] + " df=" + (int) row[1]);
+        }
+        assertEquals(-2.570581836, EnsembleStats.studentT(0.025, 5), 1e-8);
+    }
+
+    @Test
+    void approximationAboveExactRangeIsClose() {
+        // df=31 (근사 구간 첫 값)과 df=60, 120의 분포표 값
+        assertEquals(2.039513446, EnsembleStats.studentT(0.975, 31), 1e-4);
+        assertEquals(2.000297822, EnsembleStats.studentT(0.975, 60), 1e-4);
+        assertEquals(2.617421145, EnsembleStats.studentT(0.995, 120), 1e-4);
+    }
+}
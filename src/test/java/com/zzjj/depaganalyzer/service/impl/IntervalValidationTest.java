@@ -0,0 +1,58 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.Controller.ApiExceptionHandler;
+import com.zzjj.depaganalyzer.Controller.BenchmarksController;
+import com.zzjj.depaganalyzer.Controller.MetricsController;
+import com.zzjj.depaganalyzer.service.datasource.SyntheticMarketDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 잘못된 interval은 스트리밍 여부와 관계없이 400: NDJSON 응답은 본문(비동기)을 시작하기 전에 검증돼야 한다.
+ */
+class IntervalValidationTest {
+
+    private final MockMvc mvc;
+
+    IntervalValidationTest() {
+        var source = new SyntheticMarketDataSource(42);
+        var registry = new SimpleMeterRegistry();
+        var metrics = new MetricsServiceImpl(source, registry);
+        mvc = MockMvcBuilders.standaloneSetup(
+                        new MetricsController(metrics, null, new ObjectMapper()),
+                        new BenchmarksController(new BenchmarksServiceImpl(metrics, source, registry)))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void unknownIntervalIsBadRequestBeforeStreaming() throws Exception {
+        MvcResult stream = mvc.perform(get("/api/assets/USDC/metrics?interval=2x")
+                .accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        assertFalse(stream.getRequest().isAsyncStarted()); // 본문을 쓰기 전에 거절
+        assertEquals(400, stream.getResponse().getStatus());
+
+        assertEquals(400, mvc.perform(get("/api/assets/USDC/metrics?interval=2x")).andReturn().getResponse().getStatus());
+        assertEquals(400, mvc.perform(get("/api/benchmarks/peg-deviation?symbols=USDC,DAI&interval=P1M"))
+                .andReturn().getResponse().getStatus()); // 길이가 변하는 월 단위도 거절
+    }
+
+    @Test
+    void validIntervalStillStreams() throws Exception {
+        MvcResult stream = mvc.perform(get("/api/assets/USDC/metrics?interval=PT4H"
+                        + "&from=2026-01-01T00:00:00Z&to=2026-01-02T00:00:00Z")
+                .accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        assertTrue(stream.getRequest().isAsyncStarted());
+        assertEquals(200, stream.getResponse().getStatus());
+    }
+}
@@ -0,0 +1,92 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.Controller.ApiExceptionHandler;
+import com.zzjj.depaganalyzer.Controller.MetricsController;
+import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
+import com.zzjj.depaganalyzer.service.datasource.SyntheticMarketDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * NDJSON 스트림: 모든 줄이 JSON이고, 샘플 줄은 getMetrics의 샘플과 같으며,
+ * trailer의 count는 샘플 줄 수, metrics는 같은 구간 getMetrics의 지표와 같아야 한다.
+ */
+class MetricsStreamTest {
+
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-01-08T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MetricsServiceImpl metrics =
+            new MetricsServiceImpl(new SyntheticMarketDataSource(42), new SimpleMeterRegistry());
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new MetricsController(metrics, null, objectMapper))
+            .setControllerAdvice(new ApiExceptionHandler())
+            .build();
+
+    @Test
+    void everyLineParsesAndTrailerMatchesGetMetrics() throws Exception {
+        // 7일 × 5분 = 2016 샘플 → FLUSH_EVERY(1024)를 넘겨 중간 flush도 지난다
+        MvcResult started = mvc.perform(get("/api/assets/USDC/metrics?interval=5m&from=" + FROM + "&to=" + TO)
+                .accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        assertTrue(started.getRequest().isAsyncStarted());
+        var response = mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentType().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+
+        String body = response.getContentAsString();
+        assertTrue(body.endsWith("\n"));
+        List<JsonNode> lines = body.lines().map(this::parse).toList();
+        JsonNode trailer = lines.getLast();
+        List<JsonNode> samples = lines.subList(0, lines.size() - 1);
+
+        var expected = metrics.getMetrics("USDC", FROM, TO, "5m");
+        assertEquals(expected.samples().size(), samples.size());
+        assertEquals(samples.size(), trailer.get("count").asLong());
+        for (int i = 0; i < samples.size(); i++) {
+            var s = expected.samples().get(i);
+            assertEquals(s.t(), Instant.parse(samples.get(i).get("t").asText()), "line " + i);
+            assertEquals(s.price(), samples.get(i).get("price").asDouble(), "line " + i);
+        }
+
+        assertEquals("USDC", trailer.get("symbol").asText());
+        assertEquals("5m", trailer.get("interval").asText());
+        assertEquals(expected.metrics(),
+                objectMapper.treeToValue(trailer.get("metrics"), AssetMetricsResponse.Metrics.class));
+    }
+
+    @Test
+    void emptyRangeStreamsOnlyTheTrailer() throws Exception {
+        MvcResult started = mvc.perform(get("/api/assets/USDC/metrics?interval=1h&from=" + FROM + "&to=" + FROM)
+                .accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        String body = mvc.perform(asyncDispatch(started)).andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = body.lines().map(this::parse).toList();
+        var expected = metrics.getMetrics("USDC", FROM, FROM, "1h");
+        assertEquals(expected.samples().size() + 1, lines.size());
+        assertEquals(expected.samples().size(), lines.getLast().get("count").asLong());
+        assertEquals(expected.metrics(),
+                objectMapper.treeToValue(lines.getLast().get("metrics"), AssetMetricsResponse.Metrics.class));
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new AssertionError("not a JSON line: " + line, e);
+        }
+    }
+}
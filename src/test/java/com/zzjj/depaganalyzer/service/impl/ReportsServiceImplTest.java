@@ -0,0 +1,113 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
+import com.zzjj.depaganalyzer.dto.report.ReportRequest;
+import com.zzjj.depaganalyzer.dto.report.ReportResponse;
+import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.report.HtmlReportRenderer;
+import com.zzjj.depaganalyzer.service.report.PdfReportRenderer;
+import com.zzjj.depaganalyzer.service.report.ReportArtifactStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 리포트 캐시: 같은 (포맷, 정규화된 요청)은 살아 있는 동안 같은 리포트를 재사용하고,
+ * ttl이 지나면 404 → 다음 요청은 새로 렌더링, purge가 메타와 파일을 지운다.
+ */
+class ReportsServiceImplTest {
+
+    private static final Duration TTL = Duration.ofSeconds(2);
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger scans = new AtomicInteger();
+    private final MetricsService metrics = new MetricsService() {
+        @Override
+        public AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval,
+                                               String window, String step) {
+            return null;
+        }
+
+        @Override
+        public AssetMetricsResponse.Metrics scanMetrics(String symbol, Instant from, Instant to, String interval,
+                                                        SampleSink sink) throws IOException {
+            scans.incrementAndGet();
+            for (long t = from.getEpochSecond(); t <= to.getEpochSecond(); t += 3600) sink.accept(t, 1.0);
+            return null;
+        }
+    };
+
+    private ReportsServiceImpl service;
+
+    @AfterEach
+    void stop() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    void identicalRequestsShareOneReportUntilTtlExpires() throws Exception {
+        var store = new ReportArtifactStore(dir.toString(), TTL);
+        service = new ReportsServiceImpl(null, metrics, store,
+                List.of(new PdfReportRenderer(), new HtmlReportRenderer()), 1, 4);
+
+        // 심볼 공백/중복만 다른 요청 = 같은 정규화 키
+        ReportResponse first = service.createReport(bench(" USDC,DAI ", ReportRequest.Format.PDF));
+        ReportResponse second = service.createReport(bench("USDC,DAI,USDC", ReportRequest.Format.PDF));
+        assertEquals(first.reportId(), second.reportId());
+
+        ReportResponse html = service.createReport(bench("USDC,DAI", ReportRequest.Format.HTML));
+        assertNotEquals(first.reportId(), html.reportId()); // 포맷이 다르면 다른 아티팩트
+
+        ReportResponse ready = awaitReady(first.reportId());
+        awaitReady(html.reportId());
+        Path artifact = service.getArtifact(first.reportId()).path();
+        assertTrue(Files.exists(artifact));
+        assertEquals(first.reportId(), service.createReport(bench("USDC,DAI", ReportRequest.Format.PDF)).reportId());
+        assertEquals(2 * 2, scans.get()); // PDF/HTML 각각 심볼 2개씩 한 번만 수집
+
+        Thread.sleep(Duration.between(Instant.now(), ready.expiresAt()).toMillis() + 50);
+
+        var gone = assertThrows(ResponseStatusException.class, () -> service.getReport(first.reportId()));
+        assertEquals(HttpStatus.NOT_FOUND, gone.getStatusCode());
+        ReportResponse fresh = service.createReport(bench("USDC,DAI", ReportRequest.Format.PDF));
+        assertNotEquals(first.reportId(), fresh.reportId()); // 만료 후엔 다시 렌더링
+
+        service.purgeExpired();
+        assertFalse(Files.exists(artifact));
+    }
+
+    private ReportResponse awaitReady(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            ReportResponse r = service.getReport(id);
+            if (r.status() == ReportResponse.Status.READY) return r;
+            assertNotEquals(ReportResponse.Status.FAILED, r.status(), r.error());
+            Thread.sleep(5);
+        }
+        throw new AssertionError("report " + id + " not ready");
+    }
+
+    private static ReportRequest bench(String symbols, ReportRequest.Format format) {
+        return new ReportRequest(ReportRequest.Type.BENCHMARK, null,
+                new ReportRequest.BenchmarkQuery(symbols, "2026-01-01T00:00:00Z", "2026-01-02T00:00:00Z", "1h"),
+                format);
+    }
+}
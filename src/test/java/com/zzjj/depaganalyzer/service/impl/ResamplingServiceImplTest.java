@@ -0,0 +1,140 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.metrics.OhlcResponse;
+import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.datasource.Intervals;
+import com.zzjj.depaganalyzer.service.datasource.MarketDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 리샘플링: 간격 파싱, 빈 버킷 정책(skip/flag/fill), 시간가중 지표, 파티션 병렬 결과 일치.
+ */
+class ResamplingServiceImplTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void parsesCompactAndIsoIntervals() {
+        assertEquals(15L, Intervals.toSeconds("15s"));
+        assertEquals(15L, Intervals.toSeconds("PT15S"));
+        assertEquals(4 * 3600L, Intervals.toSeconds("PT4H"));
+        assertEquals(7 * 86400L, Intervals.toSeconds("1w"));
+        assertEquals(7 * 86400L, Intervals.toSeconds("P1W"));
+        assertEquals(36 * 3600L, Intervals.toSeconds("P1DT12H"));
+        assertThrows(IllegalArgumentException.class, () -> Intervals.toSeconds("P1M"));
+        assertThrows(IllegalArgumentException.class, () -> Intervals.toSeconds("PT0.5S"));
+        assertThrows(IllegalArgumentException.class, () -> Intervals.toSeconds("7x"));
+    }
+
+    @Test
+    void gapPoliciesAndTimeWeighting() {
+        // 1분 버킷 4개: [0] 1.00 → 30초 뒤 0.98, [1] 비어 있음, [2] 1.00, [3] 1.00
+        var source = source(List.of(
+                point(0, 1.00), point(30, 0.98), point(120, 1.00), point(180, 1.00)));
+        var svc = new ResamplingServiceImpl(source, 1, 4096, 1000);
+        Instant to = T0.plusSeconds(239);
+
+        var flag = svc.resample("USDT", T0, to, "1m", "flag");
+        assertEquals(4, flag.buckets().size());
+        assertEquals(OhlcResponse.Kind.GAP, flag.buckets().get(1).kind());
+        assertNull(flag.buckets().get(1).close());
+        assertEquals(0.99, flag.buckets().get(0).twap(), 1e-12);   // 30초씩 1.00 / 0.98
+        assertEquals(1, flag.coverage().gapBuckets());
+        // 빈 칸은 시간가중에서 빠짐: 60 + 60 + 60초, 0.98은 30초 동안만 밴드 밖
+        assertEquals(180L, flag.metrics().coveredSeconds());
+        assertEquals(150.0 / 180, flag.metrics().pegUptime(), 1e-12);
+
+        var skip = svc.resample("USDT", T0, to, "1m", "SKIP");
+        assertEquals(3, skip.buckets().size());
+
+        var fill = svc.resample("USDT", T0, to, "1m", "fill");
+        var filled = fill.buckets().get(1);
+        assertEquals(OhlcResponse.Kind.FILLED, filled.kind());
+        assertEquals(0.98, filled.close(), 0.0);
+        assertEquals(240L, fill.metrics().coveredSeconds());
+        assertEquals(150.0 / 240, fill.metrics().pegUptime(), 1e-12);
+
+        // 변동성: 빈 칸을 건너뛴 수익률은 √2로 나눠 한 칸 기준 → 정책과 무관
+        assertEquals(flag.metrics().volatility(), fill.metrics().volatility());
+        assertThrows(IllegalArgumentException.class, () -> svc.resample("USDT", T0, to, "1m", "zero"));
+    }
+
+    @Test
+    void metricsOfIrregularSourceMatchFlaggedOhlc() throws Exception {
+        // 같은 틱: 샘플 개수로 세면 4개 중 3개가 밴드 안(0.75), 시간가중이면 180초 중 150초
+        var source = source(List.of(
+                point(0, 1.00), point(30, 0.98), point(120, 1.00), point(180, 1.00)), true);
+        var metrics = new MetricsServiceImpl(source, new SimpleMeterRegistry());
+        Instant to = T0.plusSeconds(239);
+
+        var ohlc = new ResamplingServiceImpl(source, 1, 4096, 1000).resample("USDT", T0, to, "1m", "flag").metrics();
+        var m = metrics.getMetrics("USDT", T0, to, "1m").metrics();
+        assertEquals(150.0 / 180, m.pegUptime(), 1e-12);
+        assertEquals(ohlc.pegUptime(), m.pegUptime());
+        assertEquals(ohlc.avgDeviation(), m.avgDeviation());
+        assertEquals(ohlc.volatility(), m.volatility());
+        assertEquals(1.00, m.priceSummary().close());
+
+        // 스트리밍 trailer(scanMetrics)도 같은 값
+        assertEquals(m, metrics.scanMetrics("USDT", T0, to, "1m", MetricsService.SampleSink.NONE));
+    }
+
+    @Test
+    void partitionedResultMatchesSinglePass() {
+        List<MarketDataSource.Point> ticks = new ArrayList<>();
+        for (int s = 0; s < 86_400; s += 7) {
+            if (s / 3600 == 5) continue; // 05시 한 시간 비움
+            ticks.add(point(s, 1.0 + 0.004 * Math.sin(s / 900.0)));
+        }
+        var source = source(ticks);
+        Instant to = T0.plusSeconds(86_399);
+
+        var single = new ResamplingServiceImpl(source, 1, 4096, 100_000).resample("DAI", T0, to, "15s", "fill");
+        var parallel = new ResamplingServiceImpl(source, 4, 16, 100_000).resample("DAI", T0, to, "PT15S", "fill");
+
+        assertEquals(1, single.coverage().partitions());
+        assertEquals(4, parallel.coverage().partitions());
+        assertEquals(single.buckets(), parallel.buckets());
+        assertEquals(single.coverage().ticks(), parallel.coverage().ticks());
+        assertEquals(single.metrics().volatility(), parallel.metrics().volatility());
+        assertEquals(single.metrics().pegUptime(), parallel.metrics().pegUptime());
+        assertEquals(single.metrics().coveredSeconds(), parallel.metrics().coveredSeconds());
+    }
+
+    private static MarketDataSource.Point point(long sec, double price) {
+        return new MarketDataSource.Point(T0.plusSeconds(sec), price);
+    }
+
+    private static MarketDataSource source(List<MarketDataSource.Point> ticks) {
+        return source(ticks, false);
+    }
+
+    private static MarketDataSource source(List<MarketDataSource.Point> ticks, boolean irregular) {
+        return new MarketDataSource() {
+            @Override
+            public boolean irregular() {
+                return irregular;
+            }
+
+            @Override
+            public List<Point> series(String symbol, Instant from, Instant to, String interval) {
+                return raw(symbol, from, to).toList();
+            }
+
+            @Override
+            public Stream<Point> raw(String symbol, Instant from, Instant to) {
+                return ticks.stream().filter(p -> !p.t().isBefore(from) && !p.t().isAfter(to));
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.Scenario.ScenarioType;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReserveModel 한 스텝 전개: 데모 클램프와 리플레이(외생 가격)에서의 클램프 해제,
+ * 컴파일된 시나리오 적용(램프/반복/겹침), 오라클 지연 초 → 스텝 변환.
+ */
+class ReserveModelTest {
+
+    // 지연 없음 → 평균회귀가 현재가를 본다
+    private static final SimParams PARAMS = new SimParams(0.8, 0.001, 0, 1_000_000.0, 1_000_000.0, 0.0);
+
+    @Test
+    void replayFollowsDepegBelowDemoBand() {
+        // USDC 2023-03 처럼 1.0 → 0.87로 빠지는 실제 경로를 가격 드라이버(소음 = 실제 변화분)로 흘린다
+        double[] actual = {1.0, 0.98, 0.95, 0.91, 0.87, 0.87};
+
+        var clamped = new ReserveModel(PARAMS, List.of(), actual.length, 0.5);
+        var replay = new ReserveModel(PARAMS, List.of(), actual.length, 0.5);
+        replay.disablePriceBand();
+        clamped.resetPrice(actual[0]);
+        replay.resetPrice(actual[0]);
+
+        double c = 0, r = 0;
+        for (int i = 1; i < actual.length; i++) {
+            c = clamped.advance(actual[i] - actual[i - 1]);
+            r = replay.advance(actual[i] - actual[i - 1]);
+        }
+        assertTrue(c >= 0.95, "demo band should hold the price at 0.95 or above, got " + c);
+        assertTrue(r < 0.90, "replayed price should follow the depeg, got " + r);
+    }
+
+    @Test
+    void replayPriceNeverGoesNegative() {
+        var m = new ReserveModel(PARAMS, List.of(), 10, 0.5);
+        m.disablePriceBand();
+        assertEquals(0.0, m.advance(-5.0));
+    }
+
+    @Test
+    void repeatedRampEndingAndRestartingOnSameStepRedeemsContinuously() {
+        // 5스텝 램프(총 20%)를 5스텝마다 2번 → 10~19 스텝 내내 같은 비율, 총 1 - 0.8²
+        var m = new ReserveModel(PARAMS, List.of(new Scenario(10, ScenarioType.REDEEM_SHOCK, 0.2, 5, 5, 2)), 100, 1.0);
+        double s0 = m.supply;
+        List<SimulationResult.SimEvent> events = new ArrayList<>();
+        for (int t = 0; t < 30; t++) {
+            m.beginStep(t, events);
+            m.advance(0.0);
+            if (t == 14) assertEquals(s0 * 0.8, m.supply, 1e-6); // 첫 램프 끝
+        }
+        assertEquals(s0 * 0.64, m.supply, 1e-6);
+        assertEquals(List.of(10, 15), events.stream().map(SimulationResult.SimEvent::t).toList());
+        assertEquals(4, m.eventsApplied());
+    }
+
+    @Test
+    void overlappingRampsAddRatesAndReturnToExactlyZero() {
+        var m = new ReserveModel(PARAMS, List.of(
+                new Scenario(10, ScenarioType.REDEEM_SHOCK, 0.1, 4, null, null),
+                new Scenario(12, ScenarioType.REDEEM_SHOCK, 0.2, 4, null, null)), 100, 1.0);
+        double fa = -Math.expm1(Math.log1p(-0.1) / 4), fb = -Math.expm1(Math.log1p(-0.2) / 4);
+
+        double expected = m.supply;
+        for (int t = 0; t < 40; t++) {
+            m.beginStep(t, null);
+            m.advance(0.0);
+            double rate = (t >= 10 && t < 14 ? fa : 0) + (t >= 12 && t < 16 ? fb : 0); // 겹치는 12~13은 합산
+            expected *= 1 - rate;
+            assertEquals(expected, m.supply, 1e-6, "t=" + t);
+        }
+        double after = m.supply;
+        m.beginStep(40, null);
+        assertEquals(after, m.supply, 0.0); // 누적기가 정확히 0으로 돌아옴 (잔여 상환 없음)
+    }
+
+    @Test
+    void oracleLagSecondsConvertToStepsByDt() {
+        // 기본 지연 60초, dt=30 → 2스텝. 시나리오 90초(3스텝)를 t=5부터 2스텝 동안
+        var params = new SimParams(0.8, 0.001, 60, 1_000_000.0, 1_000_000.0, 0.0);
+        var m = new ReserveModel(params, List.of(new Scenario(5, ScenarioType.ORACLE_LAG, 90.0, 2, null, null)), 100, 30.0);
+        m.disablePriceBand();
+
+        List<Double> prices = new ArrayList<>();
+        prices.add(m.price);
+        for (int t = 0; t < 10; t++) {
+            m.beginStep(t, null);
+            int lag = t >= 5 && t < 7 ? 3 : 2;
+            double seen = m.oraclePrice(); // 이번 스텝 전개 전: lag 스텝 전 가격
+            assertEquals(prices.get(Math.max(0, prices.size() - 1 - lag)), seen, 0.0, "t=" + t);
+            prices.add(m.advance(-0.01 * (t + 1)));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 링버퍼 롤링 지표: 매 push마다 최근 window개를 처음부터 다시 계산한 값과 같아야 한다
+ * (부분적으로 찬 윈도우, 재계산 주기를 넘는 긴 시계열, 0 이하 가격으로 끊긴 수익률 포함). 출력 간격 규칙도 확인.
+ */
+class RollingRiskWindowTest {
+
+    @Test
+    void matchesBruteForceWindow() {
+        Random rnd = new Random(7);
+        int window = 7;
+        var rw = new RollingRiskWindow(window);
+        List<Double> all = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double p = i % 97 == 50 ? 0.0 : 1.0 + rnd.nextGaussian() * 0.006; // 가끔 0 → 수익률 없음
+            rw.push(p);
+            all.add(p);
+
+            List<Double> w = all.subList(Math.max(0, all.size() - window), all.size());
+            double dev = 0;
+            int in = 0;
+            for (double x : w) {
+                dev += Math.abs(x - 1.0);
+                if (x >= RiskMetricsCalc.PEG_LOWER && x <= RiskMetricsCalc.PEG_UPPER) in++;
+            }
+            List<Double> rets = new ArrayList<>();
+            for (int k = 1; k < w.size(); k++) {
+                if (w.get(k - 1) > 0 && w.get(k) > 0) rets.add(Math.log(w.get(k) / w.get(k - 1)));
+            }
+
+            assertEquals(w.size(), rw.size());
+            assertEquals(dev / w.size(), rw.avgDeviation(), 1e-12, "avgDeviation at " + i);
+            assertEquals((double) in / w.size(), rw.pegUptime(), 1e-12, "pegUptime at " + i);
+            if (rets.isEmpty()) {
+                assertTrue(Double.isNaN(rw.volatility()), "volatility at " + i);
+            } else {
+                double mean = rets.stream().mapToDouble(Double::doubleValue).average().orElseThrow();
+                double var = rets.stream().mapToDouble(r -> (r - mean) * (r - mean)).sum() / rets.size();
+                assertEquals(Math.sqrt(var), rw.volatility(), 1e-9, "volatility at " + i);
+            }
+        }
+    }
+
+    @Test
+    void emitsFromFirstFullWindowEveryStep() {
+        var rw = new RollingRiskWindow(3);
+        List<Integer> emitted = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            rw.push(1.0);
+            if (rw.emitDue(2)) emitted.add(i);
+        }
+        assertEquals(List.of(3, 5, 7, 9), emitted);
+
+        rw.clear(); // 다시 처음부터
+        emitted.clear();
+        for (int i = 1; i <= 4; i++) {
+            rw.push(1.0);
+            if (rw.emitDue(1)) emitted.add(i);
+        }
+        assertEquals(List.of(3, 4), emitted);
+        assertTrue(Double.isNaN(new RollingRiskWindow(2).avgDeviation()));
+    }
+}
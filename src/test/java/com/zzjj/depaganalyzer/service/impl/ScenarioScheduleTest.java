@@ -0,0 +1,107 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.Scenario.ScenarioType;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zzjj.depaganalyzer.service.impl.ScenarioSchedule.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 시나리오 컴파일: 시점 정렬, 램프 시작/종료 쌍, 반복 전개, 같은 시점의 종료 → 시작 순서, 이벤트 수 상한, 요청 검증.
+ */
+class ScenarioScheduleTest {
+
+    @Test
+    void singleEventsAreSortedByTimeThenRequestOrder() {
+        var s = ScenarioSchedule.compile(List.of(
+                new Scenario(50, ScenarioType.FEE_CHANGE, 0.002),
+                new Scenario(10, ScenarioType.REDEEM_SHOCK, 0.25),
+                new Scenario(10, ScenarioType.FEE_CHANGE, 0.003)), 100);
+
+        assertArrayEquals(new int[]{10, 10, 11, 50}, s.at);
+        assertArrayEquals(new byte[]{REDEEM_START, FEE_SET, REDEEM_END, FEE_SET}, s.op);
+        assertEquals(0.25, s.value[0]);  // 단발은 총량 그대로
+        assertEquals(10, s.firstAt());
+        assertEquals(Integer.MAX_VALUE, ScenarioSchedule.EMPTY.firstAt());
+    }
+
+    @Test
+    void rampSplitsTotalIntoCompoundedPerStepRate() {
+        var s = ScenarioSchedule.compile(List.of(new Scenario(5, ScenarioType.COLLATERAL_DROP, 0.36, 2, null, null)), 100);
+
+        assertArrayEquals(new int[]{5, 7}, s.at);
+        assertArrayEquals(new byte[]{DROP_START, DROP_END}, s.op);
+        assertEquals(0.2, s.value[0], 1e-12);        // (1 - 0.2)^2 = 1 - 0.36
+        assertEquals(s.value[0], s.value[1]);        // 종료 때 같은 비율을 뺀다
+    }
+
+    @Test
+    void repeatsExpandWithinStepsAndEndBeforeNextStartOnSameStep() {
+        // duration == repeatEvery → 앞 램프 종료와 다음 램프 시작이 같은 스텝
+        var s = ScenarioSchedule.compile(List.of(new Scenario(10, ScenarioType.REDEEM_SHOCK, 0.2, 5, 5, 3)), 100);
+        assertArrayEquals(new int[]{10, 15, 15, 20, 20, 25}, s.at);
+        assertArrayEquals(new byte[]{REDEEM_START, REDEEM_END, REDEEM_START, REDEEM_END, REDEEM_START, REDEEM_END}, s.op);
+
+        // repeatCount 생략 → 시뮬 끝까지, steps 이후 종료 이벤트는 버림
+        var open = ScenarioSchedule.compile(List.of(new Scenario(0, ScenarioType.REDEEM_SHOCK, 0.1, 4, 10, null)), 33);
+        assertArrayEquals(new int[]{0, 4, 10, 14, 20, 24, 30}, open.at);
+    }
+
+    @Test
+    void overlappingScenariosKeepEveryEvent() {
+        var s = ScenarioSchedule.compile(List.of(
+                new Scenario(10, ScenarioType.REDEEM_SHOCK, 0.1, 4, null, null),
+                new Scenario(12, ScenarioType.REDEEM_SHOCK, 0.2, 4, null, null),
+                new Scenario(11, ScenarioType.FEE_CHANGE, 0.01, 3, null, null),
+                new Scenario(12, ScenarioType.FEE_CHANGE, 0.02, 3, null, null),
+                new Scenario(13, ScenarioType.ORACLE_LAG, 90.0, 2, null, null),
+                new Scenario(14, ScenarioType.ORACLE_LAG, 30.0)), 100);
+
+        // 같은 시점은 요청 순서: t=14 → 1번 램프 종료, 3번 수수료 램프 종료, 6번 지연 설정
+        assertArrayEquals(new int[]{10, 11, 12, 12, 13, 14, 14, 14, 15, 15, 16}, s.at);
+        assertArrayEquals(new byte[]{REDEEM_START, FEE_RAMP_START, REDEEM_START, FEE_RAMP_START, LAG_SET,
+                REDEEM_END, FEE_RAMP_END, LAG_SET, FEE_RAMP_END, LAG_RESTORE, REDEEM_END}, s.op);
+        assertArrayEquals(new int[]{0, 0, 1, 1}, new int[]{s.aux[1], s.aux[6], s.aux[3], s.aux[8]}); // 램프 번호 짝
+        assertArrayEquals(new int[]{3, 3}, s.rampDuration);
+        assertEquals(90.0, s.maxLagSeconds);
+    }
+
+    @Test
+    void rejectsInvalidScenariosAndOversizedSchedules() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioSchedule.compile(List.of(new Scenario(-1, ScenarioType.REDEEM_SHOCK, 0.1)), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioSchedule.compile(List.of(new Scenario(0, ScenarioType.REDEEM_SHOCK, 0.1, 0, null, null)), 10));
+
+        // 스텝마다 시작 + 다음 스텝 종료 (마지막 종료는 steps 밖이라 버림) → steps × 2 - 1개
+        var every = new Scenario(0, ScenarioType.REDEEM_SHOCK, 0.01, null, 1, null);
+        assertEquals(MAX_EVENTS - 1, ScenarioSchedule.compile(List.of(every), MAX_EVENTS / 2).size());
+        var ex = assertThrows(IllegalArgumentException.class,
+                () -> ScenarioSchedule.compile(List.of(every), MAX_EVENTS / 2 + 1));
+        assertTrue(ex.getMessage().contains("too large"));
+    }
+
+    @Test
+    void requestValidationCascadesIntoScenarios() {
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        var scenarios = new ArrayList<Scenario>();
+        scenarios.add(new Scenario(10, null, 0.1));                               // type 누락
+        scenarios.add(new Scenario(5, ScenarioType.REDEEM_SHOCK, 0.1, 0, null, null)); // duration < 1
+        var req = new SimulationRequest(SimModelType.RESERVE, 100, 1.0, 1,
+                new SimParams(0.9, 0.001, 0, 1e6, 1e6, 0.0), scenarios, null, null, null);
+
+        var paths = validator.validate(req).stream().map(v -> v.getPropertyPath().toString()).sorted().toList();
+        assertEquals(List.of("scenarios[0].type", "scenarios[1].duration"), paths);
+    }
+}
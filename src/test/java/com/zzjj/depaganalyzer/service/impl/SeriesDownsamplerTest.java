@@ -0,0 +1,60 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.service.impl.SeriesDownsampler.StepBucketMinMax;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 스텝 버킷 min/max: 버킷이 스텝보다 많으면 스텝마다 한 점, 일찍 끝난 런은 빈 버킷을 건너뛰고,
+ * 버킷마다 최대 두 점을 시점 순서로 남긴다.
+ */
+class SeriesDownsamplerTest {
+
+    @Test
+    void moreBucketsThanStepsKeepsEveryStepOnce() {
+        var s = new StepBucketMinMax<Integer>(5, 100);
+        feed(s, 5, t -> Math.sin(t));
+        assertEquals(List.of(0, 1, 2, 3, 4), s.result());
+    }
+
+    @Test
+    void earlyEndSkipsEmptyBuckets() {
+        // 100스텝 / 10버킷인데 35스텝에서 끝남 → 버킷 0..3만 채워지고 4..9는 비어 있음
+        var s = new StepBucketMinMax<Integer>(100, 10);
+        feed(s, 35, t -> (t * 7919 % 13) - 6.0);
+
+        List<Integer> out = s.result();
+        assertTrue(out.size() <= 8, "at most two per filled bucket: " + out);
+        assertTrue(out.stream().allMatch(t -> t < 35));
+        for (int i = 1; i < out.size(); i++) assertTrue(out.get(i - 1) < out.get(i), "step order: " + out);
+        assertEquals(List.of(0, 1, 2, 3), out.stream().map(t -> t / 10).distinct().toList());
+    }
+
+    @Test
+    void keepsMinAndMaxPerBucketInStepOrder() {
+        var s = new StepBucketMinMax<Integer>(20, 2);
+        double[] v = {5, 1, 9, 4, 4, 4, 4, 4, 4, 4,     // 버킷 0: min t=1, max t=2
+                      4, 4, 8, 4, 4, 4, 4, 0, 4, 4};    // 버킷 1: max t=12가 min t=17보다 먼저
+        feed(s, 20, t -> v[t]);
+        assertEquals(List.of(1, 2, 12, 17), s.result());
+
+        var flat = new StepBucketMinMax<Integer>(10, 1);
+        feed(flat, 10, t -> 1.0); // min과 max가 같은 점 → 한 번만
+        assertEquals(List.of(0), flat.result());
+
+        assertEquals(List.of(), new StepBucketMinMax<Integer>(0, 4).result());
+    }
+
+    private static void feed(StepBucketMinMax<Integer> s, int steps, IntToDoubleFunction values) {
+        IntStream.range(0, steps).forEach(t -> {
+            double x = values.applyAsDouble(t);
+            if (s.offer(t, x)) s.accept(t, x, t);
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.risk.RiskMetrics;
+import com.zzjj.depaganalyzer.dto.sim.SeriesPoint;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.service.resultstore.OffHeapResultStore;
+import com.zzjj.depaganalyzer.service.resultstore.ResultStoreProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 시뮬 비교: 스텝 정렬(성긴 시계열은 직전 값 유지), 엔벨로프/발산 지점, 파티션 병렬 결과 일치.
+ */
+class SimulationComparatorTest {
+
+    @Test
+    void alignsRunsAndFindsDivergence() {
+        // a: 1.0 고정, b: 5스텝부터 0.98, c: t=0,8,9만 보관 (0~7은 0.999, 8~9는 1.005)
+        var a = result("a", series(10, t -> 1.0), metrics(0.0));
+        var b = result("b", series(10, t -> t < 5 ? 1.0 : 0.98), metrics(0.01));
+        var c = result("c", List.of(point(0, 0.999), point(8, 1.005), point(9, 1.005)), metrics(null));
+
+        var cmp = new SimulationComparator(1, 1).compare(List.of(a, b, c), 0, 10, 0.01);
+
+        assertEquals(10, cmp.steps());
+        assertEquals(10, cmp.bands().size());
+        var band6 = cmp.bands().get(6);
+        assertEquals(0.98, band6.min(), 0.0);
+        assertEquals(0.999, band6.median(), 0.0);
+        assertEquals(1.0, band6.max(), 0.0);
+        assertEquals(3, band6.runs());
+        assertEquals(5, (int) cmp.firstSpreadBreachT());
+
+        var rb = cmp.runs().get(1);
+        assertEquals(5, (int) rb.firstDivergenceT());
+        assertEquals(0.02, rb.maxAbsGap(), 1e-12);
+        assertEquals(0.01, rb.delta().avgDeviation(), 1e-12);
+        var rc = cmp.runs().get(2);
+        assertNull(rc.firstDivergenceT());       // 최대 차 0.005 < 0.01
+        assertNull(rc.delta().avgDeviation());   // c의 지표가 null
+        assertNull(cmp.runs().get(0).maxAbsGap());
+    }
+
+    @Test
+    void partitionedScanMatchesSingleScanOverOffHeapColumns() {
+        var store = new OffHeapResultStore(new ResultStoreProperties(true, false, null, 64_000_000L, 8, Duration.ofHours(1)));
+        List<SimulationResult> runs = new ArrayList<>();
+        for (int k = 0; k < 12; k++) {
+            int shock = 1_000 + 500 * k;
+            runs.add(store.offload(result("r" + k,
+                    series(20_000 - 300 * k, t -> t < shock ? 1.0 : 1.0 - 0.002 * Math.log1p(t - shock)),
+                    metrics(0.001 * k))));
+        }
+
+        var single = new SimulationComparator(1, 1).compare(runs, 3, 257, 0.005);
+        var parallel = new SimulationComparator(4, 1).compare(runs, 3, 257, 0.005);
+
+        assertEquals(single, parallel);
+        assertEquals(20_000, single.steps());
+        assertEquals(257, single.bands().size());
+    }
+
+    private interface PriceAt { double at(int t); }
+
+    private static List<SeriesPoint> series(int n, PriceAt f) {
+        List<SeriesPoint> s = new ArrayList<>(n);
+        for (int t = 0; t < n; t++) s.add(point(t, f.at(t)));
+        return s;
+    }
+
+    private static SeriesPoint point(int t, double price) {
+        return new SeriesPoint(t, price, 1e6, 5e5, 5e5, Math.abs(price - 1.0), null);
+    }
+
+    private static RiskMetrics metrics(Double avgDeviation) {
+        return new RiskMetrics(avgDeviation, 0.001, 0.99, 10, 0.01);
+    }
+
+    private static SimulationResult result(String id, List<SeriesPoint> series, RiskMetrics metrics) {
+        return new SimulationResult(id, SimulationResult.Status.FINISHED, null, null, List.of(), metrics,
+                series, List.of(), null, null, null, null, null, null);
+    }
+}
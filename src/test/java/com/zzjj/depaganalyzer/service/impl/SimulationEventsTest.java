@@ -0,0 +1,158 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.service.datasource.SyntheticMarketDataSource;
+import com.zzjj.depaganalyzer.service.quota.ClientQuotas;
+import com.zzjj.depaganalyzer.service.quota.QuotaProperties;
+import com.zzjj.depaganalyzer.service.resultstore.OffHeapResultStore;
+import com.zzjj.depaganalyzer.service.resultstore.ResultStoreProperties;
+import com.zzjj.depaganalyzer.service.trace.JfrRecordingEndpoint;
+import com.zzjj.depaganalyzer.service.trace.StepPhaseTracer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JFR 이벤트: jfr 엔드포인트로 녹화를 켜고 시뮬 하나를 돌리면 수명주기 이벤트가 jobId/steps를 채워 한 번씩 남고,
+ * StepBatch는 stepBatches=true로 켠 녹화에만 나온다. 엔드포인트가 만들지 않은 녹화는 끌 수 없다(403).
+ */
+class SimulationEventsTest {
+
+    private static final String PREFIX = "com.zzjj.depaganalyzer.";
+    private static final int STEPS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    private final SimulationComparator comparator = new SimulationComparator(1, 262_144);
+    private final SimulationServiceImpl service = new SimulationServiceImpl(new SyntheticMarketDataSource(42),
+            null, null, null, new ClientQuotas(new QuotaProperties(false, null, null, null)),
+            new OffHeapResultStore(new ResultStoreProperties(false, null, null, null, null, Duration.ZERO)),
+            comparator);
+
+    @AfterEach
+    void stop() {
+        comparator.shutdown();
+    }
+
+    @Test
+    void lifecycleEventsOncePerJobAndNoStepBatchesByDefault() throws Exception {
+        var endpoint = endpoint();
+        long rec = endpoint.start(null, 60L, null, null).getBody().id();
+        try {
+            String id = run();
+            List<RecordedEvent> events = recorded(endpoint, rec, id);
+            Map<String, Long> counts = events.stream()
+                    .collect(Collectors.groupingBy(e -> e.getEventType().getName(), Collectors.counting()));
+
+            for (String name : List.of("SimulationQueued", "SimulationRun", "SimulationMetrics", "SimulationPersisted")) {
+                assertEquals(1L, counts.get(PREFIX + name), name + " in " + counts);
+            }
+            for (String name : List.of("SimulationQueued", "SimulationRun", "SimulationMetrics")) {
+                assertEquals(STEPS, one(events, name).getInt("steps"), name);
+            }
+            assertEquals("FINISHED", one(events, "SimulationRun").getString("status"));
+            assertEquals("FINISHED", one(events, "SimulationPersisted").getString("status"));
+            assertEquals(2L, counts.get(PREFIX + "ScenarioFired")); // 충격 시작 + 다음 스텝 종료
+            assertTrue(counts.get(PREFIX + "SimulationCheckpoint") >= 20);
+            assertEquals(null, counts.get(PREFIX + "SimulationStepBatch"));
+        } finally {
+            assertEquals(200, endpoint.stop(rec).getStatus());
+        }
+    }
+
+    @Test
+    void stepBatchesOnlyWhenExplicitlyEnabled() throws Exception {
+        var endpoint = endpoint();
+        var info = endpoint.start(null, 60L, true, null).getBody();
+        assertTrue(info.stepBatches());
+        try {
+            String id = run();
+            List<RecordedEvent> batches = recorded(endpoint, info.id(), id).stream()
+                    .filter(e -> e.getEventType().getName().equals(PREFIX + "SimulationStepBatch"))
+                    .sorted((a, b) -> Integer.compare(a.getInt("fromStep"), b.getInt("fromStep")))
+                    .toList();
+
+            // BATCH(4096) 스텝마다 하나, [from, to)가 빈틈없이 이어져 전체 스텝을 덮는다
+            assertEquals((STEPS + StepPhaseTracer.BATCH - 1) / StepPhaseTracer.BATCH, batches.size());
+            int next = 0;
+            for (var b : batches) {
+                assertEquals(next, b.getInt("fromStep"));
+                next = b.getInt("toStep");
+                assertEquals("RESERVE", b.getString("modelType"));
+            }
+            assertEquals(STEPS, next);
+        } finally {
+            endpoint.stop(info.id());
+        }
+    }
+
+    @Test
+    void recordingsStartedElsewhereCannotBeStopped() {
+        try (var foreign = new Recording()) {
+            foreign.setName("ops-continuous");
+            foreign.start();
+            assertEquals(403, endpoint().stop(foreign.getId()).getStatus());
+            assertEquals(404, endpoint().stop(Long.MAX_VALUE).getStatus());
+        }
+    }
+
+    private JfrRecordingEndpoint endpoint() {
+        return new JfrRecordingEndpoint(dir.toString(), Duration.ofMinutes(5), Duration.ofHours(1));
+    }
+
+    // 상환 충격 하나가 든 작은 시뮬 (dt < 1이라 데모 sleep 없음)
+    private String run() throws InterruptedException {
+        var req = new SimulationRequest(SimModelType.RESERVE, STEPS, 0.5, 3,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0),
+                List.of(new Scenario(100, Scenario.ScenarioType.REDEEM_SHOCK, 0.1)), null, null, null);
+        String id = service.createSimulation(req).id();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!(service.getSimulation(id) instanceof SimulationResult)) {
+            if (System.nanoTime() > deadline) throw new AssertionError("simulation " + id + " did not finish");
+            Thread.sleep(5);
+        }
+        return id;
+    }
+
+    // 녹화 덤프에서 이 잡의 이벤트. Run은 결과 저장 직후 커밋되므로 보일 때까지 다시 덤프한다
+    private static List<RecordedEvent> recorded(JfrRecordingEndpoint endpoint, long rec, String jobId) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            Path file = endpoint.dump(rec).getBody().getFile().toPath();
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+                    .filter(e -> jobId.equals(e.getString("jobId")))
+                    .toList();
+            if (events.stream().anyMatch(e -> e.getEventType().getName().equals(PREFIX + "SimulationRun"))
+                    || System.nanoTime() > deadline) {
+                return events;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static RecordedEvent one(List<RecordedEvent> events, String name) {
+        Map<String, RecordedEvent> byName = events.stream()
+                .collect(Collectors.toMap(e -> e.getEventType().getName(), Function.identity(), (a, b) -> a));
+        return byName.get(PREFIX + name);
+    }
+}
@@ -0,0 +1,126 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import com.zzjj.depaganalyzer.domain.sim.SimModelType;
+import com.zzjj.depaganalyzer.dto.sim.CompareRequest;
+import com.zzjj.depaganalyzer.dto.sim.Scenario;
+import com.zzjj.depaganalyzer.dto.sim.SeriesPoint;
+import com.zzjj.depaganalyzer.dto.sim.SimParams;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest.Retention;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import com.zzjj.depaganalyzer.service.datasource.SyntheticMarketDataSource;
+import com.zzjj.depaganalyzer.service.quota.ClientQuotas;
+import com.zzjj.depaganalyzer.service.quota.QuotaProperties;
+import com.zzjj.depaganalyzer.service.resultstore.OffHeapResultStore;
+import com.zzjj.depaganalyzer.service.resultstore.ResultStoreProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 결과 보관 방식: 지표는 보관 방식과 무관하게 같고, DOWNSAMPLED는 points개 이하로 스텝 순서와 전역 극값을 지키며,
+ * METRICS_ONLY/EVENTS_ONLY는 시계열을 남기지 않는다.
+ * 비교 요청 검증: 가격 시계열을 남기지 않은 런(METRICS_ONLY/EVENTS_ONLY)이 섞이면 빈 엔벨로프 대신 400.
+ */
+class SimulationServiceImplTest {
+
+    private final SimulationComparator comparator = new SimulationComparator(1, 262_144);
+    private final SimulationServiceImpl service = new SimulationServiceImpl(new SyntheticMarketDataSource(42),
+            null, null, null, new ClientQuotas(new QuotaProperties(false, null, null, null)),
+            new OffHeapResultStore(new ResultStoreProperties(false, null, null, null, null, Duration.ZERO)),
+            comparator);
+
+    @AfterEach
+    void stop() {
+        comparator.shutdown();
+    }
+
+    @Test
+    void riskMetricsDoNotDependOnRetention() throws InterruptedException {
+        var full = result(shocked(Retention.Mode.FULL, null));
+        assertEquals(2_000, full.series().size());
+        assertFalse(full.events().isEmpty());
+        for (var mode : List.of(Retention.Mode.DOWNSAMPLED, Retention.Mode.EVENTS_ONLY, Retention.Mode.METRICS_ONLY)) {
+            var r = result(shocked(mode, null));
+            assertEquals(full.metrics(), r.metrics(), mode.name());
+            assertEquals(mode, r.retention().mode());
+        }
+    }
+
+    @Test
+    void downsampledKeepsStepOrderAndGlobalExtremes() throws InterruptedException {
+        List<SeriesPoint> full = result(shocked(Retention.Mode.FULL, null)).series();
+        var min = full.stream().min(Comparator.comparingDouble(SeriesPoint::price)).orElseThrow();
+        var max = full.stream().max(Comparator.comparingDouble(SeriesPoint::price)).orElseThrow();
+
+        for (int points : new int[]{101, 64, 2}) {
+            List<SeriesPoint> ds = result(shocked(Retention.Mode.DOWNSAMPLED, points)).series();
+            assertTrue(ds.size() <= points && ds.size() >= Math.min(points, 2), "points=" + points + " size=" + ds.size());
+            for (int i = 1; i < ds.size(); i++) assertTrue(ds.get(i - 1).t() < ds.get(i).t(), "step order");
+            assertTrue(ds.contains(min) && ds.contains(max), "global min/max kept at points=" + points);
+            assertTrue(full.containsAll(ds)); // 원본 점 그대로 (보간/평균 없음)
+        }
+    }
+
+    @Test
+    void eventsAndMetricsOnlyDropTheSeries() throws InterruptedException {
+        var full = result(shocked(Retention.Mode.FULL, null));
+
+        var eventsOnly = result(shocked(Retention.Mode.EVENTS_ONLY, null));
+        assertTrue(eventsOnly.series().isEmpty());
+        assertEquals(full.events(), eventsOnly.events());
+
+        var metricsOnly = result(shocked(Retention.Mode.METRICS_ONLY, null));
+        assertTrue(metricsOnly.series().isEmpty());
+        assertTrue(metricsOnly.events().isEmpty());
+    }
+
+    @Test
+    void compareRejectsRunsWithoutSeries() throws InterruptedException {
+        String full = finished(Retention.Mode.FULL);
+        String full2 = finished(Retention.Mode.FULL);
+        assertEquals(2, service.compareSimulations(new CompareRequest(List.of(full, full2), null, 10, null)).runs().size());
+
+        for (var mode : List.of(Retention.Mode.METRICS_ONLY, Retention.Mode.EVENTS_ONLY)) {
+            String empty = finished(mode);
+            var ex = assertThrows(IllegalArgumentException.class,
+                    () -> service.compareSimulations(new CompareRequest(List.of(full, empty), null, 10, null)));
+            assertTrue(ex.getMessage().contains(mode.name()) && ex.getMessage().contains(empty), ex.getMessage());
+        }
+    }
+
+    private String finished(Retention.Mode mode) throws InterruptedException {
+        var req = new SimulationRequest(SimModelType.RESERVE, 200, 1.0, 7,
+                new SimParams(0.9, 0.001, 0, 1e6, 1e6, 0.0), List.of(), null, null, new Retention(mode, null));
+        return result(req).id();
+    }
+
+    // 같은 시드 + 상환 충격 램프 (dt < 1이라 스텝마다 데모 sleep 없음)
+    private static SimulationRequest shocked(Retention.Mode mode, Integer points) {
+        return new SimulationRequest(SimModelType.RESERVE, 2_000, 0.5, 11,
+                new SimParams(0.8, 0.001, 30, 1_000_000.0, 500_000.0, 600_000.0),
+                List.of(new Scenario(500, Scenario.ScenarioType.REDEEM_SHOCK, 0.3, 50, null, null)),
+                null, null, new Retention(mode, points));
+    }
+
+    private SimulationResult result(SimulationRequest req) throws InterruptedException {
+        String id = service.createSimulation(req).id();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (service.getSimulation(id) instanceof SimulationResult r) {
+                assertEquals(SimulationResult.Status.FINISHED, r.status());
+                return r;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("simulation " + id + " did not finish");
+    }
+}
@@ -0,0 +1,78 @@
+package com.zzjj.depaganalyzer.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * t-digest 분위수 정확도: 정확한 순서통계량 대비 순위 오차(추정값의 경험적 CDF - q)가
+ * 중간 분위수에서 0.5%p, 꼬리(q ≤ 0.01, q ≥ 0.99)에서 0.1%p 이하 (δ = 200, 표본 10만 개).
+ */
+class TDigestTest {
+
+    private static final double[] QS = {0.001, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 0.999};
+
+    @Test
+    void quantilesAreWithinRankErrorOfExactOrderStatistics() {
+        Random rnd = new Random(11);
+        check("normal", rnd::nextGaussian);
+        check("exponential", () -> -Math.log(1 - rnd.nextDouble()));       // 한쪽으로 긴 꼬리
+        check("drawdown-like", () -> Math.max(0, rnd.nextGaussian()) * 1e-3); // 0에 몰린 값 + 연속 꼬리
+    }
+
+    @Test
+    void endsAreExactAndEmptyIsNaN() {
+        var d = new TDigest(200);
+        assertTrue(Double.isNaN(d.quantile(0.5)));
+        d.add(3.0);
+        assertEquals(3.0, d.quantile(0.5));
+        for (int i = 0; i < 10_000; i++) d.add(i);
+        d.add(Double.NaN); // 무시
+        assertEquals(10_001, d.size());
+        assertEquals(0.0, d.quantile(0));
+        assertEquals(9_999.0, d.quantile(1));
+    }
+
+    private static void check(String name, DoubleSupplier dist) {
+        int n = 100_000;
+        double[] xs = new double[n];
+        var d = new TDigest(200);
+        for (int i = 0; i < n; i++) {
+            xs[i] = dist.getAsDouble();
+            d.add(xs[i]);
+        }
+        Arrays.sort(xs);
+        for (double q : QS) {
+            double est = d.quantile(q);
+            double bound = q <= 0.01 || q >= 0.99 ? 0.001 : 0.005;
+            // 같은 값이 많으면 CDF가 계단이므로 [P(X < est), P(X ≤ est)]가 q ± bound와 겹치면 통과
+            double lo = (double) lowerBound(xs, est) / n;
+            double hi = (double) upperBound(xs, est) / n;
+            assertTrue(hi >= q - bound && lo <= q + bound,
+                    name + " q=" + q + ": estimate " + est + " has rank [" + lo + ", " + hi + "]");
+        }
+    }
+
+    private static int lowerBound(double[] sorted, double x) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] sorted, double x) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,72 @@
+package com.zzjj.depaganalyzer.service.quota;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 클라이언트 쿼터: 동시 잡 수 반환, 분당 steps 슬라이딩 윈도우, 저장 바이트 선점/정산을 가짜 시계로 검증.
+ */
+class ClientQuotasTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ClientQuotas quotas = new ClientQuotas(new QuotaProperties(true, 2, 1_000L, 10_000L), now::get);
+
+    @Test
+    void concurrentJobsAreReturnedOnCompletion() {
+        var a = quotas.acquire("c1", 10, 100);
+        quotas.acquire("c1", 10, 100);
+        assertThrows(QuotaExceededException.class, () -> quotas.acquire("c1", 10, 100));
+        quotas.acquire("c2", 10, 100); // 다른 클라이언트는 영향 없음
+
+        quotas.complete(a, 50);
+        quotas.acquire("c1", 10, 100);
+        assertEquals(2, quotas.usage("c1").activeJobs());
+    }
+
+    @Test
+    void stepBudgetSlidesWithTheWindow() {
+        quotas.complete(quotas.acquire("c1", 600, 0), 0);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        quotas.complete(quotas.acquire("c1", 300, 0), 0);
+
+        var e = assertThrows(QuotaExceededException.class, () -> quotas.acquire("c1", 200, 0));
+        assertEquals(30, e.retryAfterSeconds()); // 첫 600 steps가 빠지는 시점
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        quotas.acquire("c1", 200, 0);
+        assertEquals(500, quotas.usage("c1").stepsLastMinute());
+
+        // 한 번에 한도보다 큰 요청은 기다려도 안 되므로 Retry-After 없음
+        assertEquals(0, assertThrows(QuotaExceededException.class, () -> quotas.acquire("c2", 5_000, 0)).retryAfterSeconds());
+    }
+
+    @Test
+    void storedBytesAreReservedSettledAndFreed() {
+        var lease = quotas.acquire("c1", 1, 8_000);
+        assertThrows(QuotaExceededException.class, () -> quotas.acquire("c1", 1, 4_000)); // 예측치 선점분 포함
+
+        quotas.complete(lease, 3_000); // 실제 크기로 정산
+        assertEquals(3_000, quotas.usage("c1").storedBytes());
+        quotas.complete(quotas.acquire("c1", 1, 4_000), 4_000);
+
+        quotas.free("c1", 3_000);
+        assertEquals(4_000, quotas.usage("c1").storedBytes());
+    }
+
+    @Test
+    void postHocChargeCountsAgainstTheNextSubmission() {
+        var lease = quotas.acquire("c1", 200, 0);   // 앙상블: minPaths 몫만 선청구
+        quotas.charge("c1", 700);                   // 끝난 뒤 추가 경로분 (한도를 넘겨도 거절하지 않음)
+        quotas.complete(lease, 0);
+        assertEquals(900, quotas.usage("c1").stepsLastMinute());
+        assertThrows(QuotaExceededException.class, () -> quotas.acquire("c1", 200, 0));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        quotas.acquire("c1", 200, 0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.zzjj.depaganalyzer.service.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA 속도 제한: 조회 경로로 규칙 찾기, burst 소진 후 대기 시간, 시간 경과에 따른 회복, 비용 가중,
+ * 환불, 동시 요청에서도 정확히 burst만 통과, 클라이언트 수 상한을 넘으면 공용 버킷.
+ */
+class GcraRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(-5_000_000_000L); // nanoTime은 음수일 수도 있음
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GcraRateLimiter limiter = new GcraRateLimiter(new RateLimitProperties(true, 4, Duration.ofMinutes(1), null, List.of(
+            new RateLimitProperties.Rule("create", "POST", "/api/simulations/**", 10.0, 5, 1_000_000L),
+            new RateLimitProperties.Rule("read", null, "/api/**", 100.0, 100, null))), registry, now::get);
+
+    @Test
+    void matchesFirstRuleByMethodAndPath() {
+        var create = limiter.match("POST", "/api/simulations");
+        assertEquals("create", create.rule().name());
+        assertEquals("read", limiter.match("GET", "/api/simulations/sim_1").rule().name());
+        assertNull(limiter.match("GET", "/actuator/health"));
+
+        // 인코딩/;경로 파라미터로 URI 문자열만 바꿔도 같은 규칙 (핸들러 매핑과 같은 해석)
+        assertEquals("create", limiter.match("POST", "/api/%73imulations").rule().name());
+        assertEquals("create", limiter.match("POST", "/api/simulations;x=1/batch").rule().name());
+    }
+
+    @Test
+    void burstThenWaitThenRefill() {
+        var create = limiter.match("POST", "/api/simulations");
+        for (int i = 0; i < 5; i++) assertEquals(0L, limiter.acquire(create, "c1", 1));
+
+        long wait = limiter.acquire(create, "c1", 1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait); // 10/s → 토큰 하나 100ms
+        assertEquals(0L, limiter.acquire(create, "c2", 1));     // 다른 클라이언트는 별도 버킷
+
+        now.addAndGet(wait);
+        assertEquals(0L, limiter.acquire(create, "c1", 1));
+        assertEquals(1.0, registry.counter("depag.ratelimit.rejected", "rule", "create").count());
+    }
+
+    @Test
+    void costIsWeightedAndCappedByBurst() {
+        var create = limiter.match("POST", "/api/simulations");
+        assertEquals(GcraRateLimiter.NEVER, limiter.acquire(create, "c1", 6));
+        assertEquals(0L, limiter.acquire(create, "c1", 4));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.acquire(create, "c1", 3));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1)); // 다시 가득 참
+        assertEquals(0L, limiter.acquire(create, "c1", 5));
+    }
+
+    @Test
+    void refundUndoesAnEarlierCharge() {
+        var create = limiter.match("POST", "/api/simulations");
+        assertEquals(0L, limiter.acquire(create, "c1", 3));
+        limiter.refund(create, "c1", 1);
+        assertEquals(0L, limiter.acquire(create, "c1", 3));   // 3 - 1 + 3 = 5 = burst
+        assertTrue(limiter.acquire(create, "c1", 1) > 0);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        limiter.purgeIdle();
+        limiter.refund(create, "c1", 1);                        // 정리된 (가득 찬) 버킷: 더 채우지 않는다
+        assertEquals(0L, limiter.acquire(create, "c1", 5));
+        assertTrue(limiter.acquire(create, "c1", 1) > 0);
+    }
+
+    @Test
+    void clientsOverTheCapShareTheStripeOverflowBucket() {
+        // 조각 1개 × 버킷 2개: 세 번째 클라이언트부터는 공용 버킷 하나를 나눠 쓴다
+        var capped = new GcraRateLimiter(new RateLimitProperties(true, 1, Duration.ofMinutes(1), 2, List.of(
+                new RateLimitProperties.Rule("create", "POST", "/api/**", 10.0, 2, null))), registry, now::get);
+        var create = capped.match("POST", "/api/simulations");
+        for (String c : List.of("a", "b")) assertEquals(0L, capped.acquire(create, c, 2));
+
+        assertEquals(0L, capped.acquire(create, "spoof-1", 1));
+        assertEquals(0L, capped.acquire(create, "spoof-2", 1));
+        assertTrue(capped.acquire(create, "spoof-3", 1) > 0); // 새 키를 계속 만들어도 한도는 그대로
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        capped.purgeIdle(); // 가득 찬 뒤 쉬던 버킷이 빠지면 자리가 다시 난다
+        assertEquals(0L, capped.acquire(create, "spoof-3", 2));
+        assertEquals(0L, capped.acquire(create, "spoof-4", 2));
+        assertEquals(0L, capped.acquire(create, "spoof-5", 2)); // 다시 꽉 참 → 공용 버킷 (그사이 가득 찼음)
+        assertTrue(capped.acquire(create, "spoof-6", 1) > 0);
+    }
+
+    @Test
+    void concurrentCallersAdmitExactlyTheBurst() throws Exception {
+        var read = limiter.match("GET", "/api/assets/USDT/metrics");
+        var admitted = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            for (int t = 0; t < 16; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) if (limiter.acquire(read, "hot", 1) == 0) admitted.incrementAndGet();
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(100, admitted.get()); // 시계가 멈춰 있으므로 burst만큼만
+    }
+}
@@ -0,0 +1,76 @@
+package com.zzjj.depaganalyzer.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 직접 기록한 PDF의 구조: xref 오프셋이 각 "n 0 obj" 머리를 정확히 가리키고,
+ * 콘텐츠 스트림의 /Length가 stream ~ endstream 사이 바이트 수와 같아야 한다 (뷰어가 복구 모드로 빠지지 않도록).
+ */
+class PdfReportRendererTest {
+
+    @Test
+    void xrefOffsetsAndStreamLengthsAreExact() throws Exception {
+        var price = new ReportDocument.Series("price (USDC)", new double[]{0, 1, 2, 3}, new double[]{1.0, 0.99, 0.97, 1.001});
+        var reserve = new ReportDocument.Series("reserve", new double[]{0, 1, 2}, new double[]{10, 9.5, 9});
+        var doc = new ReportDocument(
+                "Report (a\\b) – non-ASCII 한글", // 이스케이프/치환 대상 문자 포함
+                Instant.parse("2026-01-01T00:00:00Z"),
+                List.of(new ReportDocument.Row("Simulation", "sim-1")),
+                new ReportDocument.Table(List.of("Metric", "Value"), List.of(List.of("Peg uptime", "0.98"))),
+                List.of(new ReportDocument.Chart("Price", "step", List.of(price), new double[]{0.995, 1.005}),
+                        new ReportDocument.Chart("Reserves", "step", List.of(reserve), new double[0])),
+                List.of("t=2 SHOCK {}", "t=3 RECOVER {}"));
+
+        var buf = new ByteArrayOutputStream();
+        new PdfReportRenderer().render(doc, buf);
+        byte[] pdf = buf.toByteArray();
+        String s = new String(pdf, StandardCharsets.ISO_8859_1); // 1바이트 = 1문자 → 문자 인덱스 = 바이트 오프셋
+
+        assertTrue(s.startsWith("%PDF-1.4\n"));
+        assertTrue(s.endsWith("%%EOF\n"));
+
+        // startxref → xref 표
+        Matcher sx = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(s);
+        assertTrue(sx.find());
+        int xref = Integer.parseInt(sx.group(1));
+        assertTrue(s.startsWith("xref\n", xref), "startxref must point at the xref keyword");
+
+        Matcher head = Pattern.compile("xref\n0 (\\d+)\n").matcher(s);
+        assertTrue(head.find(xref));
+        int size = Integer.parseInt(head.group(1));
+        int objects = 3 + 3 * 2; // 카탈로그/페이지트리/폰트 + 페이지 3장(차트 2 + 노트) × (페이지 + 콘텐츠)
+        assertEquals(objects + 1, size);
+
+        int entry = head.end();
+        assertTrue(s.startsWith("0000000000 65535 f \n", entry));
+        for (int obj = 1; obj < size; obj++) {
+            String line = s.substring(entry + obj * 20, entry + (obj + 1) * 20); // xref 항목은 정확히 20바이트
+            assertTrue(line.endsWith(" 00000 n \n"), line);
+            int off = Integer.parseInt(line.substring(0, 10));
+            assertTrue(s.startsWith(obj + " 0 obj\n", off), "xref entry " + obj + " points at offset " + off);
+        }
+        assertTrue(s.contains("/Size " + size + " "));
+
+        // 모든 스트림: /Length == 실제 바이트 수
+        Matcher st = Pattern.compile("<< /Length (\\d+) >>\nstream\n").matcher(s);
+        int streams = 0;
+        while (st.find()) {
+            int len = Integer.parseInt(st.group(1));
+            int start = st.end();
+            assertTrue(s.startsWith("\nendstream\n", start + len), "stream at " + start + " has /Length " + len);
+            streams++;
+        }
+        assertEquals(3, streams);
+        assertTrue(s.contains("(Report \\(a\\\\b\\) ? non-ASCII ??) Tj"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.zzjj.depaganalyzer.service.resultstore;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.dto.sim.SeriesPoint;
+import com.zzjj.depaganalyzer.dto.sim.SimulationResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 힙 밖 결과 저장: 컬럼 왕복(null ↔ NaN 포함), 상한 초과 시 힙 유지, 해제 후 사용량 반환 + 직렬화는 410.
+ */
+class OffHeapResultStoreTest {
+
+    private final OffHeapResultStore store =
+            new OffHeapResultStore(new ResultStoreProperties(true, false, null, 1_000_000L, 8, Duration.ofHours(1)));
+
+    @Test
+    void seriesRoundTripsThroughSegments() {
+        List<SeriesPoint> series = series(1_000);
+        var off = store.offload(result(series));
+
+        assertTrue(off.series() instanceof OffHeapList<?>);
+        assertEquals(series, List.copyOf(off.series()));
+        assertEquals(OffHeapColumns.sizeOf(1_000, 6), store.stats().usedBytes());
+    }
+
+    @Test
+    void resultsOverTheCapStayOnHeap() {
+        List<SeriesPoint> big = series(50_000); // 52 bytes × 50k > 1MB
+        var r = result(big);
+
+        assertSame(big, store.offload(r).series());
+        assertEquals(1, store.stats().heapFallbacks());
+        assertEquals(0, store.stats().usedBytes());
+    }
+
+    @Test
+    void freeReleasesMemoryOnce() {
+        var off = store.offload(result(series(100)));
+        store.free(off);
+        store.free(off);
+
+        assertEquals(0, store.stats().usedBytes());
+        assertEquals(1, store.stats().freed());
+        assertThrows(IllegalStateException.class, () -> off.series().get(0));
+    }
+
+    @Test
+    void releasedSeriesFailsSerializationInsteadOfWritingEmptyArray() throws Exception {
+        var json = new ObjectMapper();
+        var off = store.offload(result(series(100)));
+        assertEquals(100, json.readTree(json.writeValueAsString(off.series())).size());
+
+        store.free(off);
+        var ex = assertThrows(JsonMappingException.class, () -> json.writeValueAsString(off.series()));
+        var cause = assertInstanceOf(ResponseStatusException.class, ex.getCause());
+        assertEquals(HttpStatus.GONE, cause.getStatusCode());
+    }
+
+    private static List<SeriesPoint> series(int n) {
+        List<SeriesPoint> s = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            s.add(new SeriesPoint(i, 1.0 - i * 1e-6, 1e6, 5e5, 2e5, i * 1e-6, i % 2 == 0 ? 0.999 : null));
+        }
+        return s;
+    }
+
+    private static SimulationResult result(List<SeriesPoint> series) {
+        return new SimulationResult("sim_test", SimulationResult.Status.FINISHED, null, null, List.of(), null,
+                series, List.of(), null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,120 @@
+package com.zzjj.depaganalyzer.service.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzjj.depaganalyzer.dto.metrics.AssetMetricsResponse;
+import com.zzjj.depaganalyzer.dto.sim.BatchRequest;
+import com.zzjj.depaganalyzer.dto.sim.CompareRequest;
+import com.zzjj.depaganalyzer.dto.sim.EnsembleRequest;
+import com.zzjj.depaganalyzer.dto.sim.SensitivityRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationComparison;
+import com.zzjj.depaganalyzer.dto.sim.SimulationCreateResponse;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest;
+import com.zzjj.depaganalyzer.dto.sim.SimulationRequest.Retention.Mode;
+import com.zzjj.depaganalyzer.dto.sim.SimulationStatus;
+import com.zzjj.depaganalyzer.service.MetricsService;
+import com.zzjj.depaganalyzer.service.SimulationsService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 시작 워밍업: 설정한 수만큼 시뮬을 끝까지 기다렸다가 지우고, 심볼마다 지표를 한 번 조회. 꺼져 있으면 아무것도 안 함.
+ */
+class StartupWarmupTest {
+
+    private final FakeSimulations sims = new FakeSimulations();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final List<String> queried = new ArrayList<>();
+    private final MetricsService metrics = new MetricsService() {
+        @Override
+        public AssetMetricsResponse getMetrics(String symbol, Instant from, Instant to, String interval,
+                                               String window, String step) {
+            queried.add(symbol);
+            return null;
+        }
+
+        @Override
+        public AssetMetricsResponse.Metrics scanMetrics(String symbol, Instant from, Instant to, String interval,
+                                                        SampleSink sink) {
+            return null;
+        }
+    };
+
+    @Test
+    void runsSimulationsToCompletionThenQueriesMetrics() {
+        var props = new WarmupProperties(true, 4, 1_000, List.of("USDT", "DAI"), Duration.ofSeconds(10), false);
+        new StartupWarmup(sims, metrics, objectMapper, validator, props, null).run(null);
+
+        assertEquals(4, sims.requests.size());
+        assertEquals(List.of(Mode.METRICS_ONLY, Mode.FULL, Mode.DOWNSAMPLED, Mode.METRICS_ONLY),
+                sims.requests.stream().map(r -> r.retention().mode()).toList());
+        assertTrue(sims.requests.stream().allMatch(r -> r.steps() == 1_000 && r.dt() < 1));
+        assertEquals(4, sims.deleted.size());           // 결과는 남기지 않음
+        assertTrue(sims.polls.values().stream().allMatch(n -> n >= 2)); // 실행 중 상태를 지나 완료까지 기다림
+        assertEquals(List.of("USDT", "DAI"), queried);
+    }
+
+    @Test
+    void disabledDoesNothing() {
+        new StartupWarmup(sims, metrics, objectMapper, validator, new WarmupProperties(null, null, null, null, null, null), null).run(null);
+        assertEquals(0, sims.requests.size());
+        assertEquals(0, queried.size());
+    }
+
+    // 처음 조회엔 RUNNING, 그다음부터 완료(상태가 아닌 결과 객체)를 돌려주는 가짜
+    private static final class FakeSimulations implements SimulationsService {
+        final List<SimulationRequest> requests = new ArrayList<>();
+        final List<String> deleted = new ArrayList<>();
+        final Map<String, Integer> polls = new ConcurrentHashMap<>();
+
+        @Override
+        public SimulationCreateResponse createSimulation(SimulationRequest request, String clientId) {
+            assertEquals(StartupWarmup.CLIENT, clientId);
+            requests.add(request);
+            String id = "sim_" + requests.size();
+            return new SimulationCreateResponse(id, SimulationCreateResponse.Status.QUEUED, Instant.now());
+        }
+
+        @Override
+        public Object getSimulation(String id) {
+            int n = polls.merge(id, 1, Integer::sum);
+            return n == 1 ? new SimulationStatus(id, SimulationStatus.Status.RUNNING, 0.5, Instant.now(), null) : "done";
+        }
+
+        @Override
+        public void deleteSimulation(String id) {
+            deleted.add(id);
+        }
+
+        @Override
+        public SimulationCreateResponse createSensitivity(SensitivityRequest request, String clientId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SimulationCreateResponse createEnsemble(EnsembleRequest request, String clientId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SimulationCreateResponse createBatch(BatchRequest request, String clientId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SimulationComparison compareSimulations(CompareRequest request) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}